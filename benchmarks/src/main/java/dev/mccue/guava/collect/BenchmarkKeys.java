@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Key types and key arrays shared by the immutable collection benchmarks. Everything is derived
+ * from fixed seeds so that runs against different versions of the library see identical inputs.
+ */
+final class BenchmarkKeys {
+  private BenchmarkKeys() {}
+
+  enum KeyType {
+    /** {@code Integer} keys; {@code hashCode} is the value itself. */
+    CHEAP {
+      @Override
+      Object create(int id) {
+        return id;
+      }
+    },
+    /**
+     * Keys whose {@code hashCode} and {@code equals} walk a 16-element array on every call, and
+     * which do not cache the hash, standing in for composite value objects.
+     */
+    EXPENSIVE {
+      @Override
+      Object create(int id) {
+        return new ExpensiveKey(id);
+      }
+    };
+
+    abstract Object create(int id);
+  }
+
+  /** Orders the keys of either {@link KeyType}, which are all mutually comparable per type. */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static final Comparator<Object> NATURAL = (a, b) -> ((Comparable) a).compareTo(b);
+
+  /** Number of keys in each lookup query array; a power of two so it can be cycled with a mask. */
+  static final int QUERY_COUNT = 1 << 10;
+
+  /** Returns the keys {@code 0..size-1} of the given type, in a shuffled but deterministic order. */
+  static Object[] createKeys(KeyType type, int size, long seed) {
+    int[] ids = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i;
+    }
+    shuffle(ids, new Random(seed));
+    Object[] keys = new Object[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = type.create(ids[i]);
+    }
+    return keys;
+  }
+
+  /**
+   * Returns {@link #QUERY_COUNT} freshly created keys, so that lookups must call {@code equals}
+   * rather than succeed on identity. If {@code hit} is true they are equal to keys returned by
+   * {@link #createKeys} for the same {@code size}; otherwise none of them are.
+   */
+  static Object[] createQueries(KeyType type, int size, boolean hit, long seed) {
+    Random random = new Random(seed);
+    Object[] queries = new Object[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      int id = random.nextInt(size);
+      queries[i] = type.create(hit ? id : size + id);
+    }
+    return queries;
+  }
+
+  private static void shuffle(int[] array, Random random) {
+    for (int i = array.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int tmp = array[i];
+      array[i] = array[j];
+      array[j] = tmp;
+    }
+  }
+
+  static final class ExpensiveKey implements Comparable<ExpensiveKey> {
+    private static final int WIDTH = 16;
+
+    private final int id;
+    private final int[] components;
+
+    ExpensiveKey(int id) {
+      this.id = id;
+      this.components = new int[WIDTH];
+      for (int i = 0; i < WIDTH; i++) {
+        components[i] = id * (i + 1);
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(components);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof ExpensiveKey
+          && Arrays.equals(components, ((ExpensiveKey) obj).components);
+    }
+
+    @Override
+    public int compareTo(ExpensiveKey that) {
+      return Integer.compare(id, that.id);
+    }
+
+    @Override
+    public String toString() {
+      return "ExpensiveKey(" + id + ")";
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.collect.BenchmarkKeys.QUERY_COUNT;
+
+import dev.mccue.guava.collect.BenchmarkKeys.KeyType;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks construction of and lookups in {@link RegularImmutableMap}, {@link
+ * CompactImmutableMap} and {@link JdkBackedImmutableMap}. {@code REGULAR} measures whichever of the
+ * first two {@code ImmutableMap.copyOf} picks for the size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Thread)
+public class ImmutableMapBenchmark {
+  enum Impl {
+    REGULAR {
+      @Override
+      ImmutableMap<Object, Object> copyOf(Map<Object, Object> map) {
+        return ImmutableMap.copyOf(map);
+      }
+
+      @Override
+      ImmutableMap<Object, Object> build(ImmutableMap.Builder<Object, Object> builder) {
+        return builder.buildOrThrow();
+      }
+    },
+    JDK_BACKED {
+      @Override
+      ImmutableMap<Object, Object> copyOf(Map<Object, Object> map) {
+        return ImmutableMap.builderWithExpectedSize(map.size()).putAll(map).buildJdkBacked();
+      }
+
+      @Override
+      ImmutableMap<Object, Object> build(ImmutableMap.Builder<Object, Object> builder) {
+        return builder.buildJdkBacked();
+      }
+    };
+
+    abstract ImmutableMap<Object, Object> copyOf(Map<Object, Object> map);
+
+    abstract ImmutableMap<Object, Object> build(ImmutableMap.Builder<Object, Object> builder);
+  }
+
+  @Param({"1", "10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+  int size;
+
+  @Param KeyType keyType;
+
+  @Param Impl impl;
+
+  private Object[] keys;
+  private Map<Object, Object> source;
+  private ImmutableMap<Object, Object> map;
+  private Object[] hits;
+  private Object[] misses;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    keys = BenchmarkKeys.createKeys(keyType, size, 1);
+    source = new LinkedHashMap<>();
+    for (Object key : keys) {
+      source.put(key, key);
+    }
+    map = impl.copyOf(source);
+    hits = BenchmarkKeys.createQueries(keyType, size, /* hit= */ true, 2);
+    misses = BenchmarkKeys.createQueries(keyType, size, /* hit= */ false, 3);
+  }
+
+  @Benchmark
+  public ImmutableMap<Object, Object> copyOf() {
+    return impl.copyOf(source);
+  }
+
+  @Benchmark
+  public ImmutableMap<Object, Object> builderBuildOrThrow() {
+    ImmutableMap.Builder<Object, Object> builder = ImmutableMap.builder();
+    for (Object key : keys) {
+      builder.put(key, key);
+    }
+    return impl.build(builder);
+  }
+
+  @Benchmark
+  public Object getHit() {
+    return map.get(hits[index++ & (QUERY_COUNT - 1)]);
+  }
+
+  @Benchmark
+  public Object getMiss() {
+    return map.get(misses[index++ & (QUERY_COUNT - 1)]);
+  }
+}
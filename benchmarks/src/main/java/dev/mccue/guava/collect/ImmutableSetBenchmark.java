@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.collect.BenchmarkKeys.QUERY_COUNT;
+
+import dev.mccue.guava.collect.BenchmarkKeys.KeyType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks construction of and lookups in {@link RegularImmutableSet}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+@State(Scope.Thread)
+public class ImmutableSetBenchmark {
+  @Param({"1", "10", "100", "1000", "10000", "100000", "1000000", "10000000"})
+  int size;
+
+  @Param KeyType keyType;
+
+  private Object[] elements;
+  private List<Object> source;
+  private ImmutableSet<Object> set;
+  private Object[] hits;
+  private Object[] misses;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    elements = BenchmarkKeys.createKeys(keyType, size, 1);
+    source = Arrays.asList(elements);
+    set = ImmutableSet.copyOf(source);
+    hits = BenchmarkKeys.createQueries(keyType, size, /* hit= */ true, 2);
+    misses = BenchmarkKeys.createQueries(keyType, size, /* hit= */ false, 3);
+  }
+
+  @Benchmark
+  public ImmutableSet<Object> copyOf() {
+    return ImmutableSet.copyOf(source);
+  }
+
+  @Benchmark
+  public ImmutableSet<Object> builderBuild() {
+    ImmutableSet.Builder<Object> builder = ImmutableSet.builder();
+    for (Object element : elements) {
+      builder.add(element);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public boolean containsHit() {
+    return set.contains(hits[index++ & (QUERY_COUNT - 1)]);
+  }
+
+  @Benchmark
+  public boolean containsMiss() {
+    return set.contains(misses[index++ & (QUERY_COUNT - 1)]);
+  }
+}
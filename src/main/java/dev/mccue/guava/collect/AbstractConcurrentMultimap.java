@@ -0,0 +1,471 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+import static java.util.Objects.requireNonNull;
+
+import dev.mccue.guava.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * Basic implementation of a {@code Multimap} that supports concurrent access, backed by a {@code
+ * ConcurrentHashMap} from each key to the collection of its values.
+ *
+ * <p>Every change to the values of a key is made by a {@code ConcurrentHashMap.compute} call (or a
+ * relative of it) on that key, so it is atomic with respect to other changes to the same key and
+ * only contends with writers whose keys share its hash bin. A key is removed in the same step that
+ * removes its last value, so readers never observe a key without values. Reads take no locks, and
+ * all views and iterators are weakly consistent, like those of {@code ConcurrentHashMap}.
+ *
+ * <p>Subclasses decide how a value collection is represented and changed by implementing the
+ * {@code add}, {@code addAll} and {@code remove} hooks, which are only called while the lock for
+ * the key is held. A value collection must be safe to read from other threads while it is being
+ * changed, or must never be changed once it is in the map.
+ *
+ * <p>Keys and values may not be null.
+ */
+@ElementTypesAreNonnullByDefault
+abstract class AbstractConcurrentMultimap<K, V, C extends Collection<V>>
+    extends AbstractMultimap<K, V> {
+  final transient ConcurrentHashMap<K, C> map;
+  private final transient LongAdder totalSize = new LongAdder();
+
+  AbstractConcurrentMultimap(ConcurrentHashMap<K, C> map) {
+    this.map = map;
+  }
+
+  /**
+   * Returns the values for a key after adding {@code value} to {@code values}, which is null if the
+   * key is absent, and stores the number of values added in {@code result[0]}.
+   */
+  abstract C add(@CheckForNull C values, V value, int[] result);
+
+  /**
+   * Returns the values for a key after adding {@code newValues} to {@code values}, which is null if
+   * the key is absent, and stores the number of values added in {@code result[0]}.
+   */
+  abstract C addAll(@CheckForNull C values, Collection<? extends V> newValues, int[] result);
+
+  /**
+   * Returns the values for a key after removing one occurrence of {@code value} from {@code
+   * values}, or null if no values are left, and stores the number of values removed in {@code
+   * result[0]}.
+   */
+  @CheckForNull
+  abstract C remove(C values, Object value, int[] result);
+
+  /**
+   * Returns the values for a key after removing {@code value}, which an iterator returned from an
+   * earlier collection of values for the key and expects at {@code index} of {@code values}, or
+   * null if no values are left, and stores the number of values removed in {@code result[0]}.
+   *
+   * <p>This implementation removes an equal value, which is only correct for collections without
+   * duplicates.
+   */
+  @CheckForNull
+  C removeIterated(C values, int index, V value, int[] result) {
+    return remove(values, value, result);
+  }
+
+  /** Records that {@code delta} values were added, or removed if it is negative. */
+  final void adjustSize(int delta) {
+    totalSize.add(delta);
+  }
+
+  @CheckForNull
+  final C valuesFor(@CheckForNull Object key) {
+    return (key == null) ? null : map.get(key);
+  }
+
+  /** Atomically removes all values for {@code key}, returning them or null if there were none. */
+  @CheckForNull
+  final C removeValues(@CheckForNull Object key) {
+    C values = (key == null) ? null : map.remove(key);
+    if (values != null) {
+      // No other thread changes a value collection once it is no longer in the map.
+      totalSize.add(-values.size());
+    }
+    return values;
+  }
+
+  /**
+   * Atomically replaces the values for {@code key}, returning the old values or null if there were
+   * none.
+   */
+  @CheckForNull
+  final C replaceValuesFor(K key, Iterable<? extends V> values) {
+    checkNotNull(key);
+    ImmutableList<V> newValues = ImmutableList.copyOf(values);
+    if (newValues.isEmpty()) {
+      return removeValues(key);
+    }
+    int[] result = new int[1]; // used as a mutable int reference to hold result
+    C oldValues = map.put(key, addAll(null, newValues, result));
+    totalSize.add(result[0] - ((oldValues == null) ? 0 : oldValues.size()));
+    return oldValues;
+  }
+
+  /**
+   * Returns an iterator over the current values for {@code key}, whose {@code remove} method
+   * removes the last value returned from this multimap.
+   */
+  final Iterator<V> valueIterator(K key) {
+    C values = map.get(key);
+    if (values == null) {
+      return Iterators.emptyIterator();
+    }
+    Iterator<V> delegate = values.iterator();
+    return new Iterator<V>() {
+      @CheckForNull V lastValue;
+      int lastIndex = -1;
+      int removed;
+
+      @Override
+      public boolean hasNext() {
+        return delegate.hasNext();
+      }
+
+      @Override
+      public V next() {
+        V value = delegate.next();
+        lastValue = value;
+        lastIndex++;
+        return value;
+      }
+
+      @Override
+      public void remove() {
+        V value = lastValue;
+        checkRemove(value != null);
+        if (removeIterated(key, lastIndex - removed, value)) {
+          removed++;
+        }
+        lastValue = null;
+      }
+    };
+  }
+
+  /**
+   * Removes {@code value}, which an iterator returned for {@code key} and expects at {@code index}
+   * of its current values, and returns whether it was removed.
+   */
+  private boolean removeIterated(K key, int index, V value) {
+    int[] result = new int[1]; // used as a mutable int reference to hold result
+    map.computeIfPresent(key, (k, values) -> removeIterated(values, index, value, result));
+    totalSize.add(-result[0]);
+    return result[0] != 0;
+  }
+
+  // Query Operations
+
+  @Override
+  public int size() {
+    long size = totalSize.sum();
+    // Like ConcurrentHashMap, hide the transiently negative sums of concurrent updates.
+    return (size < 0) ? 0 : Ints.saturatedCast(size);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return map.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return valuesFor(key) != null;
+  }
+
+  @Override
+  public boolean containsValue(@CheckForNull Object value) {
+    if (value != null) {
+      for (C values : map.values()) {
+        if (values.contains(value)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean containsEntry(@CheckForNull Object key, @CheckForNull Object value) {
+    C values = valuesFor(key);
+    return values != null && value != null && values.contains(value);
+  }
+
+  // Modification Operations
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic.
+   *
+   * @throws NullPointerException if {@code key} or {@code value} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean put(K key, V value) {
+    checkNotNull(key);
+    checkNotNull(value);
+    int[] result = new int[1]; // used as a mutable int reference to hold result
+    map.compute(key, (k, values) -> add(values, value, result));
+    totalSize.add(result[0]);
+    return result[0] != 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic with respect to other changes to the values for {@code key}.
+   *
+   * @throws NullPointerException if {@code key} or any of {@code values} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(K key, Iterable<? extends V> values) {
+    checkNotNull(key);
+    ImmutableList<V> newValues = ImmutableList.copyOf(values);
+    if (newValues.isEmpty()) {
+      return false;
+    }
+    int[] result = new int[1]; // used as a mutable int reference to hold result
+    map.compute(key, (k, oldValues) -> addAll(oldValues, newValues, result));
+    totalSize.add(result[0]);
+    return result[0] != 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The values for each key are added atomically, but other threads may see the values for some
+   * keys added before others.
+   *
+   * @throws NullPointerException if any key or value in {@code multimap} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(Multimap<? extends K, ? extends V> multimap) {
+    boolean changed = false;
+    for (Entry<? extends K, ? extends Collection<? extends V>> entry :
+        multimap.asMap().entrySet()) {
+      changed |= putAll(entry.getKey(), entry.getValue());
+    }
+    return changed;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean remove(@CheckForNull Object key, @CheckForNull Object value) {
+    if (key == null || value == null) {
+      return false;
+    }
+    int[] result = new int[1]; // used as a mutable int reference to hold result
+    @SuppressWarnings("unchecked") // the map never stores a key unless it is a K
+    K k = (K) key;
+    map.computeIfPresent(k, (unused, values) -> remove(values, value, result));
+    totalSize.add(-result[0]);
+    return result[0] != 0;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is not atomic: a key that is concurrently added may survive it.
+   */
+  @Override
+  public void clear() {
+    for (K key : map.keySet()) {
+      removeValues(key);
+    }
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    map.forEach((key, values) -> values.forEach(value -> action.accept(key, value)));
+  }
+
+  // Views
+
+  @Override
+  Set<K> createKeySet() {
+    return new KeySet();
+  }
+
+  @Override
+  Multiset<K> createKeys() {
+    return new Multimaps.Keys<>(this);
+  }
+
+  @Override
+  Collection<V> createValues() {
+    return new Values();
+  }
+
+  @Override
+  Collection<Entry<K, V>> createEntries() {
+    return (this instanceof SetMultimap) ? new EntrySet() : new Entries();
+  }
+
+  @Override
+  Map<K, Collection<V>> createAsMap() {
+    return new Multimaps.AsMap<>(this);
+  }
+
+  @Override
+  Iterator<Entry<K, V>> entryIterator() {
+    return new Itr<Entry<K, V>>() {
+      @Override
+      Entry<K, V> output(K key, V value) {
+        return Maps.immutableEntry(key, value);
+      }
+    };
+  }
+
+  @Override
+  Iterator<V> valueIterator() {
+    return new Itr<V>() {
+      @Override
+      V output(K key, V value) {
+        return value;
+      }
+    };
+  }
+
+  private final class KeySet extends Sets.ImprovedAbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      Iterator<K> delegate = map.keySet().iterator();
+      return new Iterator<K>() {
+        @CheckForNull K lastKey;
+
+        @Override
+        public boolean hasNext() {
+          return delegate.hasNext();
+        }
+
+        @Override
+        public K next() {
+          K key = delegate.next();
+          lastKey = key;
+          return key;
+        }
+
+        @Override
+        public void remove() {
+          checkRemove(lastKey != null);
+          removeValues(lastKey);
+          lastKey = null;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object key) {
+      return removeValues(key) != null;
+    }
+
+    @Override
+    public void clear() {
+      AbstractConcurrentMultimap.this.clear();
+    }
+  }
+
+  /** Iterates over all key-value pairs, a key at a time, with removal through the multimap. */
+  private abstract class Itr<T> implements Iterator<T> {
+    final Iterator<Entry<K, C>> keyIterator = map.entrySet().iterator();
+    @CheckForNull K key;
+    Iterator<V> valueIterator = Iterators.emptyIterator();
+    @CheckForNull K lastKey;
+    @CheckForNull V lastValue;
+    // the index of the next value of key in its snapshot, and how many of its values were removed
+    int index;
+    int removed;
+    // where lastValue is expected among the current values of lastKey
+    int lastPosition;
+
+    abstract T output(K key, V value);
+
+    @Override
+    public boolean hasNext() {
+      while (!valueIterator.hasNext()) {
+        if (!keyIterator.hasNext()) {
+          return false;
+        }
+        Entry<K, C> entry = keyIterator.next();
+        key = entry.getKey();
+        valueIterator = entry.getValue().iterator();
+        index = 0;
+        removed = 0;
+      }
+      return true;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      // requireNonNull is safe because hasNext() found a key with values.
+      K currentKey = requireNonNull(key);
+      V value = valueIterator.next();
+      lastKey = currentKey;
+      lastValue = value;
+      lastPosition = index++ - removed;
+      return output(currentKey, value);
+    }
+
+    @Override
+    public void remove() {
+      checkRemove(lastValue != null);
+      // requireNonNull is safe because lastValue is only set together with lastKey.
+      K currentKey = requireNonNull(lastKey);
+      // If hasNext() has already moved on to another key, the count is now that key's to keep.
+      if (removeIterated(currentKey, lastPosition, lastValue) && currentKey == key) {
+        removed++;
+      }
+      lastValue = null;
+    }
+  }
+}
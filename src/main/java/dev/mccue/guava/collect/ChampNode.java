@@ -0,0 +1,568 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * A node of the compressed hash-array mapped prefix trie (CHAMP) behind {@code PersistentMap} and
+ * {@code PersistentSet}.
+ *
+ * <p>Each bitmap node consumes five bits of the smeared hash of its keys. A key whose bits are set
+ * in {@code dataMap} is stored inline, and one whose bits are set in {@code nodeMap} lives in a
+ * child node. Inline entries come first in {@code content}, in bit order, and the children follow
+ * in reverse bit order. Removal keeps the trie canonical: a child left with a single entry is
+ * inlined into its parent. Keys whose smeared hashes agree in all 32 bits share a collision node
+ * below the last bitmap level.
+ *
+ * <p>An entry takes {@code stride} slots: a map stores each key followed by its value, and a set
+ * stores just its elements. Lookups return the slot at {@code stride - 1} past the key, which is
+ * the value for a map and the element itself for a set.
+ *
+ * <p>Nodes are never changed once they are reachable from a published collection. A builder
+ * passes an owner token with its edits, and a node created under that token may be updated in
+ * place by later edits under the same token, so a batch of edits copies each node at most once.
+ */
+@ElementTypesAreNonnullByDefault
+abstract class ChampNode {
+  private static final int BIT_PARTITION_SIZE = 5;
+  private static final int BIT_PARTITION_MASK = (1 << BIT_PARTITION_SIZE) - 1;
+  private static final int HASH_CODE_LENGTH = 32;
+
+  /** Seven bitmap levels consume all 32 hash bits; a collision node may sit below them. */
+  private static final int MAX_DEPTH = 8;
+
+  static final ChampNode EMPTY_MAP = new BitmapNode(2, null, 0, 0, new Object[0]);
+  static final ChampNode EMPTY_SET = new BitmapNode(1, null, 0, 0, new Object[0]);
+
+  /** Records the effect of a single {@code put} or {@code remove}. */
+  static final class Change {
+    boolean modified;
+    boolean replaced;
+    @CheckForNull Object oldValue;
+
+    void added() {
+      modified = true;
+    }
+
+    void replaced(Object oldValue) {
+      this.modified = true;
+      this.replaced = true;
+      this.oldValue = oldValue;
+    }
+
+    void removed(Object oldValue) {
+      this.modified = true;
+      this.oldValue = oldValue;
+    }
+  }
+
+  final int stride;
+  @CheckForNull final Object owner;
+
+  ChampNode(int stride, @CheckForNull Object owner) {
+    this.stride = stride;
+    this.owner = owner;
+  }
+
+  /**
+   * Returns the value mapped to {@code key} (or the stored element, for a set), or {@code null} if
+   * the key is absent.
+   */
+  @CheckForNull
+  abstract Object get(Object key, int hash, int shift);
+
+  /**
+   * Returns a node with {@code key} mapped to {@code value}, or this node if nothing changed.
+   * {@code value} is ignored by sets.
+   */
+  abstract ChampNode put(
+      @CheckForNull Object owner,
+      Object key,
+      @CheckForNull Object value,
+      int hash,
+      int shift,
+      Change change);
+
+  /** Returns a node without {@code key}, or this node if it was absent. */
+  abstract ChampNode remove(
+      @CheckForNull Object owner, Object key, int hash, int shift, Change change);
+
+  abstract int payloadArity();
+
+  abstract int nodeArity();
+
+  abstract Object keyAt(int index);
+
+  abstract Object valueAt(int index);
+
+  abstract ChampNode nodeAt(int index);
+
+  final boolean isSingleton() {
+    return payloadArity() == 1 && nodeArity() == 0;
+  }
+
+  final boolean isEditableBy(@CheckForNull Object owner) {
+    return owner != null && this.owner == owner;
+  }
+
+  /** Passes each key and value (or each element twice, for a set) to {@code action}. */
+  final void forEachEntry(BiConsumer<Object, Object> action) {
+    for (int i = 0; i < payloadArity(); i++) {
+      action.accept(keyAt(i), valueAt(i));
+    }
+    for (int i = 0; i < nodeArity(); i++) {
+      nodeAt(i).forEachEntry(action);
+    }
+  }
+
+  private static int mask(int hash, int shift) {
+    return (hash >>> shift) & BIT_PARTITION_MASK;
+  }
+
+  private static int bitpos(int hash, int shift) {
+    return 1 << mask(hash, shift);
+  }
+
+  private static int index(int bitmap, int bit) {
+    return Integer.bitCount(bitmap & (bit - 1));
+  }
+
+  private static Object[] entries(
+      int stride, Object key0, Object value0, Object key1, Object value1) {
+    return (stride == 1)
+        ? new Object[] {key0, key1}
+        : new Object[] {key0, value0, key1, value1};
+  }
+
+  /** Returns the smallest subtrie holding two entries with distinct keys. */
+  private static ChampNode mergeTwoEntries(
+      int stride,
+      @CheckForNull Object owner,
+      Object key0,
+      Object value0,
+      int hash0,
+      Object key1,
+      Object value1,
+      int hash1,
+      int shift) {
+    if (shift >= HASH_CODE_LENGTH) {
+      return new CollisionNode(stride, owner, hash0, entries(stride, key0, value0, key1, value1));
+    }
+    int mask0 = mask(hash0, shift);
+    int mask1 = mask(hash1, shift);
+    if (mask0 != mask1) {
+      Object[] content =
+          (mask0 < mask1)
+              ? entries(stride, key0, value0, key1, value1)
+              : entries(stride, key1, value1, key0, value0);
+      return new BitmapNode(stride, owner, (1 << mask0) | (1 << mask1), 0, content);
+    }
+    ChampNode node =
+        mergeTwoEntries(
+            stride, owner, key0, value0, hash0, key1, value1, hash1, shift + BIT_PARTITION_SIZE);
+    return new BitmapNode(stride, owner, 0, 1 << mask0, new Object[] {node});
+  }
+
+  /**
+   * Returns a node holding just the entry at {@code keyIndex} of {@code content}. The parent
+   * inlines it, or it becomes the root, which is why its position is that of the first level.
+   */
+  private static ChampNode singleton(
+      int stride, @CheckForNull Object owner, int hash, Object[] content, int keyIndex) {
+    Object[] newContent = new Object[stride];
+    System.arraycopy(content, keyIndex, newContent, 0, stride);
+    return new BitmapNode(stride, owner, bitpos(hash, 0), 0, newContent);
+  }
+
+  private static final class BitmapNode extends ChampNode {
+    private int dataMap;
+    private int nodeMap;
+    private Object[] content;
+
+    BitmapNode(
+        int stride, @CheckForNull Object owner, int dataMap, int nodeMap, Object[] content) {
+      super(stride, owner);
+      this.dataMap = dataMap;
+      this.nodeMap = nodeMap;
+      this.content = content;
+    }
+
+    @Override
+    @CheckForNull
+    Object get(Object key, int hash, int shift) {
+      int bit = bitpos(hash, shift);
+      if ((dataMap & bit) != 0) {
+        int keyIndex = stride * index(dataMap, bit);
+        return key.equals(content[keyIndex]) ? content[keyIndex + stride - 1] : null;
+      } else if ((nodeMap & bit) != 0) {
+        return nodeAt(index(nodeMap, bit)).get(key, hash, shift + BIT_PARTITION_SIZE);
+      }
+      return null;
+    }
+
+    @Override
+    ChampNode put(
+        @CheckForNull Object owner,
+        Object key,
+        @CheckForNull Object value,
+        int hash,
+        int shift,
+        Change change) {
+      int bit = bitpos(hash, shift);
+      if ((dataMap & bit) != 0) {
+        int keyIndex = stride * index(dataMap, bit);
+        Object currentKey = content[keyIndex];
+        if (currentKey.equals(key)) {
+          if (stride == 1 || content[keyIndex + 1] == value) {
+            return this;
+          }
+          change.replaced(content[keyIndex + 1]);
+          BitmapNode node = editableBy(owner);
+          node.content[keyIndex + 1] = value;
+          return node;
+        }
+        ChampNode subNode =
+            mergeTwoEntries(
+                stride,
+                owner,
+                currentKey,
+                content[keyIndex + stride - 1],
+                Hashing.smearedHash(currentKey),
+                key,
+                value,
+                hash,
+                shift + BIT_PARTITION_SIZE);
+        change.added();
+        return migrateFromInlineToNode(owner, bit, subNode);
+      } else if ((nodeMap & bit) != 0) {
+        int nodeIndex = index(nodeMap, bit);
+        ChampNode subNode = nodeAt(nodeIndex);
+        ChampNode newSubNode =
+            subNode.put(owner, key, value, hash, shift + BIT_PARTITION_SIZE, change);
+        return (newSubNode == subNode) ? this : setNode(owner, nodeIndex, newSubNode);
+      }
+      change.added();
+      return insertValue(owner, bit, key, value);
+    }
+
+    @Override
+    ChampNode remove(
+        @CheckForNull Object owner, Object key, int hash, int shift, Change change) {
+      int bit = bitpos(hash, shift);
+      if ((dataMap & bit) != 0) {
+        int dataIndex = index(dataMap, bit);
+        int keyIndex = stride * dataIndex;
+        if (!key.equals(content[keyIndex])) {
+          return this;
+        }
+        change.removed(content[keyIndex + stride - 1]);
+        if (shift != 0 && payloadArity() == 2 && nodeArity() == 0) {
+          return singleton(stride, owner, hash, content, stride * (1 - dataIndex));
+        }
+        return removeValue(owner, bit);
+      } else if ((nodeMap & bit) != 0) {
+        int nodeIndex = index(nodeMap, bit);
+        ChampNode subNode = nodeAt(nodeIndex);
+        ChampNode newSubNode = subNode.remove(owner, key, hash, shift + BIT_PARTITION_SIZE, change);
+        if (!change.modified) {
+          return this;
+        }
+        if (newSubNode.isSingleton()) {
+          // A lone child left with a single entry is passed up until some ancestor inlines it.
+          return (payloadArity() == 0 && nodeArity() == 1)
+              ? newSubNode
+              : migrateFromNodeToInline(owner, bit, newSubNode);
+        }
+        return (newSubNode == subNode) ? this : setNode(owner, nodeIndex, newSubNode);
+      }
+      return this;
+    }
+
+    @Override
+    int payloadArity() {
+      return Integer.bitCount(dataMap);
+    }
+
+    @Override
+    int nodeArity() {
+      return Integer.bitCount(nodeMap);
+    }
+
+    @Override
+    Object keyAt(int index) {
+      return content[stride * index];
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return content[stride * index + stride - 1];
+    }
+
+    @Override
+    ChampNode nodeAt(int index) {
+      return (ChampNode) content[content.length - 1 - index];
+    }
+
+    private BitmapNode editableBy(@CheckForNull Object owner) {
+      return isEditableBy(owner)
+          ? this
+          : new BitmapNode(stride, owner, dataMap, nodeMap, content.clone());
+    }
+
+    private BitmapNode withContent(
+        @CheckForNull Object owner, int dataMap, int nodeMap, Object[] content) {
+      if (isEditableBy(owner)) {
+        this.dataMap = dataMap;
+        this.nodeMap = nodeMap;
+        this.content = content;
+        return this;
+      }
+      return new BitmapNode(stride, owner, dataMap, nodeMap, content);
+    }
+
+    private BitmapNode setNode(@CheckForNull Object owner, int nodeIndex, ChampNode node) {
+      BitmapNode editable = editableBy(owner);
+      editable.content[content.length - 1 - nodeIndex] = node;
+      return editable;
+    }
+
+    private BitmapNode insertValue(
+        @CheckForNull Object owner, int bit, Object key, @CheckForNull Object value) {
+      int keyIndex = stride * index(dataMap, bit);
+      Object[] dst = new Object[content.length + stride];
+      System.arraycopy(content, 0, dst, 0, keyIndex);
+      dst[keyIndex] = key;
+      if (stride == 2) {
+        dst[keyIndex + 1] = value;
+      }
+      System.arraycopy(content, keyIndex, dst, keyIndex + stride, content.length - keyIndex);
+      return withContent(owner, dataMap | bit, nodeMap, dst);
+    }
+
+    private BitmapNode removeValue(@CheckForNull Object owner, int bit) {
+      int keyIndex = stride * index(dataMap, bit);
+      Object[] dst = new Object[content.length - stride];
+      System.arraycopy(content, 0, dst, 0, keyIndex);
+      System.arraycopy(
+          content, keyIndex + stride, dst, keyIndex, content.length - keyIndex - stride);
+      return withContent(owner, dataMap ^ bit, nodeMap, dst);
+    }
+
+    private BitmapNode migrateFromInlineToNode(
+        @CheckForNull Object owner, int bit, ChampNode node) {
+      int oldIndex = stride * index(dataMap, bit);
+      int newIndex = content.length - stride - index(nodeMap, bit);
+      Object[] dst = new Object[content.length - stride + 1];
+      System.arraycopy(content, 0, dst, 0, oldIndex);
+      System.arraycopy(content, oldIndex + stride, dst, oldIndex, newIndex - oldIndex);
+      dst[newIndex] = node;
+      System.arraycopy(
+          content, newIndex + stride, dst, newIndex + 1, content.length - newIndex - stride);
+      return withContent(owner, dataMap ^ bit, nodeMap | bit, dst);
+    }
+
+    private BitmapNode migrateFromNodeToInline(
+        @CheckForNull Object owner, int bit, ChampNode node) {
+      int oldIndex = content.length - 1 - index(nodeMap, bit);
+      int newIndex = stride * index(dataMap, bit);
+      Object[] dst = new Object[content.length - 1 + stride];
+      System.arraycopy(content, 0, dst, 0, newIndex);
+      dst[newIndex] = node.keyAt(0);
+      if (stride == 2) {
+        dst[newIndex + 1] = node.valueAt(0);
+      }
+      System.arraycopy(content, newIndex, dst, newIndex + stride, oldIndex - newIndex);
+      System.arraycopy(
+          content, oldIndex + 1, dst, oldIndex + stride, content.length - oldIndex - 1);
+      return withContent(owner, dataMap | bit, nodeMap ^ bit, dst);
+    }
+  }
+
+  /** Entries whose keys have equal smeared hashes, stored unordered. */
+  private static final class CollisionNode extends ChampNode {
+    private final int hash;
+    private Object[] content;
+
+    CollisionNode(int stride, @CheckForNull Object owner, int hash, Object[] content) {
+      super(stride, owner);
+      this.hash = hash;
+      this.content = content;
+    }
+
+    private int indexOf(Object key) {
+      for (int i = 0; i < content.length; i += stride) {
+        if (key.equals(content[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    @CheckForNull
+    Object get(Object key, int hash, int shift) {
+      if (hash != this.hash) {
+        return null;
+      }
+      int keyIndex = indexOf(key);
+      return (keyIndex < 0) ? null : content[keyIndex + stride - 1];
+    }
+
+    @Override
+    ChampNode put(
+        @CheckForNull Object owner,
+        Object key,
+        @CheckForNull Object value,
+        int hash,
+        int shift,
+        Change change) {
+      int keyIndex = indexOf(key);
+      if (keyIndex >= 0) {
+        if (stride == 1 || content[keyIndex + 1] == value) {
+          return this;
+        }
+        change.replaced(content[keyIndex + 1]);
+        Object[] dst = content.clone();
+        dst[keyIndex + 1] = value;
+        return withContent(owner, dst);
+      }
+      Object[] dst = new Object[content.length + stride];
+      System.arraycopy(content, 0, dst, 0, content.length);
+      dst[content.length] = key;
+      if (stride == 2) {
+        dst[content.length + 1] = value;
+      }
+      change.added();
+      return withContent(owner, dst);
+    }
+
+    @Override
+    ChampNode remove(
+        @CheckForNull Object owner, Object key, int hash, int shift, Change change) {
+      int keyIndex = indexOf(key);
+      if (keyIndex < 0) {
+        return this;
+      }
+      change.removed(content[keyIndex + stride - 1]);
+      if (content.length == 2 * stride) {
+        return singleton(stride, owner, hash, content, stride - keyIndex);
+      }
+      Object[] dst = new Object[content.length - stride];
+      System.arraycopy(content, 0, dst, 0, keyIndex);
+      System.arraycopy(
+          content, keyIndex + stride, dst, keyIndex, content.length - keyIndex - stride);
+      return withContent(owner, dst);
+    }
+
+    private CollisionNode withContent(@CheckForNull Object owner, Object[] content) {
+      if (isEditableBy(owner)) {
+        this.content = content;
+        return this;
+      }
+      return new CollisionNode(stride, owner, hash, content);
+    }
+
+    @Override
+    int payloadArity() {
+      return content.length / stride;
+    }
+
+    @Override
+    int nodeArity() {
+      return 0;
+    }
+
+    @Override
+    Object keyAt(int index) {
+      return content[stride * index];
+    }
+
+    @Override
+    Object valueAt(int index) {
+      return content[stride * index + stride - 1];
+    }
+
+    @Override
+    ChampNode nodeAt(int index) {
+      throw new IndexOutOfBoundsException();
+    }
+  }
+
+  /**
+   * Iterates over the entries of a trie, each node's inline entries before those of its children.
+   */
+  abstract static class TrieIterator<T> extends UnmodifiableIterator<T> {
+    private final ChampNode[] nodes = new ChampNode[MAX_DEPTH];
+    private final int[] nodeCursors = new int[MAX_DEPTH];
+    private int depth = -1;
+    private ChampNode payloadNode;
+    private int payloadCursor;
+    private int payloadLength;
+
+    TrieIterator(ChampNode root) {
+      payloadNode = root;
+      payloadLength = root.payloadArity();
+      if (root.nodeArity() > 0) {
+        depth = 0;
+        nodes[0] = root;
+      }
+    }
+
+    abstract T output(ChampNode node, int index);
+
+    @Override
+    public final boolean hasNext() {
+      return payloadCursor < payloadLength || findNextPayload();
+    }
+
+    private boolean findNextPayload() {
+      while (depth >= 0) {
+        ChampNode node = nodes[depth];
+        int cursor = nodeCursors[depth];
+        if (cursor < node.nodeArity()) {
+          nodeCursors[depth] = cursor + 1;
+          ChampNode child = node.nodeAt(cursor);
+          if (child.nodeArity() > 0) {
+            depth++;
+            nodes[depth] = child;
+            nodeCursors[depth] = 0;
+          }
+          if (child.payloadArity() > 0) {
+            payloadNode = child;
+            payloadCursor = 0;
+            payloadLength = child.payloadArity();
+            return true;
+          }
+        } else {
+          nodes[depth--] = null;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public final T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return output(payloadNode, payloadCursor++);
+    }
+  }
+}
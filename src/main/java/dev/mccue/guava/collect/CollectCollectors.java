@@ -17,6 +17,7 @@
 package dev.mccue.guava.collect;
 
 import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkEntryNotNull;
 import static java.util.Collections.singletonMap;
 import static java.util.stream.Collectors.collectingAndThen;
 import static java.util.stream.Collectors.toMap;
@@ -27,11 +28,15 @@ import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
 import dev.mccue.jsr305.CheckForNull;
@@ -55,6 +60,18 @@ final class CollectCollectors {
           ImmutableSet.Builder::combine,
           ImmutableSet.Builder::build);
 
+  private static final Collector<Object, ?, ImmutableSet<Object>> TO_IMMUTABLE_SET_UNORDERED =
+      Collector.of(
+          ConcurrentHashMap::newKeySet,
+          (Set<Object> set, Object element) -> set.add(checkNotNull(element)),
+          (set1, set2) -> {
+            set1.addAll(set2);
+            return set1;
+          },
+          ImmutableSet::copyOfParallel,
+          Collector.Characteristics.CONCURRENT,
+          Collector.Characteristics.UNORDERED);
+
   private static final Collector<Range<Comparable<?>>, ?, ImmutableRangeSet<Comparable<?>>>
       TO_IMMUTABLE_RANGE_SET =
           Collector.of(
@@ -63,6 +80,34 @@ final class CollectCollectors {
               ImmutableRangeSet.Builder::combine,
               ImmutableRangeSet.Builder::build);
 
+  private static final Collector<Integer, ?, ImmutableIntList> TO_IMMUTABLE_INT_LIST =
+      Collector.of(
+          ImmutableIntList::builder,
+          ImmutableIntList.Builder::add,
+          ImmutableIntList.Builder::combine,
+          ImmutableIntList.Builder::build);
+
+  private static final Collector<Long, ?, ImmutableLongList> TO_IMMUTABLE_LONG_LIST =
+      Collector.of(
+          ImmutableLongList::builder,
+          ImmutableLongList.Builder::add,
+          ImmutableLongList.Builder::combine,
+          ImmutableLongList.Builder::build);
+
+  private static final Collector<Integer, ?, ImmutableIntSet> TO_IMMUTABLE_INT_SET =
+      Collector.of(
+          ImmutableIntSet::builder,
+          ImmutableIntSet.Builder::add,
+          ImmutableIntSet.Builder::combine,
+          ImmutableIntSet.Builder::build);
+
+  private static final Collector<Long, ?, ImmutableLongSet> TO_IMMUTABLE_LONG_SET =
+      Collector.of(
+          ImmutableLongSet::builder,
+          ImmutableLongSet.Builder::add,
+          ImmutableLongSet.Builder::combine,
+          ImmutableLongSet.Builder::build);
+
   // Lists
 
   @SuppressWarnings({"rawtypes", "unchecked"})
@@ -77,6 +122,11 @@ final class CollectCollectors {
     return (Collector) TO_IMMUTABLE_SET;
   }
 
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  static <E> Collector<E, ?, ImmutableSet<E>> toImmutableSetUnordered() {
+    return (Collector) TO_IMMUTABLE_SET_UNORDERED;
+  }
+
   static <E> Collector<E, ?, ImmutableSortedSet<E>> toImmutableSortedSet(
       Comparator<? super E> comparator) {
     checkNotNull(comparator);
@@ -161,6 +211,25 @@ final class CollectCollectors {
         (Multiset<E> multiset) -> ImmutableMultiset.copyFromEntries(multiset.entrySet()));
   }
 
+  static <T extends @Nullable Object, E>
+      Collector<T, ?, ImmutableMultiset<E>> toImmutableMultisetUnordered(
+          Function<? super T, ? extends E> elementFunction,
+          ToIntFunction<? super T> countFunction) {
+    checkNotNull(elementFunction);
+    checkNotNull(countFunction);
+    return Collector.of(
+        StripedConcurrentHashMultiset<E>::new,
+        (multiset, t) ->
+            multiset.increment(checkNotNull(elementFunction.apply(t)), countFunction.applyAsInt(t)),
+        (multiset1, multiset2) -> {
+          multiset1.addAll(multiset2);
+          return multiset1;
+        },
+        StripedConcurrentHashMultiset::toImmutableMultiset,
+        Collector.Characteristics.CONCURRENT,
+        Collector.Characteristics.UNORDERED);
+  }
+
   static <T extends @Nullable Object, E extends @Nullable Object, M extends Multiset<E>>
       Collector<T, ?, M> toMultiset(
           Function<? super T, E> elementFunction,
@@ -203,6 +272,32 @@ final class CollectCollectors {
         toMap(keyFunction, valueFunction, mergeFunction, LinkedHashMap::new), ImmutableMap::copyOf);
   }
 
+  static <T extends @Nullable Object, K, V>
+      Collector<T, ?, ImmutableMap<K, V>> toImmutableMapUnordered(
+          Function<? super T, ? extends K> keyFunction,
+          Function<? super T, ? extends V> valueFunction) {
+    checkNotNull(keyFunction);
+    checkNotNull(valueFunction);
+    return Collector.of(
+        ConcurrentHashMap<K, V>::new,
+        (map, input) -> putUnique(map, keyFunction.apply(input), valueFunction.apply(input)),
+        (map1, map2) -> {
+          map2.forEach((key, value) -> putUnique(map1, key, value));
+          return map1;
+        },
+        ImmutableMap::copyOfParallel,
+        Collector.Characteristics.CONCURRENT,
+        Collector.Characteristics.UNORDERED);
+  }
+
+  private static <K, V> void putUnique(ConcurrentMap<K, V> map, K key, V value) {
+    checkEntryNotNull(key, value);
+    V previous = map.putIfAbsent(key, value);
+    if (previous != null) {
+      throw ImmutableMap.conflictException("key", key + "=" + previous, key + "=" + value);
+    }
+  }
+
   static <T extends @Nullable Object, K, V>
       Collector<T, ?, ImmutableSortedMap<K, V>> toImmutableSortedMap(
           Comparator<? super K> comparator,
@@ -452,5 +547,83 @@ final class CollectCollectors {
         });
   }
 
+  // Primitive collections
+
+  static Collector<Integer, ?, ImmutableIntList> toImmutableIntList() {
+    return TO_IMMUTABLE_INT_LIST;
+  }
+
+  static Collector<Long, ?, ImmutableLongList> toImmutableLongList() {
+    return TO_IMMUTABLE_LONG_LIST;
+  }
+
+  static Collector<Integer, ?, ImmutableIntSet> toImmutableIntSet() {
+    return TO_IMMUTABLE_INT_SET;
+  }
+
+  static Collector<Long, ?, ImmutableLongSet> toImmutableLongSet() {
+    return TO_IMMUTABLE_LONG_SET;
+  }
+
+  static <T extends @Nullable Object, V>
+      Collector<T, ?, ImmutableIntKeyMap<V>> toImmutableIntKeyMap(
+          ToIntFunction<? super T> keyFunction, Function<? super T, ? extends V> valueFunction) {
+    checkNotNull(keyFunction);
+    checkNotNull(valueFunction);
+    return Collector.of(
+        ImmutableIntKeyMap::<V>builder,
+        (builder, input) ->
+            builder.put(keyFunction.applyAsInt(input), valueFunction.apply(input)),
+        ImmutableIntKeyMap.Builder::combine,
+        ImmutableIntKeyMap.Builder::buildOrThrow);
+  }
+
+  static <T extends @Nullable Object, V>
+      Collector<T, ?, ImmutableIntKeyMap<V>> toImmutableIntKeyMap(
+          ToIntFunction<? super T> keyFunction,
+          Function<? super T, ? extends V> valueFunction,
+          BinaryOperator<V> mergeFunction) {
+    checkNotNull(keyFunction);
+    checkNotNull(valueFunction);
+    checkNotNull(mergeFunction);
+    return collectingAndThen(
+        toMap(
+            keyFunction::applyAsInt,
+            valueFunction,
+            mergeFunction,
+            LinkedHashMap<Integer, V>::new),
+        ImmutableIntKeyMap::copyOf);
+  }
+
+  static <T extends @Nullable Object, V>
+      Collector<T, ?, ImmutableLongKeyMap<V>> toImmutableLongKeyMap(
+          ToLongFunction<? super T> keyFunction, Function<? super T, ? extends V> valueFunction) {
+    checkNotNull(keyFunction);
+    checkNotNull(valueFunction);
+    return Collector.of(
+        ImmutableLongKeyMap::<V>builder,
+        (builder, input) ->
+            builder.put(keyFunction.applyAsLong(input), valueFunction.apply(input)),
+        ImmutableLongKeyMap.Builder::combine,
+        ImmutableLongKeyMap.Builder::buildOrThrow);
+  }
+
+  static <T extends @Nullable Object, V>
+      Collector<T, ?, ImmutableLongKeyMap<V>> toImmutableLongKeyMap(
+          ToLongFunction<? super T> keyFunction,
+          Function<? super T, ? extends V> valueFunction,
+          BinaryOperator<V> mergeFunction) {
+    checkNotNull(keyFunction);
+    checkNotNull(valueFunction);
+    checkNotNull(mergeFunction);
+    return collectingAndThen(
+        toMap(
+            keyFunction::applyAsLong,
+            valueFunction,
+            mergeFunction,
+            LinkedHashMap<Long, V>::new),
+        ImmutableLongKeyMap::copyOf);
+  }
+
   private CollectCollectors() {}
 }
@@ -20,7 +20,9 @@ import static dev.mccue.guava.base.Preconditions.checkArgument;
 import static dev.mccue.guava.base.Preconditions.checkNotNull;
 import static dev.mccue.guava.collect.NullnessCasts.uncheckedCastNullableTToT;
 import static java.lang.Math.max;
+import static java.util.Objects.requireNonNull;
 
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Spliterator;
 import java.util.function.Consumer;
@@ -28,6 +30,7 @@ import java.util.function.DoubleConsumer;
 import java.util.function.Function;
 import java.util.function.IntConsumer;
 import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
 import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import java.util.stream.IntStream;
@@ -293,6 +296,32 @@ final class CollectSpliterators {
         null, fromSpliterator, function, topCharacteristics, topSize);
   }
 
+  /**
+   * Returns a {@code Spliterator} over the concatenation of the {@code size} spliterators that
+   * {@code function} returns for the indices {@code 0} to {@code size - 1}, where the spliterator
+   * for index {@code i} has exactly {@code sizeFunction.applyAsInt(i)} elements and {@code
+   * totalSize} is the sum of those sizes.
+   *
+   * <p>Unlike {@code flatMap}, the result and every spliterator split from it are {@code SIZED}
+   * and {@code SUBSIZED}, and it splits at the index nearest the middle of its remaining
+   * <i>elements</i> rather than of its remaining indices, so its splits stay balanced when the
+   * sizes are skewed. The running sizes this needs are computed by the first {@code trySplit}, so
+   * sequential traversal never computes them. The spliterators returned by {@code function} must
+   * themselves be {@code SIZED} and {@code SUBSIZED}, which in practice means that the source is
+   * immutable.
+   */
+  static <T extends @Nullable Object> Spliterator<T> flatMapIndexed(
+      int size,
+      IntFunction<? extends Spliterator<T>> function,
+      IntUnaryOperator sizeFunction,
+      long totalSize,
+      int extraCharacteristics) {
+    checkNotNull(function);
+    checkNotNull(sizeFunction);
+    return new FlatMapIndexedSpliterator<>(
+        function, sizeFunction, extraCharacteristics, null, null, 0, size, totalSize);
+  }
+
   /**
    * Implements the {@code Stream#flatMap} operation on spliterators.
    *
@@ -546,4 +575,141 @@ final class CollectSpliterators {
           prefix, from, function, FlatMapSpliteratorOfDouble::new, characteristics, estimatedSize);
     }
   }
+
+  /** Implementation of {@code flatMapIndexed}. */
+  static final class FlatMapIndexedSpliterator<T extends @Nullable Object>
+      implements Spliterator<T> {
+    private final IntFunction<? extends Spliterator<T>> function;
+    private final IntUnaryOperator sizeFunction;
+    private final int extraCharacteristics;
+
+    /**
+     * The total size of the spliterators before each index, from index 0 up to and including the
+     * last index of the spliterator that computed them; shared by all splits of that spliterator.
+     */
+    @CheckForNull private long[] offsets;
+
+    /** The spliterator for index {@code index - 1}, if it has been started. */
+    @CheckForNull private Spliterator<T> current;
+
+    private int index;
+    private final int end;
+
+    /** The exact number of elements left, in {@code current} and at indices before {@code end}. */
+    private long remaining;
+
+    FlatMapIndexedSpliterator(
+        IntFunction<? extends Spliterator<T>> function,
+        IntUnaryOperator sizeFunction,
+        int extraCharacteristics,
+        @CheckForNull long[] offsets,
+        @CheckForNull Spliterator<T> current,
+        int index,
+        int end,
+        long remaining) {
+      this.function = function;
+      this.sizeFunction = sizeFunction;
+      this.extraCharacteristics = extraCharacteristics;
+      this.offsets = offsets;
+      this.current = current;
+      this.index = index;
+      this.end = end;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+      checkNotNull(action);
+      while (true) {
+        if (current != null && current.tryAdvance(action)) {
+          remaining--;
+          return true;
+        }
+        if (index == end) {
+          current = null;
+          return false;
+        }
+        current = function.apply(index++);
+      }
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+      checkNotNull(action);
+      if (current != null) {
+        current.forEachRemaining(action);
+        current = null;
+      }
+      while (index < end) {
+        function.apply(index++).forEachRemaining(action);
+      }
+      remaining = 0;
+    }
+
+    @Override
+    @CheckForNull
+    public Spliterator<T> trySplit() {
+      long[] offsets = this.offsets;
+      if (offsets == null) {
+        offsets = new long[end + 1];
+        for (int i = 0; i < end; i++) {
+          offsets[i + 1] = offsets[i] + sizeFunction.applyAsInt(i);
+        }
+        this.offsets = offsets;
+      }
+      long currentRemaining = remaining - (offsets[end] - offsets[index]);
+      // The prefix takes what is left of current and the indices before some split index, which
+      // leaves at least one index here.
+      int low = (currentRemaining > 0) ? index : index + 1;
+      int high = end - 1;
+      if (low <= high) {
+        long target = offsets[index] - currentRemaining + remaining / 2;
+        int split = Arrays.binarySearch(offsets, low, high + 1, target);
+        if (split < 0) {
+          split = -split - 1;
+          if (split > high
+              || (split > low && target - offsets[split - 1] < offsets[split] - target)) {
+            split--;
+          }
+        }
+        long prefixSize = currentRemaining + offsets[split] - offsets[index];
+        Spliterator<T> prefix =
+            new FlatMapIndexedSpliterator<>(
+                function,
+                sizeFunction,
+                extraCharacteristics,
+                offsets,
+                currentRemaining > 0 ? current : null,
+                index,
+                split,
+                prefixSize);
+        current = null;
+        index = split;
+        remaining -= prefixSize;
+        return prefix;
+      }
+      // At most one index is left, so split its spliterator instead.
+      if (currentRemaining == 0) {
+        if (index == end) {
+          return null;
+        }
+        current = function.apply(index++);
+      }
+      Spliterator<T> prefix = requireNonNull(current).trySplit();
+      if (prefix != null) {
+        remaining -= prefix.estimateSize();
+      }
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.SIZED | Spliterator.SUBSIZED | extraCharacteristics;
+    }
+  }
 }
@@ -0,0 +1,518 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static java.lang.Math.min;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import dev.mccue.guava.primitives.Ints;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Writes values of one type to a {@code DataOutput} and reads them back from a {@code DataInput},
+ * as a faster alternative to Java serialization for large immutable collections.
+ *
+ * <p>Java serialization writes the elements of an immutable collection one {@code writeObject}
+ * call at a time, with a class descriptor and handle bookkeeping for each, and then rebuilds the
+ * collection through a general-purpose builder. A codec instead knows the types it writes: the
+ * collection codecs write a count followed by the encoded elements, or the keys followed by the
+ * values, with no per-element framing, and read them back into a collection of exactly the right
+ * size. Maps are written without creating entry objects, and large maps are read back into flat
+ * arrays without creating them either. Fixed-width element types are written and read in blocks
+ * of bytes rather than one {@code writeInt} call per element.
+ *
+ * <p>Codecs compose, so {@code immutableMap(strings(), immutableList(longs()))} writes and reads
+ * an {@code ImmutableMap<String, ImmutableList<Long>>}. Custom element types can be supported by
+ * subclassing {@code CollectionCodec}. Since {@code ObjectOutputStream} and {@code
+ * ObjectInputStream} implement {@code DataOutput} and {@code DataInput}, a codec can also be used
+ * from the {@code writeObject} and {@code readObject} methods of a serializable class.
+ *
+ * <p>The encoding is not self-describing: a value can only be read by a codec of the same shape
+ * as the one that wrote it. Null values are not supported. All built-in codecs are immutable and
+ * thread-safe.
+ *
+ * @param <T> the type of values this codec writes and reads
+ */
+@ElementTypesAreNonnullByDefault
+public abstract class CollectionCodec<T> {
+  /**
+   * The most elements or bytes allocated for before any of them have been read. A count read from
+   * the input is only trusted as far as the data that follows it, so a corrupt count fails with an
+   * {@code EOFException} instead of a huge allocation.
+   */
+  private static final int MAX_INITIAL_CAPACITY = 1 << 12;
+
+  /** Constructor for use by subclasses. */
+  protected CollectionCodec() {}
+
+  /** Writes {@code value} to {@code out}. */
+  public abstract void write(T value, DataOutput out) throws IOException;
+
+  /** Reads a value written by {@code write} from {@code in}. */
+  public abstract T read(DataInput in) throws IOException;
+
+  /** Returns the encoding of {@code value} as a byte array. */
+  public final byte[] toByteArray(T value) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try {
+      write(value, new DataOutputStream(bytes));
+    } catch (IOException impossible) {
+      throw new AssertionError(impossible);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decodes a value from {@code bytes}, which must hold an encoding produced by {@code
+   * toByteArray}.
+   *
+   * @throws IllegalArgumentException if {@code bytes} is truncated or otherwise malformed, such as
+   *     a map with duplicate keys
+   */
+  public final T fromByteArray(byte[] bytes) {
+    try {
+      return read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    } catch (IOException e) {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
+  /**
+   * Writes the first {@code count} values of {@code values}, one after another. Codecs of
+   * fixed-width types override this to write them in blocks.
+   */
+  void writeAll(Iterable<? extends T> values, int count, DataOutput out) throws IOException {
+    for (T value : values) {
+      write(value, out);
+    }
+  }
+
+  /**
+   * Reads {@code count} values written by {@code writeAll}. Codecs of fixed-width types override
+   * this to read them in blocks.
+   */
+  Object[] readAll(DataInput in, int count) throws IOException {
+    Object[] values = new Object[min(count, MAX_INITIAL_CAPACITY)];
+    for (int i = 0; i < count; i++) {
+      if (i == values.length) {
+        values = grow(values, count);
+      }
+      values[i] = read(in);
+    }
+    return values;
+  }
+
+  /**
+   * Returns a codec for strings, which writes them as a length in bytes followed by their UTF-8
+   * encoding. Unlike {@code DataOutput.writeUTF}, it supports strings of any length.
+   */
+  public static CollectionCodec<String> strings() {
+    return StringCodec.INSTANCE;
+  }
+
+  /** Returns a codec for booleans, which writes each as one byte. */
+  public static CollectionCodec<Boolean> booleans() {
+    return FixedWidthCodec.BOOLEANS;
+  }
+
+  /** Returns a codec for bytes. */
+  public static CollectionCodec<Byte> bytes() {
+    return FixedWidthCodec.BYTES;
+  }
+
+  /** Returns a codec for shorts, which writes each as two big-endian bytes. */
+  public static CollectionCodec<Short> shorts() {
+    return FixedWidthCodec.SHORTS;
+  }
+
+  /** Returns a codec for chars, which writes each as two big-endian bytes. */
+  public static CollectionCodec<Character> characters() {
+    return FixedWidthCodec.CHARACTERS;
+  }
+
+  /** Returns a codec for ints, which writes each as four big-endian bytes. */
+  public static CollectionCodec<Integer> integers() {
+    return FixedWidthCodec.INTEGERS;
+  }
+
+  /** Returns a codec for longs, which writes each as eight big-endian bytes. */
+  public static CollectionCodec<Long> longs() {
+    return FixedWidthCodec.LONGS;
+  }
+
+  /** Returns a codec for floats, which writes each as its four-byte IEEE 754 representation. */
+  public static CollectionCodec<Float> floats() {
+    return FixedWidthCodec.FLOATS;
+  }
+
+  /** Returns a codec for doubles, which writes each as its eight-byte IEEE 754 representation. */
+  public static CollectionCodec<Double> doubles() {
+    return FixedWidthCodec.DOUBLES;
+  }
+
+  /**
+   * Returns a codec for immutable lists, which writes their size followed by their elements. The
+   * lists it reads are backed by the array the elements were read into.
+   */
+  public static <E> CollectionCodec<ImmutableList<E>> immutableList(
+      CollectionCodec<E> elementCodec) {
+    checkNotNull(elementCodec);
+    return new CollectionCodec<ImmutableList<E>>() {
+      @Override
+      public void write(ImmutableList<E> list, DataOutput out) throws IOException {
+        writeCollection(list, elementCodec, out);
+      }
+
+      @Override
+      public ImmutableList<E> read(DataInput in) throws IOException {
+        return ImmutableList.asImmutableList(readElements(in, elementCodec));
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for immutable sets, which writes their size followed by their elements in
+   * iteration order. The sets it reads have the same iteration order.
+   */
+  public static <E> CollectionCodec<ImmutableSet<E>> immutableSet(CollectionCodec<E> elementCodec) {
+    checkNotNull(elementCodec);
+    return new CollectionCodec<ImmutableSet<E>>() {
+      @Override
+      public void write(ImmutableSet<E> set, DataOutput out) throws IOException {
+        writeCollection(set, elementCodec, out);
+      }
+
+      @Override
+      @SuppressWarnings("unchecked") // elementCodec reads only E elements
+      public ImmutableSet<E> read(DataInput in) throws IOException {
+        Object[] elements = readElements(in, elementCodec);
+        ImmutableSet.Builder<E> builder = ImmutableSet.builderWithExpectedSize(elements.length);
+        for (Object element : elements) {
+          builder.add((E) element);
+        }
+        return builder.build();
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for immutable maps, which writes their size, then all their keys, then all
+   * their values, in iteration order. The maps it reads have the same iteration order.
+   */
+  public static <K, V> CollectionCodec<ImmutableMap<K, V>> immutableMap(
+      CollectionCodec<K> keyCodec, CollectionCodec<V> valueCodec) {
+    checkNotNull(keyCodec);
+    checkNotNull(valueCodec);
+    return new CollectionCodec<ImmutableMap<K, V>>() {
+      @Override
+      public void write(ImmutableMap<K, V> map, DataOutput out) throws IOException {
+        int size = map.size();
+        out.writeInt(size);
+        keyCodec.writeAll(map.keySet(), size, out);
+        valueCodec.writeAll(map.values(), size, out);
+      }
+
+      @Override
+      public ImmutableMap<K, V> read(DataInput in) throws IOException {
+        Object[] keys = readElements(in, keyCodec);
+        Object[] values = valueCodec.readAll(in, keys.length);
+        return mapOf(keys, values);
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for immutable list multimaps, which writes the number of keys, then all the
+   * keys, then the values of each key in turn, each preceded by their number.
+   */
+  public static <K, V> CollectionCodec<ImmutableListMultimap<K, V>> immutableListMultimap(
+      CollectionCodec<K> keyCodec, CollectionCodec<V> valueCodec) {
+    CollectionCodec<ImmutableMap<K, ImmutableList<V>>> mapCodec =
+        immutableMap(keyCodec, immutableList(valueCodec));
+    return new CollectionCodec<ImmutableListMultimap<K, V>>() {
+      @Override
+      @SuppressWarnings("unchecked") // an ImmutableListMultimap holds ImmutableList values
+      public void write(ImmutableListMultimap<K, V> multimap, DataOutput out) throws IOException {
+        mapCodec.write((ImmutableMap<K, ImmutableList<V>>) (ImmutableMap<K, ?>) multimap.map, out);
+      }
+
+      @Override
+      public ImmutableListMultimap<K, V> read(DataInput in) throws IOException {
+        ImmutableMap<K, ImmutableList<V>> map = mapCodec.read(in);
+        if (map.isEmpty()) {
+          return ImmutableListMultimap.of();
+        }
+        return new ImmutableListMultimap<>(map, totalSize(map.values()));
+      }
+    };
+  }
+
+  /**
+   * Returns a codec for immutable set multimaps, which writes the number of keys, then all the
+   * keys, then the values of each key in turn, each preceded by their number. Multimaps whose
+   * values are sorted are read back with their values in the same order, but in insertion-ordered
+   * sets.
+   */
+  public static <K, V> CollectionCodec<ImmutableSetMultimap<K, V>> immutableSetMultimap(
+      CollectionCodec<K> keyCodec, CollectionCodec<V> valueCodec) {
+    CollectionCodec<ImmutableMap<K, ImmutableSet<V>>> mapCodec =
+        immutableMap(keyCodec, immutableSet(valueCodec));
+    return new CollectionCodec<ImmutableSetMultimap<K, V>>() {
+      @Override
+      @SuppressWarnings("unchecked") // an ImmutableSetMultimap holds ImmutableSet values
+      public void write(ImmutableSetMultimap<K, V> multimap, DataOutput out) throws IOException {
+        mapCodec.write((ImmutableMap<K, ImmutableSet<V>>) (ImmutableMap<K, ?>) multimap.map, out);
+      }
+
+      @Override
+      public ImmutableSetMultimap<K, V> read(DataInput in) throws IOException {
+        ImmutableMap<K, ImmutableSet<V>> map = mapCodec.read(in);
+        if (map.isEmpty()) {
+          return ImmutableSetMultimap.of();
+        }
+        return new ImmutableSetMultimap<>(map, totalSize(map.values()), null);
+      }
+    };
+  }
+
+  private static <E> void writeCollection(
+      Collection<E> collection, CollectionCodec<E> elementCodec, DataOutput out)
+      throws IOException {
+    int size = collection.size();
+    out.writeInt(size);
+    elementCodec.writeAll(collection, size, out);
+  }
+
+  private static Object[] readElements(DataInput in, CollectionCodec<?> elementCodec)
+      throws IOException {
+    Object[] elements = elementCodec.readAll(in, readSize(in));
+    // a custom element codec might return null
+    return ObjectArrays.checkElementsNotNull(elements);
+  }
+
+  private static int readSize(DataInput in) throws IOException {
+    int size = in.readInt();
+    if (size < 0) {
+      throw new InvalidObjectException("Invalid size: " + size);
+    }
+    return size;
+  }
+
+  /**
+   * Returns a copy of {@code array} with room for more elements, at most {@code max} of them in
+   * total. Growing geometrically means the allocations stay proportional to the data actually read.
+   */
+  private static Object[] grow(Object[] array, int max) {
+    return Arrays.copyOf(array, (int) min(max, 2L * array.length));
+  }
+
+  /** Reads {@code size} bytes, allocating only as they are read. */
+  private static byte[] readBytes(DataInput in, int size) throws IOException {
+    byte[] bytes = new byte[min(size, MAX_INITIAL_CAPACITY)];
+    int read = 0;
+    while (true) {
+      in.readFully(bytes, read, bytes.length - read);
+      read = bytes.length;
+      if (read == size) {
+        return bytes;
+      }
+      bytes = Arrays.copyOf(bytes, (int) min(size, 2L * read));
+    }
+  }
+
+  /** Builds a map of the keys and values read, reporting duplicate keys as malformed input. */
+  private static <K, V> ImmutableMap<K, V> mapOf(Object[] keys, Object[] values)
+      throws InvalidObjectException {
+    try {
+      return buildMap(keys, values);
+    } catch (IllegalArgumentException e) {
+      InvalidObjectException exception = new InvalidObjectException(e.getMessage());
+      exception.initCause(e);
+      throw exception;
+    }
+  }
+
+  @SuppressWarnings("unchecked") // the codecs read only K keys and V values
+  private static <K, V> ImmutableMap<K, V> buildMap(Object[] keys, Object[] values) {
+    int size = keys.length;
+    if (size < CompactImmutableMap.MIN_SIZE) {
+      ImmutableMap.Builder<K, V> builder = ImmutableMap.builderWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        builder.put((K) keys[i], (V) values[i]);
+      }
+      return builder.buildOrThrow();
+    }
+    Object[] alternatingKeysAndValues = new Object[2 * size];
+    for (int i = 0; i < size; i++) {
+      alternatingKeysAndValues[2 * i] = keys[i];
+      alternatingKeysAndValues[2 * i + 1] = values[i];
+    }
+    return CompactImmutableMap.fromAlternatingKeysAndValues(alternatingKeysAndValues);
+  }
+
+  /**
+   * Returns the total size of the value collections of a multimap, which must all be nonempty: a
+   * key without values would make the multimap contain a key it has no entries for.
+   */
+  private static int totalSize(Collection<? extends Collection<?>> collections)
+      throws InvalidObjectException {
+    long size = 0;
+    for (Collection<?> collection : collections) {
+      if (collection.isEmpty()) {
+        throw new InvalidObjectException("Key with no values");
+      }
+      size += collection.size();
+    }
+    return Ints.saturatedCast(size);
+  }
+
+  private static final class StringCodec extends CollectionCodec<String> {
+    static final StringCodec INSTANCE = new StringCodec();
+
+    @Override
+    public void write(String value, DataOutput out) throws IOException {
+      byte[] bytes = value.getBytes(UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    @Override
+    public String read(DataInput in) throws IOException {
+      return new String(readBytes(in, readSize(in)), UTF_8);
+    }
+
+    @Override
+    public String toString() {
+      return "CollectionCodec.strings()";
+    }
+  }
+
+  /** Encodes a boxed primitive in a fixed number of bytes of a {@code ByteBuffer}. */
+  private interface Encoder<T> {
+    void encode(ByteBuffer buffer, T value);
+  }
+
+  /** Decodes a boxed primitive from a {@code ByteBuffer}. */
+  private interface Decoder<T> {
+    T decode(ByteBuffer buffer);
+  }
+
+  /**
+   * A codec for a boxed primitive type. Its {@code writeAll} and {@code readAll} go through a
+   * byte array of up to {@code BLOCK_SIZE} bytes at a time.
+   */
+  private static final class FixedWidthCodec<T> extends CollectionCodec<T> {
+    private static final int BLOCK_SIZE = 8192;
+
+    static final FixedWidthCodec<Boolean> BOOLEANS =
+        new FixedWidthCodec<>(
+            "booleans",
+            Byte.BYTES,
+            (buffer, value) -> buffer.put((byte) (value ? 1 : 0)),
+            buffer -> buffer.get() != 0);
+    static final FixedWidthCodec<Byte> BYTES =
+        new FixedWidthCodec<>("bytes", Byte.BYTES, ByteBuffer::put, ByteBuffer::get);
+    static final FixedWidthCodec<Short> SHORTS =
+        new FixedWidthCodec<>("shorts", Short.BYTES, ByteBuffer::putShort, ByteBuffer::getShort);
+    static final FixedWidthCodec<Character> CHARACTERS =
+        new FixedWidthCodec<>(
+            "characters", Character.BYTES, ByteBuffer::putChar, ByteBuffer::getChar);
+    static final FixedWidthCodec<Integer> INTEGERS =
+        new FixedWidthCodec<>("integers", Integer.BYTES, ByteBuffer::putInt, ByteBuffer::getInt);
+    static final FixedWidthCodec<Long> LONGS =
+        new FixedWidthCodec<>("longs", Long.BYTES, ByteBuffer::putLong, ByteBuffer::getLong);
+    static final FixedWidthCodec<Float> FLOATS =
+        new FixedWidthCodec<>("floats", Float.BYTES, ByteBuffer::putFloat, ByteBuffer::getFloat);
+    static final FixedWidthCodec<Double> DOUBLES =
+        new FixedWidthCodec<>(
+            "doubles", Double.BYTES, ByteBuffer::putDouble, ByteBuffer::getDouble);
+
+    private final String name;
+    private final int width;
+    private final Encoder<T> encoder;
+    private final Decoder<T> decoder;
+
+    private FixedWidthCodec(String name, int width, Encoder<T> encoder, Decoder<T> decoder) {
+      this.name = name;
+      this.width = width;
+      this.encoder = encoder;
+      this.decoder = decoder;
+    }
+
+    @Override
+    public void write(T value, DataOutput out) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate(width);
+      encoder.encode(buffer, checkNotNull(value));
+      out.write(buffer.array());
+    }
+
+    @Override
+    public T read(DataInput in) throws IOException {
+      byte[] bytes = new byte[width];
+      in.readFully(bytes);
+      return decoder.decode(ByteBuffer.wrap(bytes));
+    }
+
+    @Override
+    void writeAll(Iterable<? extends T> values, int count, DataOutput out) throws IOException {
+      ByteBuffer buffer = ByteBuffer.allocate((int) min((long) count * width, BLOCK_SIZE));
+      for (T value : values) {
+        if (buffer.remaining() < width) {
+          out.write(buffer.array(), 0, buffer.position());
+          buffer.clear();
+        }
+        encoder.encode(buffer, checkNotNull(value));
+      }
+      out.write(buffer.array(), 0, buffer.position());
+    }
+
+    @Override
+    Object[] readAll(DataInput in, int count) throws IOException {
+      Object[] values = new Object[min(count, MAX_INITIAL_CAPACITY)];
+      ByteBuffer buffer = ByteBuffer.allocate((int) min((long) count * width, BLOCK_SIZE));
+      int perBlock = buffer.capacity() / width;
+      for (int start = 0; start < count; start += perBlock) {
+        int end = min(start + perBlock, count);
+        buffer.clear();
+        in.readFully(buffer.array(), 0, (end - start) * width);
+        while (end > values.length) {
+          values = grow(values, count);
+        }
+        for (int i = start; i < end; i++) {
+          values[i] = decoder.decode(buffer);
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public String toString() {
+      return "CollectionCodec." + name + "()";
+    }
+  }
+}
@@ -21,6 +21,8 @@ import static java.lang.Math.max;
 import dev.mccue.guava.base.Objects;
 import dev.mccue.guava.primitives.Ints;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntFunction;
 import dev.mccue.jsr305.CheckForNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -156,6 +158,61 @@ final class CompactHashing {
     return (prefix & ~mask) | (suffix & mask);
   }
 
+  /**
+   * Collections smaller than this are built on the calling thread even by the {@code
+   * copyOfParallel} factories, since forking tasks would cost more than it saves.
+   */
+  static final int MIN_PARALLEL_BUILD_SIZE = 1 << 13;
+
+  /**
+   * Records {@code index} in an open-addressed {@code table} of (hash prefix | index + 1) values
+   * that other threads are filling at the same time: in the first empty slot of the linear probe
+   * sequence of {@code hash}, unless the table already holds a key equal to {@code key}. Keys are
+   * read from {@code keys} by index. Each thread must store its key where {@code keys} finds it
+   * before inserting the key's index, which publishes the key to the threads that see the index.
+   *
+   * <p>If the table holds an equal key and {@code keepFirst} is true, the lower of the two indices
+   * is left in the table, so once all threads finish it holds the first occurrence of each key.
+   *
+   * @return false if the table holds an equal key and {@code keepFirst} is false, or if the probe
+   *     sequence ran past {@code maxRun} slots, which may indicate a hash flooding attack
+   */
+  static boolean insertConcurrently(
+      AtomicIntegerArray table,
+      int hash,
+      int index,
+      Object key,
+      IntFunction<?> keys,
+      int maxRun,
+      boolean keepFirst) {
+    int mask = table.length() - 1;
+    int hashPrefix = getHashPrefix(hash, mask);
+    int newEntry = maskCombine(hashPrefix, index + 1, mask);
+    for (int i = hash; i - hash < maxRun; ) {
+      int tableIndex = i & mask;
+      int entry = table.get(tableIndex);
+      if (entry == UNSET) {
+        if (table.compareAndSet(tableIndex, UNSET, newEntry)) {
+          return true;
+        }
+        // Another thread filled the slot first; look at what it put there.
+        continue;
+      }
+      int entryIndex = getNext(entry, mask) - 1;
+      if (getHashPrefix(entry, mask) == hashPrefix && key.equals(keys.apply(entryIndex))) {
+        if (!keepFirst) {
+          return false;
+        }
+        if (entryIndex < index || table.compareAndSet(tableIndex, entry, newEntry)) {
+          return true;
+        }
+        continue;
+      }
+      i++;
+    }
+    return false;
+  }
+
   static int remove(
       @CheckForNull Object key,
       @CheckForNull Object value,
@@ -0,0 +1,538 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkElementIndex;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkEntryNotNull;
+import static java.util.Objects.requireNonNull;
+
+import dev.mccue.guava.collect.ImmutableSet.RegularSetBuilderImpl;
+import dev.mccue.guava.collect.RegularImmutableMap.BucketOverflowException;
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of {@code ImmutableMap} for large maps that stores no entry objects. Keys and
+ * values alternate in a single flat array, in iteration order, and lookups go through an
+ * open-addressed table of indices into that array. Entries are created on demand by {@code
+ * entrySet()}.
+ *
+ * <p>Each slot of the index table holds the pair index plus one in its low bits (so that zero means
+ * empty) and the high bits of the smeared key hash in the remaining bits, the same packing {@code
+ * CompactHashing} uses. Most probes that land on a different key are rejected by comparing those
+ * bits, without loading the key.
+ *
+ * <p>Like {@code RegularImmutableMap}, this falls back to {@code JdkBackedImmutableMap} if the
+ * keys look like a hash flooding attack.
+ */
+@ElementTypesAreNonnullByDefault
+final class CompactImmutableMap<K, V> extends ImmutableMap<K, V> {
+  /**
+   * Maps with fewer entries than this are built as {@code RegularImmutableMap}, which iterates its
+   * entry set without allocating. Above it, the per-entry objects dominate the footprint.
+   */
+  static final int MIN_SIZE = 256;
+
+  /** Table value of an empty slot. Occupied slots always have a nonzero index part. */
+  private static final int UNSET = 0;
+
+  // keys at even indices, values at odd indices, in insertion order
+  private final transient Object[] alternatingKeysAndValues;
+  // open-addressed table of (hash prefix | pair index + 1)
+  private final transient int[] table;
+  // 'and' with an int to get a table index
+  private final transient int mask;
+
+  /**
+   * Creates an ImmutableMap from the first n entries in entryArray, which has at least two
+   * entries. The entries are only read; entryArray is left untouched unless hash flooding or a
+   * duplicate key to throw on is detected, in which case it is handed to {@code
+   * JdkBackedImmutableMap}. If removing duplicate keys leaves fewer than {@code MIN_SIZE} entries,
+   * the result is a {@code RegularImmutableMap}.
+   */
+  static <K, V> ImmutableMap<K, V> fromEntryArray(
+      int n, @Nullable Entry<K, V>[] entryArray, boolean throwIfDuplicateKeys) {
+    try {
+      return fromEntryArrayCheckingHashFlooding(n, entryArray, throwIfDuplicateKeys);
+    } catch (BucketOverflowException e) {
+      // probable hash flooding attack, fall back to j.u.HM based implementation and use its
+      // implementation of hash flooding protection
+      return JdkBackedImmutableMap.create(n, entryArray, throwIfDuplicateKeys);
+    }
+  }
+
+  private static <K, V> ImmutableMap<K, V> fromEntryArrayCheckingHashFlooding(
+      int n, @Nullable Entry<K, V>[] entryArray, boolean throwIfDuplicateKeys)
+      throws BucketOverflowException {
+    Object[] alternatingKeysAndValues = new Object[2 * n];
+    int tableSize = ImmutableSet.chooseTableSize(n);
+    int[] table = new int[tableSize];
+    int mask = tableSize - 1;
+    int maxRun = RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+    int size = 0;
+    for (int entryIndex = 0; entryIndex < n; entryIndex++) {
+      // requireNonNull is safe because the first `n` elements have been filled in.
+      Entry<K, V> entry = requireNonNull(entryArray[entryIndex]);
+      K key = entry.getKey();
+      V value = entry.getValue();
+      checkEntryNotNull(key, value);
+      int hash = Hashing.smear(key.hashCode());
+      int existing = insert(key, hash, size, alternatingKeysAndValues, table, mask, maxRun);
+      if (existing < 0) {
+        alternatingKeysAndValues[2 * size] = key;
+        alternatingKeysAndValues[2 * size + 1] = value;
+        size++;
+      } else if (throwIfDuplicateKeys) {
+        // JdkBackedImmutableMap throws, describing the duplicate the way the other maps do.
+        return JdkBackedImmutableMap.create(
+            entryIndex + 1, entryArray, /* throwIfDuplicateKeys= */ true);
+      } else {
+        // The key keeps the position of its first occurrence but takes the last value.
+        alternatingKeysAndValues[2 * existing + 1] = value;
+      }
+    }
+    if (size < MIN_SIZE) {
+      // Too few distinct keys remain for the flat layout to pay off.
+      return RegularImmutableMap.fromEntryArray(
+          size, entries(alternatingKeysAndValues, size), /* throwIfDuplicateKeys= */ true);
+    }
+    if (size < n) {
+      alternatingKeysAndValues = Arrays.copyOf(alternatingKeysAndValues, 2 * size);
+      int newTableSize = ImmutableSet.chooseTableSize(size);
+      if (newTableSize != tableSize) {
+        tableSize = newTableSize;
+        table = new int[tableSize];
+        mask = tableSize - 1;
+        maxRun = RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+        for (int i = 0; i < size; i++) {
+          Object key = alternatingKeysAndValues[2 * i];
+          int hash = Hashing.smear(key.hashCode());
+          insert(key, hash, i, alternatingKeysAndValues, table, mask, maxRun);
+        }
+      }
+    }
+    if (hashFloodingDetected(table, maxRun)) {
+      throw new BucketOverflowException();
+    }
+    return new CompactImmutableMap<>(alternatingKeysAndValues, table, mask);
+  }
+
+  /**
+   * Creates an ImmutableMap from alternatingKeysAndValues, which holds at least two pairs and is
+   * used as the map's own storage, throwing on duplicate keys. Callers that decode keys and values
+   * can build a large map this way without creating an entry object per pair; entries are only
+   * created for {@code JdkBackedImmutableMap}, to fall back to on hash flooding or to report a
+   * duplicate key.
+   */
+  static <K, V> ImmutableMap<K, V> fromAlternatingKeysAndValues(Object[] alternatingKeysAndValues) {
+    int n = alternatingKeysAndValues.length / 2;
+    int tableSize = ImmutableSet.chooseTableSize(n);
+    int[] table = new int[tableSize];
+    int mask = tableSize - 1;
+    int maxRun = RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+    try {
+      for (int i = 0; i < n; i++) {
+        Object key = alternatingKeysAndValues[2 * i];
+        Object value = alternatingKeysAndValues[2 * i + 1];
+        checkEntryNotNull(key, value);
+        int hash = Hashing.smear(key.hashCode());
+        int existing = insert(key, hash, i, alternatingKeysAndValues, table, mask, maxRun);
+        if (existing >= 0) {
+          // JdkBackedImmutableMap throws, describing the duplicate the way the other maps do.
+          return JdkBackedImmutableMap.create(
+              i + 1, entries(alternatingKeysAndValues, i + 1), /* throwIfDuplicateKeys= */ true);
+        }
+      }
+      if (hashFloodingDetected(table, maxRun)) {
+        throw new BucketOverflowException();
+      }
+    } catch (BucketOverflowException e) {
+      return JdkBackedImmutableMap.<K, V>create(
+          n, entries(alternatingKeysAndValues, n), /* throwIfDuplicateKeys= */ true);
+    }
+    return new CompactImmutableMap<>(alternatingKeysAndValues, table, mask);
+  }
+
+  /** Returns entries for the first n pairs of alternatingKeysAndValues. */
+  @SuppressWarnings("unchecked") // K keys at even and V values at odd indices
+  private static <K, V> Entry<K, V>[] entries(@Nullable Object[] alternatingKeysAndValues, int n) {
+    Entry<K, V>[] entries = ImmutableMapEntry.createEntryArray(n);
+    for (int i = 0; i < n; i++) {
+      entries[i] =
+          new ImmutableMapEntry<>(
+              (K) requireNonNull(alternatingKeysAndValues[2 * i]),
+              (V) requireNonNull(alternatingKeysAndValues[2 * i + 1]));
+    }
+    return entries;
+  }
+
+  /**
+   * Creates an ImmutableMap from entryArray, which has at least two entries, like {@code
+   * fromEntryArray(entryArray.length, entryArray, true)}, but reads the entries, hashes the keys
+   * and fills the table in parallel in the common {@code ForkJoinPool}. The table is filled in no
+   * particular order, but that only affects where keys sit in it, not the iteration order.
+   *
+   * <p>If it finds a duplicate key or a probe sequence long enough to suggest hash flooding, it
+   * starts over with the sequential build, which throws or falls back to {@code
+   * JdkBackedImmutableMap} exactly as {@code copyOf} does.
+   */
+  static <K, V> ImmutableMap<K, V> fromEntryArrayInParallel(Entry<K, V>[] entryArray) {
+    int n = entryArray.length;
+    Object[] alternatingKeysAndValues = new Object[2 * n];
+    int tableSize = ImmutableSet.chooseTableSize(n);
+    int maxRun = RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+    AtomicIntegerArray concurrentTable = new AtomicIntegerArray(tableSize);
+    boolean failed =
+        IntStream.range(0, n)
+            .parallel()
+            .anyMatch(
+                entryIndex -> {
+                  Entry<K, V> entry = entryArray[entryIndex];
+                  K key = entry.getKey();
+                  V value = entry.getValue();
+                  checkEntryNotNull(key, value);
+                  alternatingKeysAndValues[2 * entryIndex] = key;
+                  alternatingKeysAndValues[2 * entryIndex + 1] = value;
+                  return !CompactHashing.insertConcurrently(
+                      concurrentTable,
+                      Hashing.smear(key.hashCode()),
+                      entryIndex,
+                      key,
+                      pairIndex -> alternatingKeysAndValues[2 * pairIndex],
+                      maxRun,
+                      /* keepFirst= */ false);
+                });
+    if (failed) {
+      return fromEntryArray(n, entryArray, /* throwIfDuplicateKeys= */ true);
+    }
+    int[] table = new int[tableSize];
+    Arrays.parallelSetAll(table, concurrentTable::get);
+    if (hashFloodingDetected(table, maxRun)) {
+      return JdkBackedImmutableMap.create(n, entryArray, /* throwIfDuplicateKeys= */ true);
+    }
+    return new CompactImmutableMap<>(alternatingKeysAndValues, table, tableSize - 1);
+  }
+
+  /**
+   * Looks for {@code key} in the table. If it is present, returns the index of its pair. Otherwise
+   * records {@code pairIndex} in the first empty slot of its probe sequence and returns -1.
+   *
+   * @throws BucketOverflowException if the probe sequence is too long, which may indicate a hash
+   *     flooding attack
+   */
+  private static int insert(
+      Object key,
+      int hash,
+      int pairIndex,
+      @Nullable Object[] alternatingKeysAndValues,
+      int[] table,
+      int mask,
+      int maxRun)
+      throws BucketOverflowException {
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    for (int i = hash; i - hash < maxRun; i++) {
+      int tableIndex = i & mask;
+      int slot = table[tableIndex];
+      if (slot == UNSET) {
+        table[tableIndex] = CompactHashing.maskCombine(hashPrefix, pairIndex + 1, mask);
+        return -1;
+      }
+      int candidate = (slot & mask) - 1;
+      if (CompactHashing.getHashPrefix(slot, mask) == hashPrefix
+          && key.equals(alternatingKeysAndValues[2 * candidate])) {
+        return candidate;
+      }
+    }
+    throw new BucketOverflowException();
+  }
+
+  /**
+   * Returns true if the table contains a run of more than {@code maxRun} consecutive occupied
+   * slots. Insertion alone only bounds the probes made while building; keys whose hashes fill
+   * ascending slots could still leave long runs that make later misses slow.
+   */
+  private static boolean hashFloodingDetected(int[] table, int maxRun) {
+    int mask = table.length - 1;
+    // Start just after an empty slot so that runs wrapping around the end are counted once.
+    int start = 0;
+    while (table[start] != UNSET) {
+      start++;
+    }
+    int run = 0;
+    for (int i = 1; i <= table.length; i++) {
+      if (table[(start + i) & mask] == UNSET) {
+        run = 0;
+      } else if (++run > maxRun) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private CompactImmutableMap(Object[] alternatingKeysAndValues, int[] table, int mask) {
+    this.alternatingKeysAndValues = alternatingKeysAndValues;
+    this.table = table;
+    this.mask = mask;
+  }
+
+  @Override
+  @CheckForNull
+  public V get(@CheckForNull Object key) {
+    if (key == null) {
+      return null;
+    }
+    int hash = Hashing.smear(key.hashCode());
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    // The table is never full, so every probe sequence ends at an empty slot.
+    for (int i = hash; ; i++) {
+      int slot = table[i & mask];
+      if (slot == UNSET) {
+        return null;
+      }
+      if (CompactHashing.getHashPrefix(slot, mask) == hashPrefix) {
+        int keyIndex = 2 * ((slot & mask) - 1);
+        if (key.equals(alternatingKeysAndValues[keyIndex])) {
+          @SuppressWarnings("unchecked") // values are only ever V
+          V value = (V) alternatingKeysAndValues[keyIndex + 1];
+          return value;
+        }
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked") // keys are only ever K
+  K keyAt(int index) {
+    return (K) alternatingKeysAndValues[2 * index];
+  }
+
+  @SuppressWarnings("unchecked") // values are only ever V
+  V valueAt(int index) {
+    return (V) alternatingKeysAndValues[2 * index + 1];
+  }
+
+  Entry<K, V> entryAt(int index) {
+    return new ImmutableMapEntry<>(keyAt(index), valueAt(index));
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    int n = size();
+    for (int i = 0; i < n; i++) {
+      action.accept(keyAt(i), valueAt(i));
+    }
+  }
+
+  @Override
+  public int size() {
+    return alternatingKeysAndValues.length / 2;
+  }
+
+  @Override
+  public int hashCode() {
+    // Same as Sets.hashCodeImpl(entrySet()), without materializing the entries.
+    int hashCode = 0;
+    for (int i = 0; i < alternatingKeysAndValues.length; i += 2) {
+      hashCode +=
+          alternatingKeysAndValues[i].hashCode() ^ alternatingKeysAndValues[i + 1].hashCode();
+    }
+    return hashCode;
+  }
+
+  @Override
+  boolean isPartialView() {
+    return false;
+  }
+
+  @Override
+  ImmutableSet<Entry<K, V>> createEntrySet() {
+    return new EntrySet<>(this);
+  }
+
+  @Override
+  ImmutableSet<K> createKeySet() {
+    return new KeySet<>(this);
+  }
+
+  @Override
+  ImmutableCollection<V> createValues() {
+    return new Values<>(this);
+  }
+
+  private static final class EntrySet<K, V> extends ImmutableMapEntrySet<K, V> {
+    private final CompactImmutableMap<K, V> map;
+
+    EntrySet(CompactImmutableMap<K, V> map) {
+      this.map = map;
+    }
+
+    @Override
+    ImmutableMap<K, V> map() {
+      return map;
+    }
+
+    @Override
+    public UnmodifiableIterator<Entry<K, V>> iterator() {
+      return asList().iterator();
+    }
+
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+      return CollectSpliterators.indexed(size(), SPLITERATOR_CHARACTERISTICS, map::entryAt);
+    }
+
+    @Override
+    public void forEach(Consumer<? super Entry<K, V>> action) {
+      checkNotNull(action);
+      int n = size();
+      for (int i = 0; i < n; i++) {
+        action.accept(map.entryAt(i));
+      }
+    }
+
+    @Override
+    ImmutableList<Entry<K, V>> createAsList() {
+      return new ImmutableAsList<Entry<K, V>>() {
+        @Override
+        public Entry<K, V> get(int index) {
+          checkElementIndex(index, size());
+          return map.entryAt(index);
+        }
+
+        @Override
+        public int size() {
+          return map.size();
+        }
+
+        @Override
+        ImmutableCollection<Entry<K, V>> delegateCollection() {
+          return EntrySet.this;
+        }
+
+        // redeclare to help optimizers with b/310253115
+        @SuppressWarnings("RedundantOverride")
+        @Override
+        // serialization
+        // serialization
+        Object writeReplace() {
+          return super.writeReplace();
+        }
+      };
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  private static final class KeySet<K> extends IndexedImmutableSet<K> {
+    private final CompactImmutableMap<K, ?> map;
+
+    KeySet(CompactImmutableMap<K, ?> map) {
+      this.map = map;
+    }
+
+    @Override
+    K get(int index) {
+      checkElementIndex(index, size());
+      return map.keyAt(index);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return map.containsKey(object);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  private static final class Values<V> extends ImmutableList<V> {
+    private final CompactImmutableMap<?, V> map;
+
+    Values(CompactImmutableMap<?, V> map) {
+      this.map = map;
+    }
+
+    @Override
+    public V get(int index) {
+      checkElementIndex(index, size());
+      return map.valueAt(index);
+    }
+
+    @Override
+    public int size() {
+      return map.size();
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  // redeclare to help optimizers with b/310253115
+  @SuppressWarnings("RedundantOverride")
+  @Override
+  // serialization
+  // serialization
+  Object writeReplace() {
+    return super.writeReplace();
+  }
+
+  // This class is never actually serialized directly, but we have to make the
+  // warning go away (and suppressing would suppress for all nested classes too)
+  // serialization
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,1166 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+import dev.mccue.guava.base.Objects;
+import dev.mccue.guava.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of {@code SetMultimap} with the same iteration orders as {@code
+ * LinkedHashMultimap}, which keeps all of its entries in a few flat arrays instead of allocating an
+ * entry object for every key-value pair and a hash table for every key.
+ *
+ * <p>The collections returned by {@code keySet}, {@code keys}, and {@code asMap} iterate through
+ * the keys in the order they were first added to the multimap. Similarly, {@code get}, {@code
+ * removeAll}, and {@code replaceValues} return collections that iterate through the values in the
+ * order they were added. The collections generated by {@code entries} and {@code values} iterate
+ * across the key-value mappings in the order they were added to the multimap. As with {@code
+ * LinkedHashMultimap}, if you remove all values associated with a key and then add the key back to
+ * the multimap, that key will come last in the key iteration order.
+ *
+ * <p>The entries live in parallel arrays of keys, values, hashes and links, in the style of {@code
+ * CompactLinkedHashMap}, and the distinct keys in a second, smaller set of parallel arrays that
+ * record where the values of each key begin and end. An entry costs about 32 bytes and a distinct
+ * key about as much again, where {@code LinkedHashMultimap} spends over 60 bytes per entry and a
+ * separate hash table per key. Removing an entry moves the last entry into its place, so removals
+ * never leave holes behind. Like the other compact collections, this class reduces object
+ * allocation and memory consumption at the price of moderately increased constant factors of CPU.
+ *
+ * <p>The multimap does not store duplicate key-value pairs. Adding a new key-value pair equal to an
+ * existing key-value pair has no effect. Keys and values may be null. All optional multimap methods
+ * are supported, and all returned views are modifiable. The iterators of the views are fail-fast.
+ *
+ * <p>This class is not threadsafe when any concurrent operations update the multimap. Concurrent
+ * read operations will work correctly. To allow concurrent update operations, wrap your multimap
+ * with a call to {@code Multimaps#synchronizedSetMultimap}.
+ *
+ * <p><b>Warning:</b> Do not modify either a key <i>or a value</i> of a {@code
+ * CompactLinkedHashMultimap} in a way that affects its {@code Object#equals} behavior. Undefined
+ * behavior and bugs will result.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@ElementTypesAreNonnullByDefault
+public final class CompactLinkedHashMultimap<K extends @Nullable Object, V extends @Nullable Object>
+    extends AbstractMultimap<K, V> implements SetMultimap<K, V>, Serializable {
+  private static final int DEFAULT_EXPECTED_KEYS = 16;
+  private static final int DEFAULT_VALUES_PER_KEY = 2;
+
+  /** Creates a new, empty {@code CompactLinkedHashMultimap} with the default initial capacities. */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      CompactLinkedHashMultimap<K, V> create() {
+    return new CompactLinkedHashMultimap<>(DEFAULT_EXPECTED_KEYS, DEFAULT_VALUES_PER_KEY);
+  }
+
+  /**
+   * Constructs an empty {@code CompactLinkedHashMultimap} with enough capacity to hold the
+   * specified numbers of keys and values without resizing.
+   *
+   * @param expectedKeys the expected number of distinct keys
+   * @param expectedValuesPerKey the expected average number of values per key
+   * @throws IllegalArgumentException if {@code expectedKeys} or {@code expectedValuesPerKey} is
+   *     negative
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      CompactLinkedHashMultimap<K, V> create(int expectedKeys, int expectedValuesPerKey) {
+    return new CompactLinkedHashMultimap<>(expectedKeys, expectedValuesPerKey);
+  }
+
+  /**
+   * Constructs a {@code CompactLinkedHashMultimap} with the same mappings as the specified
+   * multimap. If a key-value mapping appears multiple times in the input multimap, it only appears
+   * once in the constructed multimap. The new multimap has the same {@code Multimap#entries()}
+   * iteration order as the input multimap, except for excluding duplicate mappings.
+   *
+   * @param multimap the multimap whose contents are copied to this multimap
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      CompactLinkedHashMultimap<K, V> create(Multimap<? extends K, ? extends V> multimap) {
+    CompactLinkedHashMultimap<K, V> result = new CompactLinkedHashMultimap<>(0, 0);
+    result.init(multimap.keySet().size(), multimap.size());
+    result.putAll(multimap);
+    return result;
+  }
+
+  /** Index meaning "no entry" or "no key" in the links and ends below. */
+  private static final int NONE = -1;
+
+  /*
+   * The entries are stored at indexes [0, size) of the entry arrays, and the distinct keys at
+   * indexes [0, keyCount) of the key arrays. Each long[] array holds two indexes per element, each
+   * offset by one so that 0 means NONE: the predecessor in the high half and the successor in the
+   * low half for the link arrays, and the first and last entry for keyValueEnds.
+   */
+
+  /** Hash table of the entries, by the hash of both the key and the value. */
+  private transient HashIndex entryIndex;
+
+  private transient @Nullable Object[] entryKeys;
+  private transient @Nullable Object[] entryValues;
+
+  /** Links of each entry in the order of the whole multimap. */
+  private transient long[] entryLinks;
+
+  /** Links of each entry in the order of the values for its key. */
+  private transient long[] valueLinks;
+
+  private transient int size;
+  private transient int firstEntry;
+  private transient int lastEntry;
+
+  /** Hash table of the distinct keys. */
+  private transient HashIndex keyIndex;
+
+  private transient @Nullable Object[] keys;
+
+  /** Links of each key in key iteration order. */
+  private transient long[] keyLinks;
+
+  /** The first and last entry of the values for each key. */
+  private transient long[] keyValueEnds;
+
+  /** The number of values for each key. */
+  private transient int[] keyValueCounts;
+
+  private transient int keyCount;
+  private transient int firstKey;
+  private transient int lastKey;
+
+  private transient int modCount;
+
+  private CompactLinkedHashMultimap(int expectedKeys, int expectedValuesPerKey) {
+    checkNonnegative(expectedKeys, "expectedKeys");
+    checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+    init(expectedKeys, Ints.saturatedCast((long) expectedKeys * expectedValuesPerKey));
+  }
+
+  /** Pseudoconstructor for serialization support. */
+  private void init(int expectedKeys, int expectedSize) {
+    int keyCapacity = min(expectedKeys, CompactHashing.MAX_SIZE);
+    int entryCapacity = min(expectedSize, CompactHashing.MAX_SIZE);
+    entryIndex =
+        new HashIndex(entryCapacity, i -> Maps.immutableEntry(entryKeys[i], entryValues[i]));
+    entryKeys = new Object[entryCapacity];
+    entryValues = new Object[entryCapacity];
+    entryLinks = new long[entryCapacity];
+    valueLinks = new long[entryCapacity];
+    size = 0;
+    firstEntry = NONE;
+    lastEntry = NONE;
+    keyIndex = new HashIndex(keyCapacity, i -> keys[i]);
+    keys = new Object[keyCapacity];
+    keyLinks = new long[keyCapacity];
+    keyValueEnds = new long[keyCapacity];
+    keyValueCounts = new int[keyCapacity];
+    keyCount = 0;
+    firstKey = NONE;
+    lastKey = NONE;
+  }
+
+  // Packed pairs of indexes
+
+  private static int high(long[] array, int index) {
+    return ((int) (array[index] >>> 32)) - 1;
+  }
+
+  private static int low(long[] array, int index) {
+    return ((int) array[index]) - 1;
+  }
+
+  private static void setHigh(long[] array, int index, int value) {
+    array[index] = (array[index] & 0xFFFFFFFFL) | ((long) (value + 1) << 32);
+  }
+
+  private static void setLow(long[] array, int index, int value) {
+    array[index] = (array[index] & ~0xFFFFFFFFL) | ((value + 1) & 0xFFFFFFFFL);
+  }
+
+  private void setEntrySucceeds(int pred, int succ) {
+    if (pred == NONE) {
+      firstEntry = succ;
+    } else {
+      setLow(entryLinks, pred, succ);
+    }
+    if (succ == NONE) {
+      lastEntry = pred;
+    } else {
+      setHigh(entryLinks, succ, pred);
+    }
+  }
+
+  private void setValueSucceeds(int key, int pred, int succ) {
+    if (pred == NONE) {
+      setHigh(keyValueEnds, key, succ);
+    } else {
+      setLow(valueLinks, pred, succ);
+    }
+    if (succ == NONE) {
+      setLow(keyValueEnds, key, pred);
+    } else {
+      setHigh(valueLinks, succ, pred);
+    }
+  }
+
+  private void setKeySucceeds(int pred, int succ) {
+    if (pred == NONE) {
+      firstKey = succ;
+    } else {
+      setLow(keyLinks, pred, succ);
+    }
+    if (succ == NONE) {
+      lastKey = pred;
+    } else {
+      setHigh(keyLinks, succ, pred);
+    }
+  }
+
+  /** Returns the capacity to grow arrays of the given capacity to, as {@code CompactHashSet}. */
+  private static int grownCapacity(int capacity) {
+    // 1.5x but round up to nearest odd (this is optimal for memory consumption on Android)
+    int newCapacity = min(CompactHashing.MAX_SIZE, (capacity + max(1, capacity >>> 1)) | 1);
+    if (newCapacity == capacity) {
+      throw new IllegalStateException("Cannot hold more than " + capacity + " elements");
+    }
+    return newCapacity;
+  }
+
+  // Lookups
+
+  private static int keyHash(@CheckForNull Object key) {
+    return Hashing.smearedHash(key);
+  }
+
+  private static int entryHash(@CheckForNull Object key, @CheckForNull Object value) {
+    // Combining the smeared key hash keeps entries like (k, v) and (k + 1, v - 31) apart, which a
+    // linear combination of the two hash codes would not.
+    return Hashing.smear(keyHash(key) ^ ((value == null) ? 0 : value.hashCode()));
+  }
+
+  /** Returns the index of {@code key} in the key arrays, or {@code NONE}. */
+  private int indexOfKey(@CheckForNull Object key, int hash) {
+    if (keyIndex.isUsingHashFloodingResistance()) {
+      return keyIndex.indexOfElement(key);
+    }
+    for (int i = keyIndex.first(hash); i != NONE; i = keyIndex.next(i)) {
+      if (keyIndex.hashMatches(i, hash) && Objects.equal(key, keys[i])) {
+        return i;
+      }
+    }
+    return NONE;
+  }
+
+  private int indexOfKey(@CheckForNull Object key) {
+    return indexOfKey(key, keyHash(key));
+  }
+
+  /** Returns the index of the given entry in the entry arrays, or {@code NONE}. */
+  private int indexOfEntry(@CheckForNull Object key, @CheckForNull Object value, int hash) {
+    if (entryIndex.isUsingHashFloodingResistance()) {
+      return entryIndex.indexOfElement(Maps.immutableEntry(key, value));
+    }
+    for (int i = entryIndex.first(hash); i != NONE; i = entryIndex.next(i)) {
+      if (entryIndex.hashMatches(i, hash)
+          && Objects.equal(value, entryValues[i])
+          && Objects.equal(key, entryKeys[i])) {
+        return i;
+      }
+    }
+    return NONE;
+  }
+
+  @SuppressWarnings("unchecked") // only K keys are stored
+  @ParametricNullness
+  private K keyAt(int index) {
+    return (K) keys[index];
+  }
+
+  @SuppressWarnings("unchecked") // only K keys are stored
+  @ParametricNullness
+  private K entryKeyAt(int index) {
+    return (K) entryKeys[index];
+  }
+
+  @SuppressWarnings("unchecked") // only V values are stored
+  @ParametricNullness
+  private V entryValueAt(int index) {
+    return (V) entryValues[index];
+  }
+
+  // Changes
+
+  /** Adds {@code key}, which must be absent, with no values yet, and returns its index. */
+  private int insertKey(@ParametricNullness K key, int hash) {
+    int index = keyCount;
+    int newKeyCount = index + 1;
+    if (newKeyCount > keys.length) {
+      int newCapacity = grownCapacity(keys.length);
+      keys = Arrays.copyOf(keys, newCapacity);
+      keyLinks = Arrays.copyOf(keyLinks, newCapacity);
+      keyValueEnds = Arrays.copyOf(keyValueEnds, newCapacity);
+      keyValueCounts = Arrays.copyOf(keyValueCounts, newCapacity);
+      keyIndex.resizeEntries(newCapacity);
+    }
+    keys[index] = key;
+    keyIndex.insert(index, hash, newKeyCount);
+    keyCount = newKeyCount;
+    setKeySucceeds(lastKey, index);
+    setKeySucceeds(index, NONE);
+    return index;
+  }
+
+  /** Adds an entry, which must be absent, for the key at index {@code key}. */
+  private void insertEntry(
+      int key, @ParametricNullness K entryKey, @ParametricNullness V value, int hash) {
+    int index = size;
+    int newSize = index + 1;
+    if (newSize > entryKeys.length) {
+      int newCapacity = grownCapacity(entryKeys.length);
+      entryKeys = Arrays.copyOf(entryKeys, newCapacity);
+      entryValues = Arrays.copyOf(entryValues, newCapacity);
+      entryLinks = Arrays.copyOf(entryLinks, newCapacity);
+      valueLinks = Arrays.copyOf(valueLinks, newCapacity);
+      entryIndex.resizeEntries(newCapacity);
+    }
+    entryKeys[index] = entryKey;
+    entryValues[index] = value;
+    entryIndex.insert(index, hash, newSize);
+    size = newSize;
+    setEntrySucceeds(lastEntry, index);
+    setEntrySucceeds(index, NONE);
+    setValueSucceeds(key, low(keyValueEnds, key), index);
+    setValueSucceeds(key, index, NONE);
+    keyValueCounts[key]++;
+    modCount++;
+  }
+
+  /**
+   * Removes the entry at {@code index}, whose key is at index {@code key}, moving the last entry
+   * into its place. The key is left in place if it has no values left.
+   */
+  private void removeEntry(int index, int key) {
+    entryIndex.remove(index, entryHash(entryKeys[index], entryValues[index]));
+    setEntrySucceeds(high(entryLinks, index), low(entryLinks, index));
+    setValueSucceeds(key, high(valueLinks, index), low(valueLinks, index));
+    keyValueCounts[key]--;
+
+    int last = size - 1;
+    if (index < last) {
+      Object movedKey = entryKeys[last];
+      Object movedValue = entryValues[last];
+      entryKeys[index] = movedKey;
+      entryValues[index] = movedValue;
+      entryIndex.move(last, index, entryHash(movedKey, movedValue));
+      entryLinks[index] = entryLinks[last];
+      setEntrySucceeds(high(entryLinks, index), index);
+      setEntrySucceeds(index, low(entryLinks, index));
+      valueLinks[index] = valueLinks[last];
+      int pred = high(valueLinks, index);
+      int succ = low(valueLinks, index);
+      // The ends of the key's values only need updating if the moved entry is one of them.
+      int movedEntryKey = (pred == NONE || succ == NONE) ? indexOfKey(movedKey) : NONE;
+      setValueSucceeds(movedEntryKey, pred, index);
+      setValueSucceeds(movedEntryKey, index, succ);
+    }
+    entryKeys[last] = null;
+    entryValues[last] = null;
+    entryLinks[last] = 0;
+    valueLinks[last] = 0;
+    size = last;
+    modCount++;
+  }
+
+  /**
+   * Removes the key at {@code index}, which must have no values, moving the last key into its
+   * place.
+   */
+  private void removeKey(int index) {
+    keyIndex.remove(index, keyHash(keys[index]));
+    setKeySucceeds(high(keyLinks, index), low(keyLinks, index));
+
+    int last = keyCount - 1;
+    if (index < last) {
+      Object movedKey = keys[last];
+      keys[index] = movedKey;
+      keyIndex.move(last, index, keyHash(movedKey));
+      keyLinks[index] = keyLinks[last];
+      setKeySucceeds(high(keyLinks, index), index);
+      setKeySucceeds(index, low(keyLinks, index));
+      keyValueEnds[index] = keyValueEnds[last];
+      keyValueCounts[index] = keyValueCounts[last];
+    }
+    keys[last] = null;
+    keyLinks[last] = 0;
+    keyValueEnds[last] = 0;
+    keyValueCounts[last] = 0;
+    keyCount = last;
+    modCount++;
+  }
+
+  /** Removes all values of the key at {@code index}, leaving the key in place. */
+  private void clearValues(int index) {
+    while (keyValueCounts[index] > 0) {
+      removeEntry(high(keyValueEnds, index), index);
+    }
+  }
+
+  /** Returns a copy of the values of the key at {@code index}, in order. */
+  private Set<V> copyValues(int index) {
+    Set<V> values = CompactLinkedHashSet.createWithExpectedSize(keyValueCounts[index]);
+    for (int i = high(keyValueEnds, index); i != NONE; i = low(valueLinks, i)) {
+      values.add(entryValueAt(i));
+    }
+    return values;
+  }
+
+  /** Removes all values of {@code key}, returning whether there were any. */
+  private boolean removeValuesOf(@CheckForNull Object key) {
+    int index = indexOfKey(key);
+    if (index == NONE) {
+      return false;
+    }
+    clearValues(index);
+    removeKey(index);
+    return true;
+  }
+
+  /**
+   * Ensures that this {@code CompactLinkedHashMultimap} has the smallest representation in memory,
+   * given its current numbers of entries and keys.
+   */
+  public void trimToSize() {
+    if (size < entryKeys.length) {
+      entryKeys = Arrays.copyOf(entryKeys, size);
+      entryValues = Arrays.copyOf(entryValues, size);
+      entryLinks = Arrays.copyOf(entryLinks, size);
+      valueLinks = Arrays.copyOf(valueLinks, size);
+    }
+    entryIndex.trimToSize(size);
+    if (keyCount < keys.length) {
+      keys = Arrays.copyOf(keys, keyCount);
+      keyLinks = Arrays.copyOf(keyLinks, keyCount);
+      keyValueEnds = Arrays.copyOf(keyValueEnds, keyCount);
+      keyValueCounts = Arrays.copyOf(keyValueCounts, keyCount);
+    }
+    keyIndex.trimToSize(keyCount);
+  }
+
+  // Query Operations
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return indexOfKey(key) != NONE;
+  }
+
+  @Override
+  public boolean containsValue(@CheckForNull Object value) {
+    for (int i = 0; i < size; i++) {
+      if (Objects.equal(value, entryValues[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean containsEntry(@CheckForNull Object key, @CheckForNull Object value) {
+    return indexOfEntry(key, value, entryHash(key, value)) != NONE;
+  }
+
+  // Modification Operations
+
+  /**
+   * Stores a key-value pair in the multimap.
+   *
+   * @param key key to store in the multimap
+   * @param value value to store in the multimap
+   * @return {@code true} if the method increased the size of the multimap, or {@code false} if the
+   *     multimap already contained the key-value pair
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean put(@ParametricNullness K key, @ParametricNullness V value) {
+    int hash = entryHash(key, value);
+    if (indexOfEntry(key, value, hash) != NONE) {
+      return false;
+    }
+    int keyHash = keyHash(key);
+    int index = indexOfKey(key, keyHash);
+    if (index == NONE) {
+      index = insertKey(key, keyHash);
+    }
+    insertEntry(index, key, value, hash);
+    return true;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean remove(@CheckForNull Object key, @CheckForNull Object value) {
+    int index = indexOfEntry(key, value, entryHash(key, value));
+    if (index == NONE) {
+      return false;
+    }
+    int keySlot = indexOfKey(key);
+    removeEntry(index, keySlot);
+    if (keyValueCounts[keySlot] == 0) {
+      removeKey(keySlot);
+    }
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned collection is unmodifiable.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public Set<V> removeAll(@CheckForNull Object key) {
+    int index = indexOfKey(key);
+    if (index == NONE) {
+      return Collections.emptySet();
+    }
+    Set<V> oldValues = copyValues(index);
+    clearValues(index);
+    removeKey(index);
+    return Collections.unmodifiableSet(oldValues);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If {@code values} is not empty and the multimap already contains a mapping for {@code key},
+   * the {@code keySet()} ordering is unchanged. However, the provided values always come last in
+   * the {@code #entries()} and {@code #values()} iteration orderings.
+   *
+   * <p>The returned collection is unmodifiable.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public Set<V> replaceValues(@ParametricNullness K key, Iterable<? extends V> values) {
+    // Copy the new values first, in case they are a view of this multimap.
+    List<V> newValues = Lists.newArrayList(values);
+    int keyHash = keyHash(key);
+    int index = indexOfKey(key, keyHash);
+    Set<V> oldValues;
+    if (index == NONE) {
+      oldValues = Collections.emptySet();
+      index = insertKey(key, keyHash);
+    } else {
+      oldValues = Collections.unmodifiableSet(copyValues(index));
+      clearValues(index);
+    }
+    for (V value : newValues) {
+      int hash = entryHash(key, value);
+      if (indexOfEntry(key, value, hash) == NONE) {
+        insertEntry(index, key, value, hash);
+      }
+    }
+    if (keyValueCounts[index] == 0) {
+      removeKey(index);
+    }
+    return oldValues;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(entryKeys, 0, size, null);
+    Arrays.fill(entryValues, 0, size, null);
+    Arrays.fill(entryLinks, 0, size, 0);
+    Arrays.fill(valueLinks, 0, size, 0);
+    entryIndex.clear(size);
+    size = 0;
+    firstEntry = NONE;
+    lastEntry = NONE;
+    Arrays.fill(keys, 0, keyCount, null);
+    Arrays.fill(keyLinks, 0, keyCount, 0);
+    Arrays.fill(keyValueEnds, 0, keyCount, 0);
+    Arrays.fill(keyValueCounts, 0, keyCount, 0);
+    keyIndex.clear(keyCount);
+    keyCount = 0;
+    firstKey = NONE;
+    lastKey = NONE;
+    modCount++;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    int expectedModCount = modCount;
+    for (int i = firstEntry; i != NONE; i = low(entryLinks, i)) {
+      action.accept(entryKeyAt(i), entryValueAt(i));
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+
+  // Views
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned collection is a live view of the values for {@code key}, which iterates through
+   * them in the order they were added.
+   */
+  @Override
+  public Set<V> get(@ParametricNullness K key) {
+    return new ValueSet(key);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The iterator generated by the returned collection traverses the entries in the order they
+   * were added to the multimap. Because the multimap has unique values for a given key, this method
+   * returns a {@code Set}, instead of the {@code Collection} specified in the {@code Multimap}
+   * interface.
+   */
+  @Override
+  public Set<Entry<K, V>> entries() {
+    return (Set<Entry<K, V>>) super.entries();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The iterator generated by the returned collection traverses the values in the order they
+   * were added to the multimap.
+   */
+  @Override
+  public Collection<V> values() {
+    return super.values();
+  }
+
+  @Override
+  Set<K> createKeySet() {
+    return new KeySet();
+  }
+
+  @Override
+  Multiset<K> createKeys() {
+    return new Multimaps.Keys<>(this);
+  }
+
+  @Override
+  Collection<V> createValues() {
+    return new Values();
+  }
+
+  @Override
+  Collection<Entry<K, V>> createEntries() {
+    return new EntrySet();
+  }
+
+  @Override
+  Map<K, Collection<V>> createAsMap() {
+    return new Multimaps.AsMap<>(this);
+  }
+
+  @Override
+  Iterator<Entry<K, V>> entryIterator() {
+    return new EntryItr<Entry<K, V>>(firstEntry) {
+      @Override
+      int successor(int index) {
+        return low(entryLinks, index);
+      }
+
+      @Override
+      Entry<K, V> output(int index) {
+        return Maps.immutableEntry(entryKeyAt(index), entryValueAt(index));
+      }
+    };
+  }
+
+  @Override
+  Spliterator<Entry<K, V>> entrySpliterator() {
+    return Spliterators.spliterator(
+        entryIterator(), size(), Spliterator.DISTINCT | Spliterator.ORDERED);
+  }
+
+  @Override
+  Iterator<V> valueIterator() {
+    return new EntryItr<V>(firstEntry) {
+      @Override
+      int successor(int index) {
+        return low(entryLinks, index);
+      }
+
+      @Override
+      @ParametricNullness
+      V output(int index) {
+        return entryValueAt(index);
+      }
+    };
+  }
+
+  @Override
+  Spliterator<V> valueSpliterator() {
+    return Spliterators.spliterator(valueIterator(), size(), Spliterator.ORDERED);
+  }
+
+  /**
+   * Iterates over a linked list of elements, which are moved when an element before them is
+   * removed.
+   */
+  private abstract class Itr<T extends @Nullable Object> implements Iterator<T> {
+    int next;
+    int toRemove = NONE;
+    int expectedModCount = modCount;
+
+    Itr(int first) {
+      next = first;
+    }
+
+    abstract int successor(int index);
+
+    @ParametricNullness
+    abstract T output(int index);
+
+    /** Removes the element at {@code index} and returns the index of the last element before. */
+    abstract int removeAt(int index);
+
+    @Override
+    public boolean hasNext() {
+      checkForConcurrentModification();
+      return next != NONE;
+    }
+
+    @Override
+    @ParametricNullness
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      toRemove = next;
+      next = successor(next);
+      return output(toRemove);
+    }
+
+    @Override
+    public void remove() {
+      checkForConcurrentModification();
+      checkRemove(toRemove != NONE);
+      int moved = removeAt(toRemove);
+      // The last element moved into the place of the removed one.
+      if (next == moved) {
+        next = toRemove;
+      }
+      toRemove = NONE;
+      expectedModCount = modCount;
+    }
+
+    private void checkForConcurrentModification() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+
+  private abstract class EntryItr<T extends @Nullable Object> extends Itr<T> {
+    EntryItr(int first) {
+      super(first);
+    }
+
+    @Override
+    int removeAt(int index) {
+      int last = size - 1;
+      int key = indexOfKey(entryKeys[index]);
+      removeEntry(index, key);
+      if (keyValueCounts[key] == 0) {
+        removeKey(key);
+      }
+      return last;
+    }
+  }
+
+  private final class KeySet extends Sets.ImprovedAbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      return new Itr<K>(firstKey) {
+        @Override
+        int successor(int index) {
+          return low(keyLinks, index);
+        }
+
+        @Override
+        @ParametricNullness
+        K output(int index) {
+          return keyAt(index);
+        }
+
+        @Override
+        int removeAt(int index) {
+          int last = keyCount - 1;
+          clearValues(index);
+          removeKey(index);
+          return last;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return keyCount;
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object key) {
+      return removeValuesOf(key);
+    }
+
+    @Override
+    public void clear() {
+      CompactLinkedHashMultimap.this.clear();
+    }
+  }
+
+  /** A live view of the values for a key. */
+  private final class ValueSet extends Sets.ImprovedAbstractSet<V> {
+    @ParametricNullness final K key;
+
+    ValueSet(@ParametricNullness K key) {
+      this.key = key;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      int index = indexOfKey(key);
+      return new EntryItr<V>((index == NONE) ? NONE : high(keyValueEnds, index)) {
+        @Override
+        int successor(int index) {
+          return low(valueLinks, index);
+        }
+
+        @Override
+        @ParametricNullness
+        V output(int index) {
+          return entryValueAt(index);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      int index = indexOfKey(key);
+      return (index == NONE) ? 0 : keyValueCounts[index];
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object value) {
+      return containsEntry(key, value);
+    }
+
+    @Override
+    public boolean add(@ParametricNullness V value) {
+      return put(key, value);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object value) {
+      return CompactLinkedHashMultimap.this.remove(key, value);
+    }
+
+    @Override
+    public void clear() {
+      removeValuesOf(key);
+    }
+  }
+
+  /**
+   * A hash table of indexes into parallel arrays, as in {@code CompactHashSet}: {@code table} holds
+   * one plus the index of the first element in each bucket, and {@code hashes} holds, for each
+   * element, the bits of its hash above the table mask together with one plus the index of the
+   * next element in its bucket.
+   *
+   * <p>Like {@code CompactHashSet}, it falls back to a {@code java.util.HashMap} from each element
+   * to its index once a bucket gets too long, which may indicate a hash flooding attack. From then
+   * on, until it is cleared, lookups must go through {@code indexOfElement} instead of the buckets.
+   */
+  static final class HashIndex {
+    /**
+     * Maximum allowed length of a bucket before falling back to a j.u.HashMap based index. The same
+     * as in {@code CompactHashSet}.
+     */
+    private static final int MAX_HASH_BUCKET_LENGTH = 9;
+
+    /**
+     * Returns an object for the element at an index that is equal to another such object exactly
+     * when the elements are equal, to use as a key of the fallback map.
+     */
+    private final IntFunction<@Nullable Object> elements;
+
+    private Object table;
+    private int[] hashes;
+    private int mask;
+
+    /** The index of each element if the buckets got too long, or null while they are in use. */
+    @CheckForNull private Map<@Nullable Object, Integer> delegate;
+
+    HashIndex(int expectedSize, IntFunction<@Nullable Object> elements) {
+      this.elements = elements;
+      int buckets = CompactHashing.tableSize(expectedSize);
+      table = CompactHashing.createTable(buckets);
+      hashes = new int[expectedSize];
+      mask = buckets - 1;
+    }
+
+    boolean isUsingHashFloodingResistance() {
+      return delegate != null;
+    }
+
+    /**
+     * Returns the index of the element equal to {@code element}, as returned by {@code elements},
+     * or {@code NONE}. Only for use once the index is using hash flooding resistance.
+     */
+    int indexOfElement(@CheckForNull Object element) {
+      Integer index = requireNonNull(delegate).get(element);
+      return (index == null) ? NONE : index;
+    }
+
+    /** Returns the first element in the bucket of {@code hash}, or {@code NONE}. */
+    int first(int hash) {
+      return CompactHashing.tableGet(table, hash & mask) - 1;
+    }
+
+    /** Returns the element after {@code index} in its bucket, or {@code NONE}. */
+    int next(int index) {
+      return CompactHashing.getNext(hashes[index], mask) - 1;
+    }
+
+    boolean hashMatches(int index, int hash) {
+      return CompactHashing.getHashPrefix(hashes[index], mask)
+          == CompactHashing.getHashPrefix(hash, mask);
+    }
+
+    /** Adds the element at {@code index}, which brings the number of elements to {@code size}. */
+    void insert(int index, int hash, int size) {
+      Map<@Nullable Object, Integer> delegate = this.delegate;
+      if (delegate != null) {
+        delegate.put(elements.apply(index), index);
+        return;
+      }
+      if (size > mask) {
+        resizeTable(CompactHashing.newCapacity(mask));
+      }
+      int tableIndex = hash & mask;
+      int head = CompactHashing.tableGet(table, tableIndex);
+      hashes[index] = CompactHashing.maskCombine(hash, head, mask);
+      CompactHashing.tableSet(table, tableIndex, index + 1);
+      int bucketLength = 0;
+      for (int i = head - 1; i != NONE; i = next(i)) {
+        if (++bucketLength >= MAX_HASH_BUCKET_LENGTH) {
+          convertToHashFloodingResistantImplementation(size);
+          return;
+        }
+      }
+    }
+
+    private void convertToHashFloodingResistantImplementation(int size) {
+      Map<@Nullable Object, Integer> newDelegate = Maps.newHashMapWithExpectedSize(size);
+      for (int i = 0; i < size; i++) {
+        newDelegate.put(elements.apply(i), i);
+      }
+      delegate = newDelegate;
+    }
+
+    /** Removes the element at {@code index}, which must still be stored there. */
+    void remove(int index, int hash) {
+      Map<@Nullable Object, Integer> delegate = this.delegate;
+      if (delegate != null) {
+        delegate.remove(elements.apply(index));
+        return;
+      }
+      relink(index, CompactHashing.getNext(hashes[index], mask), hash);
+      hashes[index] = 0;
+    }
+
+    /**
+     * Moves the element at {@code src} to the unused index {@code dst}, where it must already be
+     * stored.
+     */
+    void move(int src, int dst, int hash) {
+      Map<@Nullable Object, Integer> delegate = this.delegate;
+      if (delegate != null) {
+        delegate.put(elements.apply(dst), dst);
+        return;
+      }
+      hashes[dst] = hashes[src];
+      hashes[src] = 0;
+      relink(src, dst + 1, hash);
+    }
+
+    /** Replaces the link to the element at {@code index} in the bucket of {@code hash}. */
+    private void relink(int index, int newNext, int hash) {
+      int tableIndex = hash & mask;
+      int next = CompactHashing.tableGet(table, tableIndex);
+      if (next == index + 1) {
+        CompactHashing.tableSet(table, tableIndex, newNext);
+        return;
+      }
+      int entryIndex;
+      do {
+        entryIndex = next - 1;
+        next = CompactHashing.getNext(hashes[entryIndex], mask);
+      } while (next != index + 1);
+      hashes[entryIndex] = CompactHashing.maskCombine(hashes[entryIndex], newNext, mask);
+    }
+
+    void resizeEntries(int newCapacity) {
+      hashes = Arrays.copyOf(hashes, newCapacity);
+    }
+
+    private void resizeTable(int newCapacity) {
+      Object newTable = CompactHashing.createTable(newCapacity);
+      int newMask = newCapacity - 1;
+      for (int oldTableIndex = 0; oldTableIndex <= mask; oldTableIndex++) {
+        int oldNext = CompactHashing.tableGet(table, oldTableIndex);
+        while (oldNext != CompactHashing.UNSET) {
+          int index = oldNext - 1;
+          int oldEntry = hashes[index];
+
+          // Rebuild hash using entry hashPrefix and tableIndex ("hashSuffix")
+          int hash = CompactHashing.getHashPrefix(oldEntry, mask) | oldTableIndex;
+
+          int newTableIndex = hash & newMask;
+          int newNext = CompactHashing.tableGet(newTable, newTableIndex);
+          CompactHashing.tableSet(newTable, newTableIndex, oldNext);
+          hashes[index] = CompactHashing.maskCombine(hash, newNext, newMask);
+
+          oldNext = CompactHashing.getNext(oldEntry, mask);
+        }
+      }
+      table = newTable;
+      mask = newMask;
+    }
+
+    void trimToSize(int size) {
+      if (size < hashes.length) {
+        resizeEntries(size);
+      }
+      int minimumTableSize = CompactHashing.tableSize(size);
+      // smaller table size will always be less than current mask
+      if (delegate == null && minimumTableSize < mask) {
+        resizeTable(minimumTableSize);
+      }
+    }
+
+    void clear(int size) {
+      CompactHashing.tableClear(table);
+      if (delegate != null) {
+        // The buckets went stale while the delegate was in use; start over with them.
+        delegate = null;
+        Arrays.fill(hashes, 0);
+      } else {
+        Arrays.fill(hashes, 0, size, 0);
+      }
+    }
+  }
+
+  /**
+   * @serialData the number of distinct keys, the keys in order, the number of entries, and the
+   *     entries in order
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeInt(keyCount);
+    for (int i = firstKey; i != NONE; i = low(keyLinks, i)) {
+      stream.writeObject(keys[i]);
+    }
+    stream.writeInt(size);
+    for (int i = firstEntry; i != NONE; i = low(entryLinks, i)) {
+      stream.writeObject(entryKeys[i]);
+      stream.writeObject(entryValues[i]);
+    }
+  }
+
+  @SuppressWarnings("unchecked") // reading data stored by writeObject
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int distinctKeys = stream.readInt();
+    if (distinctKeys < 0) {
+      throw new InvalidObjectException("Invalid key count " + distinctKeys);
+    }
+    Object[] keysInOrder = new Object[distinctKeys];
+    for (int i = 0; i < distinctKeys; i++) {
+      keysInOrder[i] = stream.readObject();
+    }
+    int entries = stream.readInt();
+    if (entries < 0) {
+      throw new InvalidObjectException("Invalid entry count " + entries);
+    }
+    init(distinctKeys, entries);
+    // Add the keys first, so that they keep their order even if it differs from that of entries.
+    for (Object key : keysInOrder) {
+      int hash = keyHash(key);
+      if (indexOfKey(key, hash) == NONE) {
+        insertKey((K) key, hash);
+      }
+    }
+    for (int i = 0; i < entries; i++) {
+      K key = (K) stream.readObject();
+      V value = (V) stream.readObject();
+      put(key, value);
+    }
+    for (int i = 0; i < keyCount; i++) {
+      if (keyValueCounts[i] == 0) {
+        throw new InvalidObjectException("Key without values: " + keys[i]);
+      }
+    }
+  }
+
+  private static final long serialVersionUID = 0;
+}
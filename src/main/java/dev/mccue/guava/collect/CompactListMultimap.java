@@ -0,0 +1,941 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkElementIndex;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkPositionIndex;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import dev.mccue.guava.base.Objects;
+import dev.mccue.guava.collect.CompactLinkedHashMultimap.HashIndex;
+import dev.mccue.guava.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Implementation of {@code ListMultimap} that stores the values of all keys in one shared array,
+ * instead of allocating an {@code ArrayList} for each key.
+ *
+ * <p>Each value occupies a slot of the shared array, and the slots of each key are chained
+ * together in the order of the key's values. A hash table of the distinct keys, stored in parallel
+ * arrays in the style of {@code CompactHashMap}, records the first and last slot and the number of
+ * values of each key. A value costs 8 bytes and a distinct key about 32 bytes, where {@code
+ * ArrayListMultimap} spends about 90 bytes per key on the entry of its map and the header and array
+ * of its list. Slots freed by removals are reused by later additions.
+ *
+ * <p>When values are added to many keys in turn, the slots of each key are spread across the
+ * array. {@code compact()} rewrites the storage so that the values of each key occupy a contiguous
+ * run, in key order, and releases any unused capacity, after which iterating over the multimap
+ * reads the array sequentially. Positional access to the list returned by {@code get} walks the
+ * key's chain of slots, so it takes time linear in the position; it is intended for the short
+ * lists that this class is designed for, and iteration should be preferred for long ones.
+ *
+ * <p>The collections returned by {@code keySet}, {@code keys}, and {@code asMap} iterate through
+ * the keys in the order they were first added to the multimap, save that if all values associated
+ * with a key are removed and then the key is added back into the multimap, that key will come last
+ * in the key iteration order. The collections returned by {@code entries} and {@code values}
+ * iterate through the values of each key in turn, in the order of {@code get(key)}.
+ *
+ * <p>This multimap allows duplicate key-value pairs. Keys and values may be null. All optional
+ * multimap methods are supported, and all returned views are modifiable. The iterators of the views
+ * are fail-fast.
+ *
+ * <p>This class is not threadsafe when any concurrent operations update the multimap. Concurrent
+ * read operations will work correctly. To allow concurrent update operations, wrap your multimap
+ * with a call to {@code Multimaps#synchronizedListMultimap}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@ElementTypesAreNonnullByDefault
+public final class CompactListMultimap<K extends @Nullable Object, V extends @Nullable Object>
+    extends AbstractMultimap<K, V> implements ListMultimap<K, V>, Serializable {
+  private static final int DEFAULT_EXPECTED_KEYS = 16;
+  private static final int DEFAULT_VALUES_PER_KEY = 2;
+
+  /** Creates a new, empty {@code CompactListMultimap} with the default initial capacities. */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      CompactListMultimap<K, V> create() {
+    return new CompactListMultimap<>(DEFAULT_EXPECTED_KEYS, DEFAULT_VALUES_PER_KEY);
+  }
+
+  /**
+   * Constructs an empty {@code CompactListMultimap} with enough capacity to hold the specified
+   * numbers of keys and values without resizing.
+   *
+   * @param expectedKeys the expected number of distinct keys
+   * @param expectedValuesPerKey the expected average number of values per key
+   * @throws IllegalArgumentException if {@code expectedKeys} or {@code expectedValuesPerKey} is
+   *     negative
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      CompactListMultimap<K, V> create(int expectedKeys, int expectedValuesPerKey) {
+    return new CompactListMultimap<>(expectedKeys, expectedValuesPerKey);
+  }
+
+  /**
+   * Constructs a {@code CompactListMultimap} with the same mappings as the specified multimap,
+   * stored compactly.
+   *
+   * @param multimap the multimap whose contents are copied to this multimap
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      CompactListMultimap<K, V> create(Multimap<? extends K, ? extends V> multimap) {
+    CompactListMultimap<K, V> result = new CompactListMultimap<>(0, 0);
+    result.init(multimap.keySet().size(), multimap.size());
+    result.putAll(multimap);
+    return result;
+  }
+
+  /** Index meaning "no slot" or "no key". */
+  private static final int NONE = -1;
+
+  /*
+   * Slots [0, slotCount) of the value arrays have been used; those that are not in the chain of a
+   * key are in the chain of free slots starting at freeSlot. The distinct keys are stored at
+   * indexes [0, keyCount) of the key arrays, and keyLinks holds the predecessor and successor of
+   * each key in key iteration order, each offset by one so that 0 means NONE.
+   */
+
+  private transient @Nullable Object[] values;
+
+  /** The next slot in the chain of each slot. */
+  private transient int[] nextSlots;
+
+  private transient int slotCount;
+  private transient int freeSlot;
+  private transient int size;
+
+  private transient HashIndex keyIndex;
+  private transient @Nullable Object[] keys;
+  private transient long[] keyLinks;
+
+  /** The first and last slots of the values of each key. */
+  private transient int[] firstSlots;
+
+  private transient int[] lastSlots;
+
+  /** The number of values of each key. */
+  private transient int[] valueCounts;
+
+  private transient int keyCount;
+  private transient int firstKey;
+  private transient int lastKey;
+
+  private transient int modCount;
+
+  private CompactListMultimap(int expectedKeys, int expectedValuesPerKey) {
+    checkNonnegative(expectedKeys, "expectedKeys");
+    checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+    init(expectedKeys, Ints.saturatedCast((long) expectedKeys * expectedValuesPerKey));
+  }
+
+  /** Pseudoconstructor for serialization support. */
+  private void init(int expectedKeys, int expectedSize) {
+    int keyCapacity = min(expectedKeys, CompactHashing.MAX_SIZE);
+    values = new Object[expectedSize];
+    nextSlots = new int[expectedSize];
+    slotCount = 0;
+    freeSlot = NONE;
+    size = 0;
+    keyIndex = new HashIndex(keyCapacity, i -> keys[i]);
+    keys = new Object[keyCapacity];
+    keyLinks = new long[keyCapacity];
+    firstSlots = new int[keyCapacity];
+    lastSlots = new int[keyCapacity];
+    valueCounts = new int[keyCapacity];
+    keyCount = 0;
+    firstKey = NONE;
+    lastKey = NONE;
+  }
+
+  private int predecessorKey(int key) {
+    return ((int) (keyLinks[key] >>> 32)) - 1;
+  }
+
+  private int successorKey(int key) {
+    return ((int) keyLinks[key]) - 1;
+  }
+
+  private void setKeySucceeds(int pred, int succ) {
+    if (pred == NONE) {
+      firstKey = succ;
+    } else {
+      keyLinks[pred] = (keyLinks[pred] & ~0xFFFFFFFFL) | ((succ + 1) & 0xFFFFFFFFL);
+    }
+    if (succ == NONE) {
+      lastKey = pred;
+    } else {
+      keyLinks[succ] = (keyLinks[succ] & 0xFFFFFFFFL) | ((long) (pred + 1) << 32);
+    }
+  }
+
+  /** Returns the capacity to grow arrays of the given capacity to, as {@code CompactHashSet}. */
+  private static int grownCapacity(int capacity, int maxSize) {
+    // 1.5x but round up to nearest odd (this is optimal for memory consumption on Android)
+    int newCapacity = min(maxSize, (capacity + max(1, capacity >>> 1)) | 1);
+    if (newCapacity == capacity) {
+      throw new IllegalStateException("Cannot hold more than " + capacity + " elements");
+    }
+    return newCapacity;
+  }
+
+  @SuppressWarnings("unchecked") // only K keys are stored
+  @ParametricNullness
+  private K keyAt(int key) {
+    return (K) keys[key];
+  }
+
+  @SuppressWarnings("unchecked") // only V values are stored
+  @ParametricNullness
+  private V valueAt(int slot) {
+    return (V) values[slot];
+  }
+
+  // Keys
+
+  /** Returns the index of {@code key} in the key arrays, or {@code NONE}. */
+  private int indexOfKey(@CheckForNull Object key, int hash) {
+    if (keyIndex.isUsingHashFloodingResistance()) {
+      return keyIndex.indexOfElement(key);
+    }
+    for (int i = keyIndex.first(hash); i != NONE; i = keyIndex.next(i)) {
+      if (keyIndex.hashMatches(i, hash) && Objects.equal(key, keys[i])) {
+        return i;
+      }
+    }
+    return NONE;
+  }
+
+  private int indexOfKey(@CheckForNull Object key) {
+    return indexOfKey(key, Hashing.smearedHash(key));
+  }
+
+  /** Returns the index of {@code key} in the key arrays, adding it with no values if absent. */
+  private int indexOfOrInsertKey(@ParametricNullness K key) {
+    int hash = Hashing.smearedHash(key);
+    int index = indexOfKey(key, hash);
+    if (index != NONE) {
+      return index;
+    }
+    index = keyCount;
+    int newKeyCount = index + 1;
+    if (newKeyCount > keys.length) {
+      int newCapacity = grownCapacity(keys.length, CompactHashing.MAX_SIZE);
+      keys = Arrays.copyOf(keys, newCapacity);
+      keyLinks = Arrays.copyOf(keyLinks, newCapacity);
+      firstSlots = Arrays.copyOf(firstSlots, newCapacity);
+      lastSlots = Arrays.copyOf(lastSlots, newCapacity);
+      valueCounts = Arrays.copyOf(valueCounts, newCapacity);
+      keyIndex.resizeEntries(newCapacity);
+    }
+    keys[index] = key;
+    keyIndex.insert(index, hash, newKeyCount);
+    firstSlots[index] = NONE;
+    lastSlots[index] = NONE;
+    valueCounts[index] = 0;
+    keyCount = newKeyCount;
+    setKeySucceeds(lastKey, index);
+    setKeySucceeds(index, NONE);
+    return index;
+  }
+
+  /**
+   * Removes the key at {@code key}, which must have no values, moving the last key into its place.
+   */
+  private void removeKey(int key) {
+    keyIndex.remove(key, Hashing.smearedHash(keys[key]));
+    setKeySucceeds(predecessorKey(key), successorKey(key));
+
+    int last = keyCount - 1;
+    if (key < last) {
+      Object movedKey = keys[last];
+      keys[key] = movedKey;
+      keyIndex.move(last, key, Hashing.smearedHash(movedKey));
+      keyLinks[key] = keyLinks[last];
+      setKeySucceeds(predecessorKey(key), key);
+      setKeySucceeds(key, successorKey(key));
+      firstSlots[key] = firstSlots[last];
+      lastSlots[key] = lastSlots[last];
+      valueCounts[key] = valueCounts[last];
+    }
+    keys[last] = null;
+    keyLinks[last] = 0;
+    keyCount = last;
+    modCount++;
+  }
+
+  /** Removes the key at {@code key} if it has no values left. */
+  private void removeKeyIfEmpty(int key) {
+    if (valueCounts[key] == 0) {
+      removeKey(key);
+    }
+  }
+
+  // Slots
+
+  /** Returns the slot of the value at {@code index} of the values of {@code key}. */
+  private int slotAt(int key, int index) {
+    int slot = firstSlots[key];
+    for (int i = 0; i < index; i++) {
+      slot = nextSlots[slot];
+    }
+    return slot;
+  }
+
+  /** Returns the slot before the value at {@code index} of the values of {@code key}, or NONE. */
+  private int slotBefore(int key, int index) {
+    return (index == 0) ? NONE : slotAt(key, index - 1);
+  }
+
+  /**
+   * Adds {@code value} to the values of {@code key}, after the slot {@code pred}, or first if
+   * {@code pred} is {@code NONE}.
+   */
+  private void insertValue(int key, int pred, @ParametricNullness V value) {
+    int slot = freeSlot;
+    if (slot != NONE) {
+      freeSlot = nextSlots[slot];
+    } else {
+      slot = slotCount;
+      if (slot == values.length) {
+        int newCapacity = grownCapacity(values.length, Integer.MAX_VALUE - 8);
+        values = Arrays.copyOf(values, newCapacity);
+        nextSlots = Arrays.copyOf(nextSlots, newCapacity);
+      }
+      slotCount = slot + 1;
+    }
+    values[slot] = value;
+    int succ;
+    if (pred == NONE) {
+      succ = firstSlots[key];
+      firstSlots[key] = slot;
+    } else {
+      succ = nextSlots[pred];
+      nextSlots[pred] = slot;
+    }
+    nextSlots[slot] = succ;
+    if (succ == NONE) {
+      lastSlots[key] = slot;
+    }
+    valueCounts[key]++;
+    size++;
+    modCount++;
+  }
+
+  /** Appends {@code value} to the values of {@code key}. */
+  private void appendValue(int key, @ParametricNullness V value) {
+    insertValue(key, lastSlots[key], value);
+  }
+
+  /**
+   * Removes the value in {@code slot} from the values of {@code key}, where {@code pred} is the
+   * slot before it or {@code NONE}. The key is left in place even if it has no values left.
+   */
+  private void removeValue(int key, int pred, int slot) {
+    int succ = nextSlots[slot];
+    if (pred == NONE) {
+      firstSlots[key] = succ;
+    } else {
+      nextSlots[pred] = succ;
+    }
+    if (succ == NONE) {
+      lastSlots[key] = pred;
+    }
+    values[slot] = null;
+    nextSlots[slot] = freeSlot;
+    freeSlot = slot;
+    valueCounts[key]--;
+    size--;
+    modCount++;
+  }
+
+  /** Removes all values of the key at {@code key}, leaving the key in place. */
+  private void clearValues(int key) {
+    while (valueCounts[key] > 0) {
+      removeValue(key, NONE, firstSlots[key]);
+    }
+  }
+
+  /** Removes all values of {@code key}, returning whether there were any. */
+  @CanIgnoreReturnValue
+  private boolean removeValuesOf(@CheckForNull Object key) {
+    int index = indexOfKey(key);
+    if (index == NONE) {
+      return false;
+    }
+    clearValues(index);
+    removeKey(index);
+    return true;
+  }
+
+  /** Returns a copy of the values of the key at {@code key}, in order. */
+  private List<V> copyValues(int key) {
+    List<V> copy = Lists.newArrayListWithCapacity(valueCounts[key]);
+    for (int slot = firstSlots[key]; slot != NONE; slot = nextSlots[slot]) {
+      copy.add(valueAt(slot));
+    }
+    return copy;
+  }
+
+  /**
+   * Rewrites the storage of this multimap so that the values of each key occupy a contiguous run of
+   * the value array, in key iteration order, and trims all arrays to the current numbers of values
+   * and keys. This makes iteration read memory sequentially and releases the slots freed by
+   * removals. It takes time linear in the size of the multimap.
+   */
+  public void compact() {
+    @Nullable Object[] newValues = new Object[size];
+    int[] newNextSlots = new int[size];
+    int slot = 0;
+    for (int key = firstKey; key != NONE; key = successorKey(key)) {
+      int first = slot;
+      for (int old = firstSlots[key]; old != NONE; old = nextSlots[old]) {
+        newValues[slot] = values[old];
+        newNextSlots[slot] = slot + 1;
+        slot++;
+      }
+      newNextSlots[slot - 1] = NONE;
+      firstSlots[key] = first;
+      lastSlots[key] = slot - 1;
+    }
+    values = newValues;
+    nextSlots = newNextSlots;
+    slotCount = size;
+    freeSlot = NONE;
+    if (keyCount < keys.length) {
+      keys = Arrays.copyOf(keys, keyCount);
+      keyLinks = Arrays.copyOf(keyLinks, keyCount);
+      firstSlots = Arrays.copyOf(firstSlots, keyCount);
+      lastSlots = Arrays.copyOf(lastSlots, keyCount);
+      valueCounts = Arrays.copyOf(valueCounts, keyCount);
+    }
+    keyIndex.trimToSize(keyCount);
+    modCount++;
+  }
+
+  // Query Operations
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return indexOfKey(key) != NONE;
+  }
+
+  @Override
+  public boolean containsValue(@CheckForNull Object value) {
+    for (int key = firstKey; key != NONE; key = successorKey(key)) {
+      for (int slot = firstSlots[key]; slot != NONE; slot = nextSlots[slot]) {
+        if (Objects.equal(value, values[slot])) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public boolean containsEntry(@CheckForNull Object key, @CheckForNull Object value) {
+    int index = indexOfKey(key);
+    if (index != NONE) {
+      for (int slot = firstSlots[index]; slot != NONE; slot = nextSlots[slot]) {
+        if (Objects.equal(value, values[slot])) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  // Modification Operations
+
+  /**
+   * Stores a key-value pair in the multimap.
+   *
+   * @param key key to store in the multimap
+   * @param value value to store in the multimap
+   * @return {@code true} always
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean put(@ParametricNullness K key, @ParametricNullness V value) {
+    appendValue(indexOfOrInsertKey(key), value);
+    return true;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(@ParametricNullness K key, Iterable<? extends V> values) {
+    checkNotNull(values);
+    // Copy the new values first, in case they are a view of this multimap.
+    List<V> newValues = Lists.newArrayList(values);
+    if (newValues.isEmpty()) {
+      return false;
+    }
+    int index = indexOfOrInsertKey(key);
+    for (V value : newValues) {
+      appendValue(index, value);
+    }
+    return true;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean remove(@CheckForNull Object key, @CheckForNull Object value) {
+    int index = indexOfKey(key);
+    if (index == NONE) {
+      return false;
+    }
+    for (int pred = NONE, slot = firstSlots[index]; slot != NONE; ) {
+      if (Objects.equal(value, values[slot])) {
+        removeValue(index, pred, slot);
+        removeKeyIfEmpty(index);
+        return true;
+      }
+      pred = slot;
+      slot = nextSlots[slot];
+    }
+    return false;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned list is unmodifiable and implements {@code java.util.RandomAccess}.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public List<V> removeAll(@CheckForNull Object key) {
+    int index = indexOfKey(key);
+    if (index == NONE) {
+      return Collections.emptyList();
+    }
+    List<V> oldValues = copyValues(index);
+    clearValues(index);
+    removeKey(index);
+    return Collections.unmodifiableList(oldValues);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If {@code values} is not empty and the multimap already contains a mapping for {@code key},
+   * the {@code keySet()} ordering is unchanged. The returned list is unmodifiable and implements
+   * {@code java.util.RandomAccess}.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public List<V> replaceValues(@ParametricNullness K key, Iterable<? extends V> values) {
+    checkNotNull(values);
+    // Copy the new values first, in case they are a view of this multimap.
+    List<V> newValues = Lists.newArrayList(values);
+    int index = indexOfKey(key);
+    List<V> oldValues;
+    if (index == NONE) {
+      if (newValues.isEmpty()) {
+        return Collections.emptyList();
+      }
+      oldValues = Collections.emptyList();
+      index = indexOfOrInsertKey(key);
+    } else {
+      oldValues = Collections.unmodifiableList(copyValues(index));
+      clearValues(index);
+    }
+    for (V value : newValues) {
+      appendValue(index, value);
+    }
+    removeKeyIfEmpty(index);
+    return oldValues;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(values, 0, slotCount, null);
+    slotCount = 0;
+    freeSlot = NONE;
+    size = 0;
+    Arrays.fill(keys, 0, keyCount, null);
+    Arrays.fill(keyLinks, 0, keyCount, 0);
+    keyIndex.clear(keyCount);
+    keyCount = 0;
+    firstKey = NONE;
+    lastKey = NONE;
+    modCount++;
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    int expectedModCount = modCount;
+    for (int key = firstKey; key != NONE; key = successorKey(key)) {
+      for (int slot = firstSlots[key]; slot != NONE; slot = nextSlots[slot]) {
+        action.accept(keyAt(key), valueAt(slot));
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+      }
+    }
+  }
+
+  // Views
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned list is a live view of the values for {@code key}. It is not a {@code
+   * java.util.RandomAccess} list: its positional operations walk the key's chain of slots.
+   */
+  @Override
+  public List<V> get(@ParametricNullness K key) {
+    return new WrappedList(key);
+  }
+
+  @Override
+  Set<K> createKeySet() {
+    return new KeySet();
+  }
+
+  @Override
+  Multiset<K> createKeys() {
+    return new Multimaps.Keys<>(this);
+  }
+
+  @Override
+  Collection<V> createValues() {
+    return new Values();
+  }
+
+  @Override
+  Collection<Entry<K, V>> createEntries() {
+    return new Entries();
+  }
+
+  @Override
+  Map<K, Collection<V>> createAsMap() {
+    return new Multimaps.AsMap<>(this);
+  }
+
+  @Override
+  Iterator<Entry<K, V>> entryIterator() {
+    return new ValueItr<Entry<K, V>>(firstKey, true) {
+      @Override
+      Entry<K, V> output(int key, int slot) {
+        return Maps.immutableEntry(keyAt(key), valueAt(slot));
+      }
+    };
+  }
+
+  @Override
+  Spliterator<Entry<K, V>> entrySpliterator() {
+    return Spliterators.spliterator(entryIterator(), size(), Spliterator.ORDERED);
+  }
+
+  @Override
+  Iterator<V> valueIterator() {
+    return new ValueItr<V>(firstKey, true) {
+      @Override
+      @ParametricNullness
+      V output(int key, int slot) {
+        return valueAt(slot);
+      }
+    };
+  }
+
+  @Override
+  Spliterator<V> valueSpliterator() {
+    return Spliterators.spliterator(valueIterator(), size(), Spliterator.ORDERED);
+  }
+
+  /** Iterates over the values of one key, or of all keys in turn. */
+  private abstract class ValueItr<T extends @Nullable Object> implements Iterator<T> {
+    final boolean allKeys;
+    int key;
+    int pred = NONE;
+    int next;
+    int lastKey = NONE;
+    int lastPred;
+    int lastSlot = NONE;
+    int expectedModCount = modCount;
+
+    ValueItr(int key, boolean allKeys) {
+      this.allKeys = allKeys;
+      this.key = key;
+      next = (key == NONE) ? NONE : firstSlots[key];
+    }
+
+    @ParametricNullness
+    abstract T output(int key, int slot);
+
+    @Override
+    public boolean hasNext() {
+      checkForConcurrentModification();
+      return next != NONE;
+    }
+
+    @Override
+    @ParametricNullness
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      lastKey = key;
+      lastPred = pred;
+      lastSlot = next;
+      pred = next;
+      next = nextSlots[next];
+      if (next == NONE && allKeys) {
+        key = successorKey(key);
+        pred = NONE;
+        next = (key == NONE) ? NONE : firstSlots[key];
+      }
+      return output(lastKey, lastSlot);
+    }
+
+    @Override
+    public void remove() {
+      checkForConcurrentModification();
+      checkRemove(lastSlot != NONE);
+      removeValue(lastKey, lastPred, lastSlot);
+      if (pred == lastSlot) {
+        pred = lastPred;
+      }
+      if (valueCounts[lastKey] == 0) {
+        int movedKey = keyCount - 1;
+        removeKey(lastKey);
+        // The last key moved into the place of the removed one.
+        if (key == movedKey) {
+          key = lastKey;
+        }
+      }
+      lastSlot = NONE;
+      expectedModCount = modCount;
+    }
+
+    private void checkForConcurrentModification() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+
+  private final class KeySet extends Sets.ImprovedAbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      return new Iterator<K>() {
+        int next = firstKey;
+        int toRemove = NONE;
+        int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+          checkForConcurrentModification();
+          return next != NONE;
+        }
+
+        @Override
+        @ParametricNullness
+        public K next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          toRemove = next;
+          next = successorKey(next);
+          return keyAt(toRemove);
+        }
+
+        @Override
+        public void remove() {
+          checkForConcurrentModification();
+          checkRemove(toRemove != NONE);
+          int movedKey = keyCount - 1;
+          clearValues(toRemove);
+          removeKey(toRemove);
+          // The last key moved into the place of the removed one.
+          if (next == movedKey) {
+            next = toRemove;
+          }
+          toRemove = NONE;
+          expectedModCount = modCount;
+        }
+
+        private void checkForConcurrentModification() {
+          if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+          }
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return keyCount;
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object key) {
+      return removeValuesOf(key);
+    }
+
+    @Override
+    public void clear() {
+      CompactListMultimap.this.clear();
+    }
+  }
+
+  /** A live view of the values for a key. */
+  private final class WrappedList extends AbstractList<V> {
+    @ParametricNullness final K key;
+
+    WrappedList(@ParametricNullness K key) {
+      this.key = key;
+    }
+
+    @Override
+    public int size() {
+      int index = indexOfKey(key);
+      return (index == NONE) ? 0 : valueCounts[index];
+    }
+
+    @Override
+    @ParametricNullness
+    public V get(int index) {
+      int keyIndex = indexOfKey(key);
+      checkElementIndex(index, (keyIndex == NONE) ? 0 : valueCounts[keyIndex]);
+      return valueAt(slotAt(keyIndex, index));
+    }
+
+    @Override
+    @ParametricNullness
+    public V set(int index, @ParametricNullness V value) {
+      int keyIndex = indexOfKey(key);
+      checkElementIndex(index, (keyIndex == NONE) ? 0 : valueCounts[keyIndex]);
+      int slot = slotAt(keyIndex, index);
+      V oldValue = valueAt(slot);
+      values[slot] = value;
+      return oldValue;
+    }
+
+    @Override
+    public void add(int index, @ParametricNullness V value) {
+      int keyIndex = indexOfKey(key);
+      int count = (keyIndex == NONE) ? 0 : valueCounts[keyIndex];
+      checkPositionIndex(index, count);
+      if (keyIndex == NONE) {
+        keyIndex = indexOfOrInsertKey(key);
+      }
+      int pred = (index == count) ? lastSlots[keyIndex] : slotBefore(keyIndex, index);
+      insertValue(keyIndex, pred, value);
+      modCount++;
+    }
+
+    @Override
+    @ParametricNullness
+    public V remove(int index) {
+      int keyIndex = indexOfKey(key);
+      checkElementIndex(index, (keyIndex == NONE) ? 0 : valueCounts[keyIndex]);
+      int pred = slotBefore(keyIndex, index);
+      int slot = (pred == NONE) ? firstSlots[keyIndex] : nextSlots[pred];
+      V oldValue = valueAt(slot);
+      removeValue(keyIndex, pred, slot);
+      removeKeyIfEmpty(keyIndex);
+      modCount++;
+      return oldValue;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new ValueItr<V>(indexOfKey(key), false) {
+        @Override
+        @ParametricNullness
+        V output(int key, int slot) {
+          return valueAt(slot);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object value) {
+      return containsEntry(key, value);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object value) {
+      return CompactListMultimap.this.remove(key, value);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> values) {
+      return putAll(key, values);
+    }
+
+    @Override
+    public void clear() {
+      removeValuesOf(key);
+      modCount++;
+    }
+  }
+
+  /**
+   * @serialData number of distinct keys, and then for each distinct key: the key, number of values
+   *     for that key, and the key's values
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    Serialization.writeMultimap(this, stream);
+  }
+
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int distinctKeys = Serialization.readCount(stream);
+    init(distinctKeys, distinctKeys);
+    Serialization.populateMultimap(this, stream, distinctKeys);
+  }
+
+  private static final long serialVersionUID = 0;
+}
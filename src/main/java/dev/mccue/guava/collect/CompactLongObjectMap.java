@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.CompactHashing.UNSET;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.function.LongFunction;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A mutable map from {@code long} keys to non-null values, laid out like {@code CompactHashMap}:
+ * keys in a {@code long[]}, values in an {@code Object[]}, and chains of entries threaded through
+ * an {@code int[]} from a {@code CompactHashing} table of bytes, shorts or ints. Keys are never
+ * boxed, and {@code #get}, {@code #put}, {@code #remove} and {@code #forEach} allocate nothing
+ * except when the arrays grow. A map with millions of entries takes about half the memory of a
+ * {@code CompactHashMap<Long, V>}.
+ *
+ * <p>If there are no removals, iteration order is insertion order. Any removal invalidates any
+ * ordering guarantees. Unlike {@code CompactHashMap}, there is no fallback for deliberately
+ * colliding keys, so operations can degrade to linear time if an adversary chooses them.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @param <V> the type of the mapped values
+ */
+@ElementTypesAreNonnullByDefault
+public final class CompactLongObjectMap<V> implements Serializable {
+  /** An operation that accepts a {@code long} key and its value. */
+  @FunctionalInterface
+  public interface EntryConsumer<V> {
+    /** Performs this operation on the given mapping. */
+    void accept(long key, V value);
+  }
+
+  /** Creates an empty {@code CompactLongObjectMap} instance. */
+  public static <V> CompactLongObjectMap<V> create() {
+    return new CompactLongObjectMap<>(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates a {@code CompactLongObjectMap} instance, with a high enough "initial capacity" that it
+   * <i>should</i> hold {@code expectedSize} elements without growth.
+   *
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static <V> CompactLongObjectMap<V> createWithExpectedSize(int expectedSize) {
+    checkNonnegative(expectedSize, "expectedSize");
+    return new CompactLongObjectMap<>(expectedSize);
+  }
+
+  /** A {@code byte[]}, {@code short[]} or {@code int[]} from {@code CompactHashing#createTable}. */
+  private transient Object table;
+
+  private transient int mask;
+
+  /** Hash prefix and next pointer of each entry, as in {@code CompactHashMap#entries}. */
+  private transient int[] entries;
+
+  private transient long[] keys;
+
+  private transient @Nullable Object[] values;
+
+  private transient int size;
+
+  private CompactLongObjectMap(int expectedSize) {
+    allocArrays(min(max(1, expectedSize), CompactHashing.MAX_SIZE));
+  }
+
+  private void allocArrays(int capacity) {
+    int buckets = CompactHashing.tableSize(capacity);
+    table = CompactHashing.createTable(buckets);
+    mask = buckets - 1;
+    entries = new int[capacity];
+    keys = new long[capacity];
+    values = new Object[capacity];
+  }
+
+  /** Returns the number of entries in this map. */
+  public int size() {
+    return size;
+  }
+
+  /** Returns {@code true} if this map contains no entries. */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns {@code true} if this map contains a mapping for {@code key}. */
+  public boolean containsKey(long key) {
+    return indexOf(key) != -1;
+  }
+
+  /** Returns the value to which {@code key} is mapped, or {@code null} if there is none. */
+  @CheckForNull
+  public V get(long key) {
+    int index = indexOf(key);
+    return (index == -1) ? null : valueAt(index);
+  }
+
+  /**
+   * Returns the value to which {@code key} is mapped, or {@code defaultValue} if there is none.
+   */
+  @CheckForNull
+  public V getOrDefault(long key, @CheckForNull V defaultValue) {
+    int index = indexOf(key);
+    return (index == -1) ? defaultValue : valueAt(index);
+  }
+
+  /**
+   * Maps {@code key} to {@code value}, returning the previous value, or {@code null} if there was
+   * none.
+   */
+  @CanIgnoreReturnValue
+  @CheckForNull
+  public V put(long key, V value) {
+    checkNotNull(value);
+    int index = indexOf(key);
+    if (index != -1) {
+      V oldValue = valueAt(index);
+      values[index] = value;
+      return oldValue;
+    }
+    append(key, value);
+    return null;
+  }
+
+  /**
+   * Returns the value to which {@code key} is mapped, first mapping it to {@code
+   * mappingFunction.apply(key)} if there is none. The function must not modify this map.
+   */
+  public V computeIfAbsent(long key, LongFunction<? extends V> mappingFunction) {
+    checkNotNull(mappingFunction);
+    int index = indexOf(key);
+    if (index != -1) {
+      return valueAt(index);
+    }
+    V value = checkNotNull(mappingFunction.apply(key));
+    append(key, value);
+    return value;
+  }
+
+  /**
+   * Removes the mapping for {@code key}, returning its value, or {@code null} if there was none.
+   */
+  @CanIgnoreReturnValue
+  @CheckForNull
+  public V remove(long key) {
+    int hash = PrimitiveHashing.hash(key);
+    int tableIndex = hash & mask;
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    int lastEntryIndex = -1;
+    for (int next = CompactHashing.tableGet(table, tableIndex); next != UNSET; ) {
+      int entryIndex = next - 1;
+      int entry = entries[entryIndex];
+      next = CompactHashing.getNext(entry, mask);
+      if (CompactHashing.getHashPrefix(entry, mask) == hashPrefix && keys[entryIndex] == key) {
+        if (lastEntryIndex == -1) {
+          CompactHashing.tableSet(table, tableIndex, next);
+        } else {
+          entries[lastEntryIndex] = CompactHashing.maskCombine(entries[lastEntryIndex], next, mask);
+        }
+        V oldValue = valueAt(entryIndex);
+        moveLastEntry(entryIndex);
+        size--;
+        return oldValue;
+      }
+      lastEntryIndex = entryIndex;
+    }
+    return null;
+  }
+
+  /** Removes all of the mappings from this map. */
+  public void clear() {
+    Arrays.fill(entries, 0, size, UNSET);
+    Arrays.fill(values, 0, size, null);
+    CompactHashing.tableClear(table);
+    size = 0;
+  }
+
+  /** Invokes {@code action} for each entry in this map, in iteration order, without boxing. */
+  public void forEach(EntryConsumer<? super V> action) {
+    checkNotNull(action);
+    for (int i = 0; i < size; i++) {
+      action.accept(keys[i], valueAt(i));
+    }
+  }
+
+  /** Returns a copy of the keys of this map, in iteration order. */
+  public long[] keysToArray() {
+    return Arrays.copyOf(keys, size);
+  }
+
+  /**
+   * Ensures that this {@code CompactLongObjectMap} has the smallest representation in memory, given
+   * its current size.
+   */
+  public void trimToSize() {
+    int capacity = max(1, size);
+    if (capacity < keys.length) {
+      resizeEntries(capacity);
+    }
+    int minimumTableSize = CompactHashing.tableSize(capacity);
+    if (minimumTableSize <= mask) {
+      resizeTable(minimumTableSize);
+    }
+  }
+
+  /** Returns the index of {@code key} in the entry arrays, or -1. */
+  private int indexOf(long key) {
+    int hash = PrimitiveHashing.hash(key);
+    int next = CompactHashing.tableGet(table, hash & mask);
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    while (next != UNSET) {
+      int entryIndex = next - 1;
+      int entry = entries[entryIndex];
+      if (CompactHashing.getHashPrefix(entry, mask) == hashPrefix && keys[entryIndex] == key) {
+        return entryIndex;
+      }
+      next = CompactHashing.getNext(entry, mask);
+    }
+    return -1;
+  }
+
+  /** Adds an entry for {@code key}, which is known to be absent, at the head of its chain. */
+  private void append(long key, V value) {
+    int newEntryIndex = size;
+    int newSize = newEntryIndex + 1;
+    if (newSize > CompactHashing.MAX_SIZE) {
+      throw new IllegalStateException(
+          "CompactLongObjectMap cannot hold more than 2^30 - 1 entries");
+    }
+    if (newSize > mask) {
+      resizeTable(CompactHashing.newCapacity(mask));
+    }
+    int entriesSize = keys.length;
+    if (newSize > entriesSize) {
+      // 1.5x but round up to nearest odd, as in CompactHashMap
+      resizeEntries(min(CompactHashing.MAX_SIZE, (entriesSize + max(1, entriesSize >>> 1)) | 1));
+    }
+    int hash = PrimitiveHashing.hash(key);
+    int tableIndex = hash & mask;
+    entries[newEntryIndex] =
+        CompactHashing.maskCombine(hash, CompactHashing.tableGet(table, tableIndex), mask);
+    CompactHashing.tableSet(table, tableIndex, newEntryIndex + 1);
+    keys[newEntryIndex] = key;
+    values[newEntryIndex] = value;
+    size = newSize;
+  }
+
+  private void resizeEntries(int newCapacity) {
+    entries = Arrays.copyOf(entries, newCapacity);
+    keys = Arrays.copyOf(keys, newCapacity);
+    values = Arrays.copyOf(values, newCapacity);
+  }
+
+  /** Rebuilds the chains in a new table; the entries stay where they are. */
+  private void resizeTable(int newCapacity) {
+    Object newTable = CompactHashing.createTable(newCapacity);
+    int newMask = newCapacity - 1;
+    for (int i = 0; i < size; i++) {
+      int hash = PrimitiveHashing.hash(keys[i]);
+      int tableIndex = hash & newMask;
+      entries[i] =
+          CompactHashing.maskCombine(hash, CompactHashing.tableGet(newTable, tableIndex), newMask);
+      CompactHashing.tableSet(newTable, tableIndex, i + 1);
+    }
+    table = newTable;
+    mask = newMask;
+  }
+
+  /**
+   * Moves the last entry into {@code dstIndex}, which has been unlinked, and repoints the link to
+   * it.
+   */
+  private void moveLastEntry(int dstIndex) {
+    int srcIndex = size - 1;
+    if (dstIndex < srcIndex) {
+      long key = keys[srcIndex];
+      keys[dstIndex] = key;
+      values[dstIndex] = values[srcIndex];
+      entries[dstIndex] = entries[srcIndex];
+
+      int tableIndex = PrimitiveHashing.hash(key) & mask;
+      int next = CompactHashing.tableGet(table, tableIndex);
+      int srcNext = srcIndex + 1;
+      if (next == srcNext) {
+        CompactHashing.tableSet(table, tableIndex, dstIndex + 1);
+      } else {
+        int entryIndex;
+        int entry;
+        do {
+          entryIndex = next - 1;
+          entry = entries[entryIndex];
+          next = CompactHashing.getNext(entry, mask);
+        } while (next != srcNext);
+        entries[entryIndex] = CompactHashing.maskCombine(entry, dstIndex + 1, mask);
+      }
+    }
+    values[srcIndex] = null;
+    entries[srcIndex] = UNSET;
+  }
+
+  @SuppressWarnings("unchecked") // values are only ever V
+  private V valueAt(int index) {
+    return (V) values[index];
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is a {@code CompactLongObjectMap} with the same mappings
+   * as this one, in any order.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof CompactLongObjectMap)) {
+      return false;
+    }
+    CompactLongObjectMap<?> that = (CompactLongObjectMap<?>) object;
+    if (this.size != that.size) {
+      return false;
+    }
+    for (int i = 0; i < that.size; i++) {
+      int index = indexOf(that.keys[i]);
+      if (index == -1 || !values[index].equals(that.values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as a {@code Map<Long, V>} with the same mappings. */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < size; i++) {
+      hashCode += Long.hashCode(keys[i]) ^ values[i].hashCode();
+    }
+    return hashCode;
+  }
+
+  /**
+   * Returns a string representation of this map in the same form as {@code
+   * java.util.AbstractMap#toString()}, for example {@code "{1=a, 2=b}"}.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(size * 8).append('{');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append('=').append(values[i]);
+    }
+    return builder.append('}').toString();
+  }
+
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeInt(size);
+    for (int i = 0; i < size; i++) {
+      stream.writeLong(keys[i]);
+      stream.writeObject(values[i]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int entryCount = stream.readInt();
+    if (entryCount < 0 || entryCount > CompactHashing.MAX_SIZE) {
+      throw new InvalidObjectException("Invalid size: " + entryCount);
+    }
+    allocArrays(max(1, entryCount));
+    for (int i = 0; i < entryCount; i++) {
+      long key = stream.readLong();
+      V value = (V) stream.readObject();
+      if (value == null) {
+        throw new InvalidObjectException("null value for key " + key);
+      }
+      put(key, value);
+    }
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -41,6 +41,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ObjIntConsumer;
 import dev.mccue.jsr305.CheckForNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -121,6 +122,20 @@ public final class ConcurrentHashMultiset<E> extends AbstractMultiset<E> impleme
     return new ConcurrentHashMultiset<>(countMap);
   }
 
+  /**
+   * Creates a new, empty concurrent multiset whose counts are striped across cells, as in {@code
+   * LongAdder}, so that threads adding occurrences of the same element do not contend with each
+   * other.
+   *
+   * <p>Use this instead of {@code #create()} for write-heavy counting, where many threads increment
+   * a few hot elements and the totals are read or {@code StripedConcurrentHashMultiset#drain()
+   * drained} only periodically. Reads of the returned multiset are weakly consistent sums, and its
+   * removals are not atomic; see {@code StripedConcurrentHashMultiset} for details.
+   */
+  public static <E> StripedConcurrentHashMultiset<E> createStriped() {
+    return new StripedConcurrentHashMultiset<>();
+  }
+
   ConcurrentHashMultiset(ConcurrentMap<E, AtomicInteger> countMap) {
     checkArgument(countMap.isEmpty(), "the backing map (%s) must be empty", countMap);
     this.countMap = countMap;
@@ -140,6 +155,18 @@ public final class ConcurrentHashMultiset<E> extends AbstractMultiset<E> impleme
     return (existingCounter == null) ? 0 : existingCounter.get();
   }
 
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super E> action) {
+    checkNotNull(action);
+    countMap.forEach(
+        (element, count) -> {
+          int n = count.get();
+          if (n != 0) {
+            action.accept(element, n);
+          }
+        });
+  }
+
   /**
    * {@inheritDoc}
    *
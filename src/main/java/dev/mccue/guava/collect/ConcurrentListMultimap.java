@@ -0,0 +1,465 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkElementIndex;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkPositionIndex;
+import static dev.mccue.guava.base.Preconditions.checkPositionIndexes;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static java.util.Objects.requireNonNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A {@code ListMultimap} that supports concurrent modifications. A {@code ConcurrentHashMap}
+ * associates each key with an immutable array of its values, which is replaced whenever the values
+ * change; appends reuse spare capacity at the end of the array, so they take amortized constant
+ * time.
+ *
+ * <p>Every operation on a single key, including {@code putAll(key, values)}, {@code
+ * removeAll(key)} and {@code replaceValues}, is atomic: other threads see the values for the key
+ * either before or after it. Writers to different keys only contend when the keys share a hash
+ * bin of the backing map. Reads take no locks.
+ *
+ * <p>The views returned by this multimap are weakly consistent, like those of {@code
+ * ConcurrentHashMap}: their iterators never throw {@code ConcurrentModificationException} and
+ * traverse the values of each key as they were when the iterator reached that key. Removal through
+ * an iterator removes the last value returned from its position, and does nothing if another
+ * thread has meanwhile removed it or moved it to another position. The list iterators of {@code
+ * get(key)} are read-only snapshots; use the indexed methods of the list, or {@code
+ * replaceValues}, to change values at given positions. Operations on several keys, such as {@code
+ * putAll(Multimap)}, {@code clear} and {@code size}, are not atomic.
+ *
+ * <p>Keys and values may not be null. The lists returned by {@code get}, {@code removeAll} and
+ * {@code replaceValues} implement {@code java.util.RandomAccess}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@ElementTypesAreNonnullByDefault
+public final class ConcurrentListMultimap<K, V>
+    extends AbstractConcurrentMultimap<K, V, ConcurrentListMultimap.ValueArray<V>>
+    implements ListMultimap<K, V>, Serializable {
+  // Default from ArrayList
+  private static final int DEFAULT_VALUES_PER_KEY = 3;
+
+  private final transient int expectedValuesPerKey;
+
+  /**
+   * Creates a new, empty {@code ConcurrentListMultimap} with the default initial capacities.
+   *
+   * <p>You may also consider the equivalent {@code
+   * MultimapBuilder.concurrentHashKeys().arrayListValues().build()}.
+   */
+  public static <K, V> ConcurrentListMultimap<K, V> create() {
+    return new ConcurrentListMultimap<>(16, DEFAULT_VALUES_PER_KEY);
+  }
+
+  /**
+   * Creates a new, empty {@code ConcurrentListMultimap} with enough capacity to hold the specified
+   * numbers of keys and values without resizing.
+   *
+   * @param expectedKeys the expected number of distinct keys
+   * @param expectedValuesPerKey the expected average number of values per key
+   * @throws IllegalArgumentException if {@code expectedKeys} or {@code expectedValuesPerKey} is
+   *     negative
+   */
+  public static <K, V> ConcurrentListMultimap<K, V> create(
+      int expectedKeys, int expectedValuesPerKey) {
+    return new ConcurrentListMultimap<>(expectedKeys, expectedValuesPerKey);
+  }
+
+  /**
+   * Creates a {@code ConcurrentListMultimap} with the same mappings as the specified multimap.
+   *
+   * @throws NullPointerException if any key or value in {@code multimap} is null
+   */
+  public static <K, V> ConcurrentListMultimap<K, V> create(
+      Multimap<? extends K, ? extends V> multimap) {
+    ConcurrentListMultimap<K, V> result =
+        new ConcurrentListMultimap<>(multimap.keySet().size(), DEFAULT_VALUES_PER_KEY);
+    result.putAll(multimap);
+    return result;
+  }
+
+  private ConcurrentListMultimap(int expectedKeys, int expectedValuesPerKey) {
+    super(new ConcurrentHashMap<K, ValueArray<V>>(checkNonnegative(expectedKeys, "expectedKeys")));
+    this.expectedValuesPerKey = checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+  }
+
+  private ValueArray<V> newValues() {
+    return new ValueArray<>(new Object[expectedValuesPerKey], 0);
+  }
+
+  @Override
+  ValueArray<V> add(@CheckForNull ValueArray<V> values, V value, int[] result) {
+    ValueArray<V> oldValues = (values == null) ? newValues() : values;
+    result[0] = 1;
+    return oldValues.plus(oldValues.size, value);
+  }
+
+  @Override
+  ValueArray<V> addAll(
+      @CheckForNull ValueArray<V> values, Collection<? extends V> newValues, int[] result) {
+    result[0] = newValues.size();
+    return ((values == null) ? newValues() : values).plusAll(newValues);
+  }
+
+  @Override
+  @CheckForNull
+  ValueArray<V> remove(ValueArray<V> values, Object value, int[] result) {
+    int index = values.indexOf(value);
+    if (index < 0) {
+      return values;
+    }
+    result[0] = 1;
+    return values.minus(index, index + 1);
+  }
+
+  /**
+   * Removes the value at {@code index} only if it is the very value the iterator returned, so that
+   * an equal value elsewhere in the list is never removed in its place.
+   */
+  @Override
+  @CheckForNull
+  ValueArray<V> removeIterated(ValueArray<V> values, int index, V value, int[] result) {
+    if (index >= values.size || values.get(index) != value) {
+      // Changed concurrently; the value is gone or has moved.
+      return values;
+    }
+    result[0] = 1;
+    return values.minus(index, index + 1);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned list is a live view of the values for {@code key}. Its indexed reads see the
+   * values at the time of each call, and its iterators see the values at the time they were
+   * created. Each of its changes is atomic.
+   */
+  @Override
+  public List<V> get(K key) {
+    return new WrappedList(checkNotNull(key));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic. The returned list is immutable.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public List<V> removeAll(@CheckForNull Object key) {
+    ValueArray<V> values = removeValues(key);
+    return (values == null) ? ImmutableList.<V>of() : values;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic. The returned list is immutable.
+   *
+   * @throws NullPointerException if {@code key} or any of {@code values} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public List<V> replaceValues(K key, Iterable<? extends V> values) {
+    ValueArray<V> oldValues = replaceValuesFor(key, values);
+    return (oldValues == null) ? ImmutableList.<V>of() : oldValues;
+  }
+
+  /**
+   * The values for one key, in an array that may have spare capacity at the end. A new instance
+   * replaces the old one in the map on every change. Only the current instance for a key is ever
+   * extended, and only into slots that no instance covers yet, so an instance never sees its
+   * elements change even though it may share its array with later instances. Every other change
+   * copies the array.
+   */
+  static final class ValueArray<V> extends ImmutableList<V> {
+    private final @Nullable Object[] elements;
+    private final int size;
+
+    ValueArray(@Nullable Object[] elements, int size) {
+      this.elements = elements;
+      this.size = size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // only V values are stored
+    public V get(int index) {
+      checkElementIndex(index, size);
+      return (V) elements[index];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+
+    ValueArray<V> plus(int index, Object value) {
+      if (index == size && size < elements.length) {
+        elements[size] = value;
+        return new ValueArray<>(elements, size + 1);
+      }
+      @Nullable Object[] array =
+          new @Nullable Object[ImmutableCollection.Builder.expandedCapacity(size, size + 1)];
+      System.arraycopy(elements, 0, array, 0, index);
+      array[index] = value;
+      System.arraycopy(elements, index, array, index + 1, size - index);
+      return new ValueArray<>(array, size + 1);
+    }
+
+    ValueArray<V> plusAll(Collection<? extends V> values) {
+      int newSize = size + values.size();
+      @Nullable Object[] array = elements;
+      if (newSize > array.length) {
+        array = Arrays.copyOf(array, ImmutableCollection.Builder.expandedCapacity(size, newSize));
+      }
+      int i = size;
+      for (V value : values) {
+        array[i++] = value;
+      }
+      return new ValueArray<>(array, newSize);
+    }
+
+    ValueArray<V> with(int index, Object value) {
+      @Nullable Object[] array = Arrays.copyOf(elements, size);
+      array[index] = value;
+      return new ValueArray<>(array, size);
+    }
+
+    /** Returns the values without those in the given range, or null if none are left. */
+    @CheckForNull
+    ValueArray<V> minus(int fromIndex, int toIndex) {
+      int newSize = size - (toIndex - fromIndex);
+      if (newSize == 0) {
+        return null;
+      }
+      @Nullable Object[] array = new @Nullable Object[newSize];
+      System.arraycopy(elements, 0, array, 0, fromIndex);
+      System.arraycopy(elements, toIndex, array, fromIndex, size - toIndex);
+      return new ValueArray<>(array, newSize);
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /** A live view of the values for a key. */
+  private final class WrappedList extends AbstractList<V> implements RandomAccess {
+    final K key;
+
+    WrappedList(K key) {
+      this.key = key;
+    }
+
+    private ImmutableList<V> current() {
+      ValueArray<V> values = map.get(key);
+      return (values == null) ? ImmutableList.<V>of() : values;
+    }
+
+    @Override
+    public V get(int index) {
+      return current().get(index);
+    }
+
+    @Override
+    public int size() {
+      return current().size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return !containsKey(key);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return containsEntry(key, object);
+    }
+
+    @Override
+    public int indexOf(@CheckForNull Object object) {
+      return current().indexOf(object);
+    }
+
+    @Override
+    public int lastIndexOf(@CheckForNull Object object) {
+      return current().lastIndexOf(object);
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return valueIterator(key);
+    }
+
+    @Override
+    public ListIterator<V> listIterator(int index) {
+      return current().listIterator(index);
+    }
+
+    @Override
+    public Object[] toArray() {
+      return current().toArray();
+    }
+
+    @Override
+    @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+    public <T extends @Nullable Object> T[] toArray(T[] array) {
+      return current().toArray(array);
+    }
+
+    @Override
+    public boolean add(V value) {
+      return put(key, value);
+    }
+
+    @Override
+    public void add(int index, V value) {
+      checkNotNull(value);
+      map.compute(
+          key,
+          (k, values) -> {
+            checkPositionIndex(index, (values == null) ? 0 : values.size);
+            return ((values == null) ? newValues() : values).plus(index, value);
+          });
+      adjustSize(1);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> values) {
+      return putAll(key, values);
+    }
+
+    @Override
+    public V set(int index, V value) {
+      checkNotNull(value);
+      Object[] result = new Object[1]; // used as a mutable reference to hold result
+      ValueArray<V> values =
+          map.computeIfPresent(
+              key,
+              (k, oldValues) -> {
+                result[0] = oldValues.get(index);
+                return oldValues.with(index, value);
+              });
+      if (values == null) {
+        throw new IndexOutOfBoundsException("index (" + index + ") must be less than size (0)");
+      }
+      @SuppressWarnings("unchecked") // only V values are stored
+      V oldValue = (V) result[0];
+      return oldValue;
+    }
+
+    @Override
+    public V remove(int index) {
+      Object[] result = new Object[1]; // used as a mutable reference to hold result
+      map.compute(
+          key,
+          (k, values) -> {
+            checkElementIndex(index, (values == null) ? 0 : values.size);
+            // requireNonNull is safe because checkElementIndex rejects a missing key.
+            ValueArray<V> oldValues = requireNonNull(values);
+            result[0] = oldValues.get(index);
+            return oldValues.minus(index, index + 1);
+          });
+      adjustSize(-1);
+      @SuppressWarnings("unchecked") // only V values are stored
+      V oldValue = (V) result[0];
+      return oldValue;
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object object) {
+      return ConcurrentListMultimap.this.remove(key, object);
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+      if (fromIndex == toIndex) {
+        return;
+      }
+      map.compute(
+          key,
+          (k, values) -> {
+            checkPositionIndexes(fromIndex, toIndex, (values == null) ? 0 : values.size);
+            // requireNonNull is safe because the range is nonempty and so needs a present key.
+            return requireNonNull(values).minus(fromIndex, toIndex);
+          });
+      adjustSize(fromIndex - toIndex);
+    }
+
+    @Override
+    public void clear() {
+      removeValues(key);
+    }
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(expectedValuesPerKey, ImmutableListMultimap.copyOf(this));
+  }
+
+  /** Serialized form of a concurrent list multimap, holding a copy of its entries. */
+  private static final class SerializedForm implements Serializable {
+    private final int expectedValuesPerKey;
+    private final ImmutableListMultimap<?, ?> multimap;
+
+    SerializedForm(int expectedValuesPerKey, ImmutableListMultimap<?, ?> multimap) {
+      this.expectedValuesPerKey = expectedValuesPerKey;
+      this.multimap = multimap;
+    }
+
+    Object readResolve() {
+      ConcurrentListMultimap<Object, Object> result =
+          new ConcurrentListMultimap<>(multimap.keySet().size(), expectedValuesPerKey);
+      result.putAll(multimap);
+      return result;
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * A {@code SetMultimap} that supports concurrent modifications. A {@code ConcurrentHashMap}
+ * associates each key with a concurrent hash set of its values.
+ *
+ * <p>Every change to the values of a single key, including {@code putAll(key, values)}, {@code
+ * removeAll(key)} and {@code replaceValues}, is atomic with respect to other changes to that key.
+ * {@code removeAll} and {@code replaceValues} swap the whole set of values, so readers see the
+ * values for the key either before or after them; readers may see a {@code putAll} for a key that
+ * already has values partly applied. Writers to different keys only contend when the keys share a
+ * hash bin of the backing map. Reads take no locks.
+ *
+ * <p>The views returned by this multimap are weakly consistent, like those of {@code
+ * ConcurrentHashMap}: their iterators never throw {@code ConcurrentModificationException} and may
+ * or may not reflect changes made after they were created. Operations on several keys, such as
+ * {@code putAll(Multimap)}, {@code clear} and {@code size}, are not atomic.
+ *
+ * <p>Keys and values may not be null.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@ElementTypesAreNonnullByDefault
+public final class ConcurrentSetMultimap<K, V> extends AbstractConcurrentMultimap<K, V, Set<V>>
+    implements SetMultimap<K, V>, Serializable {
+  private static final int DEFAULT_VALUES_PER_KEY = 2;
+
+  private final transient int expectedValuesPerKey;
+
+  /**
+   * Creates a new, empty {@code ConcurrentSetMultimap} with the default initial capacities.
+   *
+   * <p>You may also consider the equivalent {@code
+   * MultimapBuilder.concurrentHashKeys().hashSetValues().build()}.
+   */
+  public static <K, V> ConcurrentSetMultimap<K, V> create() {
+    return new ConcurrentSetMultimap<>(16, DEFAULT_VALUES_PER_KEY);
+  }
+
+  /**
+   * Creates a new, empty {@code ConcurrentSetMultimap} with enough capacity to hold the specified
+   * numbers of keys and values without rehashing.
+   *
+   * @param expectedKeys the expected number of distinct keys
+   * @param expectedValuesPerKey the expected average number of values per key
+   * @throws IllegalArgumentException if {@code expectedKeys} or {@code expectedValuesPerKey} is
+   *     negative
+   */
+  public static <K, V> ConcurrentSetMultimap<K, V> create(
+      int expectedKeys, int expectedValuesPerKey) {
+    return new ConcurrentSetMultimap<>(expectedKeys, expectedValuesPerKey);
+  }
+
+  /**
+   * Creates a {@code ConcurrentSetMultimap} with the same mappings as the specified multimap. If a
+   * key-value mapping appears multiple times in the input multimap, it only appears once in the
+   * constructed multimap.
+   *
+   * @throws NullPointerException if any key or value in {@code multimap} is null
+   */
+  public static <K, V> ConcurrentSetMultimap<K, V> create(
+      Multimap<? extends K, ? extends V> multimap) {
+    ConcurrentSetMultimap<K, V> result =
+        new ConcurrentSetMultimap<>(multimap.keySet().size(), DEFAULT_VALUES_PER_KEY);
+    result.putAll(multimap);
+    return result;
+  }
+
+  private ConcurrentSetMultimap(int expectedKeys, int expectedValuesPerKey) {
+    super(new ConcurrentHashMap<K, Set<V>>(checkNonnegative(expectedKeys, "expectedKeys")));
+    this.expectedValuesPerKey = checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+  }
+
+  @Override
+  Set<V> add(@CheckForNull Set<V> values, V value, int[] result) {
+    Set<V> set = (values == null) ? ConcurrentHashMap.newKeySet(expectedValuesPerKey) : values;
+    if (set.add(value)) {
+      result[0] = 1;
+    }
+    return set;
+  }
+
+  @Override
+  Set<V> addAll(@CheckForNull Set<V> values, Collection<? extends V> newValues, int[] result) {
+    Set<V> set =
+        (values == null)
+            ? ConcurrentHashMap.newKeySet(Math.max(expectedValuesPerKey, newValues.size()))
+            : values;
+    int added = 0;
+    for (V value : newValues) {
+      if (set.add(value)) {
+        added++;
+      }
+    }
+    result[0] = added;
+    return set;
+  }
+
+  @Override
+  @CheckForNull
+  Set<V> remove(Set<V> values, Object value, int[] result) {
+    if (values.remove(value)) {
+      result[0] = 1;
+    }
+    return values.isEmpty() ? null : values;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned set is a live, weakly consistent view of the values for {@code key}. Each of
+   * its changes is atomic.
+   */
+  @Override
+  public Set<V> get(K key) {
+    return new WrappedSet(checkNotNull(key));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic. The returned set is unmodifiable.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public Set<V> removeAll(@CheckForNull Object key) {
+    Set<V> values = removeValues(key);
+    return (values == null) ? ImmutableSet.<V>of() : Collections.unmodifiableSet(values);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>This operation is atomic. Any duplicates in {@code values} are stored only once. The
+   * returned set is unmodifiable.
+   *
+   * @throws NullPointerException if {@code key} or any of {@code values} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public Set<V> replaceValues(K key, Iterable<? extends V> values) {
+    Set<V> oldValues = replaceValuesFor(key, values);
+    return (oldValues == null) ? ImmutableSet.<V>of() : Collections.unmodifiableSet(oldValues);
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Because a {@code SetMultimap} has unique values for a given key, this method returns a
+   * {@code Set}, instead of the {@code Collection} specified in the {@code Multimap} interface.
+   */
+  @Override
+  public Set<Entry<K, V>> entries() {
+    return (Set<Entry<K, V>>) super.entries();
+  }
+
+  /** A live view of the values for a key. */
+  private final class WrappedSet extends Sets.ImprovedAbstractSet<V> {
+    final K key;
+
+    WrappedSet(K key) {
+      this.key = key;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return valueIterator(key);
+    }
+
+    @Override
+    public int size() {
+      Set<V> values = map.get(key);
+      return (values == null) ? 0 : values.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return !containsKey(key);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return containsEntry(key, object);
+    }
+
+    @Override
+    public boolean add(V value) {
+      return put(key, value);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> values) {
+      return putAll(key, values);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object object) {
+      return ConcurrentSetMultimap.this.remove(key, object);
+    }
+
+    @Override
+    public void clear() {
+      removeValues(key);
+    }
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(expectedValuesPerKey, ImmutableSetMultimap.copyOf(this));
+  }
+
+  /** Serialized form of a concurrent set multimap, holding a copy of its entries. */
+  private static final class SerializedForm implements Serializable {
+    private final int expectedValuesPerKey;
+    private final ImmutableSetMultimap<?, ?> multimap;
+
+    SerializedForm(int expectedValuesPerKey, ImmutableSetMultimap<?, ?> multimap) {
+      this.expectedValuesPerKey = expectedValuesPerKey;
+      this.multimap = multimap;
+    }
+
+    Object readResolve() {
+      ConcurrentSetMultimap<Object, Object> result =
+          new ConcurrentSetMultimap<>(multimap.keySet().size(), expectedValuesPerKey);
+      result.putAll(multimap);
+      return result;
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
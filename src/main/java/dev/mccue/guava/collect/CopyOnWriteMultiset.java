@@ -0,0 +1,280 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A thread-safe {@code Multiset} in which all changes are made by publishing a new {@code
+ * ImmutableMultiset}, for data that is read far more often than it is changed.
+ *
+ * <p>Reads take no locks: each one reads the current snapshot through a volatile field and then
+ * queries it, at the cost of an immutable multiset. {@code snapshot()} returns that multiset, so a
+ * reader that needs several consistent reads can take a snapshot once and query it directly.
+ *
+ * <p>Each change copies the multiset, so it takes time linear in its number of distinct elements.
+ * Writers are serialized by a lock, and every change to a single element, including both forms of
+ * {@code setCount}, is atomic, as is {@code clear}. Changes that leave the multiset unchanged, such
+ * as removing an absent element, return without copying or locking. The bulk operations {@code
+ * addAll}, {@code removeAll} and {@code retainAll} make their changes one element at a time; to
+ * make many changes at the cost of one copy, and atomically, pass them to {@code update}.
+ *
+ * <p>The views returned by this multiset are live: each query reads the current snapshot, and
+ * each change goes through the multiset. Its iterators traverse the snapshot at the time they were
+ * created and never throw {@code ConcurrentModificationException}.
+ *
+ * <p>Elements may not be null. The iteration order is that of the snapshots: elements in the order
+ * they were first added.
+ *
+ * @param <E> the type of elements
+ */
+@ElementTypesAreNonnullByDefault
+public final class CopyOnWriteMultiset<E> extends AbstractMultiset<E> implements Serializable {
+  /** Creates a new, empty {@code CopyOnWriteMultiset}. */
+  public static <E> CopyOnWriteMultiset<E> create() {
+    return new CopyOnWriteMultiset<>(ImmutableMultiset.<E>of());
+  }
+
+  /**
+   * Creates a {@code CopyOnWriteMultiset} containing the specified elements.
+   *
+   * @throws NullPointerException if any of {@code elements} is null
+   */
+  public static <E> CopyOnWriteMultiset<E> create(Iterable<? extends E> elements) {
+    return new CopyOnWriteMultiset<>(ImmutableMultiset.copyOf(elements));
+  }
+
+  private transient volatile ImmutableMultiset<E> snapshot;
+  private final transient Object lock = new Object();
+
+  private CopyOnWriteMultiset(ImmutableMultiset<E> snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Returns the current contents of this multiset. Later changes to this multiset are not
+   * reflected in the returned multiset.
+   */
+  public ImmutableMultiset<E> snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Atomically applies the changes made by {@code changes} to a mutable copy of this multiset. No
+   * reader sees any of the changes until they have all been made, and then one copy of the result
+   * is published. If {@code changes} throws an exception, none of the changes are made.
+   *
+   * <p>The copy may only be used during the call to {@code changes}, which must not change this
+   * multiset directly.
+   *
+   * @throws NullPointerException if {@code changes} adds a null element
+   */
+  public void update(Consumer<? super Multiset<E>> changes) {
+    checkNotNull(changes);
+    mutate(
+        copy -> {
+          changes.accept(copy);
+          return null;
+        });
+  }
+
+  /**
+   * Applies {@code mutation} to a mutable copy of the current snapshot and publishes the result if
+   * it differs, returning the result of {@code mutation}.
+   */
+  @CanIgnoreReturnValue
+  private <T> T mutate(Function<Multiset<E>, T> mutation) {
+    synchronized (lock) {
+      ImmutableMultiset<E> current = snapshot;
+      Multiset<E> copy = LinkedHashMultiset.create(current);
+      T result = mutation.apply(copy);
+      if (!copy.equals(current)) {
+        snapshot = ImmutableMultiset.copyOf(copy);
+      }
+      return result;
+    }
+  }
+
+  // Query Operations
+
+  @Override
+  public int size() {
+    return snapshot.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return snapshot.isEmpty();
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object element) {
+    return snapshot.contains(element);
+  }
+
+  @Override
+  public int count(@CheckForNull Object element) {
+    return snapshot.count(element);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Iterators.removingThrough(snapshot.iterator(), this::remove);
+  }
+
+  @Override
+  public Object[] toArray() {
+    return snapshot.toArray();
+  }
+
+  @Override
+  @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+  public <T extends @Nullable Object> T[] toArray(T[] array) {
+    return snapshot.toArray(array);
+  }
+
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super E> action) {
+    snapshot.forEachEntry(action);
+  }
+
+  // Modification Operations
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if {@code element} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int add(E element, int occurrences) {
+    checkNotNull(element);
+    checkNonnegative(occurrences, "occurrences");
+    if (occurrences == 0) {
+      return count(element);
+    }
+    return mutate(copy -> copy.add(element, occurrences));
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int remove(@CheckForNull Object element, int occurrences) {
+    checkNonnegative(occurrences, "occurrences");
+    if (occurrences == 0 || !snapshot.contains(element)) {
+      return count(element);
+    }
+    return mutate(copy -> copy.remove(element, occurrences));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if {@code element} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int setCount(E element, int count) {
+    checkNotNull(element);
+    checkNonnegative(count, "count");
+    int oldCount = snapshot.count(element);
+    if (oldCount == count) {
+      return oldCount;
+    }
+    return mutate(copy -> copy.setCount(element, count));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if {@code element} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean setCount(E element, int oldCount, int newCount) {
+    checkNotNull(element);
+    checkNonnegative(oldCount, "oldCount");
+    checkNonnegative(newCount, "newCount");
+    if (snapshot.count(element) != oldCount) {
+      return false;
+    }
+    return oldCount == newCount || mutate(copy -> copy.setCount(element, oldCount, newCount));
+  }
+
+  @Override
+  public void clear() {
+    synchronized (lock) {
+      snapshot = ImmutableMultiset.of();
+    }
+  }
+
+  // Views
+
+  @Override
+  Iterator<E> elementIterator() {
+    return Iterators.removingThrough(
+        snapshot.elementSet().iterator(), element -> setCount(element, 0));
+  }
+
+  @Override
+  Iterator<Entry<E>> entryIterator() {
+    return Iterators.removingThrough(
+        snapshot.entrySet().iterator(), entry -> setCount(entry.getElement(), 0));
+  }
+
+  @Override
+  int distinctElements() {
+    return snapshot.elementSet().size();
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(snapshot);
+  }
+
+  /** Serialized form of a copy-on-write multiset, holding its current snapshot. */
+  private static final class SerializedForm implements Serializable {
+    private final ImmutableMultiset<?> snapshot;
+
+    SerializedForm(ImmutableMultiset<?> snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    Object readResolve() {
+      return new CopyOnWriteMultiset<>(snapshot);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,413 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * A thread-safe {@code SetMultimap} in which all changes are made by publishing a new {@code
+ * ImmutableSetMultimap}, for data that is read far more often than it is changed.
+ *
+ * <p>Reads take no locks: each one reads the current snapshot through a volatile field and then
+ * queries it, at the cost of an immutable multimap. {@code snapshot()} returns that multimap, so a
+ * reader that needs several consistent reads can take a snapshot once and query it directly.
+ *
+ * <p>Each change copies the multimap, so it takes time linear in its size. Writers are serialized
+ * by a lock, and every operation, including {@code putAll}, {@code removeAll}, {@code
+ * replaceValues} and {@code clear}, is atomic. Changes that leave the multimap unchanged, such as
+ * putting an existing entry, return without copying or locking. To make many changes at the cost
+ * of one copy, and atomically, pass them to {@code update}.
+ *
+ * <p>The views returned by this multimap are live: each query reads the current snapshot, and
+ * each change goes through the multimap. Their iterators traverse the snapshot at the time they
+ * were created and never throw {@code ConcurrentModificationException}.
+ *
+ * <p>Keys and values may not be null. The iteration order is that of the snapshots: keys in the
+ * order they were first added and, for each key, values in the order they were first added.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+@ElementTypesAreNonnullByDefault
+public final class CopyOnWriteSetMultimap<K, V> extends AbstractMultimap<K, V>
+    implements SetMultimap<K, V>, Serializable {
+  /** Creates a new, empty {@code CopyOnWriteSetMultimap}. */
+  public static <K, V> CopyOnWriteSetMultimap<K, V> create() {
+    return new CopyOnWriteSetMultimap<>(ImmutableSetMultimap.<K, V>of());
+  }
+
+  /**
+   * Creates a {@code CopyOnWriteSetMultimap} with the same mappings as the specified multimap.
+   *
+   * @throws NullPointerException if any key or value in {@code multimap} is null
+   */
+  public static <K, V> CopyOnWriteSetMultimap<K, V> create(
+      Multimap<? extends K, ? extends V> multimap) {
+    return new CopyOnWriteSetMultimap<>(ImmutableSetMultimap.copyOf(multimap));
+  }
+
+  private transient volatile ImmutableSetMultimap<K, V> snapshot;
+  private final transient Object lock = new Object();
+
+  private CopyOnWriteSetMultimap(ImmutableSetMultimap<K, V> snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Returns the current contents of this multimap. Later changes to this multimap are not
+   * reflected in the returned multimap.
+   */
+  public ImmutableSetMultimap<K, V> snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Atomically applies the changes made by {@code changes} to a mutable copy of this multimap. No
+   * reader sees any of the changes until they have all been made, and then one copy of the result
+   * is published. If {@code changes} throws an exception, none of the changes are made.
+   *
+   * <p>The copy may only be used during the call to {@code changes}, which must not change this
+   * multimap directly.
+   *
+   * @throws NullPointerException if {@code changes} adds a null key or value
+   */
+  public void update(Consumer<? super SetMultimap<K, V>> changes) {
+    checkNotNull(changes);
+    mutate(
+        copy -> {
+          changes.accept(copy);
+          return null;
+        });
+  }
+
+  /**
+   * Applies {@code mutation} to a mutable copy of the current snapshot and publishes the result if
+   * it differs, returning the result of {@code mutation}.
+   */
+  @CanIgnoreReturnValue
+  private <T> T mutate(Function<SetMultimap<K, V>, T> mutation) {
+    synchronized (lock) {
+      ImmutableSetMultimap<K, V> current = snapshot;
+      SetMultimap<K, V> copy = LinkedHashMultimap.create(current);
+      T result = mutation.apply(copy);
+      if (!copy.equals(current)) {
+        snapshot = ImmutableSetMultimap.copyOf(copy);
+      }
+      return result;
+    }
+  }
+
+  // Query Operations
+
+  @Override
+  public int size() {
+    return snapshot.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return snapshot.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return snapshot.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(@CheckForNull Object value) {
+    return snapshot.containsValue(value);
+  }
+
+  @Override
+  public boolean containsEntry(@CheckForNull Object key, @CheckForNull Object value) {
+    return snapshot.containsEntry(key, value);
+  }
+
+  // Modification Operations
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if {@code key} or {@code value} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean put(K key, V value) {
+    checkNotNull(key);
+    checkNotNull(value);
+    return !snapshot.containsEntry(key, value) && mutate(copy -> copy.put(key, value));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if {@code key} or any of {@code values} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(K key, Iterable<? extends V> values) {
+    checkNotNull(key);
+    ImmutableSet<V> newValues = ImmutableSet.copyOf(values);
+    return !snapshot.get(key).containsAll(newValues)
+        && mutate(copy -> copy.putAll(key, newValues));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if any key or value in {@code multimap} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public boolean putAll(Multimap<? extends K, ? extends V> multimap) {
+    ImmutableSetMultimap<K, V> newEntries = ImmutableSetMultimap.copyOf(multimap);
+    return !snapshot.entries().containsAll(newEntries.entries())
+        && mutate(copy -> copy.putAll(newEntries));
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean remove(@CheckForNull Object key, @CheckForNull Object value) {
+    return snapshot.containsEntry(key, value) && mutate(copy -> copy.remove(key, value));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned set is immutable.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public ImmutableSet<V> removeAll(@CheckForNull Object key) {
+    if (!snapshot.containsKey(key)) {
+      return ImmutableSet.of();
+    }
+    return mutate(copy -> ImmutableSet.copyOf(copy.removeAll(key)));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Any duplicates in {@code values} are stored only once. The returned set is immutable.
+   *
+   * @throws NullPointerException if {@code key} or any of {@code values} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public ImmutableSet<V> replaceValues(K key, Iterable<? extends V> values) {
+    checkNotNull(key);
+    ImmutableSet<V> newValues = ImmutableSet.copyOf(values);
+    return mutate(copy -> ImmutableSet.copyOf(copy.replaceValues(key, newValues)));
+  }
+
+  @Override
+  public void clear() {
+    synchronized (lock) {
+      snapshot = ImmutableSetMultimap.of();
+    }
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    snapshot.forEach(action);
+  }
+
+  // Views
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned set is a live view of the values for {@code key}.
+   */
+  @Override
+  public Set<V> get(K key) {
+    return new WrappedSet(checkNotNull(key));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>Because a {@code SetMultimap} has unique values for a given key, this method returns a
+   * {@code Set}, instead of the {@code Collection} specified in the {@code Multimap} interface.
+   */
+  @Override
+  public Set<Entry<K, V>> entries() {
+    return (Set<Entry<K, V>>) super.entries();
+  }
+
+  @Override
+  Set<K> createKeySet() {
+    return new KeySet();
+  }
+
+  @Override
+  Multiset<K> createKeys() {
+    return new Multimaps.Keys<>(this);
+  }
+
+  @Override
+  Collection<V> createValues() {
+    return new Values();
+  }
+
+  @Override
+  Collection<Entry<K, V>> createEntries() {
+    return new EntrySet();
+  }
+
+  @Override
+  Map<K, Collection<V>> createAsMap() {
+    return new Multimaps.AsMap<>(this);
+  }
+
+  @Override
+  Iterator<Entry<K, V>> entryIterator() {
+    return Iterators.removingThrough(
+        snapshot.entries().iterator(), entry -> remove(entry.getKey(), entry.getValue()));
+  }
+
+  private final class KeySet extends Sets.ImprovedAbstractSet<K> {
+    @Override
+    public Iterator<K> iterator() {
+      return Iterators.removingThrough(
+          snapshot.keySet().iterator(), key -> CopyOnWriteSetMultimap.this.removeAll(key));
+    }
+
+    @Override
+    public int size() {
+      return snapshot.keySet().size();
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object key) {
+      return containsKey(key);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object key) {
+      return !CopyOnWriteSetMultimap.this.removeAll(key).isEmpty();
+    }
+
+    @Override
+    public void clear() {
+      CopyOnWriteSetMultimap.this.clear();
+    }
+  }
+
+  /** A live view of the values for a key. */
+  private final class WrappedSet extends Sets.ImprovedAbstractSet<V> {
+    final K key;
+
+    WrappedSet(K key) {
+      this.key = key;
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return Iterators.removingThrough(
+          snapshot.get(key).iterator(), value -> CopyOnWriteSetMultimap.this.remove(key, value));
+    }
+
+    @Override
+    public int size() {
+      return snapshot.get(key).size();
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return containsEntry(key, object);
+    }
+
+    @Override
+    public boolean add(V value) {
+      return put(key, value);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends V> values) {
+      return putAll(key, values);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object object) {
+      return CopyOnWriteSetMultimap.this.remove(key, object);
+    }
+
+    @Override
+    public void clear() {
+      CopyOnWriteSetMultimap.this.removeAll(key);
+    }
+  }
+
+  // Comparing the current snapshot keeps these consistent while writers publish new snapshots.
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    return object == this || snapshot.equals(object);
+  }
+
+  @Override
+  public int hashCode() {
+    return snapshot.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return snapshot.toString();
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(snapshot);
+  }
+
+  /** Serialized form of a copy-on-write set multimap, holding its current snapshot. */
+  private static final class SerializedForm implements Serializable {
+    private final ImmutableSetMultimap<?, ?> snapshot;
+
+    SerializedForm(ImmutableSetMultimap<?, ?> snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    Object readResolve() {
+      return new CopyOnWriteSetMultimap<>(snapshot);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * A thread-safe {@code Table} in which all changes are made by publishing a new {@code
+ * ImmutableTable}, for data that is read far more often than it is changed.
+ *
+ * <p>Reads take no locks: each one reads the current snapshot through a volatile field and then
+ * queries it, at the cost of an immutable table. {@code snapshot()} returns that table, so a reader
+ * that needs several consistent reads can take a snapshot once and query it directly.
+ *
+ * <p>Each change copies the table, so it takes time linear in its size. Writers are serialized by
+ * a lock, and every operation, including {@code putAll}, {@code clear} and the removal of a whole
+ * row or column through {@code rowMap()} or {@code columnMap()}, is atomic. Changes that leave the
+ * table unchanged, such as putting a value that is already present, return without copying or
+ * locking. To make many changes at the cost of one copy, and atomically, pass them to {@code
+ * update}.
+ *
+ * <p>The views returned by this table are live: each query reads the current snapshot, and each
+ * change goes through the table. Their iterators traverse the snapshot at the time they were
+ * created and never throw {@code ConcurrentModificationException}.
+ *
+ * <p>Row keys, column keys and values may not be null. The table and its views iterate in the
+ * order of the current snapshot, which is built by {@code ImmutableTable.copyOf}.
+ *
+ * @param <R> the type of the table row keys
+ * @param <C> the type of the table column keys
+ * @param <V> the type of the mapped values
+ */
+@ElementTypesAreNonnullByDefault
+public final class CopyOnWriteTable<R, C, V> extends AbstractTable<R, C, V>
+    implements Serializable {
+  /** Creates a new, empty {@code CopyOnWriteTable}. */
+  public static <R, C, V> CopyOnWriteTable<R, C, V> create() {
+    return new CopyOnWriteTable<>(ImmutableTable.<R, C, V>of());
+  }
+
+  /**
+   * Creates a {@code CopyOnWriteTable} with the same mappings as the specified table.
+   *
+   * @throws NullPointerException if any key or value in {@code table} is null
+   */
+  public static <R, C, V> CopyOnWriteTable<R, C, V> create(
+      Table<? extends R, ? extends C, ? extends V> table) {
+    return new CopyOnWriteTable<>(ImmutableTable.copyOf(table));
+  }
+
+  private transient volatile ImmutableTable<R, C, V> snapshot;
+  private final transient Object lock = new Object();
+
+  private CopyOnWriteTable(ImmutableTable<R, C, V> snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * Returns the current contents of this table. Later changes to this table are not reflected in
+   * the returned table.
+   */
+  public ImmutableTable<R, C, V> snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * Atomically applies the changes made by {@code changes} to a mutable copy of this table. No
+   * reader sees any of the changes until they have all been made, and then one copy of the result
+   * is published. If {@code changes} throws an exception, none of the changes are made.
+   *
+   * <p>The copy may only be used during the call to {@code changes}, which must not change this
+   * table directly.
+   *
+   * @throws NullPointerException if {@code changes} adds a null key or value
+   */
+  public void update(Consumer<? super Table<R, C, V>> changes) {
+    checkNotNull(changes);
+    mutate(
+        copy -> {
+          changes.accept(copy);
+          return null;
+        });
+  }
+
+  /**
+   * Applies {@code mutation} to a mutable copy of the current snapshot and publishes the result if
+   * it differs, returning the result of {@code mutation}.
+   */
+  @CanIgnoreReturnValue
+  private <T> T mutate(Function<Table<R, C, V>, T> mutation) {
+    synchronized (lock) {
+      ImmutableTable<R, C, V> current = snapshot;
+      Table<R, C, V> copy = HashBasedTable.create(current);
+      T result = mutation.apply(copy);
+      if (!copy.equals(current)) {
+        snapshot = ImmutableTable.copyOf(copy);
+      }
+      return result;
+    }
+  }
+
+  // Query Operations
+
+  @Override
+  public int size() {
+    return snapshot.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return snapshot.isEmpty();
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object rowKey, @CheckForNull Object columnKey) {
+    return snapshot.contains(rowKey, columnKey);
+  }
+
+  @Override
+  public boolean containsRow(@CheckForNull Object rowKey) {
+    return snapshot.containsRow(rowKey);
+  }
+
+  @Override
+  public boolean containsColumn(@CheckForNull Object columnKey) {
+    return snapshot.containsColumn(columnKey);
+  }
+
+  @Override
+  public boolean containsValue(@CheckForNull Object value) {
+    return snapshot.containsValue(value);
+  }
+
+  @Override
+  @CheckForNull
+  public V get(@CheckForNull Object rowKey, @CheckForNull Object columnKey) {
+    return snapshot.get(rowKey, columnKey);
+  }
+
+  // Modification Operations
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if {@code rowKey}, {@code columnKey} or {@code value} is null
+   */
+  @CanIgnoreReturnValue
+  @Override
+  @CheckForNull
+  public V put(R rowKey, C columnKey, V value) {
+    checkNotNull(rowKey);
+    checkNotNull(columnKey);
+    checkNotNull(value);
+    V oldValue = snapshot.get(rowKey, columnKey);
+    if (value.equals(oldValue)) {
+      return oldValue;
+    }
+    return mutate(copy -> copy.put(rowKey, columnKey, value));
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws NullPointerException if any key or value in {@code table} is null
+   */
+  @Override
+  public void putAll(Table<? extends R, ? extends C, ? extends V> table) {
+    ImmutableTable<R, C, V> newCells = ImmutableTable.copyOf(table);
+    if (!snapshot.cellSet().containsAll(newCells.cellSet())) {
+      update(copy -> copy.putAll(newCells));
+    }
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  @CheckForNull
+  public V remove(@CheckForNull Object rowKey, @CheckForNull Object columnKey) {
+    if (!snapshot.contains(rowKey, columnKey)) {
+      return null;
+    }
+    return mutate(copy -> copy.remove(rowKey, columnKey));
+  }
+
+  @Override
+  public void clear() {
+    synchronized (lock) {
+      snapshot = ImmutableTable.of();
+    }
+  }
+
+  @CheckForNull
+  private Map<C, V> removeRow(@CheckForNull Object rowKey) {
+    if (!snapshot.containsRow(rowKey)) {
+      return null;
+    }
+    return mutate(
+        copy -> {
+          Map<C, V> row = copy.rowMap().remove(rowKey);
+          return (row == null) ? null : ImmutableMap.copyOf(row);
+        });
+  }
+
+  @CheckForNull
+  private Map<R, V> removeColumn(@CheckForNull Object columnKey) {
+    if (!snapshot.containsColumn(columnKey)) {
+      return null;
+    }
+    return mutate(
+        copy -> {
+          Map<R, V> column = copy.columnMap().remove(columnKey);
+          return (column == null) ? null : ImmutableMap.copyOf(column);
+        });
+  }
+
+  // Views
+
+  @Override
+  Iterator<Cell<R, C, V>> cellIterator() {
+    return Iterators.removingThrough(
+        snapshot.cellSet().iterator(), cell -> remove(cell.getRowKey(), cell.getColumnKey()));
+  }
+
+  @Override
+  Spliterator<Cell<R, C, V>> cellSpliterator() {
+    return snapshot.cellSet().spliterator();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned map is a live view of the row.
+   */
+  @Override
+  public Map<C, V> row(R rowKey) {
+    checkNotNull(rowKey);
+    return new Slice<C>() {
+      @Override
+      ImmutableMap<C, V> current() {
+        return snapshot.row(rowKey);
+      }
+
+      @Override
+      @CheckForNull
+      public V put(C columnKey, V value) {
+        return CopyOnWriteTable.this.put(rowKey, columnKey, value);
+      }
+
+      @Override
+      @CheckForNull
+      public V remove(@CheckForNull Object columnKey) {
+        return CopyOnWriteTable.this.remove(rowKey, columnKey);
+      }
+
+      @Override
+      public void clear() {
+        removeRow(rowKey);
+      }
+    };
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The returned map is a live view of the column.
+   */
+  @Override
+  public Map<R, V> column(C columnKey) {
+    checkNotNull(columnKey);
+    return new Slice<R>() {
+      @Override
+      ImmutableMap<R, V> current() {
+        return snapshot.column(columnKey);
+      }
+
+      @Override
+      @CheckForNull
+      public V put(R rowKey, V value) {
+        return CopyOnWriteTable.this.put(rowKey, columnKey, value);
+      }
+
+      @Override
+      @CheckForNull
+      public V remove(@CheckForNull Object rowKey) {
+        return CopyOnWriteTable.this.remove(rowKey, columnKey);
+      }
+
+      @Override
+      public void clear() {
+        removeColumn(columnKey);
+      }
+    };
+  }
+
+  @LazyInit @CheckForNull private transient Map<R, Map<C, V>> rowMap;
+
+  @Override
+  public Map<R, Map<C, V>> rowMap() {
+    Map<R, Map<C, V>> result = rowMap;
+    return (result == null)
+        ? rowMap =
+            new SliceMap<R, C>() {
+              @Override
+              Set<R> keys() {
+                return snapshot.rowKeySet();
+              }
+
+              @Override
+              Map<C, V> slice(R rowKey) {
+                return row(rowKey);
+              }
+
+              @Override
+              @CheckForNull
+              public Map<C, V> remove(@CheckForNull Object rowKey) {
+                return removeRow(rowKey);
+              }
+            }
+        : result;
+  }
+
+  @LazyInit @CheckForNull private transient Map<C, Map<R, V>> columnMap;
+
+  @Override
+  public Map<C, Map<R, V>> columnMap() {
+    Map<C, Map<R, V>> result = columnMap;
+    return (result == null)
+        ? columnMap =
+            new SliceMap<C, R>() {
+              @Override
+              Set<C> keys() {
+                return snapshot.columnKeySet();
+              }
+
+              @Override
+              Map<R, V> slice(C columnKey) {
+                return column(columnKey);
+              }
+
+              @Override
+              @CheckForNull
+              public Map<R, V> remove(@CheckForNull Object columnKey) {
+                return removeColumn(columnKey);
+              }
+            }
+        : result;
+  }
+
+  /** A live view of a row or column, whose changes go through the table. */
+  private abstract class Slice<K> extends Maps.IteratorBasedAbstractMap<K, V> {
+    /** Returns the row or column in the current snapshot. */
+    abstract ImmutableMap<K, V> current();
+
+    @Override
+    public int size() {
+      return current().size();
+    }
+
+    @Override
+    public boolean containsKey(@CheckForNull Object key) {
+      return current().containsKey(key);
+    }
+
+    @Override
+    @CheckForNull
+    public V get(@CheckForNull Object key) {
+      return current().get(key);
+    }
+
+    @Override
+    public Set<K> keySet() {
+      return new Maps.KeySet<>(this);
+    }
+
+    @Override
+    Iterator<Entry<K, V>> entryIterator() {
+      return Iterators.removingThrough(
+          Iterators.transform(
+              current().entrySet().iterator(),
+              entry -> new ReadWriteLocked.SnapshotEntry<>(entry.getKey(), entry.getValue(), this)),
+          entry -> remove(entry.getKey()));
+    }
+  }
+
+  /** A live view of the rows or columns of the table, keyed by row or column key. */
+  private abstract class SliceMap<K, K2> extends Maps.IteratorBasedAbstractMap<K, Map<K2, V>> {
+    /** Returns the row or column keys of the current snapshot. */
+    abstract Set<K> keys();
+
+    abstract Map<K2, V> slice(K key);
+
+    @Override
+    public int size() {
+      return keys().size();
+    }
+
+    @Override
+    public boolean containsKey(@CheckForNull Object key) {
+      return keys().contains(key);
+    }
+
+    @Override
+    @CheckForNull
+    public Map<K2, V> get(@CheckForNull Object key) {
+      if (!containsKey(key)) {
+        return null;
+      }
+      @SuppressWarnings("unchecked") // the snapshot only contains K keys
+      K k = (K) key;
+      return slice(k);
+    }
+
+    @Override
+    public void clear() {
+      CopyOnWriteTable.this.clear();
+    }
+
+    @Override
+    public Set<K> keySet() {
+      return new Maps.KeySet<>(this);
+    }
+
+    @Override
+    Iterator<Entry<K, Map<K2, V>>> entryIterator() {
+      return Iterators.removingThrough(
+          Iterators.transform(keys().iterator(), key -> Maps.immutableEntry(key, slice(key))),
+          entry -> remove(entry.getKey()));
+    }
+  }
+
+  // Comparing the current snapshot keeps these consistent while writers publish new snapshots.
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    return object == this || snapshot.equals(object);
+  }
+
+  @Override
+  public int hashCode() {
+    return snapshot.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return snapshot.toString();
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(snapshot);
+  }
+
+  /** Serialized form of a copy-on-write table, holding its current snapshot. */
+  private static final class SerializedForm implements Serializable {
+    private final ImmutableTable<?, ?, ?> snapshot;
+
+    SerializedForm(ImmutableTable<?, ?, ?> snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    Object readResolve() {
+      return new CopyOnWriteTable<>(snapshot);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import dev.mccue.guava.math.IntMath;
+import dev.mccue.guava.primitives.Ints;
+
+/**
+ * A probabilistic estimate of how often each hash has been seen recently, as used by the TinyLFU
+ * admission policy: a count-min sketch with four 4-bit counters per hash, which are all halved
+ * once the number of increments reaches ten times the capacity, so that old popularity fades.
+ *
+ * <p>Hashes are expected to be well spread already. This class is not thread-safe; callers guard
+ * it with a lock.
+ */
+@ElementTypesAreNonnullByDefault
+final class FrequencySketch {
+  private static final long[] SEEDS = {
+    0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+  };
+
+  /** Clears the high bit of each counter after the counters have been shifted right by one. */
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  /** Selects the low bit of each counter. */
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  /** The maximum number of hashes worth tracking; the table never grows beyond this. */
+  private final int maximumCapacity;
+
+  /** Sixteen 4-bit counters per slot. */
+  private long[] table;
+
+  /** The number of increments after which all counters are halved. */
+  private int sampleSize;
+
+  /** The number of increments since the counters were last halved. */
+  private int size;
+
+  FrequencySketch(int maximumCapacity) {
+    this.maximumCapacity = max(1, maximumCapacity);
+    this.table = new long[1];
+    this.sampleSize = 10;
+  }
+
+  /**
+   * Grows the sketch to track about {@code expectedSize} hashes, capped at the maximum capacity.
+   * Growing discards the counts gathered so far.
+   */
+  void ensureCapacity(int expectedSize) {
+    int capacity = min(max(1, expectedSize), maximumCapacity);
+    if (table.length >= capacity) {
+      return;
+    }
+    table = new long[IntMath.ceilingPowerOfTwo(min(capacity, Ints.MAX_POWER_OF_TWO))];
+    sampleSize = (int) min(10L * capacity, Integer.MAX_VALUE);
+    size = 0;
+  }
+
+  /** Returns the estimated number of occurrences of {@code hash}, from 0 to 15. */
+  int frequency(int hash) {
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int shift = (start + i) << 2;
+      int count = (int) ((table[indexOf(hash, i)] >>> shift) & 0xfL);
+      frequency = min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /** Records an occurrence of {@code hash}, halving all counters if the sample is complete. */
+  void increment(int hash) {
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++size >= sampleSize) {
+      reset();
+    }
+  }
+
+  /** Increments counter {@code j} of slot {@code i} unless it is saturated. */
+  private boolean incrementAt(int i, int j) {
+    int shift = j << 2;
+    long mask = 0xfL << shift;
+    if ((table[i] & mask) != mask) {
+      table[i] += 1L << shift;
+      return true;
+    }
+    return false;
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (hash + SEEDS[i]) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & (table.length - 1);
+  }
+
+  /** Halves every counter, and the size to match. */
+  private void reset() {
+    int odd = 0;
+    for (int i = 0; i < table.length; i++) {
+      odd += Long.bitCount(table[i] & ONE_MASK);
+      table[i] = (table[i] >>> 1) & RESET_MASK;
+    }
+    // Each halved odd counter loses half an increment, and each hash owns four counters.
+    size = (size >>> 1) - (odd >>> 2);
+  }
+}
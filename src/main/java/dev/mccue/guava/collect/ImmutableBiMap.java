@@ -674,5 +674,34 @@ public abstract class ImmutableBiMap<K, V> extends ImmutableMap<K, V> implements
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Not supported. Use {@code #toImmutableBiMap} instead. This method exists only to hide {@code
+   * ImmutableMap#toImmutableMapUnordered} from consumers of {@code ImmutableBiMap}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableBiMap#toImmutableBiMap}.
+   */
+  @Deprecated
+  @DoNotCall("Use toImmutableBiMap")
+  public static <T extends @Nullable Object, K, V>
+      Collector<T, ?, ImmutableMap<K, V>> toImmutableMapUnordered(
+          Function<? super T, ? extends K> keyFunction,
+          Function<? super T, ? extends V> valueFunction) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported. Use {@code #copyOf(Map)} instead. This method exists only to hide {@code
+   * ImmutableMap#copyOfParallel} from consumers of {@code ImmutableBiMap}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableBiMap#copyOf(Map)}.
+   */
+  @Deprecated
+  @DoNotCall("Use copyOf")
+  public static <K, V> ImmutableBiMap<K, V> copyOfParallel(Map<? extends K, ? extends V> map) {
+    throw new UnsupportedOperationException();
+  }
+
   private static final long serialVersionUID = 0xcafebabe;
 }
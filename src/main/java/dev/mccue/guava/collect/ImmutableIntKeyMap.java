@@ -0,0 +1,501 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.PrimitiveHashing.ABSENT;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotMock;
+import com.google.errorprone.annotations.Immutable;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable map from {@code int} keys to non-null values, with the keys stored without boxing.
+ * Like {@code ImmutableMap}, it iterates in the order keys were first added, and {@code #asMap}
+ * exposes it as an {@code ImmutableMap<Integer, V>} for APIs that need a {@code Map}.
+ *
+ * <p>Keys and values are kept in parallel arrays found through an open-addressed index table, so
+ * the map allocates no entry objects. Unlike {@code ImmutableMap}, there is no fallback for
+ * deliberately colliding keys, so lookups can degrade to linear time if an adversary chooses them.
+ *
+ * @param <V> the type of the mapped values
+ */
+@Immutable(containerOf = "V")
+@ElementTypesAreNonnullByDefault
+public final class ImmutableIntKeyMap<V> implements Serializable {
+  /** An operation that accepts an {@code int} key and its value. */
+  @FunctionalInterface
+  public interface EntryConsumer<V> {
+    /** Performs this operation on the given mapping. */
+    void accept(int key, V value);
+  }
+
+  private static final ImmutableIntKeyMap<Object> EMPTY =
+      new ImmutableIntKeyMap<>(new int[0], new Object[0], PrimitiveHashing.createTable(0));
+
+  /** Returns the empty map. */
+  @SuppressWarnings("unchecked") // it has no values so the type variable doesn't matter
+  public static <V> ImmutableIntKeyMap<V> of() {
+    return (ImmutableIntKeyMap<V>) EMPTY;
+  }
+
+  /** Returns an immutable map containing a single entry. */
+  public static <V> ImmutableIntKeyMap<V> of(int k1, V v1) {
+    return new Builder<V>(1).put(k1, v1).buildOrThrow();
+  }
+
+  /**
+   * Returns an immutable map containing the given entries, in order.
+   *
+   * @throws IllegalArgumentException if duplicate keys are provided
+   */
+  public static <V> ImmutableIntKeyMap<V> of(int k1, V v1, int k2, V v2) {
+    return new Builder<V>(2).put(k1, v1).put(k2, v2).buildOrThrow();
+  }
+
+  /**
+   * Returns an immutable map containing the given entries, in order.
+   *
+   * @throws IllegalArgumentException if duplicate keys are provided
+   */
+  public static <V> ImmutableIntKeyMap<V> of(int k1, V v1, int k2, V v2, int k3, V v3) {
+    return new Builder<V>(3).put(k1, v1).put(k2, v2).put(k3, v3).buildOrThrow();
+  }
+
+  /**
+   * Returns an immutable map containing the same entries as {@code map}, in the iteration order of
+   * {@code map}.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   */
+  public static <V> ImmutableIntKeyMap<V> copyOf(Map<Integer, ? extends V> map) {
+    return new Builder<V>(map.size()).putAll(map).buildOrThrow();
+  }
+
+  /**
+   * Returns a {@code Collector} that accumulates elements into an {@code ImmutableIntKeyMap} whose
+   * keys and values are the result of applying the provided mapping functions to the input
+   * elements. Entries appear in the result in encounter order.
+   *
+   * <p>If the mapped keys contain duplicates, an {@code IllegalArgumentException} is thrown when
+   * the collection operation is performed. (This differs from the {@code Collector} returned by
+   * {@code java.util.stream.Collectors#toMap(Function, Function)}, which throws an {@code
+   * IllegalStateException}.)
+   */
+  public static <T extends @Nullable Object, V>
+      Collector<T, ?, ImmutableIntKeyMap<V>> toImmutableIntKeyMap(
+          ToIntFunction<? super T> keyFunction, Function<? super T, ? extends V> valueFunction) {
+    return CollectCollectors.toImmutableIntKeyMap(keyFunction, valueFunction);
+  }
+
+  /**
+   * Returns a {@code Collector} that accumulates elements into an {@code ImmutableIntKeyMap} whose
+   * keys and values are the result of applying the provided mapping functions to the input
+   * elements.
+   *
+   * <p>If the mapped keys contain duplicates, the values are merged using the specified merging
+   * function. Entries will appear in the encounter order of the first occurrence of the key.
+   */
+  public static <T extends @Nullable Object, V>
+      Collector<T, ?, ImmutableIntKeyMap<V>> toImmutableIntKeyMap(
+          ToIntFunction<? super T> keyFunction,
+          Function<? super T, ? extends V> valueFunction,
+          BinaryOperator<V> mergeFunction) {
+    return CollectCollectors.toImmutableIntKeyMap(keyFunction, valueFunction, mergeFunction);
+  }
+
+  /** Returns a new builder for an {@code ImmutableIntKeyMap}. */
+  public static <V> Builder<V> builder() {
+    return new Builder<>(ImmutableCollection.Builder.DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Returns a new builder, expecting the specified number of entries to be added.
+   *
+   * <p>If {@code expectedSize} is exactly the number of entries added to the builder before {@code
+   * Builder#buildOrThrow} is called, the builder is likely to perform better than an unsized
+   * {@code #builder()} would have.
+   */
+  public static <V> Builder<V> builderWithExpectedSize(int expectedSize) {
+    checkNonnegative(expectedSize, "expectedSize");
+    return new Builder<>(expectedSize);
+  }
+
+  /**
+   * A builder for {@code ImmutableIntKeyMap} instances. Like {@code ImmutableMap.Builder}, it
+   * records every {@code put} and resolves duplicate keys when the map is built.
+   */
+  @DoNotMock
+  public static final class Builder<V> {
+    private int[] keys;
+    private @Nullable Object[] values;
+    private int size;
+
+    Builder(int initialCapacity) {
+      this.keys = new int[initialCapacity];
+      this.values = new @Nullable Object[initialCapacity];
+    }
+
+    private void ensureCapacity(int minCapacity) {
+      if (minCapacity > keys.length) {
+        int newCapacity = ImmutableCollection.Builder.expandedCapacity(keys.length, minCapacity);
+        keys = Arrays.copyOf(keys, newCapacity);
+        values = Arrays.copyOf(values, newCapacity);
+      }
+    }
+
+    /**
+     * Associates {@code key} with {@code value} in the built map. If the same key is put more than
+     * once, {@code #buildOrThrow} will fail, while {@code #buildKeepingLast} will keep the last
+     * value put for that key.
+     */
+    @CanIgnoreReturnValue
+    public Builder<V> put(int key, V value) {
+      checkNotNull(value, "null value in entry: %s=null", key);
+      ensureCapacity(size + 1);
+      keys[size] = key;
+      values[size] = value;
+      size++;
+      return this;
+    }
+
+    /**
+     * Associates all of the given map's keys and values in the built map.
+     *
+     * @throws NullPointerException if any key or value in {@code map} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<V> putAll(Map<Integer, ? extends V> map) {
+      ensureCapacity(size + map.size());
+      for (Entry<Integer, ? extends V> entry : map.entrySet()) {
+        Integer key = checkNotNull(entry.getKey(), "null key in entry: null=%s", entry.getValue());
+        put(key, entry.getValue());
+      }
+      return this;
+    }
+
+    /** Associates all of the given map's keys and values in the built map. */
+    @CanIgnoreReturnValue
+    public Builder<V> putAll(ImmutableIntKeyMap<? extends V> map) {
+      ensureCapacity(size + map.size());
+      System.arraycopy(map.keys, 0, keys, size, map.size());
+      System.arraycopy(map.values, 0, values, size, map.size());
+      size += map.size();
+      return this;
+    }
+
+    @CanIgnoreReturnValue
+    Builder<V> combine(Builder<V> other) {
+      ensureCapacity(size + other.size);
+      System.arraycopy(other.keys, 0, keys, size, other.size);
+      System.arraycopy(other.values, 0, values, size, other.size);
+      size += other.size;
+      return this;
+    }
+
+    /**
+     * Returns a newly-created immutable map, or throws an exception if any key was added more than
+     * once. The iteration order of the returned map is the order in which entries were inserted
+     * into the builder.
+     *
+     * @throws IllegalArgumentException if duplicate keys were added
+     */
+    public ImmutableIntKeyMap<V> buildOrThrow() {
+      return build(true);
+    }
+
+    /**
+     * Returns a newly-created immutable map, using the last value for any key that was added more
+     * than once. If a key was added more than once, it appears in iteration order based on the
+     * first time it was added.
+     */
+    public ImmutableIntKeyMap<V> buildKeepingLast() {
+      return build(false);
+    }
+
+    private ImmutableIntKeyMap<V> build(boolean throwIfDuplicateKeys) {
+      if (size == 0) {
+        return of();
+      }
+      // Work on copies: the builder may be used again, and a later buildOrThrow() must still see
+      // the duplicates.
+      int[] mapKeys = new int[size];
+      Object[] mapValues = new Object[size];
+      int[] table = PrimitiveHashing.createTable(size);
+      int distinct = 0;
+      for (int i = 0; i < size; i++) {
+        int existing = PrimitiveHashing.insert(table, mapKeys, distinct, keys[i]);
+        if (existing == ABSENT) {
+          mapValues[distinct++] = values[i];
+        } else if (throwIfDuplicateKeys) {
+          throw ImmutableMap.conflictException(
+              "key", keys[i] + "=" + values[i], keys[i] + "=" + mapValues[existing]);
+        } else {
+          mapValues[existing] = values[i];
+        }
+      }
+      if (distinct < size) {
+        mapKeys = Arrays.copyOf(mapKeys, distinct);
+        mapValues = Arrays.copyOf(mapValues, distinct);
+        if (ImmutableSet.chooseTableSize(distinct) != table.length) {
+          table = PrimitiveHashing.index(mapKeys, distinct);
+        }
+      }
+      return new ImmutableIntKeyMap<>(mapKeys, mapValues, table);
+    }
+  }
+
+  // The arrays are never mutated after storing in these fields and the construction strategies
+  // ensure they don't escape this class
+  @SuppressWarnings("Immutable")
+  private final int[] keys;
+
+  @SuppressWarnings("Immutable")
+  private final Object[] values;
+
+  @SuppressWarnings("Immutable")
+  private final transient int[] table;
+
+  private ImmutableIntKeyMap(int[] keys, Object[] values, int[] table) {
+    this.keys = keys;
+    this.values = values;
+    this.table = table;
+  }
+
+  /** Returns the number of entries in this map. */
+  public int size() {
+    return keys.length;
+  }
+
+  /** Returns {@code true} if this map contains no entries. */
+  public boolean isEmpty() {
+    return keys.length == 0;
+  }
+
+  /** Returns {@code true} if this map contains a mapping for {@code key}. */
+  public boolean containsKey(int key) {
+    return PrimitiveHashing.find(table, keys, key) != ABSENT;
+  }
+
+  /** Returns the value to which {@code key} is mapped, or {@code null} if there is none. */
+  @CheckForNull
+  public V get(int key) {
+    int index = PrimitiveHashing.find(table, keys, key);
+    return (index == ABSENT) ? null : valueAt(index);
+  }
+
+  /**
+   * Returns the value to which {@code key} is mapped, or {@code defaultValue} if there is none.
+   */
+  @CheckForNull
+  public V getOrDefault(int key, @CheckForNull V defaultValue) {
+    int index = PrimitiveHashing.find(table, keys, key);
+    return (index == ABSENT) ? defaultValue : valueAt(index);
+  }
+
+  @SuppressWarnings("unchecked") // values are only ever V
+  private V valueAt(int index) {
+    return (V) values[index];
+  }
+
+  /** Invokes {@code action} for each entry in this map, in iteration order, without boxing. */
+  public void forEach(EntryConsumer<? super V> action) {
+    checkNotNull(action);
+    for (int i = 0; i < keys.length; i++) {
+      action.accept(keys[i], valueAt(i));
+    }
+  }
+
+  /** Returns the keys of this map, in iteration order, sharing this map's storage. */
+  public ImmutableIntSet keySet() {
+    return ImmutableIntSet.fromIndexedArray(keys, table);
+  }
+
+  /** Returns the values of this map, in iteration order, without copying. */
+  public ImmutableList<V> values() {
+    return ImmutableList.asImmutableList(values);
+  }
+
+  /**
+   * Returns an immutable <i>view</i> of this map as an {@code ImmutableMap<Integer, V>}; note that
+   * keys are boxed into {@code Integer} instances on demand, and entries are created as they are
+   * iterated. Lookups through the view are not boxed beyond the argument itself.
+   */
+  public ImmutableMap<Integer, V> asMap() {
+    return new AsMap<>(this);
+  }
+
+  private static final class AsMap<V> extends ImmutableMap.IteratorBasedImmutableMap<Integer, V> {
+    private final ImmutableIntKeyMap<V> parent;
+
+    AsMap(ImmutableIntKeyMap<V> parent) {
+      this.parent = parent;
+    }
+
+    @Override
+    public int size() {
+      return parent.size();
+    }
+
+    @Override
+    @CheckForNull
+    public V get(@CheckForNull Object key) {
+      return (key instanceof Integer) ? parent.get((Integer) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(@CheckForNull Object key) {
+      return key instanceof Integer && parent.containsKey((Integer) key);
+    }
+
+    @Override
+    UnmodifiableIterator<Entry<Integer, V>> entryIterator() {
+      return new AbstractIndexedListIterator<Entry<Integer, V>>(parent.size()) {
+        @Override
+        protected Entry<Integer, V> get(int index) {
+          return new ImmutableMapEntry<>(parent.keys[index], parent.valueAt(index));
+        }
+      };
+    }
+
+    @Override
+    ImmutableSet<Integer> createKeySet() {
+      return parent.keySet().asSet();
+    }
+
+    @Override
+    ImmutableCollection<V> createValues() {
+      return parent.values();
+    }
+
+    @Override
+    public int hashCode() {
+      return parent.hashCode();
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is an {@code ImmutableIntKeyMap} with the same mappings
+   * as this one, in any order.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof ImmutableIntKeyMap)) {
+      return false;
+    }
+    ImmutableIntKeyMap<?> that = (ImmutableIntKeyMap<?>) object;
+    if (this.size() != that.size()) {
+      return false;
+    }
+    for (int i = 0; i < that.keys.length; i++) {
+      int index = PrimitiveHashing.find(table, keys, that.keys[i]);
+      if (index == ABSENT || !values[index].equals(that.values[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as {@code asMap().hashCode()}. */
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int i = 0; i < keys.length; i++) {
+      hashCode += keys[i] ^ values[i].hashCode();
+    }
+    return hashCode;
+  }
+
+  /**
+   * Returns a string representation of this map in the same form as {@code
+   * java.util.AbstractMap#toString()}, for example {@code "{1=a, 2=b}"}.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder(size() * 8).append('{');
+    for (int i = 0; i < keys.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(keys[i]).append('=').append(values[i]);
+    }
+    return builder.append('}').toString();
+  }
+
+  // serialization
+  Object writeReplace() {
+    return new SerializedForm(keys, values);
+  }
+
+  // serialization
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  // serialization
+  private static final class SerializedForm implements Serializable {
+    final int[] keys;
+    final Object[] values;
+
+    SerializedForm(int[] keys, Object[] values) {
+      this.keys = keys;
+      this.values = values;
+    }
+
+    Object readResolve() {
+      Builder<Object> builder = new Builder<>(keys.length);
+      for (int i = 0; i < keys.length; i++) {
+        builder.put(keys[i], values[i]);
+      }
+      return builder.buildOrThrow();
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
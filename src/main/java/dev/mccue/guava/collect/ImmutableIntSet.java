@@ -0,0 +1,425 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.PrimitiveHashing.ABSENT;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.Immutable;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * An immutable set of {@code int} values, stored without boxing. Like {@code ImmutableSet}, it
+ * iterates in the order values were first added, and {@code #asSet} exposes it as an {@code
+ * ImmutableSet<Integer>} for APIs that need a {@code Set}.
+ *
+ * <p>Values are kept in an {@code int[]} and found through an open-addressed index table, for about
+ * ten bytes per value instead of the thirty or more a boxed {@code ImmutableSet} needs. Unlike
+ * {@code ImmutableSet}, there is no fallback for deliberately colliding inputs, so lookups can
+ * degrade to linear time if an adversary chooses the values.
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+public final class ImmutableIntSet implements Serializable {
+  private static final ImmutableIntSet EMPTY =
+      new ImmutableIntSet(new int[0], PrimitiveHashing.createTable(0), 0);
+
+  /** Returns the empty set. */
+  public static ImmutableIntSet of() {
+    return EMPTY;
+  }
+
+  /** Returns an immutable set containing a single value. */
+  public static ImmutableIntSet of(int e0) {
+    return copyOf(new int[] {e0});
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  // Use (first, rest) so that `of(someIntArray)` won't compile (they should use copyOf).
+  public static ImmutableIntSet of(int first, int... rest) {
+    return builder(rest.length + 1).add(first).addAll(rest).build();
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  public static ImmutableIntSet copyOf(int[] values) {
+    return builder(values.length).addAll(values).build();
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  public static ImmutableIntSet copyOf(Collection<Integer> values) {
+    return builder(values.size()).addAll(values).build();
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  public static ImmutableIntSet copyOf(Iterable<Integer> values) {
+    if (values instanceof Collection) {
+      return copyOf((Collection<Integer>) values);
+    }
+    return builder().addAll(values).build();
+  }
+
+  /**
+   * Returns an immutable set containing the values from {@code stream}, minus duplicates, in
+   * encounter order.
+   */
+  public static ImmutableIntSet copyOf(IntStream stream) {
+    return copyOf(stream.toArray());
+  }
+
+  /**
+   * Returns a {@code Collector} that accumulates the input elements into a new {@code
+   * ImmutableIntSet}. Elements appear in the resulting set in the order they first appeared in the
+   * encounter order of the stream.
+   */
+  public static Collector<Integer, ?, ImmutableIntSet> toImmutableIntSet() {
+    return CollectCollectors.toImmutableIntSet();
+  }
+
+  /** Returns a new builder for an {@code ImmutableIntSet}. */
+  public static Builder builder() {
+    return new Builder(ImmutableCollection.Builder.DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Returns a new builder, expecting the specified number of distinct values to be added.
+   *
+   * <p>If {@code expectedSize} is exactly the number of distinct values added to the builder
+   * before {@code Builder#build} is called, the builder is likely to perform better than an
+   * unsized {@code #builder()} would have.
+   *
+   * <p>It is not specified if any performance benefits apply if {@code expectedSize} is close to,
+   * but not exactly, the number of distinct values added to the builder.
+   */
+  public static Builder builder(int expectedSize) {
+    checkNonnegative(expectedSize, "expectedSize");
+    return new Builder(expectedSize);
+  }
+
+  /**
+   * A builder for {@code ImmutableIntSet} instances; obtained using {@code
+   * ImmutableIntSet#builder}. Duplicates are discarded as they are added, so the builder only holds
+   * the distinct values.
+   */
+  public static final class Builder {
+    private int[] elements;
+    private int[] table;
+    private int size;
+
+    Builder(int expectedSize) {
+      this.elements = new int[expectedSize];
+      this.table = PrimitiveHashing.createTable(expectedSize);
+    }
+
+    /** Adds {@code value} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder add(int value) {
+      if (size == elements.length) {
+        elements =
+            Arrays.copyOf(
+                elements, ImmutableCollection.Builder.expandedCapacity(elements.length, size + 1));
+      }
+      if (PrimitiveHashing.insert(table, elements, size, value) == ABSENT) {
+        size++;
+        if (ImmutableSet.chooseTableSize(size) > table.length) {
+          table = PrimitiveHashing.index(elements, size);
+        }
+      }
+      return this;
+    }
+
+    /** Adds each of {@code values} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(int[] values) {
+      for (int value : values) {
+        add(value);
+      }
+      return this;
+    }
+
+    /** Adds each of {@code values} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(Iterable<Integer> values) {
+      for (Integer value : values) {
+        add(value);
+      }
+      return this;
+    }
+
+    /** Adds each value in {@code stream} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(IntStream stream) {
+      stream.forEachOrdered(this::add);
+      return this;
+    }
+
+    /** Adds each of {@code values} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(ImmutableIntSet values) {
+      return addAll(values.elements);
+    }
+
+    @CanIgnoreReturnValue
+    Builder combine(Builder other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.elements[i]);
+      }
+      return this;
+    }
+
+    /**
+     * Returns a newly-created {@code ImmutableIntSet} based on the contents of this builder. The
+     * builder can continue to be used after this call.
+     */
+    public ImmutableIntSet build() {
+      if (size == 0) {
+        return EMPTY;
+      }
+      int[] setElements = Arrays.copyOf(elements, size);
+      // The table may be oversized if the expected size was too high.
+      int[] setTable =
+          (ImmutableSet.chooseTableSize(size) == table.length)
+              ? table.clone()
+              : PrimitiveHashing.index(setElements, size);
+      int hashCode = 0;
+      for (int element : setElements) {
+        hashCode += element;
+      }
+      return new ImmutableIntSet(setElements, setTable, hashCode);
+    }
+  }
+
+  // The arrays are never mutated after storing in these fields and the construction strategies
+  // ensure they don't escape this class
+  @SuppressWarnings("Immutable")
+  private final int[] elements;
+
+  @SuppressWarnings("Immutable")
+  private final transient int[] table;
+
+  private final transient int hashCode;
+
+  private ImmutableIntSet(int[] elements, int[] table, int hashCode) {
+    this.elements = elements;
+    this.table = table;
+    this.hashCode = hashCode;
+  }
+
+  /** Creates a set that shares the given arrays, which must be fully populated and distinct. */
+  static ImmutableIntSet fromIndexedArray(int[] elements, int[] table) {
+    if (elements.length == 0) {
+      return EMPTY;
+    }
+    int hashCode = 0;
+    for (int element : elements) {
+      hashCode += element;
+    }
+    return new ImmutableIntSet(elements, table, hashCode);
+  }
+
+  /** Returns the number of values in this set. */
+  public int size() {
+    return elements.length;
+  }
+
+  /** Returns {@code true} if this set contains no values. */
+  public boolean isEmpty() {
+    return elements.length == 0;
+  }
+
+  /** Returns {@code true} if this set contains {@code value}. */
+  public boolean contains(int value) {
+    return PrimitiveHashing.find(table, elements, value) != ABSENT;
+  }
+
+  /** Invokes {@code consumer} for each value in this set, in iteration order. */
+  public void forEach(IntConsumer consumer) {
+    checkNotNull(consumer);
+    for (int element : elements) {
+      consumer.accept(element);
+    }
+  }
+
+  /** Returns a stream over the values in this set, in iteration order. */
+  public IntStream stream() {
+    return Arrays.stream(elements);
+  }
+
+  /** Returns a new, mutable copy of this set's values, as a primitive {@code int[]}. */
+  public int[] toArray() {
+    return elements.clone();
+  }
+
+  Spliterator.OfInt spliterator() {
+    return Spliterators.spliterator(elements, ImmutableSet.SPLITERATOR_CHARACTERISTICS);
+  }
+
+  /** Returns an immutable list of the values in this set, in iteration order. */
+  public ImmutableIntList asList() {
+    return ImmutableIntList.copyOf(elements);
+  }
+
+  /**
+   * Returns an immutable <i>view</i> of this set as an {@code ImmutableSet<Integer>}; note that
+   * {@code int} values are boxed into {@code Integer} instances on demand, which can be very
+   * expensive. Lookups through the view are not boxed beyond the argument itself.
+   */
+  public ImmutableSet<Integer> asSet() {
+    return new AsSet(this);
+  }
+
+  private static final class AsSet extends IndexedImmutableSet<Integer> {
+    private final ImmutableIntSet parent;
+
+    AsSet(ImmutableIntSet parent) {
+      this.parent = parent;
+    }
+
+    @Override
+    Integer get(int index) {
+      return parent.elements[index];
+    }
+
+    @Override
+    public int size() {
+      return parent.size();
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object target) {
+      return target instanceof Integer && parent.contains((Integer) target);
+    }
+
+    @Override
+    public Spliterator<Integer> spliterator() {
+      return parent.spliterator();
+    }
+
+    @Override
+    public int hashCode() {
+      return parent.hashCode;
+    }
+
+    @Override
+    boolean isHashCodeFast() {
+      return true;
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is an {@code ImmutableIntSet} containing the same
+   * values as this one, in any order.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof ImmutableIntSet)) {
+      return false;
+    }
+    ImmutableIntSet that = (ImmutableIntSet) object;
+    if (this.size() != that.size() || this.hashCode != that.hashCode) {
+      return false;
+    }
+    for (int element : that.elements) {
+      if (!contains(element)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as {@code asSet().hashCode()}. */
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  /**
+   * Returns a string representation of this set in the same form as {@code
+   * java.util.AbstractCollection#toString()}, for example {@code "[1, 2, 3]"}.
+   */
+  @Override
+  public String toString() {
+    return asList().toString();
+  }
+
+  // serialization
+  Object writeReplace() {
+    return new SerializedForm(elements);
+  }
+
+  // serialization
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  // serialization
+  private static final class SerializedForm implements Serializable {
+    final int[] elements;
+
+    SerializedForm(int[] elements) {
+      this.elements = elements;
+    }
+
+    Object readResolve() {
+      return copyOf(elements);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
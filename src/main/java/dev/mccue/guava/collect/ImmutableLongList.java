@@ -0,0 +1,444 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.Immutable;
+import dev.mccue.guava.primitives.ImmutableLongArray;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * An immutable list of {@code long} values, stored without boxing. It has the same iteration and
+ * equality semantics as an {@code ImmutableList<Long>}, and {@code #asList} exposes it as one
+ * for APIs that need a {@code List}.
+ *
+ * <p>The values are held in a {@code dev.mccue.guava.primitives.ImmutableLongArray}, so as with
+ * that class, a sublist shares the backing array of its parent; use {@code #trimmed} to release
+ * the rest.
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+public final class ImmutableLongList implements Serializable {
+  private static final ImmutableLongList EMPTY = new ImmutableLongList(ImmutableLongArray.of());
+
+  /** Returns the empty list. */
+  public static ImmutableLongList of() {
+    return EMPTY;
+  }
+
+  /** Returns an immutable list containing a single value. */
+  public static ImmutableLongList of(long e0) {
+    return new ImmutableLongList(ImmutableLongArray.of(e0));
+  }
+
+  /** Returns an immutable list containing the given values, in order. */
+  public static ImmutableLongList of(long e0, long e1) {
+    return new ImmutableLongList(ImmutableLongArray.of(e0, e1));
+  }
+
+  /** Returns an immutable list containing the given values, in order. */
+  public static ImmutableLongList of(long e0, long e1, long e2) {
+    return new ImmutableLongList(ImmutableLongArray.of(e0, e1, e2));
+  }
+
+  /**
+   * Returns an immutable list containing the given values, in order.
+   *
+   * <p>The list {@code rest} must not be longer than {@code Integer.MAX_VALUE - 1}.
+   */
+  // Use (first, rest) so that `of(someLongArray)` won't compile (they should use copyOf).
+  public static ImmutableLongList of(long first, long... rest) {
+    return new ImmutableLongList(ImmutableLongArray.of(first, rest));
+  }
+
+  /** Returns an immutable list containing the given values, in order. */
+  public static ImmutableLongList copyOf(long[] values) {
+    return wrap(ImmutableLongArray.copyOf(values));
+  }
+
+  /** Returns an immutable list containing the given values, in order. */
+  public static ImmutableLongList copyOf(Collection<Long> values) {
+    return wrap(ImmutableLongArray.copyOf(values));
+  }
+
+  /**
+   * Returns an immutable list containing the given values, in order.
+   *
+   * <p><b>Performance note:</b> this method delegates to {@code #copyOf(Collection)} if {@code
+   * values} is a {@code Collection}. Otherwise it creates a {@code #builder} and uses {@code
+   * Builder#addAll(Iterable)}, with all the performance implications associated with that.
+   */
+  public static ImmutableLongList copyOf(Iterable<Long> values) {
+    return wrap(ImmutableLongArray.copyOf(values));
+  }
+
+  /** Returns an immutable list containing all the values from {@code stream}, in order. */
+  public static ImmutableLongList copyOf(LongStream stream) {
+    return wrap(ImmutableLongArray.copyOf(stream));
+  }
+
+  /** Returns a list holding the values of {@code array}. */
+  static ImmutableLongList wrap(ImmutableLongArray array) {
+    return array.isEmpty() ? EMPTY : new ImmutableLongList(array);
+  }
+
+  /**
+   * Returns a {@code Collector} that accumulates the input elements into a new {@code
+   * ImmutableLongList}, in encounter order.
+   */
+  public static Collector<Long, ?, ImmutableLongList> toImmutableLongList() {
+    return CollectCollectors.toImmutableLongList();
+  }
+
+  /**
+   * Returns a new, empty builder for {@code ImmutableLongList} instances, sized to hold up to
+   * {@code initialCapacity} values without resizing. The returned builder is not thread-safe.
+   *
+   * <p><b>Performance note:</b> When feasible, {@code initialCapacity} should be the exact number
+   * of values that will be added, if that knowledge is readily available. It is better to guess a
+   * value slightly too high than slightly too low. If the value is not exact, the {@code
+   * ImmutableLongList} that is built will very likely occupy more memory than strictly necessary;
+   * to trim memory usage, build using {@code builder.build().trimmed()}.
+   */
+  public static Builder builder(int initialCapacity) {
+    return new Builder(ImmutableLongArray.builder(initialCapacity));
+  }
+
+  /**
+   * Returns a new, empty builder for {@code ImmutableLongList} instances, with a default initial
+   * capacity. The returned builder is not thread-safe.
+   *
+   * <p><b>Performance note:</b> The {@code ImmutableLongList} that is built will very likely occupy
+   * more memory than necessary; to trim memory usage, build using {@code
+   * builder.build().trimmed()}.
+   */
+  public static Builder builder() {
+    return new Builder(ImmutableLongArray.builder());
+  }
+
+  /**
+   * A builder for {@code ImmutableLongList} instances; obtained using {@code
+   * ImmutableLongList#builder}.
+   */
+  public static final class Builder {
+    private final ImmutableLongArray.Builder builder;
+
+    private Builder(ImmutableLongArray.Builder builder) {
+      this.builder = builder;
+    }
+
+    /**
+     * Appends {@code value} to the end of the values the built {@code ImmutableLongList} will
+     * contain.
+     */
+    @CanIgnoreReturnValue
+    public Builder add(long value) {
+      builder.add(value);
+      return this;
+    }
+
+    /**
+     * Appends {@code values}, in order, to the end of the values the built {@code
+     * ImmutableLongList} will contain.
+     */
+    @CanIgnoreReturnValue
+    public Builder addAll(long[] values) {
+      builder.addAll(values);
+      return this;
+    }
+
+    /**
+     * Appends {@code values}, in order, to the end of the values the built {@code
+     * ImmutableLongList} will contain.
+     */
+    @CanIgnoreReturnValue
+    public Builder addAll(Iterable<Long> values) {
+      builder.addAll(values);
+      return this;
+    }
+
+    /**
+     * Appends {@code values}, in order, to the end of the values the built {@code
+     * ImmutableLongList} will contain.
+     */
+    @CanIgnoreReturnValue
+    public Builder addAll(Collection<Long> values) {
+      builder.addAll(values);
+      return this;
+    }
+
+    /**
+     * Appends all values from {@code stream}, in order, to the end of the values the built {@code
+     * ImmutableLongList} will contain.
+     */
+    @CanIgnoreReturnValue
+    public Builder addAll(LongStream stream) {
+      builder.addAll(stream);
+      return this;
+    }
+
+    /**
+     * Appends {@code values}, in order, to the end of the values the built {@code
+     * ImmutableLongList} will contain.
+     */
+    @CanIgnoreReturnValue
+    public Builder addAll(ImmutableLongList values) {
+      builder.addAll(values.array);
+      return this;
+    }
+
+    @CanIgnoreReturnValue
+    Builder combine(Builder other) {
+      // Building does not copy, so this copies other's values only once.
+      builder.addAll(other.builder.build());
+      return this;
+    }
+
+    /**
+     * Returns a new immutable list. The builder can continue to be used after this call, to append
+     * more values and build again.
+     *
+     * <p><b>Performance note:</b> the returned list is backed by the same array as the builder, so
+     * no data is copied as part of this step, but this may occupy more memory than strictly
+     * necessary. To copy the data to a right-sized backing array, use {@code .build().trimmed()}.
+     */
+    public ImmutableLongList build() {
+      return wrap(builder.build());
+    }
+  }
+
+  private final ImmutableLongArray array;
+
+  private ImmutableLongList(ImmutableLongArray array) {
+    this.array = array;
+  }
+
+  /** Returns the number of values in this list. */
+  public int size() {
+    return array.length();
+  }
+
+  /** Returns {@code true} if there are no values in this list ({@code #size} is zero). */
+  public boolean isEmpty() {
+    return array.isEmpty();
+  }
+
+  /**
+   * Returns the {@code long} value present at the given index.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative, or greater than or equal to
+   *     {@code #size}
+   */
+  public long get(int index) {
+    return array.get(index);
+  }
+
+  /**
+   * Returns the smallest index for which {@code #get} returns {@code target}, or {@code -1} if no
+   * such index exists. Equivalent to {@code asList().indexOf(target)}.
+   */
+  public int indexOf(long target) {
+    return array.indexOf(target);
+  }
+
+  /**
+   * Returns the largest index for which {@code #get} returns {@code target}, or {@code -1} if no
+   * such index exists. Equivalent to {@code asList().lastIndexOf(target)}.
+   */
+  public int lastIndexOf(long target) {
+    return array.lastIndexOf(target);
+  }
+
+  /**
+   * Returns {@code true} if {@code target} is present at any index in this list. Equivalent to
+   * {@code asList().contains(target)}.
+   */
+  public boolean contains(long target) {
+    return array.contains(target);
+  }
+
+  /** Invokes {@code consumer} for each value contained in this list, in order. */
+  public void forEach(LongConsumer consumer) {
+    array.forEach(checkNotNull(consumer));
+  }
+
+  /** Returns a stream over the values in this list, in order. */
+  public LongStream stream() {
+    return array.stream();
+  }
+
+  /** Returns a new, mutable copy of this list's values, as a primitive {@code long[]}. */
+  public long[] toArray() {
+    return array.toArray();
+  }
+
+  /**
+   * Returns a new immutable list containing the values in the specified range.
+   *
+   * <p><b>Performance note:</b> The returned list has the same full memory footprint as this one
+   * does (no actual copying is performed). To reduce memory usage, use {@code
+   * subList(start, end).trimmed()}.
+   */
+  public ImmutableLongList subList(int startIndex, int endIndex) {
+    return wrap(array.subArray(startIndex, endIndex));
+  }
+
+  Spliterator.OfLong spliterator() {
+    return array.stream().spliterator();
+  }
+
+  /**
+   * Returns an immutable <i>view</i> of this list's values as an {@code ImmutableList<Long>};
+   * note that {@code long} values are boxed into {@code Long} instances on demand, which can be
+   * very expensive. The returned list should be used once and discarded. For any usages beyond
+   * that, pass the returned list to {@code ImmutableList#copyOf(Collection)} and use that
+   * instead.
+   */
+  public ImmutableList<Long> asList() {
+    return new AsList(this);
+  }
+
+  private static final class AsList extends ImmutableList<Long> {
+    private final ImmutableLongList parent;
+
+    private AsList(ImmutableLongList parent) {
+      this.parent = parent;
+    }
+
+    // inherit: isEmpty, containsAll, toArray x2, iterator, listIterator, mutations
+
+    @Override
+    public int size() {
+      return parent.size();
+    }
+
+    @Override
+    public Long get(int index) {
+      return parent.get(index);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object target) {
+      return indexOf(target) >= 0;
+    }
+
+    @Override
+    public int indexOf(@CheckForNull Object target) {
+      return target instanceof Long ? parent.indexOf((Long) target) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(@CheckForNull Object target) {
+      return target instanceof Long ? parent.lastIndexOf((Long) target) : -1;
+    }
+
+    @Override
+    public ImmutableList<Long> subList(int fromIndex, int toIndex) {
+      return parent.subList(fromIndex, toIndex).asList();
+    }
+
+    @Override
+    public Spliterator<Long> spliterator() {
+      return parent.spliterator();
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object object) {
+      if (object instanceof AsList) {
+        AsList that = (AsList) object;
+        return this.parent.equals(that.parent);
+      }
+      return super.equals(object);
+    }
+
+    @Override
+    public int hashCode() {
+      return parent.hashCode();
+    }
+
+    // Report a partial view so that ImmutableList.copyOf boxes the values once instead of keeping
+    // this view, which boxes them on every access.
+    @Override
+    boolean isPartialView() {
+      return true;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is an {@code ImmutableLongList} containing the same
+   * values as this one, in the same order.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof ImmutableLongList)) {
+      return false;
+    }
+    ImmutableLongList that = (ImmutableLongList) object;
+    return this.array.equals(that.array);
+  }
+
+  /** Returns the same hash code as {@code asList().hashCode()}. */
+  @Override
+  public int hashCode() {
+    return array.hashCode();
+  }
+
+  /**
+   * Returns a string representation of this list in the same form as {@code
+   * java.util.AbstractCollection#toString()}, for example {@code "[1, 2, 3]"}.
+   */
+  @Override
+  public String toString() {
+    return array.toString();
+  }
+
+  /**
+   * Returns an immutable list containing the same values as {@code this} list. This is logically a
+   * no-op, and in some circumstances {@code this} itself is returned. However, if this instance is
+   * a {@code #subList} view of a larger list, this method will copy only the appropriate range of
+   * values, resulting in an equivalent list with a smaller memory footprint.
+   */
+  public ImmutableLongList trimmed() {
+    ImmutableLongArray trimmed = array.trimmed();
+    return (trimmed == array) ? this : new ImmutableLongList(trimmed);
+  }
+
+  Object readResolve() {
+    return isEmpty() ? EMPTY : this;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.PrimitiveHashing.ABSENT;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.Immutable;
+import dev.mccue.guava.primitives.Longs;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.Collector;
+import java.util.stream.LongStream;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * An immutable set of {@code long} values, stored without boxing. Like {@code ImmutableSet}, it
+ * iterates in the order values were first added, and {@code #asSet} exposes it as an {@code
+ * ImmutableSet<Long>} for APIs that need a {@code Set}.
+ *
+ * <p>Values are kept in a {@code long[]} and found through an open-addressed index table, for about
+ * fourteen bytes per value instead of the forty or more a boxed {@code ImmutableSet} needs. Unlike
+ * {@code ImmutableSet}, there is no fallback for deliberately colliding inputs, so lookups can
+ * degrade to linear time if an adversary chooses the values.
+ */
+@Immutable
+@ElementTypesAreNonnullByDefault
+public final class ImmutableLongSet implements Serializable {
+  private static final ImmutableLongSet EMPTY =
+      new ImmutableLongSet(new long[0], PrimitiveHashing.createTable(0), 0);
+
+  /** Returns the empty set. */
+  public static ImmutableLongSet of() {
+    return EMPTY;
+  }
+
+  /** Returns an immutable set containing a single value. */
+  public static ImmutableLongSet of(long e0) {
+    return copyOf(new long[] {e0});
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  // Use (first, rest) so that `of(someLongArray)` won't compile (they should use copyOf).
+  public static ImmutableLongSet of(long first, long... rest) {
+    return builder(rest.length + 1).add(first).addAll(rest).build();
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  public static ImmutableLongSet copyOf(long[] values) {
+    return builder(values.length).addAll(values).build();
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  public static ImmutableLongSet copyOf(Collection<Long> values) {
+    return builder(values.size()).addAll(values).build();
+  }
+
+  /**
+   * Returns an immutable set containing the given values, minus duplicates, in the order each was
+   * first specified.
+   */
+  public static ImmutableLongSet copyOf(Iterable<Long> values) {
+    if (values instanceof Collection) {
+      return copyOf((Collection<Long>) values);
+    }
+    return builder().addAll(values).build();
+  }
+
+  /**
+   * Returns an immutable set containing the values from {@code stream}, minus duplicates, in
+   * encounter order.
+   */
+  public static ImmutableLongSet copyOf(LongStream stream) {
+    return copyOf(stream.toArray());
+  }
+
+  /**
+   * Returns a {@code Collector} that accumulates the input elements into a new {@code
+   * ImmutableLongSet}. Elements appear in the resulting set in the order they first appeared in the
+   * encounter order of the stream.
+   */
+  public static Collector<Long, ?, ImmutableLongSet> toImmutableLongSet() {
+    return CollectCollectors.toImmutableLongSet();
+  }
+
+  /** Returns a new builder for an {@code ImmutableLongSet}. */
+  public static Builder builder() {
+    return new Builder(ImmutableCollection.Builder.DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * Returns a new builder, expecting the specified number of distinct values to be added.
+   *
+   * <p>If {@code expectedSize} is exactly the number of distinct values added to the builder
+   * before {@code Builder#build} is called, the builder is likely to perform better than an
+   * unsized {@code #builder()} would have.
+   *
+   * <p>It is not specified if any performance benefits apply if {@code expectedSize} is close to,
+   * but not exactly, the number of distinct values added to the builder.
+   */
+  public static Builder builder(int expectedSize) {
+    checkNonnegative(expectedSize, "expectedSize");
+    return new Builder(expectedSize);
+  }
+
+  /**
+   * A builder for {@code ImmutableLongSet} instances; obtained using {@code
+   * ImmutableLongSet#builder}. Duplicates are discarded as they are added, so the builder only
+   * holds the distinct values.
+   */
+  public static final class Builder {
+    private long[] elements;
+    private int[] table;
+    private int size;
+
+    Builder(int expectedSize) {
+      this.elements = new long[expectedSize];
+      this.table = PrimitiveHashing.createTable(expectedSize);
+    }
+
+    /** Adds {@code value} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder add(long value) {
+      if (size == elements.length) {
+        elements =
+            Arrays.copyOf(
+                elements, ImmutableCollection.Builder.expandedCapacity(elements.length, size + 1));
+      }
+      if (PrimitiveHashing.insert(table, elements, size, value) == ABSENT) {
+        size++;
+        if (ImmutableSet.chooseTableSize(size) > table.length) {
+          table = PrimitiveHashing.index(elements, size);
+        }
+      }
+      return this;
+    }
+
+    /** Adds each of {@code values} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(long[] values) {
+      for (long value : values) {
+        add(value);
+      }
+      return this;
+    }
+
+    /** Adds each of {@code values} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(Iterable<Long> values) {
+      for (Long value : values) {
+        add(value);
+      }
+      return this;
+    }
+
+    /** Adds each value in {@code stream} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(LongStream stream) {
+      stream.forEachOrdered(this::add);
+      return this;
+    }
+
+    /** Adds each of {@code values} to the built set, unless it is already present. */
+    @CanIgnoreReturnValue
+    public Builder addAll(ImmutableLongSet values) {
+      return addAll(values.elements);
+    }
+
+    @CanIgnoreReturnValue
+    Builder combine(Builder other) {
+      for (int i = 0; i < other.size; i++) {
+        add(other.elements[i]);
+      }
+      return this;
+    }
+
+    /**
+     * Returns a newly-created {@code ImmutableLongSet} based on the contents of this builder. The
+     * builder can continue to be used after this call.
+     */
+    public ImmutableLongSet build() {
+      if (size == 0) {
+        return EMPTY;
+      }
+      long[] setElements = Arrays.copyOf(elements, size);
+      // The table may be oversized if the expected size was too high.
+      int[] setTable =
+          (ImmutableSet.chooseTableSize(size) == table.length)
+              ? table.clone()
+              : PrimitiveHashing.index(setElements, size);
+      int hashCode = 0;
+      for (long element : setElements) {
+        hashCode += Longs.hashCode(element);
+      }
+      return new ImmutableLongSet(setElements, setTable, hashCode);
+    }
+  }
+
+  // The arrays are never mutated after storing in these fields and the construction strategies
+  // ensure they don't escape this class
+  @SuppressWarnings("Immutable")
+  private final long[] elements;
+
+  @SuppressWarnings("Immutable")
+  private final transient int[] table;
+
+  private final transient int hashCode;
+
+  private ImmutableLongSet(long[] elements, int[] table, int hashCode) {
+    this.elements = elements;
+    this.table = table;
+    this.hashCode = hashCode;
+  }
+
+  /** Creates a set that shares the given arrays, which must be fully populated and distinct. */
+  static ImmutableLongSet fromIndexedArray(long[] elements, int[] table) {
+    if (elements.length == 0) {
+      return EMPTY;
+    }
+    int hashCode = 0;
+    for (long element : elements) {
+      hashCode += Longs.hashCode(element);
+    }
+    return new ImmutableLongSet(elements, table, hashCode);
+  }
+
+  /** Returns the number of values in this set. */
+  public int size() {
+    return elements.length;
+  }
+
+  /** Returns {@code true} if this set contains no values. */
+  public boolean isEmpty() {
+    return elements.length == 0;
+  }
+
+  /** Returns {@code true} if this set contains {@code value}. */
+  public boolean contains(long value) {
+    return PrimitiveHashing.find(table, elements, value) != ABSENT;
+  }
+
+  /** Invokes {@code consumer} for each value in this set, in iteration order. */
+  public void forEach(LongConsumer consumer) {
+    checkNotNull(consumer);
+    for (long element : elements) {
+      consumer.accept(element);
+    }
+  }
+
+  /** Returns a stream over the values in this set, in iteration order. */
+  public LongStream stream() {
+    return Arrays.stream(elements);
+  }
+
+  /** Returns a new, mutable copy of this set's values, as a primitive {@code long[]}. */
+  public long[] toArray() {
+    return elements.clone();
+  }
+
+  Spliterator.OfLong spliterator() {
+    return Spliterators.spliterator(elements, ImmutableSet.SPLITERATOR_CHARACTERISTICS);
+  }
+
+  /** Returns an immutable list of the values in this set, in iteration order. */
+  public ImmutableLongList asList() {
+    return ImmutableLongList.copyOf(elements);
+  }
+
+  /**
+   * Returns an immutable <i>view</i> of this set as an {@code ImmutableSet<Long>}; note that
+   * {@code long} values are boxed into {@code Long} instances on demand, which can be very
+   * expensive. Lookups through the view are not boxed beyond the argument itself.
+   */
+  public ImmutableSet<Long> asSet() {
+    return new AsSet(this);
+  }
+
+  private static final class AsSet extends IndexedImmutableSet<Long> {
+    private final ImmutableLongSet parent;
+
+    AsSet(ImmutableLongSet parent) {
+      this.parent = parent;
+    }
+
+    @Override
+    Long get(int index) {
+      return parent.elements[index];
+    }
+
+    @Override
+    public int size() {
+      return parent.size();
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object target) {
+      return target instanceof Long && parent.contains((Long) target);
+    }
+
+    @Override
+    public Spliterator<Long> spliterator() {
+      return parent.spliterator();
+    }
+
+    @Override
+    public int hashCode() {
+      return parent.hashCode;
+    }
+
+    @Override
+    boolean isHashCodeFast() {
+      return true;
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    // serialization
+    // serialization
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * Returns {@code true} if {@code object} is an {@code ImmutableLongSet} containing the same
+   * values as this one, in any order.
+   */
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object == this) {
+      return true;
+    }
+    if (!(object instanceof ImmutableLongSet)) {
+      return false;
+    }
+    ImmutableLongSet that = (ImmutableLongSet) object;
+    if (this.size() != that.size() || this.hashCode != that.hashCode) {
+      return false;
+    }
+    for (long element : that.elements) {
+      if (!contains(element)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the same hash code as {@code asSet().hashCode()}. */
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  /**
+   * Returns a string representation of this set in the same form as {@code
+   * java.util.AbstractCollection#toString()}, for example {@code "[1, 2, 3]"}.
+   */
+  @Override
+  public String toString() {
+    return asList().toString();
+  }
+
+  // serialization
+  Object writeReplace() {
+    return new SerializedForm(elements);
+  }
+
+  // serialization
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  // serialization
+  private static final class SerializedForm implements Serializable {
+    final long[] elements;
+
+    SerializedForm(long[] elements) {
+      this.elements = elements;
+    }
+
+    Object readResolve() {
+      return copyOf(elements);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -88,6 +88,26 @@ public abstract class ImmutableMap<K, V> implements Map<K, V>, Serializable {
     return CollectCollectors.toImmutableMap(keyFunction, valueFunction);
   }
 
+  /**
+   * Returns a {@code Collector} that accumulates elements into an {@code ImmutableMap} whose keys
+   * and values are the result of applying the provided mapping functions to the input elements.
+   * Entries appear in the result in an unspecified order, instead of in encounter order.
+   *
+   * <p>The collector is concurrent: a parallel stream puts all of its entries into one shared
+   * concurrent map instead of building a map per task and merging them, and the immutable map is
+   * built once, from that map, with {@code #copyOfParallel}. Prefer it to {@code
+   * #toImmutableMap(Function, Function)} for large parallel streams whose order does not matter.
+   *
+   * <p>If the mapped keys contain duplicates (according to {@code Object#equals(Object)}), an
+   * {@code IllegalArgumentException} is thrown when the collection operation is performed.
+   */
+  public static <T extends @Nullable Object, K, V>
+      Collector<T, ?, ImmutableMap<K, V>> toImmutableMapUnordered(
+          Function<? super T, ? extends K> keyFunction,
+          Function<? super T, ? extends V> valueFunction) {
+    return CollectCollectors.toImmutableMapUnordered(keyFunction, valueFunction);
+  }
+
   /**
    * Returns a {@code Collector} that accumulates elements into an {@code ImmutableMap} whose keys
    * and values are the result of applying the provided mapping functions to the input elements.
@@ -698,6 +718,37 @@ public abstract class ImmutableMap<K, V> implements Map<K, V>, Serializable {
     return copyOf(map.entrySet());
   }
 
+  /**
+   * Returns an immutable map containing the same entries as {@code map}, like {@code copyOf(Map)},
+   * but reads the entries and builds the hash table in parallel in the common {@code
+   * ForkJoinPool}. The returned map is equal to, and iterates in the same order as, the one {@code
+   * copyOf(map)} returns.
+   *
+   * <p>This is worthwhile for maps of millions of entries, particularly when their keys are
+   * expensive to hash or compare. Smaller maps are simply copied on the calling thread. The keys'
+   * {@code hashCode} and {@code equals} methods are called from several threads at once.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   * @throws IllegalArgumentException if two keys of {@code map} are equal according to {@code
+   *     equals}, which a map with a different notion of equality may allow
+   */
+  public static <K, V> ImmutableMap<K, V> copyOfParallel(Map<? extends K, ? extends V> map) {
+    if (map.size() < CompactHashing.MIN_PARALLEL_BUILD_SIZE
+        || map instanceof EnumMap
+        || (map instanceof ImmutableMap
+            && !(map instanceof SortedMap)
+            && !((ImmutableMap<?, ?>) map).isPartialView())) {
+      return copyOf(map);
+    }
+    @SuppressWarnings("unchecked") // we'll only be using getKey and getValue, which are covariant
+    Entry<K, V>[] entryArray = (Entry<K, V>[]) map.entrySet().toArray(EMPTY_ENTRY_ARRAY);
+    if (entryArray.length < CompactHashing.MIN_PARALLEL_BUILD_SIZE) {
+      // map is concurrent and shrank since we checked
+      return copyOf(Arrays.asList(entryArray));
+    }
+    return CompactImmutableMap.fromEntryArrayInParallel(entryArray);
+  }
+
   /**
    * Returns an immutable map containing the specified entries. The returned map iterates over
    * entries in the same order as the original iterable.
@@ -625,6 +625,11 @@ public abstract class ImmutableMultimap<K, V> extends BaseImmutableMultimap<K, V
       return multimap.entryIterator();
     }
 
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+      return multimap.entrySpliterator();
+    }
+
     @Override
     boolean isPartialView() {
       return multimap.isPartialView();
@@ -687,16 +692,22 @@ public abstract class ImmutableMultimap<K, V> extends BaseImmutableMultimap<K, V
 
   @Override
   Spliterator<Entry<K, V>> entrySpliterator() {
-    return CollectSpliterators.flatMap(
-        asMap().entrySet().spliterator(),
-        keyToValueCollectionEntry -> {
+    ImmutableList<? extends Entry<K, ? extends ImmutableCollection<V>>> keyToValueCollections =
+        map.entrySet().asList();
+    return CollectSpliterators.flatMapIndexed(
+        keyToValueCollections.size(),
+        i -> {
+          Entry<K, ? extends ImmutableCollection<V>> keyToValueCollectionEntry =
+              keyToValueCollections.get(i);
           K key = keyToValueCollectionEntry.getKey();
-          Collection<V> valueCollection = keyToValueCollectionEntry.getValue();
           return CollectSpliterators.map(
-              valueCollection.spliterator(), (V value) -> immutableEntry(key, value));
+              keyToValueCollectionEntry.getValue().spliterator(),
+              (V value) -> immutableEntry(key, value));
         },
-        Spliterator.SIZED | (this instanceof SetMultimap ? Spliterator.DISTINCT : 0),
-        size());
+        i -> keyToValueCollections.get(i).getValue().size(),
+        size(),
+        ImmutableCollection.SPLITERATOR_CHARACTERISTICS
+            | (this instanceof SetMultimap ? Spliterator.DISTINCT : 0));
   }
 
   @Override
@@ -830,6 +841,18 @@ public abstract class ImmutableMultimap<K, V> extends BaseImmutableMultimap<K, V
       return multimap.valueIterator();
     }
 
+    @Override
+    public Spliterator<V> spliterator() {
+      ImmutableList<? extends ImmutableCollection<V>> valueCollections =
+          multimap.map.values().asList();
+      return CollectSpliterators.flatMapIndexed(
+          valueCollections.size(),
+          i -> valueCollections.get(i).spliterator(),
+          i -> valueCollections.get(i).size(),
+          multimap.size(),
+          SPLITERATOR_CHARACTERISTICS);
+    }
+
     // not present in emulated superclass
     @Override
     int copyIntoArray(@Nullable Object[] dst, int offset) {
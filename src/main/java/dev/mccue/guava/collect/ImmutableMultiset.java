@@ -30,7 +30,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collector;
 import dev.mccue.jsr305.CheckForNull;
@@ -86,6 +88,34 @@ public abstract class ImmutableMultiset<E> extends ImmutableMultisetGwtSerializa
     return CollectCollectors.toImmutableMultiset(elementFunction, countFunction);
   }
 
+  /**
+   * Returns a {@code Collector} that accumulates the input elements into a new {@code
+   * ImmutableMultiset} whose elements iterate in an unspecified order, instead of by first
+   * appearance in encounter order.
+   *
+   * <p>The collector is concurrent: a parallel stream counts all of its elements in one shared
+   * {@code StripedConcurrentHashMultiset}, where threads adding the same element do not contend,
+   * instead of building a multiset per task and merging them.
+   */
+  public static <E> Collector<E, ?, ImmutableMultiset<E>> toImmutableMultisetUnordered() {
+    return CollectCollectors.toImmutableMultisetUnordered(Function.identity(), e -> 1);
+  }
+
+  /**
+   * Returns a {@code Collector} that accumulates elements into an {@code ImmutableMultiset} whose
+   * elements are the result of applying {@code elementFunction} to the inputs, with counts equal to
+   * the sum of the results of applying {@code countFunction} to the inputs mapped to each element.
+   * The elements iterate in an unspecified order.
+   *
+   * <p>The collector is concurrent, like {@code #toImmutableMultisetUnordered()}.
+   */
+  public static <T extends @Nullable Object, E>
+      Collector<T, ?, ImmutableMultiset<E>> toImmutableMultisetUnordered(
+          Function<? super T, ? extends E> elementFunction,
+          ToIntFunction<? super T> countFunction) {
+    return CollectCollectors.toImmutableMultisetUnordered(elementFunction, countFunction);
+  }
+
   /**
    * Returns the empty immutable multiset.
    *
@@ -364,6 +394,37 @@ public abstract class ImmutableMultiset<E> extends ImmutableMultisetGwtSerializa
 
   abstract Entry<E> getEntry(int index);
 
+  @Override
+  public Spliterator<E> spliterator() {
+    int distinct = elementSet().size();
+    long totalSize = size();
+    if (totalSize == Integer.MAX_VALUE) {
+      // size() saturates, but the spliterator is SIZED, so it needs the exact count.
+      totalSize = 0;
+      for (int i = 0; i < distinct; i++) {
+        totalSize += getEntry(i).getCount();
+      }
+    }
+    return CollectSpliterators.flatMapIndexed(
+        distinct,
+        i -> {
+          Entry<E> entry = getEntry(i);
+          return Collections.nCopies(entry.getCount(), entry.getElement()).spliterator();
+        },
+        i -> getEntry(i).getCount(),
+        totalSize,
+        SPLITERATOR_CHARACTERISTICS);
+  }
+
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super E> action) {
+    checkNotNull(action);
+    for (int i = 0, distinct = elementSet().size(); i < distinct; i++) {
+      Entry<E> entry = getEntry(i);
+      action.accept(entry.getElement(), entry.getCount());
+    }
+  }
+
   private final class EntrySet extends IndexedImmutableSet<Entry<E>> {
     @Override
     boolean isPartialView() {
@@ -39,8 +39,10 @@ import java.util.Iterator;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.Consumer;
 import java.util.stream.Collector;
+import java.util.stream.IntStream;
 import dev.mccue.jsr305.CheckForNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -69,6 +71,20 @@ public abstract class ImmutableSet<E> extends ImmutableCollection<E> implements
     return CollectCollectors.toImmutableSet();
   }
 
+  /**
+   * Returns a {@code Collector} that accumulates the input elements into a new {@code
+   * ImmutableSet} whose iteration order is unspecified, instead of following the encounter order of
+   * the stream.
+   *
+   * <p>The collector is concurrent: a parallel stream adds all of its elements to one shared
+   * concurrent set instead of building a set per task and merging them, and the immutable set is
+   * built once, from that set, with {@code #copyOfParallel}. Prefer it to {@code #toImmutableSet}
+   * for large parallel streams whose order does not matter.
+   */
+  public static <E> Collector<E, ?, ImmutableSet<E>> toImmutableSetUnordered() {
+    return CollectCollectors.toImmutableSetUnordered();
+  }
+
   /**
    * Returns the empty immutable set. Preferred over {@code Collections#emptySet} for code
    * consistency, and because the return type conveys the immutability guarantee.
@@ -203,6 +219,109 @@ public abstract class ImmutableSet<E> extends ImmutableCollection<E> implements
     return fromArrayWithExpectedSize(array, expectedSize);
   }
 
+  /**
+   * Returns an immutable set containing each of {@code elements}, minus duplicates, in the order
+   * each appears first in the source collection, like {@code copyOf(Collection)}, but hashes and
+   * deduplicates the elements in parallel in the common {@code ForkJoinPool}. The returned set is
+   * equal to, and iterates in the same order as, the one {@code copyOf(elements)} returns.
+   *
+   * <p>This is worthwhile for collections of millions of elements, particularly when they are
+   * expensive to hash or compare. Smaller collections are simply copied on the calling thread. The
+   * elements' {@code hashCode} and {@code equals} methods are called from several threads at once.
+   *
+   * @throws NullPointerException if any of {@code elements} is null
+   */
+  public static <E> ImmutableSet<E> copyOfParallel(Collection<? extends E> elements) {
+    if (elements.size() < CompactHashing.MIN_PARALLEL_BUILD_SIZE
+        || elements instanceof EnumSet
+        || (elements instanceof ImmutableSet
+            && !(elements instanceof SortedSet)
+            && !((ImmutableSet<?>) elements).isPartialView())) {
+      return copyOf(elements);
+    }
+    @SuppressWarnings("unchecked") // as in copyOf(Collection)
+    E[] array = (E[]) elements.toArray();
+    int expectedSize =
+        elements instanceof Set ? array.length : estimatedSizeForUnknownDuplication(array.length);
+    if (array.length < CompactHashing.MIN_PARALLEL_BUILD_SIZE) {
+      // elements is concurrent and shrank since we checked
+      return fromArrayWithExpectedSize(array, expectedSize);
+    }
+    return fromArrayInParallel(array, expectedSize);
+  }
+
+  /**
+   * Builds an ImmutableSet from an array of at least two elements, which it may overwrite, with the
+   * same elements and order as {@code fromArrayWithExpectedSize}. Each element's index goes into a
+   * shared table in parallel, which ends up holding the first index of each distinct element; those
+   * indices then pick out the distinct elements in order and form the hash table.
+   */
+  private static <E> ImmutableSet<E> fromArrayInParallel(E[] array, int expectedSize) {
+    int n = array.length;
+    int[] hashes = new int[n];
+    int tableSize = chooseTableSize(n);
+    int mask = tableSize - 1;
+    int maxRun = RegularSetBuilderImpl.maxRunBeforeFallback(tableSize);
+    AtomicIntegerArray indexTable = new AtomicIntegerArray(tableSize);
+    boolean flooded =
+        IntStream.range(0, n)
+            .parallel()
+            .anyMatch(
+                i -> {
+                  E e = checkNotNull(array[i]);
+                  int hash = e.hashCode();
+                  hashes[i] = hash;
+                  return !CompactHashing.insertConcurrently(
+                      indexTable,
+                      Hashing.smear(hash),
+                      i,
+                      e,
+                      j -> array[j],
+                      maxRun,
+                      /* keepFirst= */ true);
+                });
+    if (flooded) {
+      // The sequential build detects the same thing and falls back to JdkBackedSetBuilderImpl.
+      return fromArrayWithExpectedSize(array, expectedSize);
+    }
+    @Nullable Object[] firstTable = new @Nullable Object[tableSize];
+    boolean[] first = new boolean[n];
+    IntStream.range(0, tableSize)
+        .parallel()
+        .forEach(
+            tableIndex -> {
+              int index = CompactHashing.getNext(indexTable.get(tableIndex), mask) - 1;
+              if (index >= 0) {
+                firstTable[tableIndex] = array[index];
+                first[index] = true;
+              }
+            });
+    int distinct = 0;
+    int hashCode = 0;
+    for (int i = 0; i < n; i++) {
+      if (first[i]) {
+        array[distinct++] = array[i];
+        hashCode += hashes[i];
+      }
+    }
+    if (distinct == 1) {
+      return of(array[0]);
+    }
+    Object[] elements = (distinct == n) ? array : Arrays.copyOf(array, distinct);
+    int targetTableSize = chooseTableSize(distinct);
+    // as in RegularSetBuilderImpl.review()
+    @Nullable Object[] hashTable =
+        (targetTableSize * 2 < tableSize)
+            ? RegularSetBuilderImpl.rebuildHashTable(targetTableSize, elements, distinct)
+            : firstTable;
+    if (RegularSetBuilderImpl.hashFloodingDetected(hashTable)) {
+      @SuppressWarnings("unchecked") // we only put E instances into elements
+      E[] distinctElements = (E[]) elements;
+      return fromArrayWithExpectedSize(distinctElements, distinct);
+    }
+    return new RegularImmutableSet<>(elements, hashCode, hashTable, hashTable.length - 1);
+  }
+
   /**
    * Returns an immutable set containing each of {@code elements}, minus duplicates, in the order
    * each appears first in the source iterable. This method iterates over {@code elements} only
@@ -714,7 +833,7 @@ public abstract class ImmutableSet<E> extends ImmutableCollection<E> implements
    * <p>This implementation attempts to detect hash flooding, and if it's identified, falls back to
    * JdkBackedSetBuilderImpl.
    */
-  private static final class RegularSetBuilderImpl<E> extends SetBuilderImpl<E> {
+  static final class RegularSetBuilderImpl<E> extends SetBuilderImpl<E> {
     // null until at least two elements are present
     @CheckForNull private @Nullable Object[] hashTable;
     private int maxRunBeforeFallback;
@@ -35,6 +35,7 @@ import java.util.Comparator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.function.Function;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
@@ -621,6 +622,11 @@ public class ImmutableSetMultimap<K, V> extends ImmutableMultimap<K, V>
       return multimap.entryIterator();
     }
 
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+      return multimap.entrySpliterator();
+    }
+
     @Override
     boolean isPartialView() {
       return false;
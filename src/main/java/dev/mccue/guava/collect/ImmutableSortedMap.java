@@ -1213,6 +1213,37 @@ public final class ImmutableSortedMap<K, V> extends ImmutableMap<K, V>
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Not supported. Use {@code #toImmutableSortedMap}, which offers better type-safety, instead.
+   * This method exists only to hide {@code ImmutableMap#toImmutableMapUnordered} from consumers of
+   * {@code ImmutableSortedMap}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableSortedMap#toImmutableSortedMap}.
+   */
+  @DoNotCall("Use toImmutableSortedMap")
+  @Deprecated
+  public static <T extends @Nullable Object, K, V>
+      Collector<T, ?, ImmutableMap<K, V>> toImmutableMapUnordered(
+          Function<? super T, ? extends K> keyFunction,
+          Function<? super T, ? extends V> valueFunction) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported. Use {@code #copyOf(Map)} instead. This method exists only to hide {@code
+   * ImmutableMap#copyOfParallel} from consumers of {@code ImmutableSortedMap}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableSortedMap#copyOf(Map)}.
+   */
+  @DoNotCall("Use copyOf")
+  @Deprecated
+  public static <K, V> ImmutableSortedMap<K, V> copyOfParallel(
+      Map<? extends K, ? extends V> map) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Not supported. Use {@code #naturalOrder}, which offers better type-safety, instead. This method
    * exists only to hide {@code ImmutableMap#builder} from consumers of {@code ImmutableSortedMap}.
@@ -638,6 +638,37 @@ public abstract class ImmutableSortedMultiset<E> extends ImmutableMultiset<E>
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Not supported. Use {@code #toImmutableSortedMultiset} instead. This method exists only to hide
+   * {@code ImmutableMultiset#toImmutableMultisetUnordered} from consumers of {@code
+   * ImmutableSortedMultiset}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableSortedMultiset#toImmutableSortedMultiset}.
+   */
+  @DoNotCall("Use toImmutableSortedMultiset.")
+  @Deprecated
+  public static <E> Collector<E, ?, ImmutableMultiset<E>> toImmutableMultisetUnordered() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported. Use {@code #toImmutableSortedMultiset} instead. This method exists only to hide
+   * {@code ImmutableMultiset#toImmutableMultisetUnordered} from consumers of {@code
+   * ImmutableSortedMultiset}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableSortedMultiset#toImmutableSortedMultiset}.
+   */
+  @DoNotCall("Use toImmutableSortedMultiset.")
+  @Deprecated
+  public static <T extends @Nullable Object, E>
+      Collector<T, ?, ImmutableMultiset<E>> toImmutableMultisetUnordered(
+          Function<? super T, ? extends E> elementFunction,
+          ToIntFunction<? super T> countFunction) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Not supported. Use {@code #naturalOrder}, which offers better type-safety, instead. This method
    * exists only to hide {@code ImmutableMultiset#builder} from consumers of {@code
@@ -886,6 +886,32 @@ public abstract class ImmutableSortedSet<E> extends ImmutableSet.CachingAsList<E
     throw new UnsupportedOperationException();
   }
 
+  /**
+   * Not supported. Use {@code #toImmutableSortedSet} instead. This method exists only to hide
+   * {@code ImmutableSet#toImmutableSetUnordered} from consumers of {@code ImmutableSortedSet}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableSortedSet#toImmutableSortedSet}.
+   */
+  @DoNotCall("Use toImmutableSortedSet")
+  @Deprecated
+  public static <E> Collector<E, ?, ImmutableSet<E>> toImmutableSetUnordered() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Not supported. Use {@code #copyOf(Collection)} instead. This method exists only to hide {@code
+   * ImmutableSet#copyOfParallel} from consumers of {@code ImmutableSortedSet}.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Use {@code ImmutableSortedSet#copyOf(Collection)}.
+   */
+  @DoNotCall("Use copyOf")
+  @Deprecated
+  public static <E> ImmutableSortedSet<E> copyOfParallel(Collection<? extends E> elements) {
+    throw new UnsupportedOperationException();
+  }
+
   /**
    * Not supported. Use {@code #naturalOrder}, which offers better type-safety, instead. This method
    * exists only to hide {@code ImmutableSet#builder} from consumers of {@code ImmutableSortedSet}.
@@ -15,11 +15,15 @@
 package dev.mccue.guava.collect;
 
 import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkState;
 
 import dev.mccue.guava.base.Equivalence;
 import dev.mccue.guava.base.Function;
 import dev.mccue.guava.collect.MapMaker.Dummy;
 import dev.mccue.guava.collect.MapMakerInternalMap.InternalEntry;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import dev.mccue.jsr305.CheckForNull;
 
 /**
@@ -40,6 +44,7 @@ public final class Interners {
   public static class InternerBuilder {
     private final MapMaker mapMaker = new MapMaker();
     private boolean strong = true;
+    private boolean lockFree = false;
 
     private InternerBuilder() {}
 
@@ -74,7 +79,55 @@ public final class Interners {
       return this;
     }
 
+    /**
+     * Limits the number of canonical instances the {@code Interner} retains, so that
+     * deduplicating values of high cardinality takes a fixed memory budget. When the limit is
+     * reached, interning a new instance evicts one that has been seen rarely, as estimated by a
+     * compact frequency sketch of recent calls to {@code Interner#intern}. Frequently interned
+     * instances therefore stay canonical, while one-off instances are dropped.
+     *
+     * <p>An evicted instance stops being canonical: interning an equal instance afterwards returns
+     * the new instance, just as with a weak interner after garbage collection. Callers may hold
+     * instances that are equal but not identical across an eviction.
+     *
+     * <p>This may be combined with {@code #weak}, in which case instances are also dropped when
+     * they are garbage-collected.
+     *
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     * @throws IllegalStateException if a maximum size was already set
+     * @see MapMaker#maximumSize(long)
+     */
+    public InternerBuilder maximumSize(long maximumSize) {
+      this.mapMaker.maximumSize(maximumSize);
+      return this;
+    }
+
+    /**
+     * Instructs the {@code InternerBuilder} to build a lock-free interner, which publishes new
+     * canonical instances with a compare-and-set into an open-addressed table instead of taking a
+     * segment lock. This suits interners that see a high rate of new instances from many threads,
+     * such as those used while parsing. Lock-free interners are always strong, and ignore the
+     * {@code #concurrencyLevel}.
+     *
+     * <p>A lock-free interner never removes an instance once interned. When its table fills up, the
+     * thread that notices allocates a table twice the size and copies the canonical instances over,
+     * while other threads go on interning without waiting for it.
+     *
+     * @throws IllegalStateException at {@code #build} time, if combined with {@code #weak} or
+     *     {@code #maximumSize}
+     */
+    public InternerBuilder lockFree() {
+      this.lockFree = true;
+      return this;
+    }
+
     public <E> Interner<E> build() {
+      if (lockFree) {
+        checkState(strong, "lock-free interners must be strong");
+        checkState(
+            mapMaker.getMaximumSize() == MapMaker.UNSET_INT, "lock-free interners are unbounded");
+        return new LockFreeInterner<>();
+      }
       if (!strong) {
         mapMaker.weakKeys();
       }
@@ -148,6 +201,147 @@ public final class Interners {
     }
   }
 
+  /**
+   * A strong interner backed by an open-addressed table of canonical instances, probed linearly.
+   *
+   * <p>A slot only ever goes from null to an instance, or from null to {@code MOVED}, so probing
+   * for an instance always ends at the first slot that is not an instance, and an instance is
+   * interned in the first null slot of its probe sequence, with a compare-and-set. Since slots
+   * before that one are never changed again, two threads interning equal instances always race on
+   * the same slot.
+   *
+   * <p>To grow, a thread links a larger table as the {@code next} of the current one, then visits
+   * every slot of the old table: instances are interned into the new table, and null slots are
+   * sealed with {@code MOVED}. A thread whose probe reaches a {@code MOVED} slot knows that its
+   * instance is not in the old table and can never be added to it, so it continues in the next
+   * table, without waiting for the copy. New threads keep starting from the old table until the
+   * copy is done, since the new table may not hold every canonical instance before then.
+   */
+  static final class LockFreeInterner<E> implements Interner<E> {
+    /** Marks a slot that was sealed while empty, because the table has been replaced. */
+    private static final Object MOVED = new Object();
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Number of probes after which an insertion checks whether the table is half full. Checking
+     * every insertion would make all writers read the shared count.
+     */
+    private static final int RESIZE_CHECK_PROBES = 4;
+
+    /** The oldest table that holds every canonical instance. */
+    private final AtomicReference<Table> root = new AtomicReference<>(new Table(INITIAL_CAPACITY));
+
+    private static final class Table {
+      final AtomicReferenceArray<Object> slots;
+
+      /** The number of instances in this table. */
+      final LongAdder count = new LongAdder();
+
+      /** The table that replaces this one, once this one has filled up. */
+      final AtomicReference<Table> next = new AtomicReference<>();
+
+      /** Whether every instance of the previous table has been copied into this one. */
+      volatile boolean filled;
+
+      Table(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+      }
+    }
+
+    LockFreeInterner() {}
+
+    @Override
+    public E intern(E sample) {
+      checkNotNull(sample);
+      @SuppressWarnings("unchecked") // only instances of E are interned
+      E canonical = (E) intern(root.get(), sample);
+      return canonical;
+    }
+
+    /** Interns {@code sample} into {@code table} or, if it has been replaced, its successors. */
+    private Object intern(Table table, Object sample) {
+      int hash = Hashing.smear(sample.hashCode());
+      while (true) {
+        Object canonical = internInTable(table, sample, hash);
+        if (canonical != MOVED) {
+          return canonical;
+        }
+        table = table.next.get();
+      }
+    }
+
+    /**
+     * Returns the canonical instance for {@code sample} in {@code table}, interning it if needed,
+     * or {@code MOVED} if it has to be looked for in the next table instead.
+     */
+    private Object internInTable(Table table, Object sample, int hash) {
+      AtomicReferenceArray<Object> slots = table.slots;
+      int mask = slots.length() - 1;
+      int index = hash & mask;
+      for (int probes = 0; probes <= mask; probes++) {
+        Object current = slots.get(index);
+        if (current == null) {
+          if (slots.compareAndSet(index, null, sample)) {
+            table.count.increment();
+            if (probes >= RESIZE_CHECK_PROBES && table.count.sum() * 2 > slots.length()) {
+              growIfNeeded(table);
+            }
+            return sample;
+          }
+          // Lost a race for this slot. It's now an instance or MOVED, never null again.
+          current = slots.get(index);
+        }
+        if (current == MOVED) {
+          return MOVED;
+        }
+        if (sample.equals(current)) {
+          return current;
+        }
+        index = (index + 1) & mask;
+      }
+      // Every slot holds some other instance, so the sample can never be added here.
+      growIfNeeded(table);
+      return MOVED;
+    }
+
+    /**
+     * Ensures that {@code table} has a successor. If this thread is the one to create it, it also
+     * copies {@code table} over.
+     */
+    private void growIfNeeded(Table table) {
+      if (table.next.get() != null) {
+        return;
+      }
+      Table next = new Table(table.slots.length() * 2);
+      if (table.next.compareAndSet(null, next)) {
+        transfer(table, next);
+      }
+    }
+
+    private void transfer(Table table, Table next) {
+      AtomicReferenceArray<Object> slots = table.slots;
+      for (int i = 0; i < slots.length(); i++) {
+        Object current = slots.get(i);
+        if (current == null && slots.compareAndSet(i, null, MOVED)) {
+          continue;
+        }
+        // Either the slot held an instance, or one was just published into it.
+        current = slots.get(i);
+        intern(next, current);
+      }
+      next.filled = true;
+      // Advance the root past every table whose successor has been filled.
+      while (true) {
+        Table oldest = root.get();
+        Table successor = oldest.next.get();
+        if (successor == null || !successor.filled || !root.compareAndSet(oldest, successor)) {
+          return;
+        }
+      }
+    }
+  }
+
   /**
    * Returns a function that delegates to the {@code Interner#intern} method of the given interner.
    *
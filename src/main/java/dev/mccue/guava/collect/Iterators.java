@@ -45,6 +45,7 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.function.Consumer;
 import dev.mccue.jsr305.CheckForNull;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
@@ -124,6 +125,42 @@ public final class Iterators {
     return (Iterator<T>) EmptyModifiableIterator.INSTANCE;
   }
 
+  /**
+   * Returns an iterator over the elements of {@code iterator}, typically one over an immutable
+   * snapshot, whose {@code remove} method passes the last element returned to {@code remover}.
+   */
+  static <T extends @Nullable Object> Iterator<T> removingThrough(
+      Iterator<? extends T> iterator, Consumer<? super T> remover) {
+    checkNotNull(iterator);
+    checkNotNull(remover);
+    return new Iterator<T>() {
+      @CheckForNull T last;
+      boolean canRemove;
+
+      @Override
+      public boolean hasNext() {
+        return iterator.hasNext();
+      }
+
+      @Override
+      @ParametricNullness
+      public T next() {
+        T element = iterator.next();
+        last = element;
+        canRemove = true;
+        return element;
+      }
+
+      @Override
+      public void remove() {
+        checkRemove(canRemove);
+        canRemove = false;
+        remover.accept(uncheckedCastNullableTToT(last));
+        last = null;
+      }
+    };
+  }
+
   /** Returns an unmodifiable view of {@code iterator}. */
   public static <T extends @Nullable Object> UnmodifiableIterator<T> unmodifiableIterator(
       Iterator<? extends T> iterator) {
@@ -32,7 +32,7 @@ import dev.mccue.jsr305.CheckForNull;
 
 /**
  * A builder of {@code ConcurrentMap} instances that can have keys or values automatically wrapped
- * in {@code WeakReference weak} references.
+ * in {@code WeakReference weak} references, or that can be bounded in size.
  *
  * <p>Usage example:
  *
@@ -95,6 +95,8 @@ public final class MapMaker {
 
   int initialCapacity = UNSET_INT;
   int concurrencyLevel = UNSET_INT;
+  long maximumSize = UNSET_INT;
+  boolean recordStats;
 
   @CheckForNull Strength keyStrength;
   @CheckForNull Strength valueStrength;
@@ -186,6 +188,64 @@ public final class MapMaker {
     return (concurrencyLevel == UNSET_INT) ? DEFAULT_CONCURRENCY_LEVEL : concurrencyLevel;
   }
 
+  /**
+   * Specifies the maximum number of entries the map may contain. When an insertion would take the
+   * map over this bound, an entry that is unlikely to be used again is evicted to make room.
+   *
+   * <p>Victims are chosen by estimated popularity: the map keeps a compact frequency sketch of
+   * recently read and written keys (the TinyLFU policy), and evicts the least popular of a small
+   * sample of its entries. The entry being inserted is always admitted, so a {@code put} is visible
+   * to a subsequent {@code get} until later insertions evict it.
+   *
+   * <p>When {@code size} is zero, entries are evicted immediately after being inserted. This can be
+   * useful for temporarily disabling a lookup table without changing its callers.
+   *
+   * <p><b>Note:</b> the map is partitioned according to {@code #concurrencyLevel}, and each
+   * partition is bounded separately, so the map may evict an entry before its total size reaches
+   * this maximum. A small maximum also lowers the number of partitions.
+   *
+   * <p>The map still permits concurrent reads without locking. Reads are recorded in a lossy
+   * per-partition buffer that is applied to the frequency sketch in batches.
+   *
+   * @param maximumSize the maximum number of entries the map may contain
+   * @throws IllegalArgumentException if {@code maximumSize} is negative
+   * @throws IllegalStateException if a maximum size was already set
+   */
+  @CanIgnoreReturnValue
+  public MapMaker maximumSize(long maximumSize) {
+    checkState(
+        this.maximumSize == UNSET_INT, "maximum size was already set to %s", this.maximumSize);
+    checkArgument(maximumSize >= 0, "maximum size must not be negative");
+    this.maximumSize = maximumSize;
+    this.useCustomMap = true;
+    return this;
+  }
+
+  long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Enables the accumulation of {@code MapMakerStats} while the map is operating: lookup hits and
+   * misses, evictions, reclaimed weak references, segment cleanups and expansions, and the time
+   * writers spend waiting for segment locks. A snapshot is obtained by passing the map to {@code
+   * MapMakerStats#of}.
+   *
+   * <p>Statistics are kept per segment in striped counters, so recording them adds no shared point
+   * of contention. They still cost a few counter updates per operation, which is why they are off
+   * by default.
+   */
+  @CanIgnoreReturnValue
+  public MapMaker recordStats() {
+    recordStats = true;
+    useCustomMap = true;
+    return this;
+  }
+
+  boolean recordsStats() {
+    return recordStats;
+  }
+
   /**
    * Specifies that each key (not value) stored in the map should be wrapped in a {@code
    * WeakReference} (by default, strong references are used).
@@ -294,6 +354,12 @@ public final class MapMaker {
     if (concurrencyLevel != UNSET_INT) {
       s.add("concurrencyLevel", concurrencyLevel);
     }
+    if (maximumSize != UNSET_INT) {
+      s.add("maximumSize", maximumSize);
+    }
+    if (recordStats) {
+      s.addValue("recordStats");
+    }
     if (keyStrength != null) {
       s.add("keyStrength", Ascii.toLowerCase(keyStrength.toString()));
     }
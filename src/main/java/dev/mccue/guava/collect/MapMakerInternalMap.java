@@ -42,8 +42,11 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.ReentrantLock;
 import dev.mccue.jsr305.CheckForNull;
 
@@ -86,14 +89,19 @@ class MapMakerInternalMap<
    * penalty of applying the batches is spread across threads so that the amortized cost is slightly
    * higher than performing just the operation without enforcing the capacity constraint.
    *
-   * This implementation uses a per-segment queue to record a memento of the additions, removals,
-   * and accesses that were performed on the map. The queue is drained on writes and when it exceeds
-   * its capacity threshold.
+   * This implementation uses a per-segment buffer to record a memento of the reads that were
+   * performed on the map. The buffer is lossy, and is drained into the segment's frequency sketch
+   * on writes and when it exceeds its capacity threshold.
    *
-   * The Least Recently Used page replacement algorithm was chosen due to its simplicity, high hit
-   * rate, and ability to be implemented with O(1) time complexity. The initial LRU implementation
-   * operates per-segment rather than globally for increased implementation simplicity. We expect
-   * the cache hit rate to be similar to that of a global LRU algorithm.
+   * When a maximum size is set, each segment admits new entries according to TinyLFU: every read
+   * and write bumps the key's counters in a count-min sketch, which is periodically halved so that
+   * it reflects recent popularity. Entries hold only an immutable next pointer, so there is no
+   * access-ordered queue to take a victim from; instead, when a segment overflows, it samples a
+   * handful of entries, each time taking the chain of the first nonempty bucket at or after a
+   * random index, and evicts the one with the lowest estimated frequency. The entry being inserted
+   * is always admitted, which plays the role of W-TinyLFU's admission window and keeps a put
+   * visible to a subsequent get. The policy operates per-segment rather than globally for increased
+   * implementation simplicity.
    */
 
   // Constants
@@ -127,6 +135,12 @@ class MapMakerInternalMap<
   // TODO(fry): empirically optimize this
   static final int DRAIN_MAX = 16;
 
+  /** Number of entries considered when choosing an eviction victim. */
+  static final int EVICTION_SAMPLE_SIZE = 8;
+
+  /** Minimum number of entries per segment when a maximum size is set; bounds the segment count. */
+  static final int MIN_SEGMENT_MAXIMUM_SIZE = 20;
+
   // Fields
 
   /**
@@ -147,6 +161,12 @@ class MapMakerInternalMap<
   /** The concurrency level. */
   final int concurrencyLevel;
 
+  /** The maximum number of entries, or {@code MapMaker#UNSET_INT} if the map is unbounded. */
+  final long maximumSize;
+
+  /** Whether segments keep {@code SegmentStats}. */
+  final boolean recordStats;
+
   /** Strategy for comparing keys. */
   final Equivalence<Object> keyEquivalence;
 
@@ -158,17 +178,24 @@ class MapMakerInternalMap<
    */
   private MapMakerInternalMap(MapMaker builder, InternalEntryHelper<K, V, E, S> entryHelper) {
     concurrencyLevel = min(builder.getConcurrencyLevel(), MAX_SEGMENTS);
+    maximumSize = builder.getMaximumSize();
+    recordStats = builder.recordsStats();
 
     keyEquivalence = builder.getKeyEquivalence();
     this.entryHelper = entryHelper;
 
     int initialCapacity = min(builder.getInitialCapacity(), MAXIMUM_CAPACITY);
+    if (evictsBySize()) {
+      initialCapacity = (int) min(initialCapacity, maximumSize);
+    }
 
     // Find power-of-two sizes best matching arguments. Constraints:
     // (segmentCount > concurrencyLevel)
+    // (segmentCount * MIN_SEGMENT_MAXIMUM_SIZE <= maximumSize, if bounded)
     int segmentShift = 0;
     int segmentCount = 1;
-    while (segmentCount < concurrencyLevel) {
+    while (segmentCount < concurrencyLevel
+        && (!evictsBySize() || segmentCount * (long) MIN_SEGMENT_MAXIMUM_SIZE <= maximumSize)) {
       ++segmentShift;
       segmentCount <<= 1;
     }
@@ -187,8 +214,20 @@ class MapMakerInternalMap<
       segmentSize <<= 1;
     }
 
-    for (int i = 0; i < this.segments.length; ++i) {
-      this.segments[i] = createSegment(segmentSize);
+    if (evictsBySize()) {
+      // Ensure sum of segment max sizes = overall max size
+      long maxSegmentSize = maximumSize / segmentCount + 1;
+      long remainder = maximumSize % segmentCount;
+      for (int i = 0; i < this.segments.length; ++i) {
+        if (i == remainder) {
+          maxSegmentSize--;
+        }
+        this.segments[i] = createSegment(segmentSize, Ints.saturatedCast(maxSegmentSize));
+      }
+    } else {
+      for (int i = 0; i < this.segments.length; ++i) {
+        this.segments[i] = createSegment(segmentSize, MapMaker.UNSET_INT);
+      }
     }
   }
 
@@ -285,7 +324,7 @@ class MapMakerInternalMap<
     Strength valueStrength();
 
     /** Returns a freshly created segment, typed at the {@code S} type. */
-    S newSegment(MapMakerInternalMap<K, V, E, S> map, int initialCapacity);
+    S newSegment(MapMakerInternalMap<K, V, E, S> map, int initialCapacity, int maxSegmentSize);
 
     /**
      * Returns a freshly created entry, typed at the {@code E} type, for the given {@code segment}.
@@ -434,8 +473,9 @@ class MapMakerInternalMap<
           MapMakerInternalMap<
                   K, V, StrongKeyStrongValueEntry<K, V>, StrongKeyStrongValueSegment<K, V>>
               map,
-          int initialCapacity) {
-        return new StrongKeyStrongValueSegment<>(map, initialCapacity);
+          int initialCapacity,
+          int maxSegmentSize) {
+        return new StrongKeyStrongValueSegment<>(map, initialCapacity, maxSegmentSize);
       }
 
       @Override
@@ -532,8 +572,9 @@ class MapMakerInternalMap<
       public StrongKeyWeakValueSegment<K, V> newSegment(
           MapMakerInternalMap<K, V, StrongKeyWeakValueEntry<K, V>, StrongKeyWeakValueSegment<K, V>>
               map,
-          int initialCapacity) {
-        return new StrongKeyWeakValueSegment<>(map, initialCapacity);
+          int initialCapacity,
+          int maxSegmentSize) {
+        return new StrongKeyWeakValueSegment<>(map, initialCapacity, maxSegmentSize);
       }
 
       @Override
@@ -628,8 +669,9 @@ class MapMakerInternalMap<
       public StrongKeyDummyValueSegment<K> newSegment(
           MapMakerInternalMap<K, Dummy, StrongKeyDummyValueEntry<K>, StrongKeyDummyValueSegment<K>>
               map,
-          int initialCapacity) {
-        return new StrongKeyDummyValueSegment<>(map, initialCapacity);
+          int initialCapacity,
+          int maxSegmentSize) {
+        return new StrongKeyDummyValueSegment<>(map, initialCapacity, maxSegmentSize);
       }
 
       @Override
@@ -740,8 +782,9 @@ class MapMakerInternalMap<
       @Override
       public WeakKeyDummyValueSegment<K> newSegment(
           MapMakerInternalMap<K, Dummy, WeakKeyDummyValueEntry<K>, WeakKeyDummyValueSegment<K>> map,
-          int initialCapacity) {
-        return new WeakKeyDummyValueSegment<>(map, initialCapacity);
+          int initialCapacity,
+          int maxSegmentSize) {
+        return new WeakKeyDummyValueSegment<>(map, initialCapacity, maxSegmentSize);
       }
 
       @Override
@@ -832,8 +875,9 @@ class MapMakerInternalMap<
       public WeakKeyStrongValueSegment<K, V> newSegment(
           MapMakerInternalMap<K, V, WeakKeyStrongValueEntry<K, V>, WeakKeyStrongValueSegment<K, V>>
               map,
-          int initialCapacity) {
-        return new WeakKeyStrongValueSegment<>(map, initialCapacity);
+          int initialCapacity,
+          int maxSegmentSize) {
+        return new WeakKeyStrongValueSegment<>(map, initialCapacity, maxSegmentSize);
       }
 
       @Override
@@ -932,8 +976,9 @@ class MapMakerInternalMap<
       @Override
       public WeakKeyWeakValueSegment<K, V> newSegment(
           MapMakerInternalMap<K, V, WeakKeyWeakValueEntry<K, V>, WeakKeyWeakValueSegment<K, V>> map,
-          int initialCapacity) {
-        return new WeakKeyWeakValueSegment<>(map, initialCapacity);
+          int initialCapacity,
+          int maxSegmentSize) {
+        return new WeakKeyWeakValueSegment<>(map, initialCapacity, maxSegmentSize);
       }
 
       @Override
@@ -1142,8 +1187,73 @@ class MapMakerInternalMap<
     return segments[(hash >>> segmentShift) & segmentMask];
   }
 
-  Segment<K, V, E, S> createSegment(int initialCapacity) {
-    return entryHelper.newSegment(this, initialCapacity);
+  Segment<K, V, E, S> createSegment(int initialCapacity, int maxSegmentSize) {
+    return entryHelper.newSegment(this, initialCapacity, maxSegmentSize);
+  }
+
+  boolean evictsBySize() {
+    return maximumSize != MapMaker.UNSET_INT;
+  }
+
+  boolean recordsStats() {
+    return recordStats;
+  }
+
+  /** Returns a snapshot of the statistics of all segments. Requires {@code #recordsStats()}. */
+  MapMakerStats stats() {
+    long hitCount = 0;
+    long missCount = 0;
+    long evictionCount = 0;
+    long reclaimedKeyCount = 0;
+    long reclaimedValueCount = 0;
+    long cleanupCount = 0;
+    long expansionCount = 0;
+    long lockContentionCount = 0;
+    long totalLockWaitNanos = 0;
+    int longestChainLength = 0;
+    ImmutableIntList.Builder segmentSizes = ImmutableIntList.builder(segments.length);
+    for (Segment<K, V, E, S> segment : segments) {
+      SegmentStats stats = segment.stats;
+      hitCount += stats.hitCount.sum();
+      missCount += stats.missCount.sum();
+      evictionCount += stats.evictionCount.sum();
+      reclaimedKeyCount += stats.reclaimedKeyCount.sum();
+      reclaimedValueCount += stats.reclaimedValueCount.sum();
+      cleanupCount += stats.cleanupCount.sum();
+      expansionCount += stats.expansionCount.sum();
+      lockContentionCount += stats.lockContentionCount.sum();
+      totalLockWaitNanos += stats.totalLockWaitNanos.sum();
+      longestChainLength = Math.max(longestChainLength, segment.longestChainLength());
+      segmentSizes.add(segment.count);
+    }
+    return new MapMakerStats(
+        hitCount,
+        missCount,
+        evictionCount,
+        reclaimedKeyCount,
+        reclaimedValueCount,
+        cleanupCount,
+        expansionCount,
+        lockContentionCount,
+        totalLockWaitNanos,
+        longestChainLength,
+        segmentSizes.build());
+  }
+
+  /**
+   * The statistics of a single segment. Each counter is a {@code LongAdder}, so that threads that
+   * read the same segment concurrently don't contend on the hit and miss counts.
+   */
+  static final class SegmentStats {
+    final LongAdder hitCount = new LongAdder();
+    final LongAdder missCount = new LongAdder();
+    final LongAdder evictionCount = new LongAdder();
+    final LongAdder reclaimedKeyCount = new LongAdder();
+    final LongAdder reclaimedValueCount = new LongAdder();
+    final LongAdder cleanupCount = new LongAdder();
+    final LongAdder expansionCount = new LongAdder();
+    final LongAdder lockContentionCount = new LongAdder();
+    final LongAdder totalLockWaitNanos = new LongAdder();
   }
 
   /**
@@ -1233,8 +1343,35 @@ class MapMakerInternalMap<
      */
     final AtomicInteger readCount = new AtomicInteger();
 
-    Segment(MapMakerInternalMap<K, V, E, S> map, int initialCapacity) {
+    /** The maximum number of entries, or {@code MapMaker#UNSET_INT} if the segment is unbounded. */
+    final int maxSegmentSize;
+
+    /** Popularity of recently read and written keys, if the segment is bounded. */
+    @GuardedBy("this")
+    @CheckForNull
+    final FrequencySketch sketch;
+
+    /**
+     * The hashes of recent reads, indexed by {@code readCount}, which are yet to be added to the
+     * sketch. Slots are cleared to zero as they are drained. Concurrent reads may overwrite each
+     * other's hashes; losing a few is harmless.
+     */
+    @CheckForNull final AtomicIntegerArray readBuffer;
+
+    /** The statistics of this segment, if the map records them. */
+    @CheckForNull final SegmentStats stats;
+
+    Segment(MapMakerInternalMap<K, V, E, S> map, int initialCapacity, int maxSegmentSize) {
       this.map = map;
+      this.maxSegmentSize = maxSegmentSize;
+      this.stats = map.recordsStats() ? new SegmentStats() : null;
+      if (map.evictsBySize()) {
+        sketch = new FrequencySketch(maxSegmentSize);
+        readBuffer = new AtomicIntegerArray(DRAIN_THRESHOLD + 1);
+      } else {
+        sketch = null;
+        readBuffer = null;
+      }
       initTable(newEntryArray(initialCapacity));
     }
 
@@ -1246,6 +1383,36 @@ class MapMakerInternalMap<
      */
     abstract S self();
 
+    /**
+     * Acquires the lock, recording the time spent waiting for it if the map records statistics.
+     */
+    @Override
+    public void lock() {
+      SegmentStats stats = this.stats;
+      if (stats == null) {
+        super.lock();
+      } else if (!tryLock()) {
+        long start = System.nanoTime();
+        super.lock();
+        stats.lockContentionCount.increment();
+        stats.totalLockWaitNanos.add(System.nanoTime() - start);
+      }
+    }
+
+    /** Returns the length of the longest chain in the table, without locking. */
+    int longestChainLength() {
+      AtomicReferenceArray<E> table = this.table;
+      int longest = 0;
+      for (int i = 0; i < table.length(); i++) {
+        int length = 0;
+        for (E e = table.get(i); e != null; e = e.getNext()) {
+          length++;
+        }
+        longest = Math.max(longest, length);
+      }
+      return longest;
+    }
+
     /** Drains the reference queues used by this segment, if any. */
     @GuardedBy("this")
     void maybeDrainReferenceQueues() {}
@@ -1270,6 +1437,9 @@ class MapMakerInternalMap<
 
     void initTable(AtomicReferenceArray<E> newTable) {
       this.threshold = newTable.length() * 3 / 4; // 0.75
+      if (sketch != null) {
+        sketch.ensureCapacity(newTable.length());
+      }
       this.table = newTable;
     }
 
@@ -1381,6 +1551,9 @@ class MapMakerInternalMap<
         @SuppressWarnings("unchecked")
         E entry = (E) ref;
         map.reclaimKey(entry);
+        if (stats != null) {
+          stats.reclaimedKeyCount.increment();
+        }
         if (++i == DRAIN_MAX) {
           break;
         }
@@ -1395,6 +1568,9 @@ class MapMakerInternalMap<
         @SuppressWarnings("unchecked")
         WeakValueReference<K, V, E> valueReference = (WeakValueReference<K, V, E>) ref;
         map.reclaimValue(valueReference);
+        if (stats != null) {
+          stats.reclaimedValueCount.increment();
+        }
         if (++i == DRAIN_MAX) {
           break;
         }
@@ -1405,6 +1581,15 @@ class MapMakerInternalMap<
       while (referenceQueue.poll() != null) {}
     }
 
+    void clearReadBuffer() {
+      AtomicIntegerArray readBuffer = this.readBuffer;
+      if (readBuffer != null) {
+        for (int i = 0; i <= DRAIN_THRESHOLD; i++) {
+          readBuffer.lazySet(i, 0);
+        }
+      }
+    }
+
     /** Returns first entry of bin for given hash. */
     @CheckForNull
     E getFirst(int hash) {
@@ -1443,11 +1628,29 @@ class MapMakerInternalMap<
       return getEntry(key, hash);
     }
 
+    /**
+     * Returns the entry for {@code key}, recording the read and running periodic cleanup as {@code
+     * #get} does. This is how {@code Interners} look up canonical instances.
+     */
+    @CheckForNull
+    E getEntryRecordingRead(Object key, int hash) {
+      try {
+        recordRead(hash);
+        E e = getLiveEntry(key, hash);
+        recordLookup(e != null && e.getKey() != null);
+        return e;
+      } finally {
+        postReadCleanup();
+      }
+    }
+
     @CheckForNull
     V get(Object key, int hash) {
       try {
+        recordRead(hash);
         E e = getLiveEntry(key, hash);
         if (e == null) {
+          recordLookup(false);
           return null;
         }
 
@@ -1455,6 +1658,7 @@ class MapMakerInternalMap<
         if (value == null) {
           tryDrainReferenceQueues();
         }
+        recordLookup(value != null);
         return value;
       } finally {
         postReadCleanup();
@@ -1463,11 +1667,15 @@ class MapMakerInternalMap<
 
     boolean containsKey(Object key, int hash) {
       try {
+        recordRead(hash);
         if (count != 0) { // read-volatile
           E e = getLiveEntry(key, hash);
-          return e != null && e.getValue() != null;
+          boolean found = e != null && e.getValue() != null;
+          recordLookup(found);
+          return found;
         }
 
+        recordLookup(false);
         return false;
       } finally {
         postReadCleanup();
@@ -1543,6 +1751,7 @@ class MapMakerInternalMap<
               // clobber existing entry, count remains unchanged
               ++modCount;
               setValue(e, value);
+              recordWrite(hash);
               return entryValue;
             }
           }
@@ -1554,6 +1763,8 @@ class MapMakerInternalMap<
         setValue(newEntry, value);
         table.set(index, newEntry);
         this.count = newCount; // write-volatile
+        recordWrite(hash);
+        evictEntries(newEntry);
         return null;
       } finally {
         unlock();
@@ -1579,9 +1790,15 @@ class MapMakerInternalMap<
        * be in the midst of traversing table right now.
        */
 
+      if (stats != null) {
+        stats.expansionCount.increment();
+      }
       int newCount = count;
       AtomicReferenceArray<E> newTable = newEntryArray(oldCapacity << 1);
       threshold = newTable.length() * 3 / 4;
+      if (sketch != null) {
+        sketch.ensureCapacity(newTable.length());
+      }
       int newMask = newTable.length() - 1;
       for (int oldIndex = 0; oldIndex < oldCapacity; ++oldIndex) {
         // We need to guarantee that any existing reads of old Map can
@@ -1810,6 +2027,7 @@ class MapMakerInternalMap<
             table.set(i, null);
           }
           maybeClearReferenceQueues();
+          clearReadBuffer();
           readCount.set(0);
 
           ++modCount;
@@ -1849,6 +2067,138 @@ class MapMakerInternalMap<
       return newFirst;
     }
 
+    // eviction
+
+    /** Records a read of a key with the given hash, if this segment is bounded. */
+    void recordRead(int hash) {
+      AtomicIntegerArray readBuffer = this.readBuffer;
+      if (readBuffer != null) {
+        readBuffer.lazySet(readCount.get() & DRAIN_THRESHOLD, hash);
+      }
+    }
+
+    /** Records a hit or miss, if the map records statistics. */
+    void recordLookup(boolean hit) {
+      SegmentStats stats = this.stats;
+      if (stats != null) {
+        (hit ? stats.hitCount : stats.missCount).increment();
+      }
+    }
+
+    /** Records a write of a key with the given hash, if this segment is bounded. */
+    @GuardedBy("this")
+    void recordWrite(int hash) {
+      if (sketch != null) {
+        sketch.increment(hash);
+      }
+    }
+
+    /** Adds the buffered reads to the sketch. */
+    @GuardedBy("this")
+    void drainReadBuffer() {
+      AtomicIntegerArray readBuffer = this.readBuffer;
+      if (readBuffer != null) {
+        for (int i = 0; i <= DRAIN_THRESHOLD; i++) {
+          int hash = readBuffer.getAndSet(i, 0);
+          if (hash != 0) {
+            sketch.increment(hash);
+          }
+        }
+      }
+    }
+
+    /**
+     * Evicts entries until the segment is within its maximum size, never choosing {@code
+     * newEntry} unless it is the only entry left to evict.
+     */
+    @GuardedBy("this")
+    void evictEntries(E newEntry) {
+      if (maxSegmentSize == MapMaker.UNSET_INT) {
+        return;
+      }
+      drainReadBuffer();
+      while (count > maxSegmentSize) {
+        E victim = chooseVictim(newEntry);
+        if (victim == null) {
+          victim = newEntry;
+        }
+        if (!removeEntry(victim)) {
+          throw new AssertionError();
+        }
+        if (stats != null) {
+          stats.evictionCount.increment();
+        }
+      }
+    }
+
+    /**
+     * Samples about {@code EVICTION_SAMPLE_SIZE} entries other than {@code newEntry} and returns
+     * the one whose key has the lowest estimated frequency. Entries that have been partially
+     * collected are chosen immediately.
+     *
+     * <p>Each sample is the chain of the first nonempty bucket at or after a random index. Taking
+     * one run of consecutive buckets instead would be cheaper, but evictions would then clear the
+     * neighbourhood of popular entries of everything else, until samples there held nothing but
+     * popular entries.
+     */
+    @GuardedBy("this")
+    @CheckForNull
+    E chooseVictim(E newEntry) {
+      AtomicReferenceArray<E> table = this.table;
+      int mask = table.length() - 1;
+      ThreadLocalRandom random = ThreadLocalRandom.current();
+      E victim = null;
+      int victimFrequency = Integer.MAX_VALUE;
+      int sampled = 0;
+      for (int attempt = 0;
+          attempt < EVICTION_SAMPLE_SIZE && sampled < EVICTION_SAMPLE_SIZE;
+          attempt++) {
+        int index = random.nextInt() & mask;
+        E first = table.get(index);
+        for (int i = 0; first == null && i < mask; i++) {
+          index = (index + 1) & mask;
+          first = table.get(index);
+        }
+        for (E e = first; e != null; e = e.getNext()) {
+          if (e == newEntry) {
+            continue;
+          }
+          if (e.getKey() == null || isCollected(e)) {
+            return e;
+          }
+          int frequency = sketch.frequency(e.getHash());
+          if (frequency < victimFrequency) {
+            victim = e;
+            victimFrequency = frequency;
+          }
+          sampled++;
+        }
+      }
+      return victim;
+    }
+
+    /** Removes {@code entry} from the table, returning {@code false} if it wasn't there. */
+    @GuardedBy("this")
+    boolean removeEntry(E entry) {
+      int hash = entry.getHash();
+      AtomicReferenceArray<E> table = this.table;
+      int index = hash & (table.length() - 1);
+      E first = table.get(index);
+
+      for (E e = first; e != null; e = e.getNext()) {
+        if (e == entry) {
+          ++modCount;
+          E newFirst = removeFromChain(first, e);
+          int newCount = this.count - 1;
+          table.set(index, newFirst);
+          this.count = newCount; // write-volatile
+          return true;
+        }
+      }
+
+      return false;
+    }
+
     /** Removes an entry whose key has been garbage collected. */
     @CanIgnoreReturnValue
     boolean reclaimKey(E entry, int hash) {
@@ -1945,24 +2295,7 @@ class MapMakerInternalMap<
 
     @GuardedBy("this")
     boolean removeEntryForTesting(E entry) {
-      int hash = entry.getHash();
-      int newCount = this.count - 1;
-      AtomicReferenceArray<E> table = this.table;
-      int index = hash & (table.length() - 1);
-      E first = table.get(index);
-
-      for (E e = first; e != null; e = e.getNext()) {
-        if (e == entry) {
-          ++modCount;
-          E newFirst = removeFromChain(first, e);
-          newCount = this.count - 1;
-          table.set(index, newFirst);
-          this.count = newCount; // write-volatile
-          return true;
-        }
-      }
-
-      return false;
+      return removeEntry(entry);
     }
 
     /**
@@ -2013,6 +2346,9 @@ class MapMakerInternalMap<
     }
 
     void runCleanup() {
+      if (stats != null) {
+        stats.cleanupCount.increment();
+      }
       runLockedCleanup();
     }
 
@@ -2020,6 +2356,7 @@ class MapMakerInternalMap<
       if (tryLock()) {
         try {
           maybeDrainReferenceQueues();
+          drainReadBuffer();
           readCount.set(0);
         } finally {
           unlock();
@@ -2035,8 +2372,9 @@ class MapMakerInternalMap<
         MapMakerInternalMap<
                 K, V, StrongKeyStrongValueEntry<K, V>, StrongKeyStrongValueSegment<K, V>>
             map,
-        int initialCapacity) {
-      super(map, initialCapacity);
+        int initialCapacity,
+        int maxSegmentSize) {
+      super(map, initialCapacity, maxSegmentSize);
     }
 
     @Override
@@ -2061,8 +2399,9 @@ class MapMakerInternalMap<
     StrongKeyWeakValueSegment(
         MapMakerInternalMap<K, V, StrongKeyWeakValueEntry<K, V>, StrongKeyWeakValueSegment<K, V>>
             map,
-        int initialCapacity) {
-      super(map, initialCapacity);
+        int initialCapacity,
+        int maxSegmentSize) {
+      super(map, initialCapacity, maxSegmentSize);
     }
 
     @Override
@@ -2125,8 +2464,9 @@ class MapMakerInternalMap<
     StrongKeyDummyValueSegment(
         MapMakerInternalMap<K, Dummy, StrongKeyDummyValueEntry<K>, StrongKeyDummyValueSegment<K>>
             map,
-        int initialCapacity) {
-      super(map, initialCapacity);
+        int initialCapacity,
+        int maxSegmentSize) {
+      super(map, initialCapacity, maxSegmentSize);
     }
 
     @Override
@@ -2149,8 +2489,9 @@ class MapMakerInternalMap<
     WeakKeyStrongValueSegment(
         MapMakerInternalMap<K, V, WeakKeyStrongValueEntry<K, V>, WeakKeyStrongValueSegment<K, V>>
             map,
-        int initialCapacity) {
-      super(map, initialCapacity);
+        int initialCapacity,
+        int maxSegmentSize) {
+      super(map, initialCapacity, maxSegmentSize);
     }
 
     @Override
@@ -2188,8 +2529,9 @@ class MapMakerInternalMap<
 
     WeakKeyWeakValueSegment(
         MapMakerInternalMap<K, V, WeakKeyWeakValueEntry<K, V>, WeakKeyWeakValueSegment<K, V>> map,
-        int initialCapacity) {
-      super(map, initialCapacity);
+        int initialCapacity,
+        int maxSegmentSize) {
+      super(map, initialCapacity, maxSegmentSize);
     }
 
     @Override
@@ -2258,8 +2600,9 @@ class MapMakerInternalMap<
 
     WeakKeyDummyValueSegment(
         MapMakerInternalMap<K, Dummy, WeakKeyDummyValueEntry<K>, WeakKeyDummyValueSegment<K>> map,
-        int initialCapacity) {
-      super(map, initialCapacity);
+        int initialCapacity,
+        int maxSegmentSize) {
+      super(map, initialCapacity, maxSegmentSize);
     }
 
     @Override
@@ -2383,7 +2726,7 @@ class MapMakerInternalMap<
       return null;
     }
     int hash = hash(key);
-    return segmentFor(hash).getEntry(key, hash);
+    return segmentFor(hash).getEntryRecordingRead(key, hash);
   }
 
   @Override
@@ -2835,6 +3178,8 @@ class MapMakerInternalMap<
         keyEquivalence,
         entryHelper.valueStrength().defaultEquivalence(),
         concurrencyLevel,
+        maximumSize,
+        recordStats,
         this);
   }
 
@@ -2921,15 +3266,23 @@ class MapMakerInternalMap<
   private static final class SerializationProxy<K, V> extends AbstractSerializationProxy<K, V> {
     private static final long serialVersionUID = 3;
 
+    // Not final, so that streams written before these fields existed read as unbounded, no stats.
+    private long maximumSize;
+    private boolean recordStats;
+
     SerializationProxy(
         Strength keyStrength,
         Strength valueStrength,
         Equivalence<Object> keyEquivalence,
         Equivalence<Object> valueEquivalence,
         int concurrencyLevel,
+        long maximumSize,
+        boolean recordStats,
         ConcurrentMap<K, V> delegate) {
       super(
           keyStrength, valueStrength, keyEquivalence, valueEquivalence, concurrencyLevel, delegate);
+      this.maximumSize = maximumSize;
+      this.recordStats = recordStats;
     }
 
     private void writeObject(ObjectOutputStream out) throws IOException {
@@ -2939,8 +3292,16 @@ class MapMakerInternalMap<
 
     // java.io.ObjectInputStream
     private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
-      in.defaultReadObject();
+      ObjectInputStream.GetField fields = in.readFields();
+      maximumSize = fields.get("maximumSize", (long) MapMaker.UNSET_INT);
+      recordStats = fields.get("recordStats", false);
       MapMaker mapMaker = readMapMaker(in);
+      if (maximumSize != MapMaker.UNSET_INT) {
+        mapMaker.maximumSize(maximumSize);
+      }
+      if (recordStats) {
+        mapMaker.recordStats();
+      }
       delegate = mapMaker.makeMap();
       readEntries(in);
     }
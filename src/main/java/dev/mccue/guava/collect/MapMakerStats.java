@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkArgument;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+
+import dev.mccue.guava.base.MoreObjects;
+import dev.mccue.guava.base.Objects;
+import java.util.concurrent.ConcurrentMap;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * Statistics about the performance of a map built by a {@code MapMaker} on which {@code
+ * MapMaker#recordStats} was called. Instances of this class are immutable snapshots, obtained from
+ * {@code #of}.
+ *
+ * <p>The counters are kept per segment of the map (see {@code MapMaker#concurrencyLevel}) in
+ * striped adders, so recording them adds no shared point of contention. A snapshot sums them
+ * without locking, so it may miss some of the updates that are concurrent with it, and the sizes
+ * and chain lengths of different segments may be observed at slightly different times.
+ *
+ * <p>Only {@code Map#get} and {@code Map#containsKey} count as requests, as does the lookup of an
+ * existing canonical instance in each call to {@code Interner#intern} when the map backs an
+ * interner; iteration, bulk operations and writes do not. Counts never decrease, and are not
+ * carried over by serialization.
+ */
+@ElementTypesAreNonnullByDefault
+public final class MapMakerStats {
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+  private final long reclaimedKeyCount;
+  private final long reclaimedValueCount;
+  private final long cleanupCount;
+  private final long expansionCount;
+  private final long lockContentionCount;
+  private final long totalLockWaitNanos;
+  private final int longestChainLength;
+  private final ImmutableIntList segmentSizes;
+
+  MapMakerStats(
+      long hitCount,
+      long missCount,
+      long evictionCount,
+      long reclaimedKeyCount,
+      long reclaimedValueCount,
+      long cleanupCount,
+      long expansionCount,
+      long lockContentionCount,
+      long totalLockWaitNanos,
+      int longestChainLength,
+      ImmutableIntList segmentSizes) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+    this.reclaimedKeyCount = reclaimedKeyCount;
+    this.reclaimedValueCount = reclaimedValueCount;
+    this.cleanupCount = cleanupCount;
+    this.expansionCount = expansionCount;
+    this.lockContentionCount = lockContentionCount;
+    this.totalLockWaitNanos = totalLockWaitNanos;
+    this.longestChainLength = longestChainLength;
+    this.segmentSizes = checkNotNull(segmentSizes);
+  }
+
+  /**
+   * Returns a snapshot of the statistics recorded by {@code map}.
+   *
+   * @throws IllegalArgumentException if {@code map} was not built by a {@code MapMaker} on which
+   *     {@code MapMaker#recordStats} was called
+   */
+  public static MapMakerStats of(ConcurrentMap<?, ?> map) {
+    checkNotNull(map);
+    checkArgument(
+        map instanceof MapMakerInternalMap
+            && ((MapMakerInternalMap<?, ?, ?, ?>) map).recordsStats(),
+        "map was not created by a MapMaker with recordStats()");
+    return ((MapMakerInternalMap<?, ?, ?, ?>) map).stats();
+  }
+
+  /** Returns the number of lookups, that is {@code hitCount() + missCount()}. */
+  public long requestCount() {
+    return hitCount + missCount;
+  }
+
+  /** Returns the number of lookups that found a live entry. */
+  public long hitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Returns the ratio of lookups that found a live entry, or {@code 1.0} if there have been no
+   * lookups.
+   */
+  public double hitRate() {
+    long requestCount = requestCount();
+    return (requestCount == 0) ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  /** Returns the number of lookups that found no live entry. */
+  public long missCount() {
+    return missCount;
+  }
+
+  /**
+   * Returns the ratio of lookups that found no live entry, or {@code 0.0} if there have been no
+   * lookups.
+   */
+  public double missRate() {
+    long requestCount = requestCount();
+    return (requestCount == 0) ? 0.0 : (double) missCount / requestCount;
+  }
+
+  /**
+   * Returns the number of entries evicted because the map exceeded its {@code
+   * MapMaker#maximumSize maximum size}. This does not include entries reclaimed by the garbage
+   * collector.
+   */
+  public long evictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Returns the number of weak keys that were polled from the reference queues after being
+   * reclaimed by the garbage collector.
+   */
+  public long reclaimedKeyCount() {
+    return reclaimedKeyCount;
+  }
+
+  /**
+   * Returns the number of weak values that were polled from the reference queues after being
+   * reclaimed by the garbage collector.
+   */
+  public long reclaimedValueCount() {
+    return reclaimedValueCount;
+  }
+
+  /**
+   * Returns the number of times a segment attempted its routine cleanup, which drains its
+   * reference queues and its buffer of recent reads, outside of a write: after a run of reads, or
+   * from a scheduled cleanup task. Writes clean up as they go and are not counted.
+   */
+  public long cleanupCount() {
+    return cleanupCount;
+  }
+
+  /** Returns the number of times a segment's hash table was doubled in size and rehashed. */
+  public long expansionCount() {
+    return expansionCount;
+  }
+
+  /** Returns the number of times a writer had to wait for a segment lock held by another thread. */
+  public long lockContentionCount() {
+    return lockContentionCount;
+  }
+
+  /** Returns the total time writers spent waiting for segment locks, in nanoseconds. */
+  public long totalLockWaitTime() {
+    return totalLockWaitNanos;
+  }
+
+  /**
+   * Returns the average time a contended lock acquisition waited, in nanoseconds, or {@code 0.0}
+   * if there was no contention.
+   */
+  public double averageLockWaitPenalty() {
+    return (lockContentionCount == 0) ? 0.0 : (double) totalLockWaitNanos / lockContentionCount;
+  }
+
+  /**
+   * Returns the length of the longest hash chain in any segment at the time of the snapshot, a
+   * measure of how well the keys' hash codes are spread.
+   */
+  public int longestChainLength() {
+    return longestChainLength;
+  }
+
+  /**
+   * Returns the number of entries in each segment at the time of the snapshot, including entries
+   * whose weak references have been cleared but not yet cleaned up.
+   */
+  public ImmutableIntList segmentSizes() {
+    return segmentSizes;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(
+        hitCount,
+        missCount,
+        evictionCount,
+        reclaimedKeyCount,
+        reclaimedValueCount,
+        cleanupCount,
+        expansionCount,
+        lockContentionCount,
+        totalLockWaitNanos,
+        longestChainLength,
+        segmentSizes);
+  }
+
+  @Override
+  public boolean equals(@CheckForNull Object object) {
+    if (object instanceof MapMakerStats) {
+      MapMakerStats other = (MapMakerStats) object;
+      return hitCount == other.hitCount
+          && missCount == other.missCount
+          && evictionCount == other.evictionCount
+          && reclaimedKeyCount == other.reclaimedKeyCount
+          && reclaimedValueCount == other.reclaimedValueCount
+          && cleanupCount == other.cleanupCount
+          && expansionCount == other.expansionCount
+          && lockContentionCount == other.lockContentionCount
+          && totalLockWaitNanos == other.totalLockWaitNanos
+          && longestChainLength == other.longestChainLength
+          && segmentSizes.equals(other.segmentSizes);
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    return MoreObjects.toStringHelper(this)
+        .add("hitCount", hitCount)
+        .add("missCount", missCount)
+        .add("evictionCount", evictionCount)
+        .add("reclaimedKeyCount", reclaimedKeyCount)
+        .add("reclaimedValueCount", reclaimedValueCount)
+        .add("cleanupCount", cleanupCount)
+        .add("expansionCount", expansionCount)
+        .add("lockContentionCount", lockContentionCount)
+        .add("totalLockWaitTime", totalLockWaitNanos)
+        .add("longestChainLength", longestChainLength)
+        .add("segmentSizes", segmentSizes)
+        .toString();
+  }
+}
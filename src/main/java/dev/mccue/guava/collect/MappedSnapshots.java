@@ -0,0 +1,770 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkArgument;
+import static dev.mccue.guava.base.Preconditions.checkElementIndex;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkState;
+import static dev.mccue.guava.collect.CollectPreconditions.checkEntryNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import dev.mccue.guava.base.Utf8;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * Reads and writes a compact binary snapshot format for immutable collections of strings and
+ * primitives, which can be queried in place instead of being deserialized onto the heap.
+ *
+ * <p>A snapshot is written once, with {@code writeMap}, {@code writeSet}, {@code writeSortedMap}
+ * or {@code writeSetMultimap}, and is typically loaded with {@code FileChannel.map}:
+ *
+ * <pre>{@code
+ * try (FileChannel channel = FileChannel.open(path, READ)) {
+ *   ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+ *   ImmutableMap<String, Long> ids = MappedSnapshots.asMap(buffer, STRING, LONG);
+ * }
+ * }</pre>
+ *
+ * <p>Opening a snapshot only checks its header, so it takes constant time however large the
+ * snapshot is, and pages of the file are read by the operating system as queries touch them. The
+ * returned collections are ordinary immutable collections whose methods read the buffer: lookups
+ * in a map, set or multimap probe an open-addressing hash table stored in the snapshot, lookups
+ * in a sorted map binary search its keys, and keys and values are decoded as they are returned.
+ * They keep the iteration order of the collections they were written from.
+ *
+ * <p>All numbers are big-endian. A snapshot starts with a header of five ints: a magic number;
+ * the format version, the collection kind and the tags of the key and value types, one byte each;
+ * the number of keys; the number of values; and the size of the hash table. Then come an int
+ * table with the position of each key's record, an int table with the hash code of each key and
+ * the hash table itself, whose slots hold a key's index plus one, or zero when empty. Sorted maps
+ * have neither of the last two. Last come the records, each a key followed by its value, its
+ * values preceded by their number, or nothing. Fixed-width types take their natural width and
+ * strings are an int length followed by that many bytes of UTF-8.
+ *
+ * <p>A snapshot must fit in a single {@code ByteBuffer}, so it may not exceed 2GB; larger data
+ * sets should be sharded across several snapshots. The returned collections only use absolute
+ * reads of the buffer, so they may be shared between threads as long as nothing writes to the
+ * buffer or to the file underneath it.
+ */
+@ElementTypesAreNonnullByDefault
+public final class MappedSnapshots {
+  private MappedSnapshots() {}
+
+  private static final int MAGIC = 0x47534e50; // "GSNP"
+  private static final byte VERSION = 1;
+  private static final byte MAP = 1;
+  private static final byte SET = 2;
+  private static final byte SORTED_MAP = 3;
+  private static final byte SET_MULTIMAP = 4;
+  private static final byte NO_TYPE = 0;
+  private static final int HEADER_SIZE = 5 * Integer.BYTES;
+  private static final double LOAD_FACTOR = 0.5;
+
+  /**
+   * The type of the keys, elements or values of a snapshot, which determines how they are
+   * encoded. Only the types defined here are supported.
+   */
+  public abstract static class ElementType<T> {
+    public static final ElementType<String> STRING = new StringType();
+    public static final ElementType<Boolean> BOOLEAN =
+        new FixedWidthType<>(
+            1,
+            Boolean.class,
+            Byte.BYTES,
+            (buffer, index) -> buffer.get(index) != 0,
+            (buffer, value) -> buffer.put((byte) (value ? 1 : 0)));
+    public static final ElementType<Byte> BYTE =
+        new FixedWidthType<>(2, Byte.class, Byte.BYTES, ByteBuffer::get, ByteBuffer::put);
+    public static final ElementType<Short> SHORT =
+        new FixedWidthType<>(
+            3, Short.class, Short.BYTES, ByteBuffer::getShort, ByteBuffer::putShort);
+    public static final ElementType<Character> CHARACTER =
+        new FixedWidthType<>(
+            4, Character.class, Character.BYTES, ByteBuffer::getChar, ByteBuffer::putChar);
+    public static final ElementType<Integer> INTEGER =
+        new FixedWidthType<>(
+            5, Integer.class, Integer.BYTES, ByteBuffer::getInt, ByteBuffer::putInt);
+    public static final ElementType<Long> LONG =
+        new FixedWidthType<>(6, Long.class, Long.BYTES, ByteBuffer::getLong, ByteBuffer::putLong);
+    public static final ElementType<Float> FLOAT =
+        new FixedWidthType<>(
+            7, Float.class, Float.BYTES, ByteBuffer::getFloat, ByteBuffer::putFloat);
+    public static final ElementType<Double> DOUBLE =
+        new FixedWidthType<>(
+            8, Double.class, Double.BYTES, ByteBuffer::getDouble, ByteBuffer::putDouble);
+
+    final byte tag;
+    final Class<T> type;
+
+    ElementType(int tag, Class<T> type) {
+      this.tag = (byte) tag;
+      this.type = type;
+    }
+
+    /** Returns the number of bytes {@code value} is encoded in. */
+    abstract int encodedLength(T value);
+
+    /** Encodes {@code value} at the position of {@code buffer}, which must have room for it. */
+    abstract void write(ByteBuffer buffer, T value);
+
+    /** Decodes the value encoded at {@code index} of {@code buffer}. */
+    abstract T read(ByteBuffer buffer, int index);
+
+    /** Returns the number of bytes of the value encoded at {@code index} of {@code buffer}. */
+    abstract int lengthAt(ByteBuffer buffer, int index);
+
+    @Override
+    public String toString() {
+      return type.getSimpleName();
+    }
+  }
+
+  private interface Reader<T> {
+    T read(ByteBuffer buffer, int index);
+  }
+
+  private static final class FixedWidthType<T> extends ElementType<T> {
+    private final int width;
+    private final Reader<T> reader;
+    private final BiConsumer<ByteBuffer, T> writer;
+
+    FixedWidthType(
+        int tag, Class<T> type, int width, Reader<T> reader, BiConsumer<ByteBuffer, T> writer) {
+      super(tag, type);
+      this.width = width;
+      this.reader = reader;
+      this.writer = writer;
+    }
+
+    @Override
+    int encodedLength(T value) {
+      return width;
+    }
+
+    @Override
+    void write(ByteBuffer buffer, T value) {
+      writer.accept(buffer, value);
+    }
+
+    @Override
+    T read(ByteBuffer buffer, int index) {
+      return reader.read(buffer, index);
+    }
+
+    @Override
+    int lengthAt(ByteBuffer buffer, int index) {
+      return width;
+    }
+  }
+
+  private static final class StringType extends ElementType<String> {
+    StringType() {
+      super(9, String.class);
+    }
+
+    @Override
+    int encodedLength(String value) {
+      return Integer.BYTES + Utf8.encodedLength(value);
+    }
+
+    @Override
+    void write(ByteBuffer buffer, String value) {
+      byte[] bytes = value.getBytes(UTF_8);
+      buffer.putInt(bytes.length);
+      buffer.put(bytes);
+    }
+
+    @Override
+    String read(ByteBuffer buffer, int index) {
+      byte[] bytes = new byte[buffer.getInt(index)];
+      ByteBuffer source = buffer.duplicate();
+      source.position(index + Integer.BYTES);
+      source.get(bytes);
+      return new String(bytes, UTF_8);
+    }
+
+    @Override
+    int lengthAt(ByteBuffer buffer, int index) {
+      return Integer.BYTES + buffer.getInt(index);
+    }
+  }
+
+  /**
+   * Writes {@code map} to {@code channel} as a snapshot that {@code asMap} can read.
+   *
+   * @throws IllegalArgumentException if the snapshot would exceed 2GB, or a string is not
+   *     well-formed UTF-16
+   * @throws NullPointerException if any key or value is null
+   */
+  public static <K, V> void writeMap(
+      Map<K, V> map, ElementType<K> keyType, ElementType<V> valueType, WritableByteChannel channel)
+      throws IOException {
+    Object[] keys = new Object[map.size()];
+    Object[] values = new Object[map.size()];
+    int i = 0;
+    for (Entry<K, V> entry : map.entrySet()) {
+      checkEntryNotNull(entry.getKey(), entry.getValue());
+      keys[i] = entry.getKey();
+      values[i] = entry.getValue();
+      i++;
+    }
+    new Writer<>(MAP, keyType, keys, valueType, values).writeTo(channel);
+  }
+
+  /**
+   * Writes {@code set} to {@code channel} as a snapshot that {@code asSet} can read.
+   *
+   * @throws IllegalArgumentException if the snapshot would exceed 2GB, or a string is not
+   *     well-formed UTF-16
+   * @throws NullPointerException if any element is null
+   */
+  public static <E> void writeSet(
+      Set<E> set, ElementType<E> elementType, WritableByteChannel channel) throws IOException {
+    Object[] elements = ObjectArrays.checkElementsNotNull(set.toArray());
+    new Writer<>(SET, elementType, elements, null, null).writeTo(channel);
+  }
+
+  /**
+   * Writes {@code map}, which must be sorted by the natural ordering of its keys, to {@code
+   * channel} as a snapshot that {@code asSortedMap} can read.
+   *
+   * @throws IllegalArgumentException if {@code map} has a comparator other than the natural
+   *     ordering, if the snapshot would exceed 2GB, or if a string is not well-formed UTF-16
+   * @throws NullPointerException if any key or value is null
+   */
+  public static <K extends Comparable<? super K>, V> void writeSortedMap(
+      SortedMap<K, V> map,
+      ElementType<K> keyType,
+      ElementType<V> valueType,
+      WritableByteChannel channel)
+      throws IOException {
+    Comparator<?> comparator = map.comparator();
+    checkArgument(
+        comparator == null
+            || comparator.equals(Ordering.natural())
+            || comparator.equals(Comparator.naturalOrder()),
+        "Only maps sorted by natural ordering can be written, but found %s",
+        comparator);
+    Object[] keys = new Object[map.size()];
+    Object[] values = new Object[map.size()];
+    int i = 0;
+    for (Entry<K, V> entry : map.entrySet()) {
+      checkEntryNotNull(entry.getKey(), entry.getValue());
+      keys[i] = entry.getKey();
+      values[i] = entry.getValue();
+      i++;
+    }
+    new Writer<>(SORTED_MAP, keyType, keys, valueType, values).writeTo(channel);
+  }
+
+  /**
+   * Writes {@code multimap} to {@code channel} as a snapshot that {@code asSetMultimap} can read.
+   *
+   * @throws IllegalArgumentException if the snapshot would exceed 2GB, or a string is not
+   *     well-formed UTF-16
+   * @throws NullPointerException if any key or value is null
+   */
+  public static <K, V> void writeSetMultimap(
+      SetMultimap<K, V> multimap,
+      ElementType<K> keyType,
+      ElementType<V> valueType,
+      WritableByteChannel channel)
+      throws IOException {
+    Map<K, Collection<V>> map = multimap.asMap();
+    Object[] keys = new Object[map.size()];
+    Object[] valueSets = new Object[map.size()];
+    int i = 0;
+    for (Entry<K, Collection<V>> entry : map.entrySet()) {
+      keys[i] = checkNotNull(entry.getKey());
+      valueSets[i] = ObjectArrays.checkElementsNotNull(entry.getValue().toArray());
+      i++;
+    }
+    new Writer<>(SET_MULTIMAP, keyType, keys, valueType, valueSets).writeTo(channel);
+  }
+
+  /**
+   * Returns a map that reads the snapshot in {@code buffer}, from its position to its limit,
+   * without copying it onto the heap.
+   *
+   * @throws IllegalArgumentException if {@code buffer} does not hold a snapshot of a map with the
+   *     given key and value types
+   */
+  public static <K, V> ImmutableMap<K, V> asMap(
+      ByteBuffer buffer, ElementType<K> keyType, ElementType<V> valueType) {
+    Snapshot<K, V> snapshot = new Snapshot<>(buffer, MAP, keyType, valueType);
+    return (snapshot.size == 0)
+        ? ImmutableMap.of()
+        : new SnapshotMap<>(snapshot, snapshot::valueAt);
+  }
+
+  /**
+   * Returns a set that reads the snapshot in {@code buffer}, from its position to its limit,
+   * without copying it onto the heap.
+   *
+   * @throws IllegalArgumentException if {@code buffer} does not hold a snapshot of a set with the
+   *     given element type
+   */
+  public static <E> ImmutableSet<E> asSet(ByteBuffer buffer, ElementType<E> elementType) {
+    Snapshot<E, ?> snapshot = new Snapshot<>(buffer, SET, elementType, null);
+    return (snapshot.size == 0) ? ImmutableSet.of() : new SnapshotSet<>(snapshot);
+  }
+
+  /**
+   * Returns a sorted map that reads the snapshot in {@code buffer}, from its position to its limit,
+   * without copying it onto the heap. It is ordered by the natural ordering of its keys.
+   *
+   * @throws IllegalArgumentException if {@code buffer} does not hold a snapshot of a sorted map
+   *     with the given key and value types
+   */
+  public static <K extends Comparable<? super K>, V> ImmutableSortedMap<K, V> asSortedMap(
+      ByteBuffer buffer, ElementType<K> keyType, ElementType<V> valueType) {
+    Snapshot<K, V> snapshot = new Snapshot<>(buffer, SORTED_MAP, keyType, valueType);
+    if (snapshot.size == 0) {
+      return ImmutableSortedMap.of();
+    }
+    RegularImmutableSortedSet<K> keySet =
+        new RegularImmutableSortedSet<>(
+            new SnapshotList<>(snapshot.size, snapshot::keyAt), Ordering.natural());
+    return new ImmutableSortedMap<>(keySet, new SnapshotList<>(snapshot.size, snapshot::valueAt));
+  }
+
+  /**
+   * Returns a set multimap that reads the snapshot in {@code buffer}, from its position to its
+   * limit, without copying it onto the heap. Each call to {@code get} decodes the values of its
+   * key into a new set.
+   *
+   * @throws IllegalArgumentException if {@code buffer} does not hold a snapshot of a set multimap
+   *     with the given key and value types
+   */
+  public static <K, V> ImmutableSetMultimap<K, V> asSetMultimap(
+      ByteBuffer buffer, ElementType<K> keyType, ElementType<V> valueType) {
+    Snapshot<K, V> snapshot = new Snapshot<>(buffer, SET_MULTIMAP, keyType, valueType);
+    if (snapshot.size == 0) {
+      return ImmutableSetMultimap.of();
+    }
+    return new ImmutableSetMultimap<>(
+        new SnapshotMap<>(snapshot, snapshot::valuesAt), snapshot.valueCount, null);
+  }
+
+  /** Lays out and writes a snapshot. */
+  private static final class Writer<K, V> {
+    private final byte kind;
+    private final ElementType<K> keyType;
+    private final Object[] keys;
+    @CheckForNull private final ElementType<V> valueType;
+    // V values for maps, V[] value sets for multimaps, and null for sets
+    @CheckForNull private final Object[] values;
+
+    Writer(
+        byte kind,
+        ElementType<K> keyType,
+        Object[] keys,
+        @CheckForNull ElementType<V> valueType,
+        @CheckForNull Object[] values) {
+      this.kind = kind;
+      this.keyType = checkNotNull(keyType);
+      this.keys = keys;
+      this.valueType = (values == null) ? null : checkNotNull(valueType);
+      this.values = values;
+    }
+
+    void writeTo(WritableByteChannel channel) throws IOException {
+      int size = keys.length;
+      boolean hashed = kind != SORTED_MAP;
+      int tableSize = hashed ? Hashing.closedTableSize(size, LOAD_FACTOR) : 0;
+      long position = HEADER_SIZE + (hashed ? 2L : 1L) * size * Integer.BYTES;
+      position += (long) tableSize * Integer.BYTES;
+      int[] offsets = new int[size];
+      int valueCount = 0;
+      for (int i = 0; i < size; i++) {
+        checkSize(position);
+        offsets[i] = (int) position;
+        position += keyType.encodedLength(key(i));
+        if (kind == SET_MULTIMAP) {
+          Object[] valueSet = (Object[]) requireNonNull(values)[i];
+          position += Integer.BYTES;
+          for (Object value : valueSet) {
+            position += valueType().encodedLength(value(value));
+          }
+          valueCount += valueSet.length;
+        } else if (kind != SET) {
+          position += valueType().encodedLength(value(requireNonNull(values)[i]));
+          valueCount++;
+        } else {
+          valueCount++;
+        }
+      }
+      checkSize(position);
+
+      Output out = new Output(channel);
+      out.putInt(MAGIC);
+      out.putInt((VERSION << 24) | (kind << 16) | (keyType.tag << 8) | (tag(valueType) & 0xff));
+      out.putInt(size);
+      out.putInt(valueCount);
+      out.putInt(tableSize);
+      for (int offset : offsets) {
+        out.putInt(offset);
+      }
+      if (hashed) {
+        int[] table = new int[tableSize];
+        int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+          int hash = keys[i].hashCode();
+          out.putInt(hash);
+          int slot = Hashing.smear(hash) & mask;
+          while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+          }
+          table[slot] = i + 1;
+        }
+        for (int entry : table) {
+          out.putInt(entry);
+        }
+      }
+      for (int i = 0; i < size; i++) {
+        out.put(keyType, key(i));
+        if (kind == SET_MULTIMAP) {
+          Object[] valueSet = (Object[]) requireNonNull(values)[i];
+          out.putInt(valueSet.length);
+          for (Object value : valueSet) {
+            out.put(valueType(), value(value));
+          }
+        } else if (kind != SET) {
+          out.put(valueType(), value(requireNonNull(values)[i]));
+        }
+      }
+      out.flush();
+    }
+
+    @SuppressWarnings("unchecked") // keys holds only K keys
+    private K key(int index) {
+      return (K) keys[index];
+    }
+
+    @SuppressWarnings("unchecked") // values holds only V values
+    private V value(Object value) {
+      return (V) value;
+    }
+
+    private ElementType<V> valueType() {
+      return requireNonNull(valueType);
+    }
+
+    private static byte tag(@CheckForNull ElementType<?> type) {
+      return (type == null) ? NO_TYPE : type.tag;
+    }
+
+    private static void checkSize(long position) {
+      checkArgument(position <= Integer.MAX_VALUE, "Snapshot exceeds 2GB");
+    }
+  }
+
+  /** Buffers writes to a channel. */
+  private static final class Output {
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+    Output(WritableByteChannel channel) {
+      this.channel = checkNotNull(channel);
+    }
+
+    void putInt(int value) throws IOException {
+      if (buffer.remaining() < Integer.BYTES) {
+        flush();
+      }
+      buffer.putInt(value);
+    }
+
+    <T> void put(ElementType<T> type, T value) throws IOException {
+      int length = type.encodedLength(value);
+      if (buffer.remaining() < length) {
+        flush();
+      }
+      if (length <= buffer.capacity()) {
+        type.write(buffer, value);
+      } else {
+        ByteBuffer large = ByteBuffer.allocate(length);
+        type.write(large, value);
+        large.flip();
+        writeFully(large);
+      }
+    }
+
+    void flush() throws IOException {
+      buffer.flip();
+      writeFully(buffer);
+      buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+      while (source.hasRemaining()) {
+        channel.write(source);
+      }
+    }
+  }
+
+  /** The header of a snapshot and the in-place queries that the views share. */
+  private static final class Snapshot<K, V> {
+    private final ByteBuffer buffer;
+    private final ElementType<K> keyType;
+    @CheckForNull private final ElementType<V> valueType;
+    final int size;
+    final int valueCount;
+    private final int tableSize;
+    private final int offsetsStart;
+    private final int hashesStart;
+    private final int tableStart;
+
+    Snapshot(
+        ByteBuffer buffer,
+        byte kind,
+        ElementType<K> keyType,
+        @CheckForNull ElementType<V> valueType) {
+      this.buffer = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+      this.keyType = checkNotNull(keyType);
+      this.valueType = valueType;
+      int limit = this.buffer.limit();
+      checkArgument(
+          limit >= HEADER_SIZE && this.buffer.getInt(0) == MAGIC,
+          "Buffer does not hold a snapshot");
+      int format = this.buffer.getInt(Integer.BYTES);
+      checkArgument((format >>> 24) == VERSION, "Unsupported snapshot version %s", format >>> 24);
+      checkArgument(
+          (byte) (format >>> 16) == kind, "Snapshot holds a different kind of collection");
+      checkArgument(
+          (byte) (format >>> 8) == keyType.tag, "Snapshot keys are not of type %s", keyType);
+      checkArgument(
+          (byte) format == ((valueType == null) ? NO_TYPE : valueType.tag),
+          "Snapshot values are not of type %s",
+          valueType);
+      this.size = this.buffer.getInt(2 * Integer.BYTES);
+      this.valueCount = this.buffer.getInt(3 * Integer.BYTES);
+      this.tableSize = this.buffer.getInt(4 * Integer.BYTES);
+      checkArgument(
+          size >= 0 && valueCount >= 0 && tableSize >= 0, "Snapshot header is corrupt");
+      checkArgument(
+          (kind == SORTED_MAP)
+              ? tableSize == 0
+              : tableSize > size && Integer.bitCount(tableSize) == 1,
+          "Snapshot header is corrupt");
+      this.offsetsStart = HEADER_SIZE;
+      this.hashesStart = offsetsStart + size * Integer.BYTES;
+      this.tableStart = hashesStart + ((kind == SORTED_MAP) ? 0 : size * Integer.BYTES);
+      checkArgument(
+          (long) tableStart + (long) tableSize * Integer.BYTES <= limit, "Snapshot is truncated");
+    }
+
+    private int keyOffset(int index) {
+      return buffer.getInt(offsetsStart + index * Integer.BYTES);
+    }
+
+    private int valueOffset(int index) {
+      int keyOffset = keyOffset(index);
+      return keyOffset + keyType.lengthAt(buffer, keyOffset);
+    }
+
+    K keyAt(int index) {
+      return keyType.read(buffer, keyOffset(index));
+    }
+
+    V valueAt(int index) {
+      return requireNonNull(valueType).read(buffer, valueOffset(index));
+    }
+
+    @SuppressWarnings("unchecked") // the array holds only V values
+    ImmutableSet<V> valuesAt(int index) {
+      ElementType<V> type = requireNonNull(valueType);
+      int offset = valueOffset(index);
+      Object[] values = new Object[buffer.getInt(offset)];
+      offset += Integer.BYTES;
+      for (int i = 0; i < values.length; i++) {
+        values[i] = type.read(buffer, offset);
+        offset += type.lengthAt(buffer, offset);
+      }
+      return (ImmutableSet<V>) ImmutableSet.copyOf(Arrays.asList(values));
+    }
+
+    /**
+     * Returns the index of {@code key}, or -1 if it is absent. Requires a hash table.
+     *
+     * <p>The table is only read here, not when the snapshot is opened, so this probes each slot at
+     * most once even if a malformed table has no empty slot.
+     *
+     * @throws IllegalStateException if the table refers to a key that does not exist
+     */
+    int indexOf(@CheckForNull Object key) {
+      if (!keyType.type.isInstance(key)) {
+        return -1;
+      }
+      int hash = key.hashCode();
+      int mask = tableSize - 1;
+      int slot = Hashing.smear(hash) & mask;
+      for (int probes = 0; probes < tableSize; probes++, slot = (slot + 1) & mask) {
+        int entry = buffer.getInt(tableStart + slot * Integer.BYTES) - 1;
+        if (entry == -1) {
+          return -1;
+        }
+        checkState(entry >= 0 && entry < size, "Snapshot hash table is corrupt");
+        if (buffer.getInt(hashesStart + entry * Integer.BYTES) == hash
+            && key.equals(keyAt(entry))) {
+          return entry;
+        }
+      }
+      return -1;
+    }
+  }
+
+  /** A map, or the {@code asMap()} of a set multimap, over the records of a snapshot. */
+  private static final class SnapshotMap<K, V>
+      extends ImmutableMap.IteratorBasedImmutableMap<K, V> {
+    private final Snapshot<K, ?> snapshot;
+    private final IntFunction<V> valueAt;
+
+    SnapshotMap(Snapshot<K, ?> snapshot, IntFunction<V> valueAt) {
+      this.snapshot = snapshot;
+      this.valueAt = valueAt;
+    }
+
+    @Override
+    @CheckForNull
+    public V get(@CheckForNull Object key) {
+      int index = snapshot.indexOf(key);
+      return (index < 0) ? null : valueAt.apply(index);
+    }
+
+    @Override
+    public boolean containsKey(@CheckForNull Object key) {
+      return snapshot.indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return snapshot.size;
+    }
+
+    @Override
+    UnmodifiableIterator<Entry<K, V>> entryIterator() {
+      return new AbstractIndexedListIterator<Entry<K, V>>(snapshot.size) {
+        @Override
+        protected Entry<K, V> get(int index) {
+          return Maps.immutableEntry(snapshot.keyAt(index), valueAt.apply(index));
+        }
+      };
+    }
+
+    @Override
+    ImmutableSet<K> createKeySet() {
+      return new SnapshotSet<>(snapshot);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /** A set, or the key set of a map, over the keys of a snapshot. */
+  private static final class SnapshotSet<E> extends ImmutableSet.Indexed<E> {
+    private final Snapshot<E, ?> snapshot;
+
+    SnapshotSet(Snapshot<E, ?> snapshot) {
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    E get(int index) {
+      return snapshot.keyAt(index);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return snapshot.indexOf(object) >= 0;
+    }
+
+    @Override
+    public int size() {
+      return snapshot.size;
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /** The keys or values of a sorted map snapshot, decoded by index. */
+  private static final class SnapshotList<E> extends ImmutableList<E> {
+    private final int size;
+    private final IntFunction<E> elementAt;
+
+    SnapshotList(int size, IntFunction<E> elementAt) {
+      this.size = size;
+      this.elementAt = elementAt;
+    }
+
+    @Override
+    public E get(int index) {
+      return elementAt.apply(checkElementIndex(index, size));
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+}
@@ -1687,6 +1687,40 @@ public final class Maps {
     return Synchronized.biMap(bimap, null);
   }
 
+  /**
+   * Returns a thread-safe map backed by the specified map, guarded by a read-write lock so that
+   * readers do not block each other. In order to guarantee safe access, it is critical that
+   * <b>all</b> access to the backing map is accomplished through the returned map.
+   *
+   * <p>Writes take the write lock, and queries take the read lock, which readers share, so unlike
+   * one returned by {@code Collections.synchronizedMap}, a map that is mostly read does not
+   * serialize its readers. If the specified map is itself safe to query during a write, such as a
+   * {@code ConcurrentMap}, short queries such as {@code get}, {@code containsKey} and {@code size}
+   * first run without any locking and are retried under the read lock only if a write happened
+   * meanwhile.
+   *
+   * <p>The iterators and spliterators of the returned map's collection views run over a snapshot
+   * copied under the read lock, so they need no manual locking and do not reflect later changes.
+   * Their {@code remove} method and the {@code setValue} method of snapshot entries write through
+   * to the map.
+   *
+   * <p>Unlike {@code Collections.synchronizedMap}, the returned map is not fully reentrant. Calls
+   * made by a thread while it holds the write lock, such as from the function passed to {@code
+   * compute}, {@code merge} or {@code replaceAll}, run directly, and the action passed to {@code
+   * forEach} runs over a snapshot, so both may call back into the map. But the {@code equals},
+   * {@code hashCode} and {@code toString} methods of keys and values, which may run under the read
+   * lock, must not call back into the map, or they may deadlock.
+   *
+   * <p>The returned map will be serializable if the specified map is serializable.
+   *
+   * @param map the map to be wrapped in a read-write locked view
+   * @return a read-write locked view of the specified map
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      Map<K, V> readWriteLockedMap(Map<K, V> map) {
+    return ReadWriteLocked.map(map, null);
+  }
+
   /**
    * Returns an unmodifiable view of the specified bimap. This method allows modules to provide
    * users with "read-only" access to internal bimaps. Query operations on the returned bimap "read
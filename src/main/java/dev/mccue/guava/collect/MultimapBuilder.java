@@ -86,6 +86,12 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
       <K extends @Nullable Object, V extends @Nullable Object> Map<K, Collection<V>> createMap() {
         return Platform.newHashMapWithExpectedSize(expectedKeys);
       }
+
+      @Override
+      <K extends @Nullable Object, V extends @Nullable Object>
+          SetMultimap<K, V> createCompactLinkedHashSetMultimap(int expectedValuesPerKey) {
+        return CompactLinkedHashMultimap.create(expectedKeys, expectedValuesPerKey);
+      }
     };
   }
 
@@ -117,6 +123,12 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
       <K extends @Nullable Object, V extends @Nullable Object> Map<K, Collection<V>> createMap() {
         return Platform.newLinkedHashMapWithExpectedSize(expectedKeys);
       }
+
+      @Override
+      <K extends @Nullable Object, V extends @Nullable Object>
+          SetMultimap<K, V> createCompactLinkedHashSetMultimap(int expectedValuesPerKey) {
+        return CompactLinkedHashMultimap.create(expectedKeys, expectedValuesPerKey);
+      }
     };
   }
 
@@ -177,6 +189,30 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
     };
   }
 
+  /**
+   * Uses a {@code ConcurrentHashMap} to map keys to value collections. The generated multimaps
+   * support concurrent modifications without a global lock: every change to the values of a
+   * single key is atomic, and writers only contend when their keys share a hash bin. Their views
+   * are weakly consistent. See {@code ConcurrentSetMultimap} and {@code ConcurrentListMultimap}
+   * for details.
+   *
+   * <p>Keys and values of the generated multimaps may not be null.
+   */
+  public static ConcurrentMultimapBuilderWithKeys concurrentHashKeys() {
+    return concurrentHashKeys(DEFAULT_EXPECTED_KEYS);
+  }
+
+  /**
+   * Uses a {@code ConcurrentHashMap} to map keys to value collections, initialized to expect the
+   * specified number of keys. See {@code concurrentHashKeys()}.
+   *
+   * @throws IllegalArgumentException if {@code expectedKeys < 0}
+   */
+  public static ConcurrentMultimapBuilderWithKeys concurrentHashKeys(int expectedKeys) {
+    checkNonnegative(expectedKeys, "expectedKeys");
+    return new ConcurrentMultimapBuilderWithKeys(expectedKeys);
+  }
+
   private static final class ArrayListSupplier<V extends @Nullable Object>
       implements Supplier<List<V>>, Serializable {
     private final int expectedValuesPerKey;
@@ -235,6 +271,20 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
     }
   }
 
+  private static final class CompactLinkedHashSetSupplier<V extends @Nullable Object>
+      implements Supplier<Set<V>>, Serializable {
+    private final int expectedValuesPerKey;
+
+    CompactLinkedHashSetSupplier(int expectedValuesPerKey) {
+      this.expectedValuesPerKey = checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+    }
+
+    @Override
+    public Set<V> get() {
+      return CompactLinkedHashSet.createWithExpectedSize(expectedValuesPerKey);
+    }
+  }
+
   private static final class TreeSetSupplier<V extends @Nullable Object>
       implements Supplier<SortedSet<V>>, Serializable {
     private final Comparator<? super V> comparator;
@@ -278,6 +328,16 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
 
     abstract <K extends K0, V extends @Nullable Object> Map<K, Collection<V>> createMap();
 
+    /**
+     * Creates the multimap for {@code compactLinkedHashSetValues}. Key strategies that can be
+     * served by a {@code CompactLinkedHashMultimap} override this to return one.
+     */
+    <K extends K0, V extends @Nullable Object>
+        SetMultimap<K, V> createCompactLinkedHashSetMultimap(int expectedValuesPerKey) {
+      return Multimaps.newSetMultimap(
+          this.<K, V>createMap(), new CompactLinkedHashSetSupplier<V>(expectedValuesPerKey));
+    }
+
     /** Uses an {@code ArrayList} to store value collections. */
     public ListMultimapBuilder<K0, @Nullable Object> arrayListValues() {
       return arrayListValues(DEFAULT_EXPECTED_VALUES_PER_KEY);
@@ -358,6 +418,40 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
       };
     }
 
+    /**
+     * Stores values in insertion order in flat arrays rather than allocating an entry object per
+     * value, which uses considerably less memory per entry than {@code linkedHashSetValues()}, at
+     * the price of moderately increased constant factors of CPU.
+     *
+     * <p>With {@code hashKeys()} or {@code linkedHashKeys()}, the generated multimaps are {@code
+     * CompactLinkedHashMultimap} instances, which keep all keys and values in one set of arrays and
+     * iterate over their entries in the order they were added, like {@code LinkedHashMultimap}.
+     * With other key strategies, each value collection is a {@code CompactLinkedHashSet}, and the
+     * multimaps iterate over their entries one key at a time, as with {@code
+     * linkedHashSetValues()}.
+     */
+    public SetMultimapBuilder<K0, @Nullable Object> compactLinkedHashSetValues() {
+      return compactLinkedHashSetValues(DEFAULT_EXPECTED_VALUES_PER_KEY);
+    }
+
+    /**
+     * Stores values in insertion order in flat arrays, initialized to expect the specified number
+     * of values per key. See {@code compactLinkedHashSetValues()}.
+     *
+     * @throws IllegalArgumentException if {@code expectedValuesPerKey < 0}
+     */
+    public SetMultimapBuilder<K0, @Nullable Object> compactLinkedHashSetValues(
+        int expectedValuesPerKey) {
+      checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+      return new SetMultimapBuilder<K0, @Nullable Object>() {
+        @Override
+        public <K extends K0, V extends @Nullable Object> SetMultimap<K, V> build() {
+          return MultimapBuilderWithKeys.this.<K, V>createCompactLinkedHashSetMultimap(
+              expectedValuesPerKey);
+        }
+      };
+    }
+
     /** Uses a naturally-ordered {@code TreeSet} to store value collections. */
     @SuppressWarnings("rawtypes")
     public SortedSetMultimapBuilder<K0, Comparable> treeSetValues() {
@@ -398,6 +492,67 @@ public abstract class MultimapBuilder<K0 extends @Nullable Object, V0 extends @N
     }
   }
 
+  /**
+   * An intermediate stage in a {@code MultimapBuilder} in which a concurrent key-value collection
+   * map has been specified, but the value collection implementation has not.
+   */
+  public static final class ConcurrentMultimapBuilderWithKeys {
+    private final int expectedKeys;
+
+    ConcurrentMultimapBuilderWithKeys(int expectedKeys) {
+      this.expectedKeys = expectedKeys;
+    }
+
+    /**
+     * Stores the values for each key in an immutable array that is replaced on every change,
+     * generating {@code ConcurrentListMultimap} instances.
+     */
+    public ListMultimapBuilder<Object, Object> arrayListValues() {
+      return arrayListValues(MultimapBuilderWithKeys.DEFAULT_EXPECTED_VALUES_PER_KEY);
+    }
+
+    /**
+     * Stores the values for each key in an immutable array that is replaced on every change,
+     * initialized to expect the specified number of values per key, generating {@code
+     * ConcurrentListMultimap} instances.
+     *
+     * @throws IllegalArgumentException if {@code expectedValuesPerKey < 0}
+     */
+    public ListMultimapBuilder<Object, Object> arrayListValues(int expectedValuesPerKey) {
+      checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+      return new ListMultimapBuilder<Object, Object>() {
+        @Override
+        public <K, V> ListMultimap<K, V> build() {
+          return ConcurrentListMultimap.create(expectedKeys, expectedValuesPerKey);
+        }
+      };
+    }
+
+    /**
+     * Stores the values for each key in a concurrent hash set, generating {@code
+     * ConcurrentSetMultimap} instances.
+     */
+    public SetMultimapBuilder<Object, Object> hashSetValues() {
+      return hashSetValues(MultimapBuilderWithKeys.DEFAULT_EXPECTED_VALUES_PER_KEY);
+    }
+
+    /**
+     * Stores the values for each key in a concurrent hash set, initialized to expect the specified
+     * number of values per key, generating {@code ConcurrentSetMultimap} instances.
+     *
+     * @throws IllegalArgumentException if {@code expectedValuesPerKey < 0}
+     */
+    public SetMultimapBuilder<Object, Object> hashSetValues(int expectedValuesPerKey) {
+      checkNonnegative(expectedValuesPerKey, "expectedValuesPerKey");
+      return new SetMultimapBuilder<Object, Object>() {
+        @Override
+        public <K, V> SetMultimap<K, V> build() {
+          return ConcurrentSetMultimap.create(expectedKeys, expectedValuesPerKey);
+        }
+      };
+    }
+  }
+
   /** Returns a new, empty {@code Multimap} with the specified implementation. */
   public abstract <K extends K0, V extends V0> Multimap<K, V> build();
 
@@ -627,6 +627,43 @@ public final class Multimaps {
     return Synchronized.multimap(multimap, null);
   }
 
+  /**
+   * Returns a thread-safe multimap backed by the specified multimap, guarded by a read-write lock
+   * so that readers do not block each other. In order to guarantee safe access, it is critical that
+   * <b>all</b> access to the backing multimap is accomplished through the returned multimap.
+   *
+   * <p>Writes take the write lock, and queries take the read lock, which readers share, so unlike
+   * one returned by {@code #synchronizedMultimap}, a multimap that is mostly read does not
+   * serialize its readers. Collections returned by {@code get} and the other views share the same
+   * lock. If the specified multimap is itself safe to query during a write, such as a {@code
+   * ConcurrentSetMultimap}, short queries such as {@code containsKey}, {@code containsEntry} and
+   * {@code size} first run without any locking and are retried under the read lock only if a write
+   * happened meanwhile.
+   *
+   * <p>The iterators and spliterators of the returned multimap's collection views run over a
+   * snapshot copied under the read lock, so they need no manual locking and do not reflect later
+   * changes. Their {@code remove} method removes an element equal to the last one returned.
+   *
+   * <p>Unlike {@code #synchronizedMultimap}, the returned multimap is not fully reentrant. Calls
+   * made by a thread while it holds the write lock, such as from the predicate passed to {@code
+   * removeIf} on one of its views, run directly, and the action passed to {@code forEach} runs over
+   * a snapshot, so both may call back into the multimap. But the {@code equals}, {@code hashCode}
+   * and {@code toString} methods of keys and values, which may run under the read lock, must not
+   * call back into the multimap, or they may deadlock.
+   *
+   * <p>Note that the generated multimap's {@code Multimap#removeAll} and {@code
+   * Multimap#replaceValues} methods return collections that aren't locked.
+   *
+   * <p>The returned multimap will be serializable if the specified multimap is serializable.
+   *
+   * @param multimap the multimap to be wrapped in a read-write locked view
+   * @return a read-write locked view of the specified multimap
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      Multimap<K, V> readWriteLockedMultimap(Multimap<K, V> multimap) {
+    return ReadWriteLocked.multimap(multimap, null);
+  }
+
   /**
    * Returns an unmodifiable view of the specified multimap. Query operations on the returned
    * multimap "read through" to the specified multimap, and attempts to modify the returned
@@ -893,6 +930,22 @@ public final class Multimaps {
     return Synchronized.setMultimap(multimap, null);
   }
 
+  /**
+   * Returns a thread-safe {@code SetMultimap} backed by the specified multimap, guarded by a
+   * read-write lock so that readers do not block each other.
+   *
+   * <p>You must follow the warnings described in {@code #readWriteLockedMultimap}.
+   *
+   * <p>The returned multimap will be serializable if the specified multimap is serializable.
+   *
+   * @param multimap the multimap to be wrapped
+   * @return a read-write locked view of the specified multimap
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      SetMultimap<K, V> readWriteLockedSetMultimap(SetMultimap<K, V> multimap) {
+    return ReadWriteLocked.setMultimap(multimap, null);
+  }
+
   /**
    * Returns an unmodifiable view of the specified {@code SetMultimap}. Query operations on the
    * returned multimap "read through" to the specified multimap, and attempts to modify the returned
@@ -974,6 +1027,22 @@ public final class Multimaps {
     return Synchronized.listMultimap(multimap, null);
   }
 
+  /**
+   * Returns a thread-safe {@code ListMultimap} backed by the specified multimap, guarded by a
+   * read-write lock so that readers do not block each other.
+   *
+   * <p>You must follow the warnings described in {@code #readWriteLockedMultimap}.
+   *
+   * <p>The returned multimap will be serializable if the specified multimap is serializable.
+   *
+   * @param multimap the multimap to be wrapped
+   * @return a read-write locked view of the specified multimap
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      ListMultimap<K, V> readWriteLockedListMultimap(ListMultimap<K, V> multimap) {
+    return ReadWriteLocked.listMultimap(multimap, null);
+  }
+
   /**
    * Returns an unmodifiable view of the specified {@code ListMultimap}. Query operations on the
    * returned multimap "read through" to the specified multimap, and attempts to modify the returned
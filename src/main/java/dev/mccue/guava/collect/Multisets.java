@@ -43,6 +43,7 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 import java.util.function.ToIntFunction;
 import java.util.stream.Collector;
@@ -166,6 +167,11 @@ public final class Multisets {
       return Iterators.<E>unmodifiableIterator(delegate.iterator());
     }
 
+    @Override
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+      delegate.forEachEntry(action);
+    }
+
     @Override
     public boolean add(@ParametricNullness E element) {
       throw new UnsupportedOperationException();
@@ -0,0 +1,484 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkArgument;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+import static dev.mccue.guava.collect.CompactHashing.UNSET;
+import static dev.mccue.guava.collect.Hashing.smearedHash;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import dev.mccue.guava.base.Objects;
+import dev.mccue.guava.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ObjIntConsumer;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A hash-based multiset that keeps each element's count inline in an {@code int[]}, instead of in
+ * a {@code Count} object per distinct element as {@code HashMultiset} does. Elements, counts, and
+ * chains of entries threaded through an {@code int[]} of hash prefixes and next pointers hang off a
+ * {@code CompactHashing} table, as in {@code CompactHashMap}, so the multiset consists of a
+ * constant number of objects however many distinct elements it holds. Null elements are
+ * supported.
+ *
+ * <p>{@code #add(Object, int)}, {@code #remove(Object, int)}, {@code #count} and {@code
+ * #setCount(Object, int)} allocate nothing except when the arrays grow, and {@code #forEachEntry}
+ * visits every element and its count without creating {@code Multiset.Entry} objects.
+ *
+ * <p>If no element has been removed entirely, iteration order is the order in which elements were
+ * first added. Any such removal invalidates any ordering guarantees. Unlike {@code HashMultiset},
+ * there is no fallback for deliberately colliding elements, so operations can degrade to linear
+ * time if an adversary chooses them.
+ *
+ * <p>This class is not thread-safe.
+ */
+@ElementTypesAreNonnullByDefault
+public final class ObjectIntHashMultiset<E extends @Nullable Object> extends AbstractMultiset<E>
+    implements Serializable {
+
+  /** Creates a new, empty {@code ObjectIntHashMultiset} using the default initial capacity. */
+  public static <E extends @Nullable Object> ObjectIntHashMultiset<E> create() {
+    return new ObjectIntHashMultiset<>(CompactHashing.DEFAULT_SIZE);
+  }
+
+  /**
+   * Creates a new, empty {@code ObjectIntHashMultiset} with the specified expected number of
+   * distinct elements.
+   *
+   * @param distinctElements the expected number of distinct elements
+   * @throws IllegalArgumentException if {@code distinctElements} is negative
+   */
+  public static <E extends @Nullable Object> ObjectIntHashMultiset<E> create(
+      int distinctElements) {
+    checkNonnegative(distinctElements, "distinctElements");
+    return new ObjectIntHashMultiset<>(distinctElements);
+  }
+
+  /**
+   * Creates a new {@code ObjectIntHashMultiset} containing the specified elements.
+   *
+   * @param elements the elements that the multiset should contain
+   */
+  public static <E extends @Nullable Object> ObjectIntHashMultiset<E> create(
+      Iterable<? extends E> elements) {
+    ObjectIntHashMultiset<E> multiset = create(Multisets.inferDistinctElements(elements));
+    Iterables.addAll(multiset, elements);
+    return multiset;
+  }
+
+  /** A {@code byte[]}, {@code short[]} or {@code int[]} from {@code CompactHashing#createTable}. */
+  private transient Object table;
+
+  private transient int mask;
+
+  /** Hash prefix and next pointer of each entry, as in {@code CompactHashMap#entries}. */
+  private transient int[] entries;
+
+  private transient @Nullable Object[] elements;
+
+  /** The count of each element; always positive in {@code [0, distinct)}. */
+  private transient int[] counts;
+
+  private transient int distinct;
+
+  /** The total number of occurrences, as a long so that it cannot overflow. */
+  private transient long size;
+
+  /** Changes when an element is added or removed entirely, but not when a count changes. */
+  private transient int modCount;
+
+  private ObjectIntHashMultiset(int distinctElements) {
+    allocArrays(min(max(1, distinctElements), CompactHashing.MAX_SIZE));
+  }
+
+  private void allocArrays(int capacity) {
+    int buckets = CompactHashing.tableSize(capacity);
+    table = CompactHashing.createTable(buckets);
+    mask = buckets - 1;
+    entries = new int[capacity];
+    elements = new Object[capacity];
+    counts = new int[capacity];
+  }
+
+  @Override
+  public int count(@CheckForNull Object element) {
+    int index = indexOf(element);
+    return (index == -1) ? 0 : counts[index];
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if the call would result in more than {@code
+   *     Integer#MAX_VALUE} occurrences of {@code element} in this multiset.
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int add(@ParametricNullness E element, int occurrences) {
+    if (occurrences == 0) {
+      return count(element);
+    }
+    checkArgument(occurrences > 0, "occurrences cannot be negative: %s", occurrences);
+    int index = indexOf(element);
+    if (index == -1) {
+      append(element, occurrences);
+      size += occurrences;
+      return 0;
+    }
+    int oldCount = counts[index];
+    long newCount = (long) oldCount + occurrences;
+    checkArgument(newCount <= Integer.MAX_VALUE, "too many occurrences: %s", newCount);
+    counts[index] = (int) newCount;
+    size += occurrences;
+    return oldCount;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int remove(@CheckForNull Object element, int occurrences) {
+    if (occurrences == 0) {
+      return count(element);
+    }
+    checkArgument(occurrences > 0, "occurrences cannot be negative: %s", occurrences);
+    int index = indexOf(element);
+    if (index == -1) {
+      return 0;
+    }
+    int oldCount = counts[index];
+    if (oldCount > occurrences) {
+      counts[index] = oldCount - occurrences;
+      size -= occurrences;
+    } else {
+      removeEntry(index);
+    }
+    return oldCount;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public int setCount(@ParametricNullness E element, int count) {
+    checkNonnegative(count, "count");
+    int index = indexOf(element);
+    if (index == -1) {
+      if (count > 0) {
+        append(element, count);
+        size += count;
+      }
+      return 0;
+    }
+    int oldCount = counts[index];
+    if (count == 0) {
+      removeEntry(index);
+    } else {
+      counts[index] = count;
+      size += count - oldCount;
+    }
+    return oldCount;
+  }
+
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super E> action) {
+    checkNotNull(action);
+    for (int i = 0; i < distinct; i++) {
+      action.accept(element(i), counts[i]);
+    }
+  }
+
+  @Override
+  public int size() {
+    return Ints.saturatedCast(size);
+  }
+
+  @Override
+  int distinctElements() {
+    return distinct;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(entries, 0, distinct, UNSET);
+    Arrays.fill(elements, 0, distinct, null);
+    Arrays.fill(counts, 0, distinct, 0);
+    CompactHashing.tableClear(table);
+    distinct = 0;
+    size = 0;
+    modCount++;
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Multisets.iteratorImpl(this);
+  }
+
+  @Override
+  Iterator<E> elementIterator() {
+    return new Itr<E>() {
+      @Override
+      @ParametricNullness
+      E getOutput(int index) {
+        return element(index);
+      }
+    };
+  }
+
+  @Override
+  Iterator<Entry<E>> entryIterator() {
+    return new Itr<Entry<E>>() {
+      @Override
+      Entry<E> getOutput(int index) {
+        return new MultisetEntry(index);
+      }
+    };
+  }
+
+  private abstract class Itr<T extends @Nullable Object> implements Iterator<T> {
+    int expectedModCount = modCount;
+    int nextIndex = 0;
+    int indexToRemove = -1;
+
+    @Override
+    public boolean hasNext() {
+      return nextIndex < distinct;
+    }
+
+    @ParametricNullness
+    abstract T getOutput(int index);
+
+    @Override
+    @ParametricNullness
+    public T next() {
+      checkForConcurrentModification();
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      indexToRemove = nextIndex++;
+      return getOutput(indexToRemove);
+    }
+
+    @Override
+    public void remove() {
+      checkForConcurrentModification();
+      checkRemove(indexToRemove >= 0);
+      removeEntry(indexToRemove);
+      expectedModCount = modCount;
+      // The last entry has been moved into the removed one's place, and is yet to be visited.
+      nextIndex = indexToRemove;
+      indexToRemove = -1;
+    }
+
+    private void checkForConcurrentModification() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+
+  /**
+   * An entry whose count is always the current count of its element, found again by lookup if the
+   * element has moved since the entry was created.
+   */
+  private final class MultisetEntry extends Multisets.AbstractEntry<E> {
+    @ParametricNullness private final E element;
+    private int lastKnownIndex;
+
+    MultisetEntry(int index) {
+      this.element = element(index);
+      this.lastKnownIndex = index;
+    }
+
+    @Override
+    @ParametricNullness
+    public E getElement() {
+      return element;
+    }
+
+    @Override
+    public int getCount() {
+      if (lastKnownIndex < 0
+          || lastKnownIndex >= distinct
+          || !Objects.equal(element, elements[lastKnownIndex])) {
+        lastKnownIndex = indexOf(element);
+      }
+      return (lastKnownIndex == -1) ? 0 : counts[lastKnownIndex];
+    }
+  }
+
+  /** Returns the index of {@code element} in the entry arrays, or -1. */
+  private int indexOf(@CheckForNull Object element) {
+    int hash = smearedHash(element);
+    int next = CompactHashing.tableGet(table, hash & mask);
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    while (next != UNSET) {
+      int entryIndex = next - 1;
+      int entry = entries[entryIndex];
+      if (CompactHashing.getHashPrefix(entry, mask) == hashPrefix
+          && Objects.equal(element, elements[entryIndex])) {
+        return entryIndex;
+      }
+      next = CompactHashing.getNext(entry, mask);
+    }
+    return -1;
+  }
+
+  /** Adds {@code element}, which is known to be absent, at the head of its chain. */
+  private void append(@ParametricNullness E element, int count) {
+    int newEntryIndex = distinct;
+    int newDistinct = newEntryIndex + 1;
+    if (newDistinct > CompactHashing.MAX_SIZE) {
+      throw new IllegalStateException(
+          "ObjectIntHashMultiset cannot hold more than 2^30 - 1 distinct elements");
+    }
+    if (newDistinct > mask) {
+      resizeTable(CompactHashing.newCapacity(mask));
+    }
+    int entriesSize = elements.length;
+    if (newDistinct > entriesSize) {
+      // 1.5x but round up to nearest odd, as in CompactHashMap
+      int newCapacity = min(CompactHashing.MAX_SIZE, (entriesSize + max(1, entriesSize >>> 1)) | 1);
+      entries = Arrays.copyOf(entries, newCapacity);
+      elements = Arrays.copyOf(elements, newCapacity);
+      counts = Arrays.copyOf(counts, newCapacity);
+    }
+    int hash = smearedHash(element);
+    int tableIndex = hash & mask;
+    entries[newEntryIndex] =
+        CompactHashing.maskCombine(hash, CompactHashing.tableGet(table, tableIndex), mask);
+    CompactHashing.tableSet(table, tableIndex, newEntryIndex + 1);
+    elements[newEntryIndex] = element;
+    counts[newEntryIndex] = count;
+    distinct = newDistinct;
+    modCount++;
+  }
+
+  /**
+   * Rebuilds the chains in a new table; the entries stay where they are. Each full hash is
+   * recovered from the entry's hash prefix and its old table index, as in {@code CompactHashMap},
+   * so no element's {@code hashCode} is called.
+   */
+  private void resizeTable(int newCapacity) {
+    Object newTable = CompactHashing.createTable(newCapacity);
+    int newMask = newCapacity - 1;
+    int oldMask = mask;
+    for (int oldTableIndex = 0; oldTableIndex <= oldMask; oldTableIndex++) {
+      int oldNext = CompactHashing.tableGet(table, oldTableIndex);
+      while (oldNext != UNSET) {
+        int entryIndex = oldNext - 1;
+        int oldEntry = entries[entryIndex];
+        int hash = CompactHashing.getHashPrefix(oldEntry, oldMask) | oldTableIndex;
+        int newTableIndex = hash & newMask;
+        int newNext = CompactHashing.tableGet(newTable, newTableIndex);
+        CompactHashing.tableSet(newTable, newTableIndex, oldNext);
+        entries[entryIndex] = CompactHashing.maskCombine(hash, newNext, newMask);
+        oldNext = CompactHashing.getNext(oldEntry, oldMask);
+      }
+    }
+    table = newTable;
+    mask = newMask;
+  }
+
+  /** Removes every occurrence of the element at {@code index}. */
+  private void removeEntry(int index) {
+    int tableIndex = smearedHash(elements[index]) & mask;
+    int next = CompactHashing.tableGet(table, tableIndex);
+    int newNext = CompactHashing.getNext(entries[index], mask);
+    if (next == index + 1) {
+      CompactHashing.tableSet(table, tableIndex, newNext);
+    } else {
+      int entryIndex;
+      do {
+        entryIndex = next - 1;
+        next = CompactHashing.getNext(entries[entryIndex], mask);
+      } while (next != index + 1);
+      entries[entryIndex] = CompactHashing.maskCombine(entries[entryIndex], newNext, mask);
+    }
+    size -= counts[index];
+    moveLastEntry(index);
+    distinct--;
+    modCount++;
+  }
+
+  /**
+   * Moves the last entry into {@code dstIndex}, which has been unlinked, and repoints the link to
+   * it.
+   */
+  private void moveLastEntry(int dstIndex) {
+    int srcIndex = distinct - 1;
+    if (dstIndex < srcIndex) {
+      Object element = elements[srcIndex];
+      elements[dstIndex] = element;
+      counts[dstIndex] = counts[srcIndex];
+      entries[dstIndex] = entries[srcIndex];
+
+      int tableIndex = smearedHash(element) & mask;
+      int next = CompactHashing.tableGet(table, tableIndex);
+      int srcNext = srcIndex + 1;
+      if (next == srcNext) {
+        CompactHashing.tableSet(table, tableIndex, dstIndex + 1);
+      } else {
+        int entryIndex;
+        int entry;
+        do {
+          entryIndex = next - 1;
+          entry = entries[entryIndex];
+          next = CompactHashing.getNext(entry, mask);
+        } while (next != srcNext);
+        entries[entryIndex] = CompactHashing.maskCombine(entry, dstIndex + 1, mask);
+      }
+    }
+    elements[srcIndex] = null;
+    counts[srcIndex] = 0;
+    entries[srcIndex] = UNSET;
+  }
+
+  // Safe on indexes below distinct: we put only E elements into the array.
+  @SuppressWarnings("unchecked")
+  @ParametricNullness
+  private E element(int index) {
+    return (E) elements[index];
+  }
+
+  /**
+   * @serialData the number of distinct elements, the first element, its count, the second element,
+   *     its count, and so on
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    Serialization.writeMultiset(this, stream);
+  }
+
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int distinctElements = Serialization.readCount(stream);
+    allocArrays(min(max(1, distinctElements), CompactHashing.MAX_SIZE));
+    Serialization.populateMultiset(this, stream, distinctElements);
+  }
+
+  private static final long serialVersionUID = 0;
+}
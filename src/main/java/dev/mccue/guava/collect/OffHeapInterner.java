@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkArgument;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkPositionIndexes;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import dev.mccue.guava.primitives.Ints;
+import com.google.errorprone.annotations.concurrent.GuardedBy;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * An interner for byte sequences and strings that keeps the canonical bytes outside the Java heap,
+ * in direct {@code ByteBuffer} chunks, and identifies each distinct sequence by a {@code long}
+ * handle rather than by a canonical instance. Interning a sequence that has been interned before
+ * returns the same handle, so handles can be compared with {@code ==} and stored in primitive
+ * collections, and symbol tables with millions of entries add nothing for the garbage collector to
+ * trace.
+ *
+ * <p>The bytes of a handle are read back through {@code #toByteArray}, {@code #asReadOnlyBuffer}
+ * or, for strings, {@code #decode}. Strings are stored in UTF-8. The index that maps contents to
+ * handles lives on the heap, but only in primitive arrays of 24 to 48 bytes per entry.
+ *
+ * <p>Entries are never removed; the off-heap memory is released when the interner itself becomes
+ * unreachable. A handle is only meaningful to the interner that returned it. Passing any other
+ * value to a reading method either throws {@code IllegalArgumentException} or {@code
+ * IndexOutOfBoundsException}, or returns unspecified bytes.
+ *
+ * <p>This class is thread-safe. Interning and {@code #find} lookups are serialized on the
+ * interner; reading the bytes of a handle takes no lock. As with any other value, a handle passed
+ * between threads must be safely published.
+ */
+@ElementTypesAreNonnullByDefault
+public final class OffHeapInterner {
+  /** The default size of each off-heap chunk, in bytes. */
+  static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+  /** Each entry is stored as its length followed by its bytes. */
+  private static final int LENGTH_BYTES = Integer.BYTES;
+
+  private static final int MIN_CHUNK_SIZE = 64;
+  private static final int INITIAL_TABLE_SIZE = 16;
+
+  /** Returned by {@code #find} when the contents have not been interned. */
+  public static final long ABSENT = -1;
+
+  /** Creates an empty interner that allocates off-heap memory in chunks of one mebibyte. */
+  public static OffHeapInterner create() {
+    return new OffHeapInterner(DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates an empty interner that allocates off-heap memory in chunks of {@code chunkSize} bytes.
+   * An entry that does not fit in a chunk of that size is given a chunk of its own.
+   *
+   * @throws IllegalArgumentException if {@code chunkSize} is less than 64
+   */
+  public static OffHeapInterner create(int chunkSize) {
+    checkArgument(chunkSize >= MIN_CHUNK_SIZE, "chunkSize (%s) must be >= 64", chunkSize);
+    return new OffHeapInterner(chunkSize);
+  }
+
+  private final int chunkSize;
+
+  /*
+   * A handle is the index of its chunk in the high 32 bits and the offset of its entry within the
+   * chunk in the low 32 bits. Chunks are only ever appended; the array is replaced when it is full,
+   * so readers never see a slot of theirs cleared.
+   */
+  private volatile ByteBuffer[] chunks;
+
+  @GuardedBy("this")
+  private int chunkCount;
+
+  /** The index of the chunk that small entries are currently appended to, or -1. */
+  @GuardedBy("this")
+  private int currentChunk = -1;
+
+  @GuardedBy("this")
+  private int currentOffset;
+
+  @GuardedBy("this")
+  private long allocatedBytes;
+
+  /** Open-addressed with linear probing; each slot holds a handle plus one, or zero if empty. */
+  @GuardedBy("this")
+  private long[] table;
+
+  /** The hash of the entry in the corresponding slot of {@code table}. */
+  @GuardedBy("this")
+  private int[] hashes;
+
+  @GuardedBy("this")
+  private int size;
+
+  private OffHeapInterner(int chunkSize) {
+    this.chunkSize = chunkSize;
+    this.chunks = new ByteBuffer[4];
+    this.table = new long[INITIAL_TABLE_SIZE];
+    this.hashes = new int[INITIAL_TABLE_SIZE];
+  }
+
+  /** Returns the handle of {@code bytes}, copying them off-heap if they have not been seen yet. */
+  public long intern(byte[] bytes) {
+    return intern(bytes, 0, bytes.length);
+  }
+
+  /**
+   * Returns the handle of the {@code length} bytes of {@code bytes} starting at {@code offset},
+   * copying them off-heap if they have not been seen yet.
+   *
+   * @throws IndexOutOfBoundsException if the range is not within {@code bytes}
+   */
+  public synchronized long intern(byte[] bytes, int offset, int length) {
+    checkPositionIndexes(offset, offset + length, bytes.length);
+    int hash = hash(bytes, offset, length);
+    int slot = probe(hash, bytes, offset, length);
+    if (table[slot] != 0) {
+      return table[slot] - 1;
+    }
+    long handle = append(bytes, offset, length);
+    table[slot] = handle + 1;
+    hashes[slot] = hash;
+    if (++size > table.length >>> 1) {
+      expand();
+    }
+    return handle;
+  }
+
+  /**
+   * Returns the handle of the UTF-8 encoding of {@code chars}, copying it off-heap if it has not
+   * been seen yet.
+   */
+  public long intern(CharSequence chars) {
+    return intern(encode(chars));
+  }
+
+  /** Returns the handle of {@code bytes} if they have been interned, or {@code #ABSENT}. */
+  public synchronized long find(byte[] bytes) {
+    int slot = probe(hash(bytes, 0, bytes.length), bytes, 0, bytes.length);
+    return table[slot] - 1;
+  }
+
+  /**
+   * Returns the handle of the UTF-8 encoding of {@code chars} if it has been interned, or {@code
+   * #ABSENT}.
+   */
+  public long find(CharSequence chars) {
+    return find(encode(chars));
+  }
+
+  /** Returns the number of distinct sequences interned. */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes of off-heap memory allocated so far, including the unused tails of
+   * chunks.
+   */
+  public synchronized long allocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /** Returns the number of bytes in the sequence identified by {@code handle}. */
+  public int length(long handle) {
+    ByteBuffer chunk = chunk(handle);
+    return chunk.getInt(offset(handle));
+  }
+
+  /** Returns a copy of the bytes identified by {@code handle}. */
+  public byte[] toByteArray(long handle) {
+    ByteBuffer bytes = asReadOnlyBuffer(handle);
+    byte[] result = new byte[bytes.remaining()];
+    bytes.get(result);
+    return result;
+  }
+
+  /**
+   * Returns a read-only view of the off-heap bytes identified by {@code handle}, with its position
+   * at zero and its limit at their length. The view shares the interner's memory and copies
+   * nothing.
+   */
+  public ByteBuffer asReadOnlyBuffer(long handle) {
+    ByteBuffer chunk = chunk(handle);
+    int start = offset(handle) + LENGTH_BYTES;
+    int length = chunk.getInt(start - LENGTH_BYTES);
+    ByteBuffer view = chunk.asReadOnlyBuffer();
+    view.limit(start + length);
+    view.position(start);
+    return view.slice();
+  }
+
+  /** Decodes the UTF-8 bytes identified by {@code handle} into a new string. */
+  public String decode(long handle) {
+    return new String(toByteArray(handle), UTF_8);
+  }
+
+  /**
+   * Passes the handle of every interned sequence to {@code action}, in no particular order. (Small
+   * entries are visited in the order they were interned, but an entry too large for a chunk gets a
+   * chunk of its own and is visited with the chunks allocated around the same time.)
+   */
+  public void forEachHandle(LongConsumer action) {
+    checkNotNull(action);
+    ByteBuffer[] chunks;
+    int chunkCount;
+    int lastChunkEnd;
+    int currentChunk;
+    synchronized (this) {
+      chunks = this.chunks;
+      chunkCount = this.chunkCount;
+      currentChunk = this.currentChunk;
+      lastChunkEnd = this.currentOffset;
+    }
+    for (int i = 0; i < chunkCount; i++) {
+      ByteBuffer chunk = chunks[i];
+      // Only the current chunk may have a tail that is in use by neither an entry nor padding.
+      int end = (i == currentChunk) ? lastChunkEnd : chunk.capacity();
+      int offset = 0;
+      while (offset + LENGTH_BYTES <= end) {
+        int length = chunk.getInt(offset);
+        if (length < 0) {
+          break; // the unused tail of a chunk that was abandoned
+        }
+        action.accept(handle(i, offset));
+        offset += LENGTH_BYTES + length;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "OffHeapInterner{size=" + size() + ", allocatedBytes=" + allocatedBytes() + "}";
+  }
+
+  /**
+   * Returns the slot holding the entry equal to the given bytes, or the empty slot where it would
+   * be inserted.
+   */
+  @GuardedBy("this")
+  private int probe(int hash, byte[] bytes, int offset, int length) {
+    int mask = table.length - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      long entry = table[slot];
+      if (entry == 0
+          || (hashes[slot] == hash && contentEquals(entry - 1, bytes, offset, length))) {
+        return slot;
+      }
+    }
+  }
+
+  private boolean contentEquals(long handle, byte[] bytes, int offset, int length) {
+    ByteBuffer chunk = chunks[(int) (handle >>> 32)];
+    int start = offset(handle);
+    if (chunk.getInt(start) != length) {
+      return false;
+    }
+    start += LENGTH_BYTES;
+    for (int i = 0; i < length; i++) {
+      if (chunk.get(start + i) != bytes[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @GuardedBy("this")
+  private long append(byte[] bytes, int offset, int length) {
+    checkArgument(length <= Integer.MAX_VALUE - LENGTH_BYTES, "too many bytes: %s", length);
+    int entrySize = LENGTH_BYTES + length;
+    int chunkIndex;
+    int entryOffset;
+    if (entrySize > chunkSize) {
+      // Large entries get a chunk of their own, leaving the current chunk to small ones.
+      chunkIndex = allocateChunk(entrySize);
+      entryOffset = 0;
+    } else {
+      if (currentChunk < 0 || entrySize > chunkSize - currentOffset) {
+        abandonCurrentChunk();
+        currentChunk = allocateChunk(chunkSize);
+        currentOffset = 0;
+      }
+      chunkIndex = currentChunk;
+      entryOffset = currentOffset;
+      currentOffset += entrySize;
+    }
+    ByteBuffer target = chunks[chunkIndex].duplicate();
+    target.position(entryOffset);
+    target.putInt(length);
+    target.put(bytes, offset, length);
+    return handle(chunkIndex, entryOffset);
+  }
+
+  /** Marks the unused tail of the current chunk, if there is room, so iteration can skip it. */
+  @GuardedBy("this")
+  private void abandonCurrentChunk() {
+    if (currentChunk >= 0 && chunkSize - currentOffset >= LENGTH_BYTES) {
+      chunks[currentChunk].putInt(currentOffset, -1);
+    }
+  }
+
+  @GuardedBy("this")
+  private int allocateChunk(int capacity) {
+    ByteBuffer[] chunks = this.chunks;
+    if (chunkCount == chunks.length) {
+      checkArgument(chunkCount < Integer.MAX_VALUE, "too many chunks");
+      chunks = Arrays.copyOf(chunks, Ints.saturatedCast(2L * chunkCount));
+    }
+    chunks[chunkCount] = ByteBuffer.allocateDirect(capacity);
+    // Publishes the new chunk to readers, even if the array was not replaced.
+    this.chunks = chunks;
+    allocatedBytes += capacity;
+    return chunkCount++;
+  }
+
+  @GuardedBy("this")
+  private void expand() {
+    long[] oldTable = table;
+    int[] oldHashes = hashes;
+    checkArgument(oldTable.length < Ints.MAX_POWER_OF_TWO, "too many entries");
+    long[] newTable = new long[oldTable.length * 2];
+    int[] newHashes = new int[oldTable.length * 2];
+    int mask = newTable.length - 1;
+    for (int i = 0; i < oldTable.length; i++) {
+      if (oldTable[i] != 0) {
+        int slot = oldHashes[i] & mask;
+        while (newTable[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        newTable[slot] = oldTable[i];
+        newHashes[slot] = oldHashes[i];
+      }
+    }
+    table = newTable;
+    hashes = newHashes;
+  }
+
+  private ByteBuffer chunk(long handle) {
+    ByteBuffer[] chunks = this.chunks;
+    long index = handle >>> 32;
+    checkArgument(
+        handle >= 0 && index < chunks.length && chunks[(int) index] != null,
+        "invalid handle: %s",
+        handle);
+    return chunks[(int) index];
+  }
+
+  private static int offset(long handle) {
+    return (int) handle;
+  }
+
+  private static long handle(int chunkIndex, int offset) {
+    return ((long) chunkIndex << 32) | offset;
+  }
+
+  private static int hash(byte[] bytes, int offset, int length) {
+    int h = 1;
+    for (int i = offset; i < offset + length; i++) {
+      h = 31 * h + bytes[i];
+    }
+    return Hashing.smear(h);
+  }
+
+  private static byte[] encode(CharSequence chars) {
+    return chars.toString().getBytes(UTF_8);
+  }
+}
@@ -0,0 +1,771 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkElementIndex;
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkPositionIndexes;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotCall;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An immutable list whose updated copies share most of their structure with the original. {@code
+ * plus(element)} and {@code with(index, element)} return a new list in O(log<sub>32</sub> n) time
+ * and space, leaving this list unchanged, so appending to or patching a long event log does not
+ * copy it the way {@code ImmutableList} must. {@code subList} and {@code plusAll} of another
+ * persistent list also run in O(log<sub>32</sub> n) and copy only the nodes along their seams.
+ *
+ * <p>The list is a relaxed radix-balanced tree: leaves hold up to 32 elements, inner nodes hold
+ * up to 32 children together with their cumulative sizes, and all leaves are at the same depth. A
+ * list built by {@code copyOf} or by appending is a perfectly regular 32-way trie, and indexing it
+ * takes one array lookup per level. Slicing and concatenation may leave nodes partly filled, in
+ * which case indexing scans forward a few entries per level; concatenation merges adjacent nodes
+ * along the seam when they fit in one.
+ *
+ * <p>Null elements are not supported. Like all immutable collections, a {@code PersistentList} is
+ * safe to share between threads without synchronization.
+ *
+ * @param <E> the type of elements
+ */
+@ElementTypesAreNonnullByDefault
+public final class PersistentList<E> extends AbstractList<E>
+    implements RandomAccess, Serializable {
+  private static final int BRANCH_FACTOR = 32;
+  private static final int BRANCH_BITS = 5;
+
+  private static final PersistentList<Object> EMPTY = new PersistentList<>(new Object[0], 0, 0);
+
+  /** Returns the empty persistent list. */
+  @SuppressWarnings("unchecked") // the empty list holds no elements
+  public static <E> PersistentList<E> of() {
+    return (PersistentList<E>) EMPTY;
+  }
+
+  /**
+   * Returns a persistent list containing {@code elements}, in order. If {@code elements} is itself
+   * a {@code PersistentList}, it is returned unchanged.
+   *
+   * @throws NullPointerException if any element is null
+   */
+  @SuppressWarnings("unchecked") // persistent lists are immutable, so covariant casts are safe
+  public static <E> PersistentList<E> copyOf(Iterable<? extends E> elements) {
+    if (elements instanceof PersistentList) {
+      return (PersistentList<E>) elements;
+    }
+    Object[] array =
+        (elements instanceof Collection)
+            ? ((Collection<?>) elements).toArray()
+            : Iterables.toArray(elements, Object.class);
+    return fromArray(ObjectArrays.checkElementsNotNull(array));
+  }
+
+  /** Builds a regular trie over {@code array}, which must not be modified afterwards. */
+  private static <E> PersistentList<E> fromArray(Object[] array) {
+    if (array.length == 0) {
+      return of();
+    }
+    Object[] level = (array.length <= BRANCH_FACTOR) ? new Object[] {array} : chunk(array);
+    int height = 0;
+    while (level.length > 1) {
+      Object[] parents = chunk(level);
+      for (int i = 0; i < parents.length; i++) {
+        parents[i] = Node.of((Object[]) parents[i], height);
+      }
+      level = parents;
+      height++;
+    }
+    return new PersistentList<>(level[0], height, array.length);
+  }
+
+  /** Splits {@code array} into consecutive arrays of {@code BRANCH_FACTOR} or fewer entries. */
+  private static Object[] chunk(Object[] array) {
+    Object[] chunks = new Object[(array.length + BRANCH_FACTOR - 1) / BRANCH_FACTOR];
+    for (int i = 0; i < chunks.length; i++) {
+      int from = i * BRANCH_FACTOR;
+      chunks[i] = Arrays.copyOfRange(array, from, min(from + BRANCH_FACTOR, array.length));
+    }
+    return chunks;
+  }
+
+  /** Holds the root, which is a leaf array at height zero and a {@code Node} above it. */
+  private final transient Object root;
+
+  private final transient int height;
+  private final transient int size;
+
+  @LazyInit private transient int hashCode;
+  @LazyInit @CheckForNull private transient ImmutableList<E> asImmutableList;
+
+  private PersistentList(Object root, int height, int size) {
+    this.root = root;
+    this.height = height;
+    this.size = size;
+  }
+
+  /** Returns a list over {@code root}, after removing any chain of single-child nodes above it. */
+  private static <E> PersistentList<E> create(Object root, int height, int size) {
+    while (height > 0 && ((Node) root).children.length == 1) {
+      root = ((Node) root).children[0];
+      height--;
+    }
+    return new PersistentList<>(root, height, size);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // only E elements are stored
+  public E get(int index) {
+    checkElementIndex(index, size);
+    Object node = root;
+    for (int h = height; h > 0; h--) {
+      Node parent = (Node) node;
+      int childIndex = parent.childIndex(index, h);
+      index -= parent.offset(childIndex);
+      node = parent.children[childIndex];
+    }
+    return (E) ((Object[]) node)[index];
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** Returns a list with the elements of this list followed by {@code element}. */
+  public PersistentList<E> plus(E element) {
+    checkNotNull(element);
+    return concat(this, new PersistentList<E>(new Object[] {element}, 0, 1));
+  }
+
+  /**
+   * Returns a list with the elements of this list followed by {@code elements}, in order. When
+   * {@code elements} is a {@code PersistentList}, the two lists are joined without copying either
+   * of them.
+   *
+   * @throws NullPointerException if any element is null
+   */
+  public PersistentList<E> plusAll(Iterable<? extends E> elements) {
+    return concat(this, copyOf(elements));
+  }
+
+  /**
+   * Returns a list with the elements of this list, except that {@code element} is at {@code
+   * index}. Returns this list if that very element is already there.
+   *
+   * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@code size()}
+   */
+  public PersistentList<E> with(int index, E element) {
+    checkNotNull(element);
+    checkElementIndex(index, size);
+    if (get(index) == element) {
+      return this;
+    }
+    return new PersistentList<>(set(root, height, index, element), height, size);
+  }
+
+  /**
+   * Returns the elements from {@code fromIndex}, inclusive, to {@code toIndex}, exclusive, as a
+   * persistent list. The result shares all but the nodes along its two edges with this list.
+   */
+  @Override
+  public PersistentList<E> subList(int fromIndex, int toIndex) {
+    checkPositionIndexes(fromIndex, toIndex, size);
+    if (fromIndex == toIndex) {
+      return of();
+    }
+    return create(slice(root, height, fromIndex, toIndex), height, toIndex - fromIndex);
+  }
+
+  /**
+   * Returns an {@code ImmutableList} view of this list, in constant time. The view shares the
+   * tree of this list, and its {@code subList} views are persistent lists as well.
+   */
+  public ImmutableList<E> asImmutableList() {
+    ImmutableList<E> result = asImmutableList;
+    return (result == null) ? asImmutableList = new AsImmutableList<>(this) : result;
+  }
+
+  @Override
+  public UnmodifiableIterator<E> iterator() {
+    ElementSpliterator<E> elements = new ElementSpliterator<>(root, height, 0, size);
+    return new UnmodifiableIterator<E>() {
+      @Override
+      public boolean hasNext() {
+        return elements.index < elements.fence;
+      }
+
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return elements.next();
+      }
+    };
+  }
+
+  /**
+   * Returns a spliterator over the elements of this list. It splits its index range in half and
+   * reports exact sizes for both halves, and it walks one leaf array at a time.
+   */
+  @Override
+  public Spliterator<E> spliterator() {
+    return new ElementSpliterator<>(root, height, 0, size);
+  }
+
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    spliterator().forEachRemaining(action);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      result = super.hashCode();
+      hashCode = result;
+    }
+    return result;
+  }
+
+  private static <E> PersistentList<E> concat(
+      PersistentList<E> left, PersistentList<? extends E> right) {
+    if (right.isEmpty()) {
+      return left;
+    } else if (left.isEmpty()) {
+      @SuppressWarnings("unchecked") // persistent lists are immutable, so covariant casts are safe
+      PersistentList<E> result = (PersistentList<E>) right;
+      return result;
+    }
+    Object[] nodes = join(left.root, left.height, right.root, right.height);
+    int height = max(left.height, right.height);
+    int size = left.size + right.size;
+    return (nodes.length == 1)
+        ? create(nodes[0], height, size)
+        : new PersistentList<>(Node.of(nodes, height), height + 1, size);
+  }
+
+  private static int sizeOf(Object node, int height) {
+    return (height == 0) ? ((Object[]) node).length : ((Node) node).size();
+  }
+
+  private static Object set(Object node, int height, int index, Object element) {
+    if (height == 0) {
+      Object[] leaf = ((Object[]) node).clone();
+      leaf[index] = element;
+      return leaf;
+    }
+    Node parent = (Node) node;
+    int childIndex = parent.childIndex(index, height);
+    Object[] children = parent.children.clone();
+    children[childIndex] =
+        set(children[childIndex], height - 1, index - parent.offset(childIndex), element);
+    return new Node(children, parent.sizes);
+  }
+
+  /**
+   * Returns one node, or two when the result does not fit in one, holding the elements of {@code
+   * left} followed by those of {@code right}, at the greater of their heights. The nodes along the
+   * seam are merged where they fit together, and the rest of both trees is shared.
+   */
+  private static Object[] join(Object left, int leftHeight, Object right, int rightHeight) {
+    if (leftHeight == 0 && rightHeight == 0) {
+      Object[] leftLeaf = (Object[]) left;
+      Object[] rightLeaf = (Object[]) right;
+      if (leftLeaf.length + rightLeaf.length > BRANCH_FACTOR) {
+        return new Object[] {leftLeaf, rightLeaf};
+      }
+      Object[] leaf = Arrays.copyOf(leftLeaf, leftLeaf.length + rightLeaf.length);
+      System.arraycopy(rightLeaf, 0, leaf, leftLeaf.length, rightLeaf.length);
+      return new Object[] {leaf};
+    }
+    int height = max(leftHeight, rightHeight);
+    Object[] leftChildren;
+    Object[] seam;
+    Object[] rightChildren;
+    if (leftHeight > rightHeight) {
+      Object[] children = ((Node) left).children;
+      leftChildren = Arrays.copyOf(children, children.length - 1);
+      seam = join(children[children.length - 1], leftHeight - 1, right, rightHeight);
+      rightChildren = new Object[0];
+    } else if (leftHeight < rightHeight) {
+      Object[] children = ((Node) right).children;
+      leftChildren = new Object[0];
+      seam = join(left, leftHeight, children[0], rightHeight - 1);
+      rightChildren = Arrays.copyOfRange(children, 1, children.length);
+    } else {
+      Object[] lefts = ((Node) left).children;
+      Object[] rights = ((Node) right).children;
+      leftChildren = Arrays.copyOf(lefts, lefts.length - 1);
+      seam = join(lefts[lefts.length - 1], height - 1, rights[0], height - 1);
+      rightChildren = Arrays.copyOfRange(rights, 1, rights.length);
+    }
+    Object[] children = ObjectArrays.concat(leftChildren, seam, Object.class);
+    children = ObjectArrays.concat(children, rightChildren, Object.class);
+    if (children.length <= BRANCH_FACTOR) {
+      return new Object[] {Node.of(children, height - 1)};
+    }
+    // Keep the left node full, so that a list grown by appending stays a regular trie.
+    return new Object[] {
+      Node.of(Arrays.copyOf(children, BRANCH_FACTOR), height - 1),
+      Node.of(Arrays.copyOfRange(children, BRANCH_FACTOR, children.length), height - 1)
+    };
+  }
+
+  /** Returns the elements of {@code node} in {@code [from, to)}, which must not be empty. */
+  private static Object slice(Object node, int height, int from, int to) {
+    if (from == 0 && to == sizeOf(node, height)) {
+      return node;
+    } else if (height == 0) {
+      return Arrays.copyOfRange((Object[]) node, from, to);
+    }
+    Node parent = (Node) node;
+    int first = parent.childIndex(from, height);
+    int last = parent.childIndex(to - 1, height);
+    Object[] children = Arrays.copyOfRange(parent.children, first, last + 1);
+    int firstOffset = parent.offset(first);
+    int lastOffset = parent.offset(last);
+    if (first == last) {
+      children[0] = slice(children[0], height - 1, from - firstOffset, to - firstOffset);
+    } else {
+      children[0] =
+          slice(
+              children[0],
+              height - 1,
+              from - firstOffset,
+              parent.sizes[first] - firstOffset);
+      children[last - first] = slice(children[last - first], height - 1, 0, to - lastOffset);
+    }
+    return Node.of(children, height - 1);
+  }
+
+  /** An inner node, holding its children and the cumulative number of elements under them. */
+  private static final class Node {
+    final Object[] children;
+    final int[] sizes;
+
+    Node(Object[] children, int[] sizes) {
+      this.children = children;
+      this.sizes = sizes;
+    }
+
+    static Node of(Object[] children, int childHeight) {
+      int[] sizes = new int[children.length];
+      int total = 0;
+      for (int i = 0; i < children.length; i++) {
+        total += sizeOf(children[i], childHeight);
+        sizes[i] = total;
+      }
+      return new Node(children, sizes);
+    }
+
+    int size() {
+      return sizes[sizes.length - 1];
+    }
+
+    int offset(int childIndex) {
+      return (childIndex == 0) ? 0 : sizes[childIndex - 1];
+    }
+
+    /**
+     * Returns the child holding {@code index}. No child of a node at {@code height} holds more
+     * than 32<sup>height</sup> elements, so the radix guess is a lower bound; it is exact when the
+     * children before it are full.
+     */
+    int childIndex(int index, int height) {
+      int shift = BRANCH_BITS * height;
+      int childIndex = (shift < Integer.SIZE) ? min(index >>> shift, sizes.length - 1) : 0;
+      while (sizes[childIndex] <= index) {
+        childIndex++;
+      }
+      return childIndex;
+    }
+  }
+
+  /** Traverses an index range, a leaf at a time, and splits it in half. */
+  private static final class ElementSpliterator<E> implements Spliterator<E> {
+    private final Object root;
+    private final int height;
+    int index;
+    final int fence;
+    @CheckForNull private Object[] leaf;
+    private int leafIndex;
+
+    ElementSpliterator(Object root, int height, int index, int fence) {
+      this.root = root;
+      this.height = height;
+      this.index = index;
+      this.fence = fence;
+    }
+
+    /** Points {@code leaf} and {@code leafIndex} at {@code index}, if they do not already. */
+    private Object[] seek() {
+      Object[] result = leaf;
+      if (result != null && leafIndex < result.length) {
+        return result;
+      }
+      Object node = root;
+      int i = index;
+      for (int h = height; h > 0; h--) {
+        Node parent = (Node) node;
+        int childIndex = parent.childIndex(i, h);
+        i -= parent.offset(childIndex);
+        node = parent.children[childIndex];
+      }
+      leafIndex = i;
+      return leaf = (Object[]) node;
+    }
+
+    /** Returns the element at {@code index} and advances; {@code index} must be below the fence. */
+    @SuppressWarnings("unchecked") // only E elements are stored
+    E next() {
+      Object[] elements = seek();
+      index++;
+      return (E) elements[leafIndex++];
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super E> action) {
+      checkNotNull(action);
+      if (index < fence) {
+        action.accept(next());
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // only E elements are stored
+    public void forEachRemaining(Consumer<? super E> action) {
+      checkNotNull(action);
+      while (index < fence) {
+        Object[] elements = seek();
+        int end = min(elements.length, leafIndex + fence - index);
+        for (int i = leafIndex; i < end; i++) {
+          action.accept((E) elements[i]);
+        }
+        index += end - leafIndex;
+        leafIndex = end;
+      }
+    }
+
+    @Override
+    @CheckForNull
+    public Spliterator<E> trySplit() {
+      int mid = (index + fence) >>> 1;
+      if (mid <= index) {
+        return null;
+      }
+      Spliterator<E> prefix = new ElementSpliterator<>(root, height, index, mid);
+      index = mid;
+      leaf = null;
+      return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+      return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+      return Spliterator.ORDERED
+          | Spliterator.SIZED
+          | Spliterator.SUBSIZED
+          | Spliterator.IMMUTABLE
+          | Spliterator.NONNULL;
+    }
+  }
+
+  /** An {@code ImmutableList} backed by the tree of a persistent list. */
+  private static final class AsImmutableList<E> extends ImmutableList<E> {
+    private final PersistentList<E> list;
+
+    AsImmutableList(PersistentList<E> list) {
+      this.list = list;
+    }
+
+    @Override
+    public E get(int index) {
+      return list.get(index);
+    }
+
+    @Override
+    public int size() {
+      return list.size;
+    }
+
+    @Override
+    public UnmodifiableIterator<E> iterator() {
+      return list.iterator();
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+      return list.spliterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+      list.forEach(action);
+    }
+
+    @Override
+    ImmutableList<E> subListUnchecked(int fromIndex, int toIndex) {
+      return list.subList(fromIndex, toIndex).asImmutableList();
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code plus} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean add(E e) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void add(int index, E element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code plusAll} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean addAll(Collection<? extends E> newElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean addAll(int index, Collection<? extends E> newElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code with} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public E set(int index, E element) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code subList} and {@code plusAll} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public E remove(int index) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean remove(@CheckForNull Object object) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean removeAll(Collection<?> oldElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean removeIf(Predicate<? super E> filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean retainAll(Collection<?> elementsToKeep) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void replaceAll(UnaryOperator<E> operator) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void sort(@Nullable Comparator<? super E> c) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the list unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code of()} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(toArray());
+  }
+
+  /** Serialized form of a persistent list, holding its elements in order. */
+  private static final class SerializedForm implements Serializable {
+    private final Object[] elements;
+
+    SerializedForm(Object[] elements) {
+      this.elements = elements;
+    }
+
+    Object readResolve() {
+      return fromArray(ObjectArrays.checkElementsNotNull(elements));
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
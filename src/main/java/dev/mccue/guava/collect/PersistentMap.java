@@ -0,0 +1,500 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkEntryNotNull;
+import static dev.mccue.guava.collect.Hashing.smearedHash;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotCall;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * An immutable map whose updated copies share most of their structure with the original. {@code
+ * with(key, value)} and {@code without(key)} return a new map in O(log<sub>32</sub> n) time and
+ * space, leaving this map unchanged, which suits versioned state, undo histories and
+ * copy-on-write snapshots that {@code ImmutableMap} would copy in full.
+ *
+ * <p>The map is a compressed hash-array mapped prefix trie (CHAMP). Lookups hash the key once and
+ * follow at most seven levels of 32-way branching; each level is a bitmap-indexed array with no
+ * empty slots. Iteration order is determined by the keys' hashes and is not insertion order.
+ *
+ * <p>To make many changes at once, use a {@code Builder} obtained from {@code builder()} or {@code
+ * toBuilder()}. It edits a private copy of the trie in place, copying each node at most once, and
+ * {@code build()} returns a persistent map in constant time.
+ *
+ * <p>Null keys and values are not supported. Like all immutable collections, a {@code
+ * PersistentMap} is safe to share between threads without synchronization; the builder is not.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+@ElementTypesAreNonnullByDefault
+public final class PersistentMap<K, V> extends AbstractMap<K, V> implements Serializable {
+  private static final PersistentMap<Object, Object> EMPTY =
+      new PersistentMap<>(ChampNode.EMPTY_MAP, 0);
+
+  /** Returns the empty persistent map. */
+  @SuppressWarnings("unchecked") // the empty map holds no keys or values
+  public static <K, V> PersistentMap<K, V> of() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  /**
+   * Returns a persistent map containing the mappings of {@code map}. If {@code map} is itself a
+   * {@code PersistentMap}, it is returned unchanged.
+   *
+   * @throws NullPointerException if any key or value in {@code map} is null
+   */
+  @SuppressWarnings("unchecked") // persistent maps are immutable, so covariant casts are safe
+  public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentMap) {
+      return (PersistentMap<K, V>) map;
+    }
+    return PersistentMap.<K, V>builder().putAll(map).build();
+  }
+
+  /** Returns a new builder that starts out empty. */
+  public static <K, V> Builder<K, V> builder() {
+    return new Builder<>(ChampNode.EMPTY_MAP, 0);
+  }
+
+  private final transient ChampNode root;
+  private final transient int size;
+
+  @LazyInit private transient int hashCode;
+  @LazyInit @CheckForNull private transient Set<Entry<K, V>> entrySet;
+  @LazyInit @CheckForNull private transient Set<K> keySet;
+  @LazyInit @CheckForNull private transient Collection<V> values;
+  @LazyInit @CheckForNull private transient ImmutableMap<K, V> asImmutableMap;
+
+  private PersistentMap(ChampNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /**
+   * Returns a map with the mappings of this map and {@code key} mapped to {@code value}. Returns
+   * this map if it already maps {@code key} to that very value.
+   */
+  public PersistentMap<K, V> with(K key, V value) {
+    checkEntryNotNull(key, value);
+    ChampNode.Change change = new ChampNode.Change();
+    ChampNode newRoot = root.put(null, key, value, smearedHash(key), 0, change);
+    if (!change.modified) {
+      return this;
+    }
+    return new PersistentMap<>(newRoot, change.replaced ? size : size + 1);
+  }
+
+  /**
+   * Returns a map with the mappings of this map except the one for {@code key}. Returns this map
+   * if it does not contain {@code key}.
+   */
+  public PersistentMap<K, V> without(@CheckForNull Object key) {
+    if (key == null) {
+      return this;
+    }
+    ChampNode.Change change = new ChampNode.Change();
+    ChampNode newRoot = root.remove(null, key, smearedHash(key), 0, change);
+    if (!change.modified) {
+      return this;
+    }
+    return (size == 1) ? PersistentMap.<K, V>of() : new PersistentMap<>(newRoot, size - 1);
+  }
+
+  /** Returns a builder that starts out with the mappings of this map. */
+  public Builder<K, V> toBuilder() {
+    return new Builder<>(root, size);
+  }
+
+  /**
+   * Returns an {@code ImmutableMap} view of this map, in constant time. The view shares the trie
+   * of this map and iterates in the same order.
+   */
+  public ImmutableMap<K, V> asImmutableMap() {
+    ImmutableMap<K, V> result = asImmutableMap;
+    return (result == null) ? asImmutableMap = new AsImmutableMap<>(this) : result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  @CheckForNull
+  @SuppressWarnings("unchecked") // only V values are stored under K keys
+  public V get(@CheckForNull Object key) {
+    return (key == null) ? null : (V) root.get(key, smearedHash(key), 0);
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // only K keys and V values are stored
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    root.forEachEntry((key, value) -> action.accept((K) key, (V) value));
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    Set<Entry<K, V>> result = entrySet;
+    return (result == null) ? entrySet = new EntrySet() : result;
+  }
+
+  @Override
+  public Set<K> keySet() {
+    Set<K> result = keySet;
+    return (result == null) ? keySet = new KeySet() : result;
+  }
+
+  @Override
+  public Collection<V> values() {
+    Collection<V> result = values;
+    return (result == null) ? values = new Values() : result;
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0 && size != 0) {
+      result = super.hashCode();
+      hashCode = result;
+    }
+    return result;
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code with} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  @CheckForNull
+  public V put(K key, V value) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code without} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  @CheckForNull
+  public V remove(@CheckForNull Object key) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code toBuilder().putAll(map).build()} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void putAll(Map<? extends K, ? extends V> map) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the map unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code of()} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<K, V>> {
+    @Override
+    public UnmodifiableIterator<Entry<K, V>> iterator() {
+      return entryIterator(root);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object o) {
+      if (o instanceof Entry) {
+        Entry<?, ?> entry = (Entry<?, ?>) o;
+        V value = get(entry.getKey());
+        return value != null && value.equals(entry.getValue());
+      }
+      return false;
+    }
+  }
+
+  private final class KeySet extends AbstractSet<K> {
+    @Override
+    @SuppressWarnings("unchecked") // only K keys are stored
+    public UnmodifiableIterator<K> iterator() {
+      return new ChampNode.TrieIterator<K>(root) {
+        @Override
+        K output(ChampNode node, int index) {
+          return (K) node.keyAt(index);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object o) {
+      return containsKey(o);
+    }
+  }
+
+  private final class Values extends AbstractCollection<V> {
+    @Override
+    @SuppressWarnings("unchecked") // only V values are stored
+    public UnmodifiableIterator<V> iterator() {
+      return new ChampNode.TrieIterator<V>(root) {
+        @Override
+        V output(ChampNode node, int index) {
+          return (V) node.valueAt(index);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private static <K, V> UnmodifiableIterator<Entry<K, V>> entryIterator(ChampNode root) {
+    return new ChampNode.TrieIterator<Entry<K, V>>(root) {
+      @Override
+      @SuppressWarnings("unchecked") // only K keys and V values are stored
+      Entry<K, V> output(ChampNode node, int index) {
+        return Maps.immutableEntry((K) node.keyAt(index), (V) node.valueAt(index));
+      }
+    };
+  }
+
+  /** An {@code ImmutableMap} backed by the trie of a persistent map. */
+  private static final class AsImmutableMap<K, V>
+      extends ImmutableMap.IteratorBasedImmutableMap<K, V> {
+    private final PersistentMap<K, V> map;
+
+    AsImmutableMap(PersistentMap<K, V> map) {
+      this.map = map;
+    }
+
+    @Override
+    UnmodifiableIterator<Entry<K, V>> entryIterator() {
+      return PersistentMap.entryIterator(map.root);
+    }
+
+    @Override
+    @CheckForNull
+    public V get(@CheckForNull Object key) {
+      return map.get(key);
+    }
+
+    @Override
+    public int size() {
+      return map.size;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+      map.forEach(action);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * A mutable editor for a persistent map. Its changes are made in place on trie nodes it created
+   * itself, so a batch of {@code n} changes costs far less than {@code n} calls to {@code with}.
+   * {@code build()} hands the current trie to a new persistent map in constant time; later changes
+   * to the builder copy the nodes they touch and do not affect the maps already built.
+   *
+   * <p>Builders are not thread-safe.
+   */
+  public static final class Builder<K, V> {
+    private ChampNode root;
+    private int size;
+    private Object owner = new Object();
+
+    Builder(ChampNode root, int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    /**
+     * Maps {@code key} to {@code value}, replacing any value it was previously mapped to.
+     *
+     * @return this builder
+     * @throws NullPointerException if {@code key} or {@code value} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<K, V> put(K key, V value) {
+      checkEntryNotNull(key, value);
+      ChampNode.Change change = new ChampNode.Change();
+      root = root.put(owner, key, value, smearedHash(key), 0, change);
+      if (change.modified && !change.replaced) {
+        size++;
+      }
+      return this;
+    }
+
+    /**
+     * Puts each mapping of {@code map} into this builder.
+     *
+     * @return this builder
+     * @throws NullPointerException if any key or value in {@code map} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<K, V> putAll(Map<? extends K, ? extends V> map) {
+      for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+        put(entry.getKey(), entry.getValue());
+      }
+      return this;
+    }
+
+    /**
+     * Removes the mapping for {@code key}, if any.
+     *
+     * @return this builder
+     */
+    @CanIgnoreReturnValue
+    public Builder<K, V> remove(@CheckForNull Object key) {
+      if (key != null) {
+        ChampNode.Change change = new ChampNode.Change();
+        root = root.remove(owner, key, smearedHash(key), 0, change);
+        if (change.modified) {
+          size--;
+        }
+      }
+      return this;
+    }
+
+    /** Returns the value {@code key} is currently mapped to, or {@code null} if none. */
+    @CheckForNull
+    @SuppressWarnings("unchecked") // only V values are stored under K keys
+    public V get(@CheckForNull Object key) {
+      return (key == null) ? null : (V) root.get(key, smearedHash(key), 0);
+    }
+
+    /** Returns the number of mappings currently in this builder. */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Returns a persistent map with the mappings currently in this builder, in constant time.
+     */
+    public PersistentMap<K, V> build() {
+      // The built map now shares every node, so later edits must copy them.
+      owner = new Object();
+      return (size == 0) ? PersistentMap.<K, V>of() : new PersistentMap<>(root, size);
+    }
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(this);
+  }
+
+  /** Serialized form of a persistent map, holding its keys and values in iteration order. */
+  private static final class SerializedForm implements Serializable {
+    private final Object[] keys;
+    private final Object[] values;
+
+    SerializedForm(PersistentMap<?, ?> map) {
+      keys = new Object[map.size];
+      values = new Object[map.size];
+      int i = 0;
+      for (Entry<?, ?> entry : map.entrySet()) {
+        keys[i] = entry.getKey();
+        values[i] = entry.getValue();
+        i++;
+      }
+    }
+
+    Object readResolve() {
+      Builder<Object, Object> builder = builder();
+      for (int i = 0; i < keys.length; i++) {
+        builder.put(keys[i], values[i]);
+      }
+      return builder.build();
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
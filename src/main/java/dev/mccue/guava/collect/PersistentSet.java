@@ -0,0 +1,424 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.Hashing.smearedHash;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.DoNotCall;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import dev.mccue.jsr305.CheckForNull;
+
+/**
+ * An immutable set whose updated copies share most of their structure with the original, the set
+ * counterpart of {@code PersistentMap}. {@code with(element)} and {@code without(element)} return
+ * a new set in O(log<sub>32</sub> n) time and space, leaving this set unchanged.
+ *
+ * <p>The set is a compressed hash-array mapped prefix trie (CHAMP) that stores just the elements,
+ * one array slot each. Iteration order is determined by the elements' hashes and is not insertion
+ * order. To make many changes at once, use a {@code Builder} obtained from {@code builder()} or
+ * {@code toBuilder()}.
+ *
+ * <p>Null elements are not supported. Like all immutable collections, a {@code PersistentSet} is
+ * safe to share between threads without synchronization; the builder is not.
+ *
+ * @param <E> the type of elements
+ */
+@ElementTypesAreNonnullByDefault
+public final class PersistentSet<E> extends AbstractSet<E> implements Serializable {
+  private static final PersistentSet<Object> EMPTY = new PersistentSet<>(ChampNode.EMPTY_SET, 0);
+
+  /** Returns the empty persistent set. */
+  @SuppressWarnings("unchecked") // the empty set holds no elements
+  public static <E> PersistentSet<E> of() {
+    return (PersistentSet<E>) EMPTY;
+  }
+
+  /**
+   * Returns a persistent set containing the distinct elements of {@code elements}. If {@code
+   * elements} is itself a {@code PersistentSet}, it is returned unchanged.
+   *
+   * @throws NullPointerException if any element is null
+   */
+  @SuppressWarnings("unchecked") // persistent sets are immutable, so covariant casts are safe
+  public static <E> PersistentSet<E> copyOf(Iterable<? extends E> elements) {
+    if (elements instanceof PersistentSet) {
+      return (PersistentSet<E>) elements;
+    }
+    return PersistentSet.<E>builder().addAll(elements).build();
+  }
+
+  /** Returns a new builder that starts out empty. */
+  public static <E> Builder<E> builder() {
+    return new Builder<>(ChampNode.EMPTY_SET, 0);
+  }
+
+  private final transient ChampNode root;
+  private final transient int size;
+
+  @LazyInit private transient int hashCode;
+  @LazyInit @CheckForNull private transient ImmutableSet<E> asImmutableSet;
+
+  private PersistentSet(ChampNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  /** Returns a set with the elements of this set and {@code element}, or this set if it has it. */
+  public PersistentSet<E> with(E element) {
+    checkNotNull(element);
+    ChampNode.Change change = new ChampNode.Change();
+    ChampNode newRoot = root.put(null, element, null, smearedHash(element), 0, change);
+    return change.modified ? new PersistentSet<>(newRoot, size + 1) : this;
+  }
+
+  /**
+   * Returns a set with the elements of this set except {@code element}, or this set if it does not
+   * contain {@code element}.
+   */
+  public PersistentSet<E> without(@CheckForNull Object element) {
+    if (element == null) {
+      return this;
+    }
+    ChampNode.Change change = new ChampNode.Change();
+    ChampNode newRoot = root.remove(null, element, smearedHash(element), 0, change);
+    if (!change.modified) {
+      return this;
+    }
+    return (size == 1) ? PersistentSet.<E>of() : new PersistentSet<>(newRoot, size - 1);
+  }
+
+  /** Returns a builder that starts out with the elements of this set. */
+  public Builder<E> toBuilder() {
+    return new Builder<>(root, size);
+  }
+
+  /**
+   * Returns an {@code ImmutableSet} view of this set, in constant time. The view shares the trie of
+   * this set and iterates in the same order.
+   */
+  public ImmutableSet<E> asImmutableSet() {
+    ImmutableSet<E> result = asImmutableSet;
+    return (result == null) ? asImmutableSet = new AsImmutableSet<>(this) : result;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object object) {
+    return object != null && root.get(object, smearedHash(object), 0) != null;
+  }
+
+  @Override
+  public UnmodifiableIterator<E> iterator() {
+    return iterator(root);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // only E elements are stored
+  public void forEach(Consumer<? super E> action) {
+    checkNotNull(action);
+    root.forEachEntry((element, unused) -> action.accept((E) element));
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0 && size != 0) {
+      result = super.hashCode();
+      hashCode = result;
+    }
+    return result;
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code with} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean add(E e) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code without} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean remove(@CheckForNull Object object) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code toBuilder().addAll(elements).build()} instead.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean addAll(Collection<? extends E> newElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean removeAll(Collection<?> oldElements) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean removeIf(Predicate<? super E> filter) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation.
+   */
+  @CanIgnoreReturnValue
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public boolean retainAll(Collection<?> elementsToKeep) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Guaranteed to throw an exception and leave the set unmodified.
+   *
+   * @throws UnsupportedOperationException always
+   * @deprecated Unsupported operation; use {@code of()} instead.
+   */
+  @Deprecated
+  @Override
+  @DoNotCall("Always throws UnsupportedOperationException")
+  public void clear() {
+    throw new UnsupportedOperationException();
+  }
+
+  private static <E> UnmodifiableIterator<E> iterator(ChampNode root) {
+    return new ChampNode.TrieIterator<E>(root) {
+      @Override
+      @SuppressWarnings("unchecked") // only E elements are stored
+      E output(ChampNode node, int index) {
+        return (E) node.keyAt(index);
+      }
+    };
+  }
+
+  /** An {@code ImmutableSet} backed by the trie of a persistent set. */
+  private static final class AsImmutableSet<E> extends ImmutableSet<E> {
+    private final PersistentSet<E> set;
+
+    AsImmutableSet(PersistentSet<E> set) {
+      this.set = set;
+    }
+
+    @Override
+    public UnmodifiableIterator<E> iterator() {
+      return PersistentSet.iterator(set.root);
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object object) {
+      return set.contains(object);
+    }
+
+    @Override
+    public int size() {
+      return set.size;
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+      set.forEach(action);
+    }
+
+    @Override
+    boolean isPartialView() {
+      return false;
+    }
+
+    // redeclare to help optimizers with b/310253115
+    @SuppressWarnings("RedundantOverride")
+    @Override
+    Object writeReplace() {
+      return super.writeReplace();
+    }
+  }
+
+  /**
+   * A mutable editor for a persistent set. Its changes are made in place on trie nodes it created
+   * itself, and {@code build()} hands the current trie to a new persistent set in constant time;
+   * later changes to the builder copy the nodes they touch and do not affect the sets already
+   * built.
+   *
+   * <p>Builders are not thread-safe.
+   */
+  public static final class Builder<E> {
+    private ChampNode root;
+    private int size;
+    private Object owner = new Object();
+
+    Builder(ChampNode root, int size) {
+      this.root = root;
+      this.size = size;
+    }
+
+    /**
+     * Adds {@code element} to this builder, if it is not already present.
+     *
+     * @return this builder
+     * @throws NullPointerException if {@code element} is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> add(E element) {
+      checkNotNull(element);
+      ChampNode.Change change = new ChampNode.Change();
+      root = root.put(owner, element, null, smearedHash(element), 0, change);
+      if (change.modified) {
+        size++;
+      }
+      return this;
+    }
+
+    /**
+     * Adds each element of {@code elements} to this builder.
+     *
+     * @return this builder
+     * @throws NullPointerException if any element is null
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> addAll(Iterable<? extends E> elements) {
+      for (E element : elements) {
+        add(element);
+      }
+      return this;
+    }
+
+    /**
+     * Removes {@code element} from this builder, if it is present.
+     *
+     * @return this builder
+     */
+    @CanIgnoreReturnValue
+    public Builder<E> remove(@CheckForNull Object element) {
+      if (element != null) {
+        ChampNode.Change change = new ChampNode.Change();
+        root = root.remove(owner, element, smearedHash(element), 0, change);
+        if (change.modified) {
+          size--;
+        }
+      }
+      return this;
+    }
+
+    /** Returns whether this builder currently contains {@code element}. */
+    public boolean contains(@CheckForNull Object element) {
+      return element != null && root.get(element, smearedHash(element), 0) != null;
+    }
+
+    /** Returns the number of elements currently in this builder. */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Returns a persistent set with the elements currently in this builder, in constant time.
+     */
+    public PersistentSet<E> build() {
+      // The built set now shares every node, so later edits must copy them.
+      owner = new Object();
+      return (size == 0) ? PersistentSet.<E>of() : new PersistentSet<>(root, size);
+    }
+  }
+
+  // This class is never actually serialized directly.
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Use SerializedForm");
+  }
+
+  Object writeReplace() {
+    return new SerializedForm(toArray());
+  }
+
+  /** Serialized form of a persistent set, holding its elements in iteration order. */
+  private static final class SerializedForm implements Serializable {
+    private final Object[] elements;
+
+    SerializedForm(Object[] elements) {
+      this.elements = elements;
+    }
+
+    Object readResolve() {
+      return copyOf(Arrays.asList(elements));
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static final long serialVersionUID = 0;
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+/**
+ * Static methods for the hash indexes of the primitive immutable collections ({@code
+ * ImmutableIntSet}, {@code ImmutableIntKeyMap} and their {@code long} counterparts).
+ *
+ * <p>The elements themselves live in an {@code int[]} or {@code long[]} in iteration order. The
+ * index is an {@code int[]} of power-of-two size probed linearly, where each slot holds the
+ * element's position plus one in the bits covered by the mask (so zero means empty) and the high
+ * bits of the smeared hash in the rest, as in {@code CompactHashing}. Tables are sized by {@code
+ * ImmutableSet#chooseTableSize}, so they always have an empty slot.
+ */
+@ElementTypesAreNonnullByDefault
+final class PrimitiveHashing {
+  private PrimitiveHashing() {}
+
+  /** Table value of an empty slot. */
+  static final int UNSET = 0;
+
+  /** Index returned when the element is absent. */
+  static final int ABSENT = -1;
+
+  static int hash(int value) {
+    return Hashing.smear(value);
+  }
+
+  static int hash(long value) {
+    return Hashing.smear(Long.hashCode(value));
+  }
+
+  /** Returns a new empty table suitable for {@code size} elements. */
+  static int[] createTable(int size) {
+    return new int[ImmutableSet.chooseTableSize(size)];
+  }
+
+  /** Returns the position of {@code value} in {@code elements}, or {@link #ABSENT}. */
+  static int find(int[] table, int[] elements, int value) {
+    int mask = table.length - 1;
+    int hash = hash(value);
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    for (int i = hash; ; i++) {
+      int slot = table[i & mask];
+      if (slot == UNSET) {
+        return ABSENT;
+      }
+      if (CompactHashing.getHashPrefix(slot, mask) == hashPrefix) {
+        int index = (slot & mask) - 1;
+        if (elements[index] == value) {
+          return index;
+        }
+      }
+    }
+  }
+
+  /** Returns the position of {@code value} in {@code elements}, or {@link #ABSENT}. */
+  static int find(int[] table, long[] elements, long value) {
+    int mask = table.length - 1;
+    int hash = hash(value);
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    for (int i = hash; ; i++) {
+      int slot = table[i & mask];
+      if (slot == UNSET) {
+        return ABSENT;
+      }
+      if (CompactHashing.getHashPrefix(slot, mask) == hashPrefix) {
+        int index = (slot & mask) - 1;
+        if (elements[index] == value) {
+          return index;
+        }
+      }
+    }
+  }
+
+  /**
+   * If {@code value} is among the first {@code size} elements, returns its position. Otherwise
+   * stores {@code value} at {@code elements[size]}, indexes it, and returns {@link #ABSENT}.
+   */
+  static int insert(int[] table, int[] elements, int size, int value) {
+    int mask = table.length - 1;
+    int hash = hash(value);
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    for (int i = hash; ; i++) {
+      int tableIndex = i & mask;
+      int slot = table[tableIndex];
+      if (slot == UNSET) {
+        elements[size] = value;
+        table[tableIndex] = CompactHashing.maskCombine(hashPrefix, size + 1, mask);
+        return ABSENT;
+      }
+      if (CompactHashing.getHashPrefix(slot, mask) == hashPrefix) {
+        int index = (slot & mask) - 1;
+        if (elements[index] == value) {
+          return index;
+        }
+      }
+    }
+  }
+
+  /**
+   * If {@code value} is among the first {@code size} elements, returns its position. Otherwise
+   * stores {@code value} at {@code elements[size]}, indexes it, and returns {@link #ABSENT}.
+   */
+  static int insert(int[] table, long[] elements, int size, long value) {
+    int mask = table.length - 1;
+    int hash = hash(value);
+    int hashPrefix = CompactHashing.getHashPrefix(hash, mask);
+    for (int i = hash; ; i++) {
+      int tableIndex = i & mask;
+      int slot = table[tableIndex];
+      if (slot == UNSET) {
+        elements[size] = value;
+        table[tableIndex] = CompactHashing.maskCombine(hashPrefix, size + 1, mask);
+        return ABSENT;
+      }
+      if (CompactHashing.getHashPrefix(slot, mask) == hashPrefix) {
+        int index = (slot & mask) - 1;
+        if (elements[index] == value) {
+          return index;
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes duplicates from the first {@code n} elements in place, keeping the first occurrence of
+   * each, indexes them in {@code table}, and returns the number of distinct elements.
+   */
+  static int dedupe(int[] elements, int n, int[] table) {
+    int size = 0;
+    for (int i = 0; i < n; i++) {
+      if (insert(table, elements, size, elements[i]) == ABSENT) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Removes duplicates from the first {@code n} elements in place, keeping the first occurrence of
+   * each, indexes them in {@code table}, and returns the number of distinct elements.
+   */
+  static int dedupe(long[] elements, int n, int[] table) {
+    int size = 0;
+    for (int i = 0; i < n; i++) {
+      if (insert(table, elements, size, elements[i]) == ABSENT) {
+        size++;
+      }
+    }
+    return size;
+  }
+
+  /** Builds a table for the first {@code size} elements, which must be distinct. */
+  static int[] index(int[] elements, int size) {
+    int[] table = createTable(size);
+    for (int i = 0; i < size; i++) {
+      insert(table, elements, i, elements[i]);
+    }
+    return table;
+  }
+
+  /** Builds a table for the first {@code size} elements, which must be distinct. */
+  static int[] index(long[] elements, int size) {
+    int[] table = createTable(size);
+    for (int i = 0; i < size; i++) {
+      insert(table, elements, i, elements[i]);
+    }
+    return table;
+  }
+}
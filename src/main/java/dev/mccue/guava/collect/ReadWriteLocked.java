@@ -0,0 +1,1295 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Collection views guarded by a {@code StampedLock}, the read-optimized counterpart of {@code
+ * Synchronized}. Writes take the write lock, and queries take the read lock, which readers share.
+ *
+ * <p>Short queries such as {@code get}, {@code containsKey} and {@code size} of a delegate whose
+ * queries are themselves safe to run during a write, such as a {@code ConcurrentMap}, first run
+ * without locking under an optimistic read stamp, and keep the result only if no write happened
+ * meanwhile. Other delegates are never read optimistically: a racing read of a {@code HashMap} or
+ * {@code TreeMap} may see a transient cycle in their links and never return.
+ *
+ * <p>Iterators and spliterators run over a snapshot copied under the read lock, so unlike the
+ * views of {@code Synchronized}, they need no manual locking and never see a concurrent write.
+ * Removal through a snapshot iterator removes an element equal to the last one returned through
+ * the wrapper. Entries of map snapshots write {@code setValue} through to the map. {@code forEach}
+ * also runs over a snapshot, so its action may call back into the wrapper.
+ *
+ * <p>{@code StampedLock} is not reentrant, so the lock records the thread holding its write lock,
+ * and any call from that thread runs directly. Callbacks run under the write lock, such as the
+ * functions passed to {@code compute}, {@code merge} or {@code removeIf}, may therefore call back
+ * into the wrapper, as they may under {@code Synchronized}. The read lock is not reentrant: the
+ * {@code equals}, {@code hashCode} and {@code toString} methods of the elements, which run under
+ * it, must not call back into the wrapper.
+ *
+ * <p>If {@code null} is passed as the {@code lock} parameter to any of this class's top-level
+ * methods or inner class constructors, the created object uses a new lock of its own.
+ *
+ * <p>The returned views are serializable if the backing collection is serializable.
+ *
+ * <p>This class should be used by other collection classes only.
+ */
+@ElementTypesAreNonnullByDefault
+final class ReadWriteLocked {
+  private ReadWriteLocked() {}
+
+  /**
+   * Returns whether the query methods of {@code delegate}, and of its views, are safe to run while
+   * another thread changes it. Only such delegates are read optimistically: a racing read of an
+   * ordinary collection may follow links that a concurrent write has left in a transient cycle, and
+   * then never return.
+   */
+  static boolean supportsOptimisticReads(Object delegate) {
+    return delegate instanceof ConcurrentMap
+        || delegate instanceof AbstractConcurrentMultimap
+        || delegate instanceof ImmutableMap
+        || delegate instanceof ImmutableTable;
+  }
+
+  /**
+   * The lock shared by a wrapper and its views. It records the thread holding the write lock, so
+   * that callbacks run under the write lock, such as the function passed to {@code
+   * Map#compute}, can call back into the wrapper, as they can under the monitor of {@code
+   * Synchronized}; {@code StampedLock} itself is not reentrant.
+   */
+  static final class WriteOwnedLock extends StampedLock {
+    final boolean optimistic;
+
+    /*
+     * Only ever set to the current thread by that thread, and cleared by it before it releases the
+     * write lock, so a thread reading its own Thread here is never misled by a stale value.
+     */
+    @CheckForNull private transient Thread writer;
+
+    WriteOwnedLock(boolean optimistic) {
+      this.optimistic = optimistic;
+    }
+
+    boolean isWriteLockedByCurrentThread() {
+      return writer == Thread.currentThread();
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static class LockedObject implements Serializable {
+    final Object delegate;
+    final WriteOwnedLock lock;
+
+    LockedObject(Object delegate, @CheckForNull WriteOwnedLock lock) {
+      this.delegate = checkNotNull(delegate);
+      this.lock = (lock == null) ? new WriteOwnedLock(supportsOptimisticReads(delegate)) : lock;
+    }
+
+    Object delegate() {
+      return delegate;
+    }
+
+    /**
+     * Runs a short query optimistically if the delegate supports it, falling back to the read lock
+     * if a write interferes.
+     */
+    final <T extends @Nullable Object> T optimisticRead(Supplier<T> query) {
+      long stamp = lock.optimistic ? lock.tryOptimisticRead() : 0;
+      if (stamp != 0) {
+        try {
+          T result = query.get();
+          if (lock.validate(stamp)) {
+            return result;
+          }
+        } catch (RuntimeException e) {
+          if (lock.validate(stamp)) {
+            throw e;
+          }
+          // The query saw a write in progress; retry it under the read lock.
+        }
+      }
+      return readLocked(query);
+    }
+
+    /** Like {@code optimisticRead}, but without boxing the result. */
+    final int optimisticReadInt(IntSupplier query) {
+      long stamp = lock.optimistic ? lock.tryOptimisticRead() : 0;
+      if (stamp != 0) {
+        try {
+          int result = query.getAsInt();
+          if (lock.validate(stamp)) {
+            return result;
+          }
+        } catch (RuntimeException e) {
+          if (lock.validate(stamp)) {
+            throw e;
+          }
+          // The query saw a write in progress; retry it under the read lock.
+        }
+      }
+      if (lock.isWriteLockedByCurrentThread()) {
+        return query.getAsInt();
+      }
+      long readStamp = lock.readLock();
+      try {
+        return query.getAsInt();
+      } finally {
+        lock.unlockRead(readStamp);
+      }
+    }
+
+    final <T extends @Nullable Object> T readLocked(Supplier<T> query) {
+      if (lock.isWriteLockedByCurrentThread()) {
+        return query.get();
+      }
+      long stamp = lock.readLock();
+      try {
+        return query.get();
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    final <T extends @Nullable Object> T writeLocked(Supplier<T> update) {
+      if (lock.isWriteLockedByCurrentThread()) {
+        return update.get();
+      }
+      long stamp = lock.writeLock();
+      lock.writer = Thread.currentThread();
+      try {
+        return update.get();
+      } finally {
+        lock.writer = null;
+        lock.unlockWrite(stamp);
+      }
+    }
+
+    final void runWriteLocked(Runnable update) {
+      writeLocked(
+          () -> {
+            update.run();
+            return null;
+          });
+    }
+
+    // No equals and hashCode; see ForwardingObject for details.
+
+    @Override
+    public String toString() {
+      return readLocked(delegate::toString);
+    }
+
+    private void writeObject(ObjectOutputStream stream) throws IOException {
+      if (lock.isWriteLockedByCurrentThread()) {
+        stream.defaultWriteObject();
+        return;
+      }
+      long stamp = lock.readLock();
+      try {
+        stream.defaultWriteObject();
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  /** Returns the keys and values of {@code entries}, alternating, in one array. */
+  private static @Nullable Object[] pairs(Collection<? extends Map.Entry<?, ?>> entries) {
+    @Nullable Object[] pairs = new Object[2 * entries.size()];
+    int i = 0;
+    for (Map.Entry<?, ?> entry : entries) {
+      pairs[i++] = entry.getKey();
+      pairs[i++] = entry.getValue();
+    }
+    return pairs;
+  }
+
+  /** Iterates over a snapshot, removing through the collection it was taken from. */
+  private static final class SnapshotIterator<E extends @Nullable Object> implements Iterator<E> {
+    private final @Nullable Object[] elements;
+    private final Collection<E> owner;
+    private int index;
+    private boolean canRemove;
+
+    SnapshotIterator(@Nullable Object[] elements, Collection<E> owner) {
+      this.elements = elements;
+      this.owner = owner;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return index < elements.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the snapshot holds only E elements
+    public E next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      canRemove = true;
+      return (E) elements[index++];
+    }
+
+    @Override
+    public void remove() {
+      checkRemove(canRemove);
+      canRemove = false;
+      owner.remove(elements[index - 1]);
+    }
+  }
+
+  /** An entry of a map snapshot whose {@code setValue} writes through to the map. */
+  static final class SnapshotEntry<K extends @Nullable Object, V extends @Nullable Object>
+      extends AbstractMapEntry<K, V> {
+    private final K key;
+    private V value;
+    private final Map<K, V> owner;
+
+    SnapshotEntry(K key, V value, Map<K, V> owner) {
+      this.key = key;
+      this.value = value;
+      this.owner = owner;
+    }
+
+    @Override
+    public K getKey() {
+      return key;
+    }
+
+    @Override
+    public V getValue() {
+      return value;
+    }
+
+    @Override
+    public V setValue(V newValue) {
+      owner.put(key, newValue);
+      V oldValue = value;
+      value = newValue;
+      return oldValue;
+    }
+  }
+
+  static <E extends @Nullable Object> Collection<E> collection(
+      Collection<E> collection, @CheckForNull WriteOwnedLock lock) {
+    return new LockedCollection<>(collection, lock);
+  }
+
+  static class LockedCollection<E extends @Nullable Object> extends LockedObject
+      implements Collection<E> {
+    LockedCollection(Collection<E> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    Collection<E> delegate() {
+      return (Collection<E>) super.delegate();
+    }
+
+    /** Returns the elements to iterate over, copied under the read lock. */
+    @Nullable
+    Object[] snapshot() {
+      return readLocked(() -> delegate().toArray());
+    }
+
+    int characteristics() {
+      return 0;
+    }
+
+    @Override
+    public boolean add(E e) {
+      return writeLocked(() -> delegate().add(e));
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+      return writeLocked(() -> delegate().addAll(c));
+    }
+
+    @Override
+    public void clear() {
+      runWriteLocked(() -> delegate().clear());
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object o) {
+      return optimisticRead(() -> delegate().contains(o));
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+      return readLocked(() -> delegate().containsAll(c));
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return optimisticRead(() -> delegate().isEmpty());
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+      return new SnapshotIterator<>(snapshot(), this);
+    }
+
+    @Override
+    public Spliterator<E> spliterator() {
+      return Spliterators.spliterator(snapshot(), characteristics());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the snapshot holds only E elements
+    public void forEach(Consumer<? super E> action) {
+      checkNotNull(action);
+      for (Object element : snapshot()) {
+        action.accept((E) element);
+      }
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object o) {
+      return writeLocked(() -> delegate().remove(o));
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+      return writeLocked(() -> delegate().removeAll(c));
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+      return writeLocked(() -> delegate().retainAll(c));
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+      return writeLocked(() -> delegate().removeIf(filter));
+    }
+
+    @Override
+    public int size() {
+      return optimisticReadInt(() -> delegate().size());
+    }
+
+    @Override
+    public @Nullable Object[] toArray() {
+      return readLocked(() -> delegate().toArray());
+    }
+
+    @Override
+    @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+    public <T extends @Nullable Object> T[] toArray(T[] a) {
+      return readLocked(() -> delegate().toArray(a));
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <E extends @Nullable Object> Set<E> set(Set<E> set, @CheckForNull WriteOwnedLock lock) {
+    return new LockedSet<>(set, lock);
+  }
+
+  static class LockedSet<E extends @Nullable Object> extends LockedCollection<E>
+      implements Set<E> {
+    LockedSet(Set<E> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @Override
+    Set<E> delegate() {
+      return (Set<E>) super.delegate();
+    }
+
+    @Override
+    int characteristics() {
+      return Spliterator.DISTINCT;
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object o) {
+      if (o == this) {
+        return true;
+      }
+      return readLocked(() -> delegate().equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+      return readLocked(() -> delegate().hashCode());
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <E extends @Nullable Object> List<E> list(
+      List<E> list, @CheckForNull WriteOwnedLock lock) {
+    return new LockedList<>(list, lock);
+  }
+
+  static class LockedList<E extends @Nullable Object> extends LockedCollection<E>
+      implements List<E> {
+    LockedList(List<E> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @Override
+    List<E> delegate() {
+      return (List<E>) super.delegate();
+    }
+
+    @Override
+    int characteristics() {
+      return Spliterator.ORDERED;
+    }
+
+    @Override
+    public void add(int index, E element) {
+      runWriteLocked(() -> delegate().add(index, element));
+    }
+
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+      return writeLocked(() -> delegate().addAll(index, c));
+    }
+
+    @Override
+    public E get(int index) {
+      return optimisticRead(() -> delegate().get(index));
+    }
+
+    @Override
+    public int indexOf(@CheckForNull Object o) {
+      return readLocked(() -> delegate().indexOf(o));
+    }
+
+    @Override
+    public int lastIndexOf(@CheckForNull Object o) {
+      return readLocked(() -> delegate().lastIndexOf(o));
+    }
+
+    /** Returns a read-only list iterator over a snapshot of this list. */
+    @Override
+    public ListIterator<E> listIterator() {
+      return listIterator(0);
+    }
+
+    /** Returns a read-only list iterator over a snapshot of this list. */
+    @Override
+    @SuppressWarnings("unchecked") // the snapshot holds only E elements
+    public ListIterator<E> listIterator(int index) {
+      List<E> snapshot = (List<E>) Arrays.asList(snapshot());
+      return Collections.unmodifiableList(snapshot).listIterator(index);
+    }
+
+    @Override
+    public E remove(int index) {
+      return writeLocked(() -> delegate().remove(index));
+    }
+
+    @Override
+    public E set(int index, E element) {
+      return writeLocked(() -> delegate().set(index, element));
+    }
+
+    @Override
+    public List<E> subList(int fromIndex, int toIndex) {
+      return readLocked(() -> list(delegate().subList(fromIndex, toIndex), lock));
+    }
+
+    @Override
+    public void replaceAll(UnaryOperator<E> operator) {
+      runWriteLocked(() -> delegate().replaceAll(operator));
+    }
+
+    @Override
+    public void sort(@Nullable Comparator<? super E> c) {
+      runWriteLocked(() -> delegate().sort(c));
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object o) {
+      if (o == this) {
+        return true;
+      }
+      return readLocked(() -> delegate().equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+      return readLocked(() -> delegate().hashCode());
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <E extends @Nullable Object> Multiset<E> multiset(
+      Multiset<E> multiset, @CheckForNull WriteOwnedLock lock) {
+    return new LockedMultiset<>(multiset, lock);
+  }
+
+  static final class LockedMultiset<E extends @Nullable Object> extends LockedCollection<E>
+      implements Multiset<E> {
+    @CheckForNull transient Set<E> elementSet;
+    @CheckForNull transient Set<Multiset.Entry<E>> entrySet;
+
+    LockedMultiset(Multiset<E> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @Override
+    Multiset<E> delegate() {
+      return (Multiset<E>) super.delegate();
+    }
+
+    @Override
+    public int count(@CheckForNull Object o) {
+      return optimisticReadInt(() -> delegate().count(o));
+    }
+
+    @Override
+    public int add(E e, int n) {
+      return writeLocked(() -> delegate().add(e, n));
+    }
+
+    @Override
+    public int remove(@CheckForNull Object o, int n) {
+      return writeLocked(() -> delegate().remove(o, n));
+    }
+
+    @Override
+    public int setCount(E element, int count) {
+      return writeLocked(() -> delegate().setCount(element, count));
+    }
+
+    @Override
+    public boolean setCount(E element, int oldCount, int newCount) {
+      return writeLocked(() -> delegate().setCount(element, oldCount, newCount));
+    }
+
+    @Override
+    public Set<E> elementSet() {
+      Set<E> result = elementSet;
+      return (result == null) ? elementSet = set(delegate().elementSet(), lock) : result;
+    }
+
+    @Override
+    public Set<Multiset.Entry<E>> entrySet() {
+      Set<Multiset.Entry<E>> result = entrySet;
+      if (result == null) {
+        result =
+            entrySet =
+                new LockedSet<Multiset.Entry<E>>(delegate().entrySet(), lock) {
+                  @Override
+                  @Nullable
+                  Object[] snapshot() {
+                    // The entries of many multisets track later changes to the counts.
+                    return readLocked(
+                        () ->
+                            delegate().stream()
+                                .map(e -> Multisets.immutableEntry(e.getElement(), e.getCount()))
+                                .toArray());
+                  }
+
+                  private static final long serialVersionUID = 0;
+                };
+      }
+      return result;
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object o) {
+      if (o == this) {
+        return true;
+      }
+      return readLocked(() -> delegate().equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+      return readLocked(() -> delegate().hashCode());
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <K extends @Nullable Object, V extends @Nullable Object> Map<K, V> map(
+      Map<K, V> map, @CheckForNull WriteOwnedLock lock) {
+    return new LockedMap<>(map, lock);
+  }
+
+  static class LockedMap<K extends @Nullable Object, V extends @Nullable Object>
+      extends LockedObject implements Map<K, V> {
+    @CheckForNull transient Set<K> keySet;
+    @CheckForNull transient Collection<V> values;
+    @CheckForNull transient Set<Map.Entry<K, V>> entrySet;
+
+    LockedMap(Map<K, V> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    Map<K, V> delegate() {
+      return (Map<K, V>) super.delegate();
+    }
+
+    /** Wraps a value that is itself a view of the delegate before it is returned. */
+    V wrap(V value) {
+      return value;
+    }
+
+    @Override
+    public void clear() {
+      runWriteLocked(() -> delegate().clear());
+    }
+
+    @Override
+    public boolean containsKey(@CheckForNull Object key) {
+      return optimisticRead(() -> delegate().containsKey(key));
+    }
+
+    @Override
+    public boolean containsValue(@CheckForNull Object value) {
+      return readLocked(() -> delegate().containsValue(value));
+    }
+
+    @Override
+    @CheckForNull
+    public V get(@CheckForNull Object key) {
+      V value = optimisticRead(() -> delegate().get(key));
+      return (value == null) ? null : wrap(value);
+    }
+
+    @Override
+    @CheckForNull
+    public V getOrDefault(@CheckForNull Object key, @CheckForNull V defaultValue) {
+      V value = optimisticRead(() -> delegate().getOrDefault(key, defaultValue));
+      return (value == null || value == defaultValue) ? value : wrap(value);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return optimisticRead(() -> delegate().isEmpty());
+    }
+
+    @Override
+    public int size() {
+      return optimisticReadInt(() -> delegate().size());
+    }
+
+    @Override
+    public Set<K> keySet() {
+      Set<K> result = keySet;
+      return (result == null) ? keySet = set(delegate().keySet(), lock) : result;
+    }
+
+    @Override
+    public Collection<V> values() {
+      Collection<V> result = values;
+      if (result == null) {
+        result =
+            values =
+                new LockedCollection<V>(delegate().values(), lock) {
+                  @Override
+                  @Nullable
+                  Object[] snapshot() {
+                    @Nullable Object[] snapshot = super.snapshot();
+                    for (int i = 0; i < snapshot.length; i++) {
+                      @SuppressWarnings("unchecked") // the snapshot holds only V values
+                      V value = (V) snapshot[i];
+                      snapshot[i] = (value == null) ? null : wrap(value);
+                    }
+                    return snapshot;
+                  }
+
+                  private static final long serialVersionUID = 0;
+                };
+      }
+      return result;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+      Set<Map.Entry<K, V>> result = entrySet;
+      if (result == null) {
+        result =
+            entrySet =
+                new LockedSet<Map.Entry<K, V>>(delegate().entrySet(), lock) {
+                  @Override
+                  @Nullable
+                  Object[] snapshot() {
+                    // The delegate's entries can't be read safely outside the lock.
+                    return readLocked(
+                        () ->
+                            delegate().stream()
+                                .map(
+                                    e -> {
+                                      V value = e.getValue();
+                                      return new SnapshotEntry<>(
+                                          e.getKey(),
+                                          (value == null) ? value : wrap(value),
+                                          LockedMap.this);
+                                    })
+                                .toArray());
+                  }
+
+                  private static final long serialVersionUID = 0;
+                };
+      }
+      return result;
+    }
+
+    @Override
+    @CheckForNull
+    public V put(K key, V value) {
+      return writeLocked(() -> delegate().put(key, value));
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+      runWriteLocked(() -> delegate().putAll(map));
+    }
+
+    @Override
+    @CheckForNull
+    public V remove(@CheckForNull Object key) {
+      return writeLocked(() -> delegate().remove(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the snapshot holds K keys followed by their V values
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+      checkNotNull(action);
+      @Nullable Object[] snapshot = readLocked(() -> pairs(delegate().entrySet()));
+      for (int i = 0; i < snapshot.length; i += 2) {
+        V value = (V) snapshot[i + 1];
+        action.accept((K) snapshot[i], (value == null) ? value : wrap(value));
+      }
+    }
+
+    @Override
+    public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+      runWriteLocked(() -> delegate().replaceAll(function));
+    }
+
+    @Override
+    @CheckForNull
+    public V putIfAbsent(K key, V value) {
+      return writeLocked(() -> delegate().putIfAbsent(key, value));
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object key, @CheckForNull Object value) {
+      return writeLocked(() -> delegate().remove(key, value));
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+      return writeLocked(() -> delegate().replace(key, oldValue, newValue));
+    }
+
+    @Override
+    @CheckForNull
+    public V replace(K key, V value) {
+      return writeLocked(() -> delegate().replace(key, value));
+    }
+
+    @Override
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+      return writeLocked(() -> delegate().computeIfAbsent(key, mappingFunction));
+    }
+
+    @Override
+    @CheckForNull
+    public V computeIfPresent(
+        K key, BiFunction<? super K, ? super @NonNull V, ? extends @Nullable V> remapping) {
+      return writeLocked(() -> delegate().computeIfPresent(key, remapping));
+    }
+
+    @Override
+    @CheckForNull
+    public V compute(
+        K key, BiFunction<? super K, ? super @Nullable V, ? extends @Nullable V> remapping) {
+      return writeLocked(() -> delegate().compute(key, remapping));
+    }
+
+    @Override
+    @CheckForNull
+    public V merge(
+        K key,
+        @NonNull V value,
+        BiFunction<? super @NonNull V, ? super @NonNull V, ? extends @Nullable V>
+            remapping) {
+      return writeLocked(() -> delegate().merge(key, value, remapping));
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object o) {
+      if (o == this) {
+        return true;
+      }
+      return readLocked(() -> delegate().equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+      return readLocked(() -> delegate().hashCode());
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  private static <E extends @Nullable Object> Collection<E> typePreservingCollection(
+      Collection<E> collection, @CheckForNull WriteOwnedLock lock) {
+    if (collection instanceof Set) {
+      return set((Set<E>) collection, lock);
+    }
+    if (collection instanceof List) {
+      return list((List<E>) collection, lock);
+    }
+    return collection(collection, lock);
+  }
+
+  /** The {@code asMap} view of a multimap, which wraps the value collections it returns. */
+  static final class LockedAsMap<K extends @Nullable Object, V extends @Nullable Object>
+      extends LockedMap<K, Collection<V>> {
+    LockedAsMap(Map<K, Collection<V>> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @Override
+    Collection<V> wrap(Collection<V> values) {
+      return typePreservingCollection(values, lock);
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <K extends @Nullable Object, V extends @Nullable Object> Multimap<K, V> multimap(
+      Multimap<K, V> multimap, @CheckForNull WriteOwnedLock lock) {
+    if (multimap instanceof LockedMultimap || multimap instanceof BaseImmutableMultimap) {
+      return multimap;
+    }
+    return new LockedMultimap<>(multimap, lock);
+  }
+
+  static class LockedMultimap<K extends @Nullable Object, V extends @Nullable Object>
+      extends LockedObject implements Multimap<K, V> {
+    @CheckForNull transient Set<K> keySet;
+    @CheckForNull transient Collection<V> valuesCollection;
+    @CheckForNull transient Collection<Map.Entry<K, V>> entries;
+    @CheckForNull transient Map<K, Collection<V>> asMap;
+    @CheckForNull transient Multiset<K> keys;
+
+    LockedMultimap(Multimap<K, V> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    Multimap<K, V> delegate() {
+      return (Multimap<K, V>) super.delegate();
+    }
+
+    @Override
+    public int size() {
+      return optimisticReadInt(() -> delegate().size());
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return optimisticRead(() -> delegate().isEmpty());
+    }
+
+    @Override
+    public boolean containsKey(@CheckForNull Object key) {
+      return optimisticRead(() -> delegate().containsKey(key));
+    }
+
+    @Override
+    public boolean containsValue(@CheckForNull Object value) {
+      return readLocked(() -> delegate().containsValue(value));
+    }
+
+    @Override
+    public boolean containsEntry(@CheckForNull Object key, @CheckForNull Object value) {
+      return optimisticRead(() -> delegate().containsEntry(key, value));
+    }
+
+    @Override
+    public Collection<V> get(K key) {
+      return typePreservingCollection(optimisticRead(() -> delegate().get(key)), lock);
+    }
+
+    @Override
+    public boolean put(K key, V value) {
+      return writeLocked(() -> delegate().put(key, value));
+    }
+
+    @Override
+    public boolean putAll(K key, Iterable<? extends V> values) {
+      return writeLocked(() -> delegate().putAll(key, values));
+    }
+
+    @Override
+    public boolean putAll(Multimap<? extends K, ? extends V> multimap) {
+      return writeLocked(() -> delegate().putAll(multimap));
+    }
+
+    @Override
+    public Collection<V> replaceValues(K key, Iterable<? extends V> values) {
+      return writeLocked(() -> delegate().replaceValues(key, values)); // copy not locked
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object key, @CheckForNull Object value) {
+      return writeLocked(() -> delegate().remove(key, value));
+    }
+
+    @Override
+    public Collection<V> removeAll(@CheckForNull Object key) {
+      return writeLocked(() -> delegate().removeAll(key)); // copy not locked
+    }
+
+    @Override
+    public void clear() {
+      runWriteLocked(() -> delegate().clear());
+    }
+
+    @Override
+    public Set<K> keySet() {
+      Set<K> result = keySet;
+      return (result == null) ? keySet = set(delegate().keySet(), lock) : result;
+    }
+
+    @Override
+    public Collection<V> values() {
+      Collection<V> result = valuesCollection;
+      return (result == null) ? valuesCollection = collection(delegate().values(), lock) : result;
+    }
+
+    @Override
+    public Collection<Map.Entry<K, V>> entries() {
+      Collection<Map.Entry<K, V>> result = entries;
+      return (result == null)
+          ? entries = typePreservingCollection(delegate().entries(), lock)
+          : result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked") // the snapshot holds K keys followed by their V values
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+      checkNotNull(action);
+      @Nullable Object[] snapshot = readLocked(() -> pairs(delegate().entries()));
+      for (int i = 0; i < snapshot.length; i += 2) {
+        action.accept((K) snapshot[i], (V) snapshot[i + 1]);
+      }
+    }
+
+    @Override
+    public Map<K, Collection<V>> asMap() {
+      Map<K, Collection<V>> result = asMap;
+      return (result == null) ? asMap = new LockedAsMap<>(delegate().asMap(), lock) : result;
+    }
+
+    @Override
+    public Multiset<K> keys() {
+      Multiset<K> result = keys;
+      return (result == null) ? keys = multiset(delegate().keys(), lock) : result;
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object o) {
+      if (o == this) {
+        return true;
+      }
+      return readLocked(() -> delegate().equals(o));
+    }
+
+    @Override
+    public int hashCode() {
+      return readLocked(() -> delegate().hashCode());
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <K extends @Nullable Object, V extends @Nullable Object> ListMultimap<K, V> listMultimap(
+      ListMultimap<K, V> multimap, @CheckForNull WriteOwnedLock lock) {
+    if (multimap instanceof LockedListMultimap || multimap instanceof BaseImmutableMultimap) {
+      return multimap;
+    }
+    return new LockedListMultimap<>(multimap, lock);
+  }
+
+  static final class LockedListMultimap<K extends @Nullable Object, V extends @Nullable Object>
+      extends LockedMultimap<K, V> implements ListMultimap<K, V> {
+    LockedListMultimap(ListMultimap<K, V> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @Override
+    ListMultimap<K, V> delegate() {
+      return (ListMultimap<K, V>) super.delegate();
+    }
+
+    @Override
+    public List<V> get(K key) {
+      return list(optimisticRead(() -> delegate().get(key)), lock);
+    }
+
+    @Override
+    public List<V> removeAll(@CheckForNull Object key) {
+      return writeLocked(() -> delegate().removeAll(key)); // copy not locked
+    }
+
+    @Override
+    public List<V> replaceValues(K key, Iterable<? extends V> values) {
+      return writeLocked(() -> delegate().replaceValues(key, values)); // copy not locked
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <K extends @Nullable Object, V extends @Nullable Object> SetMultimap<K, V> setMultimap(
+      SetMultimap<K, V> multimap, @CheckForNull WriteOwnedLock lock) {
+    if (multimap instanceof LockedSetMultimap || multimap instanceof BaseImmutableMultimap) {
+      return multimap;
+    }
+    return new LockedSetMultimap<>(multimap, lock);
+  }
+
+  static final class LockedSetMultimap<K extends @Nullable Object, V extends @Nullable Object>
+      extends LockedMultimap<K, V> implements SetMultimap<K, V> {
+    @CheckForNull transient Set<Map.Entry<K, V>> entrySet;
+
+    LockedSetMultimap(SetMultimap<K, V> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @Override
+    SetMultimap<K, V> delegate() {
+      return (SetMultimap<K, V>) super.delegate();
+    }
+
+    @Override
+    public Set<V> get(K key) {
+      return set(optimisticRead(() -> delegate().get(key)), lock);
+    }
+
+    @Override
+    public Set<V> removeAll(@CheckForNull Object key) {
+      return writeLocked(() -> delegate().removeAll(key)); // copy not locked
+    }
+
+    @Override
+    public Set<V> replaceValues(K key, Iterable<? extends V> values) {
+      return writeLocked(() -> delegate().replaceValues(key, values)); // copy not locked
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entries() {
+      Set<Map.Entry<K, V>> result = entrySet;
+      return (result == null) ? entrySet = set(delegate().entries(), lock) : result;
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+
+  static <R extends @Nullable Object, C extends @Nullable Object, V extends @Nullable Object>
+      Table<R, C, V> table(Table<R, C, V> table, @CheckForNull WriteOwnedLock lock) {
+    if (table instanceof LockedTable || table instanceof ImmutableTable) {
+      return table;
+    }
+    return new LockedTable<>(table, lock);
+  }
+
+  static final class LockedTable<
+          R extends @Nullable Object, C extends @Nullable Object, V extends @Nullable Object>
+      extends LockedObject implements Table<R, C, V> {
+    LockedTable(Table<R, C, V> delegate, @CheckForNull WriteOwnedLock lock) {
+      super(delegate, lock);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    Table<R, C, V> delegate() {
+      return (Table<R, C, V>) super.delegate();
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object rowKey, @CheckForNull Object columnKey) {
+      return optimisticRead(() -> delegate().contains(rowKey, columnKey));
+    }
+
+    @Override
+    public boolean containsRow(@CheckForNull Object rowKey) {
+      return optimisticRead(() -> delegate().containsRow(rowKey));
+    }
+
+    @Override
+    public boolean containsColumn(@CheckForNull Object columnKey) {
+      return optimisticRead(() -> delegate().containsColumn(columnKey));
+    }
+
+    @Override
+    public boolean containsValue(@CheckForNull Object value) {
+      return readLocked(() -> delegate().containsValue(value));
+    }
+
+    @Override
+    @CheckForNull
+    public V get(@CheckForNull Object rowKey, @CheckForNull Object columnKey) {
+      return optimisticRead(() -> delegate().get(rowKey, columnKey));
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return optimisticRead(() -> delegate().isEmpty());
+    }
+
+    @Override
+    public int size() {
+      return optimisticReadInt(() -> delegate().size());
+    }
+
+    @Override
+    public void clear() {
+      runWriteLocked(() -> delegate().clear());
+    }
+
+    @Override
+    @CheckForNull
+    public V put(R rowKey, C columnKey, V value) {
+      return writeLocked(() -> delegate().put(rowKey, columnKey, value));
+    }
+
+    @Override
+    public void putAll(Table<? extends R, ? extends C, ? extends V> table) {
+      runWriteLocked(() -> delegate().putAll(table));
+    }
+
+    @Override
+    @CheckForNull
+    public V remove(@CheckForNull Object rowKey, @CheckForNull Object columnKey) {
+      return writeLocked(() -> delegate().remove(rowKey, columnKey));
+    }
+
+    @Override
+    public Map<C, V> row(R rowKey) {
+      return map(optimisticRead(() -> delegate().row(rowKey)), lock);
+    }
+
+    @Override
+    public Map<R, V> column(C columnKey) {
+      return map(optimisticRead(() -> delegate().column(columnKey)), lock);
+    }
+
+    @Override
+    public Set<Cell<R, C, V>> cellSet() {
+      return set(delegate().cellSet(), lock);
+    }
+
+    @Override
+    public Set<R> rowKeySet() {
+      return set(delegate().rowKeySet(), lock);
+    }
+
+    @Override
+    public Set<C> columnKeySet() {
+      return set(delegate().columnKeySet(), lock);
+    }
+
+    @Override
+    public Collection<V> values() {
+      return collection(delegate().values(), lock);
+    }
+
+    @Override
+    public Map<R, Map<C, V>> rowMap() {
+      return new LockedMap<R, Map<C, V>>(delegate().rowMap(), lock) {
+        @Override
+        Map<C, V> wrap(Map<C, V> row) {
+          return map(row, lock);
+        }
+
+        private static final long serialVersionUID = 0;
+      };
+    }
+
+    @Override
+    public Map<C, Map<R, V>> columnMap() {
+      return new LockedMap<C, Map<R, V>>(delegate().columnMap(), lock) {
+        @Override
+        Map<R, V> wrap(Map<R, V> column) {
+          return map(column, lock);
+        }
+
+        private static final long serialVersionUID = 0;
+      };
+    }
+
+    @Override
+    public int hashCode() {
+      return readLocked(() -> delegate().hashCode());
+    }
+
+    @Override
+    public boolean equals(@CheckForNull Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      return readLocked(() -> delegate().equals(obj));
+    }
+
+    private static final long serialVersionUID = 0;
+  }
+}
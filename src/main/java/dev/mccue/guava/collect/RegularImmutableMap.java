@@ -32,7 +32,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Implementation of {@code ImmutableMap} used for 0 entries and for 2+ entries. Additional
- * implementations exist for particular cases, like {@code ImmutableTable} views and hash flooding.
+ * implementations exist for particular cases, like {@code ImmutableTable} views, hash flooding and
+ * large maps ({@code CompactImmutableMap}).
  * (This doc discusses {@code ImmutableMap} subclasses only for the JRE flavor; the Android flavor
  * differs.)
  *
@@ -90,6 +91,9 @@ final class RegularImmutableMap<K, V> extends ImmutableMap<K, V> {
       ImmutableMap<K, V> empty = (ImmutableMap<K, V>) EMPTY;
       return empty;
     }
+    if (n >= CompactImmutableMap.MIN_SIZE) {
+      return CompactImmutableMap.fromEntryArray(n, entryArray, throwIfDuplicateKeys);
+    }
     try {
       return fromEntryArrayCheckingBucketOverflow(n, entryArray, throwIfDuplicateKeys);
     } catch (BucketOverflowException e) {
@@ -46,6 +46,7 @@ import java.util.NavigableSet;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.Spliterator;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
@@ -793,6 +794,20 @@ public final class Sets {
         };
       }
 
+      @Override
+      @SuppressWarnings("unchecked") // a Spliterator<? extends E> only produces E elements
+      public Spliterator<E> spliterator() {
+        // Unlike Stream.concat, which cannot know that its two streams are disjoint, this keeps
+        // DISTINCT.
+        Spliterator<? extends E> rest =
+            CollectSpliterators.filter(set2.spliterator(), e -> !set1.contains(e));
+        return CollectSpliterators.flatMap(
+            Arrays.<Spliterator<? extends E>>asList(set1.spliterator(), rest).spliterator(),
+            spliterator -> (Spliterator<E>) spliterator,
+            Spliterator.DISTINCT,
+            (long) set1.size() + set2.size());
+      }
+
       @Override
       public Stream<E> stream() {
         return Stream.concat(set1.stream(), set2.stream().filter((E e) -> !set1.contains(e)));
@@ -874,6 +889,11 @@ public final class Sets {
         };
       }
 
+      @Override
+      public Spliterator<E> spliterator() {
+        return CollectSpliterators.filter(set1.spliterator(), set2::contains);
+      }
+
       @Override
       public Stream<E> stream() {
         return set1.stream().filter(set2::contains);
@@ -952,6 +972,11 @@ public final class Sets {
         };
       }
 
+      @Override
+      public Spliterator<E> spliterator() {
+        return CollectSpliterators.filter(set1.spliterator(), e -> !set2.contains(e));
+      }
+
       @Override
       public Stream<E> stream() {
         return set1.stream().filter(e -> !set2.contains(e));
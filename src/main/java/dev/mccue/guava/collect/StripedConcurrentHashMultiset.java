@@ -0,0 +1,632 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.base.Preconditions.checkState;
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static dev.mccue.guava.collect.Lists.newArrayListWithExpectedSize;
+import static dev.mccue.guava.collect.Maps.safeGet;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+import dev.mccue.guava.collect.Serialization.FieldSetter;
+import dev.mccue.guava.primitives.Ints;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ObjIntConsumer;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A concurrent multiset whose counts are kept in striped cells, like those of {@code LongAdder},
+ * rather than in a single atomic integer per element, for write-heavy counting workloads in which
+ * many threads add occurrences of the same few elements. Null elements are not supported.
+ * Instances are obtained from {@code ConcurrentHashMultiset#createStriped()}.
+ *
+ * <p>Adding occurrences through {@code #increment} never retries: each thread updates its own
+ * cell, so hot elements do not turn into a compare-and-set loop as they do in {@code
+ * ConcurrentHashMultiset}. The price is that reads are sums over those cells:
+ *
+ * <ul>
+ *   <li>{@code #count}, {@code #size} and the views are weakly consistent; they reflect some, but
+ *       not necessarily all, of the updates that are concurrent with them.
+ *   <li>{@code #add(Object, int)}, {@code #remove(Object, int)} and {@code #setCount(Object, int)}
+ *       return estimates of the previous count, and the conditional {@code #setCount(Object, int,
+ *       int)} is not atomic.
+ *   <li>Removals are not atomic with respect to each other. Concurrent removals of the same element
+ *       may together remove more occurrences than were present; the count then reads as zero until
+ *       enough occurrences are added back.
+ *   <li>Counts are kept as {@code long} values and reported saturated to {@code Integer#MAX_VALUE}
+ *       instead of overflowing.
+ * </ul>
+ *
+ * <p>Counting workloads typically publish their totals periodically. {@code #drain()} returns the
+ * counts accumulated since the previous drain and resets them, without losing any occurrence that
+ * is added concurrently: each one is reported by exactly one drain.
+ */
+@ElementTypesAreNonnullByDefault
+public final class StripedConcurrentHashMultiset<E> extends AbstractMultiset<E>
+    implements Serializable {
+
+  /*
+   * Each element maps to a StripedCounter. A counter is only ever removed from the map by drain()
+   * (for elements that saw no updates during the last interval) or by clear(), and both empty it
+   * before removing it. Since a writer might have looked the counter up just before that removal,
+   * every write rechecks the map afterwards; if its counter has been retired, it moves whatever the
+   * counter still holds, which is at most what was added concurrently, into the live one.
+   * StripedCounter.sumThenReset() empties each cell with a single getAndSet, so it hands every
+   * value added to a cell to exactly one caller, and every occurrence ends up in exactly one place.
+   * LongAdder.sumThenReset() reads and then resets each cell, losing any update in between, so it
+   * cannot be used here.
+   */
+
+  /** The number of occurrences of each element. */
+  private final transient ConcurrentMap<E, StripedCounter> countMap;
+
+  // This constant allows the deserialization code to set a final field. This holder class
+  // makes sure it is not initialized unless an instance is deserialized.
+  private static class FieldSettersHolder {
+    static final FieldSetter<? super StripedConcurrentHashMultiset<?>> COUNT_MAP_FIELD_SETTER =
+        Serialization.getFieldSetter(StripedConcurrentHashMultiset.class, "countMap");
+  }
+
+  StripedConcurrentHashMultiset() {
+    this.countMap = new ConcurrentHashMap<>();
+  }
+
+  // Query Operations
+
+  /**
+   * Returns the number of occurrences of {@code element} in this multiset, saturated to {@code
+   * Integer#MAX_VALUE}.
+   *
+   * <p>Updates that are concurrent with this method may or may not be reflected in the result.
+   *
+   * @param element the element to look for
+   * @return the nonnegative number of occurrences of the element
+   */
+  @Override
+  public int count(@CheckForNull Object element) {
+    StripedCounter counter = safeGet(countMap, element);
+    return (counter == null) ? 0 : toCount(counter.sum());
+  }
+
+  @Override
+  public void forEachEntry(ObjIntConsumer<? super E> action) {
+    checkNotNull(action);
+    countMap.forEach(
+        (element, counter) -> {
+          long count = counter.sum();
+          if (count > 0) {
+            action.accept(element, toCount(count));
+          }
+        });
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If the data in the multiset is modified by any other threads during this method, it is
+   * undefined which (if any) of these modifications will be reflected in the result.
+   */
+  @Override
+  public int size() {
+    long sum = 0L;
+    for (StripedCounter counter : countMap.values()) {
+      sum += Math.max(0L, counter.sum());
+    }
+    return Ints.saturatedCast(sum);
+  }
+
+  /*
+   * Note: the superclass toArray() methods assume that size() gives a correct
+   * answer, which ours does not.
+   */
+
+  @Override
+  public Object[] toArray() {
+    return snapshot().toArray();
+  }
+
+  @Override
+  @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+  public <T extends @Nullable Object> T[] toArray(T[] array) {
+    return snapshot().toArray(array);
+  }
+
+  private List<E> snapshot() {
+    List<E> list = newArrayListWithExpectedSize(size());
+    for (Multiset.Entry<E> entry : entrySet()) {
+      E element = entry.getElement();
+      for (int i = entry.getCount(); i > 0; i--) {
+        list.add(element);
+      }
+    }
+    return list;
+  }
+
+  // Modification Operations
+
+  /**
+   * Adds a single occurrence of {@code element}. Unlike {@code #add(Object)}, this does not read
+   * the current count, so it never contends with other writers.
+   *
+   * @param element the element to add
+   */
+  public void increment(E element) {
+    addToLiveCounter(checkNotNull(element), 1L);
+  }
+
+  /**
+   * Adds {@code occurrences} occurrences of {@code element}. Unlike {@code #add(Object, int)}, this
+   * does not read the current count, so it never contends with other writers.
+   *
+   * @param element the element to add
+   * @param occurrences the number of occurrences to add
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  public void increment(E element, long occurrences) {
+    checkNotNull(element);
+    checkNonnegative(occurrences, "occurrences");
+    if (occurrences > 0) {
+      addToLiveCounter(element, occurrences);
+    }
+  }
+
+  /**
+   * Adds a number of occurrences of the specified element to this multiset.
+   *
+   * <p>The return value is computed after the update, and may reflect concurrent updates as well.
+   * Prefer {@code #increment} when it is not needed.
+   *
+   * @param element the element to add
+   * @param occurrences the number of occurrences to add
+   * @return an estimate of the count of the element before the operation; possibly zero
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int add(E element, int occurrences) {
+    checkNotNull(element);
+    if (occurrences == 0) {
+      return count(element);
+    }
+    CollectPreconditions.checkPositive(occurrences, "occurrences");
+    StripedCounter counter = addToLiveCounter(element, occurrences);
+    return toCount(counter.sum() - occurrences);
+  }
+
+  /**
+   * Removes a number of occurrences of the specified element from this multiset. If the multiset
+   * contains fewer than this number of occurrences to begin with, all occurrences will be removed.
+   *
+   * <p>This is not atomic: concurrent removals of the same element may remove more occurrences
+   * than were present.
+   *
+   * @param element the element whose occurrences should be removed
+   * @param occurrences the number of occurrences of the element to remove
+   * @return an estimate of the count of the element before the operation; possibly zero
+   * @throws IllegalArgumentException if {@code occurrences} is negative
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int remove(@CheckForNull Object element, int occurrences) {
+    if (occurrences == 0) {
+      return count(element);
+    }
+    CollectPreconditions.checkPositive(occurrences, "occurrences");
+
+    StripedCounter counter = safeGet(countMap, element);
+    if (counter == null) {
+      return 0;
+    }
+    long oldValue = counter.sum();
+    if (oldValue <= 0) {
+      return 0;
+    }
+    @SuppressWarnings("unchecked") // it's in the map, must be an "E"
+    E castElement = (E) element;
+    addToLiveCounter(castElement, -min(oldValue, occurrences));
+    return toCount(oldValue);
+  }
+
+  /**
+   * Adds or removes occurrences of {@code element} such that the {@code #count} of the element
+   * becomes {@code count}. Occurrences added concurrently with this method are either replaced by
+   * it or added on top of {@code count}.
+   *
+   * @return an estimate of the count of {@code element} in the multiset before this call
+   * @throws IllegalArgumentException if {@code count} is negative
+   */
+  @CanIgnoreReturnValue
+  @Override
+  public int setCount(E element, int count) {
+    checkNotNull(element);
+    checkNonnegative(count, "count");
+    StripedCounter counter = safeGet(countMap, element);
+    if (counter == null) {
+      if (count != 0) {
+        addToLiveCounter(element, count);
+      }
+      return 0;
+    }
+    long oldValue = counter.sumThenReset();
+    long delta = count;
+    if (countMap.get(element) != counter) {
+      // Retired while we were resetting it, so whatever it still holds must be moved over too.
+      delta += counter.sumThenReset();
+    }
+    if (delta != 0) {
+      addToLiveCounter(element, delta);
+    }
+    return toCount(oldValue);
+  }
+
+  /**
+   * Adds {@code delta} to the counter that is currently mapped to {@code element}, creating one if
+   * needed, and returns the counter that was updated.
+   */
+  @CanIgnoreReturnValue
+  private StripedCounter addToLiveCounter(E element, long delta) {
+    while (true) {
+      StripedCounter counter = countMap.get(element);
+      if (counter == null) {
+        counter = new StripedCounter();
+        StripedCounter existing = countMap.putIfAbsent(element, counter);
+        if (existing != null) {
+          counter = existing;
+        }
+      }
+      counter.add(delta);
+      if (countMap.get(element) == counter) {
+        return counter;
+      }
+      // The counter was retired by drain() or clear(), possibly after our update. Whoever resets it
+      // first gets our occurrences; if that's us, carry them over to the live counter.
+      delta = counter.sumThenReset();
+      if (delta == 0) {
+        return counter;
+      }
+    }
+  }
+
+  private static int toCount(long value) {
+    return (value <= 0) ? 0 : Ints.saturatedCast(value);
+  }
+
+  /**
+   * Returns the occurrences added since the previous call to this method (or since this multiset
+   * was created), and resets every count to zero.
+   *
+   * <p>No occurrence is lost or reported twice: an occurrence added concurrently with this method
+   * is reported either by this call or by the next one. Net negative counts, which can only arise
+   * from removing occurrences that were reported by an earlier drain, are discarded. Counts are
+   * saturated to {@code Integer#MAX_VALUE}.
+   *
+   * <p>Elements that received no updates since the previous drain are removed from the backing
+   * map, so the multiset does not grow without bound when the set of elements changes over time.
+   */
+  public ImmutableMultiset<E> drain() {
+    ImmutableMultiset.Builder<E> builder = ImmutableMultiset.builder();
+    for (Map.Entry<E, StripedCounter> entry : countMap.entrySet()) {
+      E element = entry.getKey();
+      StripedCounter counter = entry.getValue();
+      long count = counter.sumThenReset();
+      if (count == 0 && countMap.remove(element, counter)) {
+        // Writers that found the counter before we removed it may still update it.
+        count = counter.sumThenReset();
+      }
+      if (count > 0) {
+        builder.addCopies(element, Ints.saturatedCast(count));
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Returns an immutable copy of this multiset, which must not be modified during the copy.
+   *
+   * @throws IllegalArgumentException if an element has more than {@code Integer#MAX_VALUE}
+   *     occurrences
+   */
+  ImmutableMultiset<E> toImmutableMultiset() {
+    ImmutableMultiset.Builder<E> builder = ImmutableMultiset.builder();
+    countMap.forEach(
+        (element, counter) -> {
+          long count = counter.sum();
+          if (count > 0) {
+            builder.addCopies(element, Ints.checkedCast(count));
+          }
+        });
+    return builder.build();
+  }
+
+  // Views
+
+  @Override
+  Iterator<E> elementIterator() {
+    return Multisets.elementIterator(entryIterator());
+  }
+
+  @Override
+  int distinctElements() {
+    int distinct = 0;
+    for (StripedCounter counter : countMap.values()) {
+      if (counter.sum() > 0) {
+        distinct++;
+      }
+    }
+    return distinct;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    for (StripedCounter counter : countMap.values()) {
+      if (counter.sum() > 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  Iterator<Entry<E>> entryIterator() {
+    Iterator<Entry<E>> readOnlyIterator =
+        new AbstractIterator<Entry<E>>() {
+          private final Iterator<Map.Entry<E, StripedCounter>> mapEntries =
+              countMap.entrySet().iterator();
+
+          @Override
+          @CheckForNull
+          protected Entry<E> computeNext() {
+            while (true) {
+              if (!mapEntries.hasNext()) {
+                return endOfData();
+              }
+              Map.Entry<E, StripedCounter> mapEntry = mapEntries.next();
+              long count = mapEntry.getValue().sum();
+              if (count > 0) {
+                return Multisets.immutableEntry(mapEntry.getKey(), Ints.saturatedCast(count));
+              }
+            }
+          }
+        };
+
+    return new ForwardingIterator<Entry<E>>() {
+      @CheckForNull private Entry<E> last;
+
+      @Override
+      protected Iterator<Entry<E>> delegate() {
+        return readOnlyIterator;
+      }
+
+      @Override
+      public Entry<E> next() {
+        last = super.next();
+        return last;
+      }
+
+      @Override
+      public void remove() {
+        checkState(last != null, "no calls to next() since the last call to remove()");
+        StripedConcurrentHashMultiset.this.setCount(last.getElement(), 0);
+        last = null;
+      }
+    };
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return Multisets.iteratorImpl(this);
+  }
+
+  /**
+   * Removes all occurrences from this multiset. Occurrences added concurrently with this method
+   * may or may not survive it.
+   */
+  @Override
+  public void clear() {
+    for (Map.Entry<E, StripedCounter> entry : countMap.entrySet()) {
+      StripedCounter counter = entry.getValue();
+      counter.sumThenReset();
+      if (countMap.remove(entry.getKey(), counter)) {
+        // Writers that found the counter before we removed it may still update it.
+        counter.sumThenReset();
+      }
+    }
+  }
+
+  @Override
+  Set<Entry<E>> createEntrySet() {
+    return new EntrySet();
+  }
+
+  private class EntrySet extends AbstractMultiset<E>.EntrySet {
+    /*
+     * Note: the superclass toArray() methods assume that size() gives a correct
+     * answer, which ours does not.
+     */
+
+    @Override
+    public Object[] toArray() {
+      return snapshot().toArray();
+    }
+
+    @Override
+    @SuppressWarnings("nullness") // b/192354773 in our checker affects toArray declarations
+    public <T extends @Nullable Object> T[] toArray(T[] array) {
+      return snapshot().toArray(array);
+    }
+
+    private List<Multiset.Entry<E>> snapshot() {
+      List<Multiset.Entry<E>> list = newArrayListWithExpectedSize(size());
+      // Not Iterables.addAll(list, this), because that'll forward right back here.
+      Iterators.addAll(list, iterator());
+      return list;
+    }
+  }
+
+  /**
+   * @serialData the number of distinct elements, the first element, its count, the second element,
+   *     its count, and so on
+   */
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    // Write a snapshot, so that the number of entries matches the entries that follow it.
+    Serialization.writeMultiset(ImmutableMultiset.copyOf(this), stream);
+  }
+
+  // serialization
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    FieldSettersHolder.COUNT_MAP_FIELD_SETTER.set(this, new ConcurrentHashMap<E, StripedCounter>());
+    Serialization.populateMultiset(this, stream);
+  }
+
+  /**
+   * A counter that, like {@code LongAdder}, spreads contended updates over several cells, but whose
+   * {@code sumThenReset} is exact: each cell is emptied with one atomic {@code getAndSet}, so every
+   * value added is returned by exactly one reset. Until updates contend, it is a single atomic
+   * long. Like {@code LongAdder}, it starts with two cells and doubles their number only while
+   * updates keep contending, so that counters of rarely contended elements stay small.
+   */
+  private static final class StripedCounter {
+    /** The maximum number of cells, the number of CPUs rounded up to a power of two. */
+    private static final int MAX_CELLS =
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    private final AtomicLong base = new AtomicLong();
+
+    /*
+     * Cells are created on demand and, once created, keep their index when the array grows, so
+     * every value added to a cell remains visible to later resets. The array only grows and cells
+     * are only created while holding the lock on this counter.
+     */
+    @CheckForNull private volatile AtomicReferenceArray<AtomicLong> cells;
+
+    void add(long delta) {
+      AtomicReferenceArray<AtomicLong> cells = this.cells;
+      if (cells == null) {
+        long value = base.get();
+        if (base.compareAndSet(value, value + delta)) {
+          return;
+        }
+        cells = growCells(null);
+      }
+      int hash = threadHash();
+      AtomicLong cell = cellFor(cells, hash);
+      long value = cell.get();
+      if (!cell.compareAndSet(value, value + delta)) {
+        // Contended: the next update from this thread will most likely use a cell of its own.
+        if (cells.length() < MAX_CELLS) {
+          growCells(cells);
+        }
+        cell.getAndAdd(delta);
+      }
+    }
+
+    private AtomicLong cellFor(AtomicReferenceArray<AtomicLong> cells, int hash) {
+      int index = hash & (cells.length() - 1);
+      AtomicLong cell = cells.get(index);
+      return (cell != null) ? cell : createCell(index);
+    }
+
+    private synchronized AtomicLong createCell(int index) {
+      // The array may have grown since the caller read it, but cells keep their index.
+      AtomicReferenceArray<AtomicLong> cells = requireNonNull(this.cells);
+      AtomicLong cell = cells.get(index);
+      if (cell == null) {
+        cell = new AtomicLong();
+        cells.set(index, cell);
+      }
+      return cell;
+    }
+
+    /**
+     * Replaces {@code expected} with an array twice its size that holds the same cells, or creates
+     * the initial array if {@code expected} is null. Does nothing if another thread got there
+     * first.
+     */
+    @CanIgnoreReturnValue
+    private synchronized AtomicReferenceArray<AtomicLong> growCells(
+        @CheckForNull AtomicReferenceArray<AtomicLong> expected) {
+      AtomicReferenceArray<AtomicLong> cells = this.cells;
+      if (cells != expected) {
+        return requireNonNull(cells);
+      }
+      if (cells == null) {
+        cells = new AtomicReferenceArray<>(min(2, MAX_CELLS));
+      } else {
+        AtomicReferenceArray<AtomicLong> grown = new AtomicReferenceArray<>(cells.length() * 2);
+        for (int i = 0; i < cells.length(); i++) {
+          grown.set(i, cells.get(i));
+        }
+        cells = grown;
+      }
+      this.cells = cells;
+      return cells;
+    }
+
+    private static int threadHash() {
+      return Hashing.smear(Long.hashCode(Thread.currentThread().getId()));
+    }
+
+    /** Returns the current sum, which may miss concurrent updates. */
+    long sum() {
+      long sum = base.get();
+      AtomicReferenceArray<AtomicLong> cells = this.cells;
+      if (cells != null) {
+        for (int i = 0; i < cells.length(); i++) {
+          AtomicLong cell = cells.get(i);
+          if (cell != null) {
+            sum += cell.get();
+          }
+        }
+      }
+      return sum;
+    }
+
+    /** Returns the sum of the values added since the last reset, and removes them. */
+    long sumThenReset() {
+      long sum = base.getAndSet(0);
+      AtomicReferenceArray<AtomicLong> cells = this.cells;
+      if (cells != null) {
+        for (int i = 0; i < cells.length(); i++) {
+          AtomicLong cell = cells.get(i);
+          if (cell != null) {
+            sum += cell.getAndSet(0);
+          }
+        }
+      }
+      return sum;
+    }
+  }
+
+  private static final long serialVersionUID = 1;
+}
@@ -0,0 +1,560 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+import static dev.mccue.guava.collect.Hashing.smearedHash;
+import static dev.mccue.guava.collect.NullnessCasts.unsafeNull;
+import static dev.mccue.guava.collect.SwissHashing.DELETED;
+import static dev.mccue.guava.collect.SwissHashing.EMPTY;
+import static dev.mccue.guava.collect.SwissHashing.GROUP_SHIFT;
+import static dev.mccue.guava.collect.SwissHashing.GROUP_SIZE;
+import static dev.mccue.guava.collect.SwissHashing.controlByte;
+import static dev.mccue.guava.collect.SwissHashing.findInsertSlot;
+import static dev.mccue.guava.collect.SwissHashing.firstGroup;
+import static dev.mccue.guava.collect.SwissHashing.lowestSlot;
+import static dev.mccue.guava.collect.SwissHashing.matchEmpty;
+import static dev.mccue.guava.collect.SwissHashing.matchFull;
+import static dev.mccue.guava.collect.SwissHashing.matchTag;
+import static dev.mccue.guava.collect.SwissHashing.setControlByte;
+import static dev.mccue.guava.collect.SwissHashing.tag;
+
+import dev.mccue.guava.base.Objects;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.errorprone.annotations.concurrent.LazyInit;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * SwissHashMap is an implementation of a Map based on a Swiss table: an open-addressed hash table
+ * whose slots carry one control byte each, holding seven bits of the hash of the key in the slot.
+ * Lookups examine the control bytes of eight slots at a time with word-parallel arithmetic and
+ * compare keys only where those bits match, so a miss usually compares no keys at all. All
+ * optional operations (put and remove) are supported. Null keys and values are supported.
+ *
+ * <p>{@code containsKey(k)}, {@code put(k, v)} and {@code remove(k)} are all (expected and
+ * amortized) constant time operations. Like {@code CompactHashMap}, this class uses a constant
+ * number of internal objects; unlike it, iteration is proportional to the capacity of the table
+ * rather than to {@code size()}, and iteration order is unspecified.
+ *
+ * <p>Entries never move except when the table is rebuilt to grow or to purge the markers left by
+ * removals, so removing through an iterator does not disturb the iteration.
+ *
+ * <p>This class should not be assumed to be universally superior to {@code java.util.HashMap} or
+ * {@code CompactHashMap}. It pays off for lookup-heavy workloads with many misses, or with keys
+ * whose {@code equals} is expensive.
+ */
+@ElementTypesAreNonnullByDefault
+class SwissHashMap<K extends @Nullable Object, V extends @Nullable Object>
+    extends AbstractMap<K, V> implements Serializable {
+
+  /** Creates an empty {@code SwissHashMap} instance. */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      SwissHashMap<K, V> create() {
+    return new SwissHashMap<>(0);
+  }
+
+  /**
+   * Creates a {@code SwissHashMap} instance, with a high enough "initial capacity" that it
+   * <i>should</i> hold {@code expectedSize} elements without growth.
+   *
+   * @param expectedSize the number of elements you expect to add to the returned map
+   * @return a new, empty {@code SwissHashMap} with enough capacity to hold {@code expectedSize}
+   *     elements without resizing
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static <K extends @Nullable Object, V extends @Nullable Object>
+      SwissHashMap<K, V> createWithExpectedSize(int expectedSize) {
+    return new SwissHashMap<>(expectedSize);
+  }
+
+  /** One control byte per slot, packed eight to a {@code long}. */
+  private transient long[] control;
+
+  private transient @Nullable Object[] keys;
+
+  private transient @Nullable Object[] values;
+
+  private transient int size;
+
+  /** The number of empty slots that may still be filled before the table must be rebuilt. */
+  private transient int growthLeft;
+
+  private transient int modCount;
+
+  SwissHashMap(int expectedSize) {
+    allocArrays(SwissHashing.groupsFor(expectedSize));
+  }
+
+  private void allocArrays(int groups) {
+    control = SwissHashing.newControl(groups);
+    keys = new Object[groups << GROUP_SHIFT];
+    values = new Object[groups << GROUP_SHIFT];
+    growthLeft = SwissHashing.maxLoad(groups);
+  }
+
+  /** Returns the slot holding {@code key}, or -1. */
+  private int slotOf(@CheckForNull Object key) {
+    int hash = smearedHash(key);
+    int tag = tag(hash);
+    long[] control = this.control;
+    int groupMask = control.length - 1;
+    int group = firstGroup(hash, groupMask);
+    for (int step = 1; ; step++) {
+      long word = control[group];
+      for (long match = matchTag(word, tag); match != 0; match &= match - 1) {
+        int slot = (group << GROUP_SHIFT) | lowestSlot(match);
+        if (Objects.equal(key, keys[slot])) {
+          return slot;
+        }
+      }
+      if (matchEmpty(word) != 0) {
+        return -1;
+      }
+      group = (group + step) & groupMask;
+    }
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  @CheckForNull
+  public V put(@ParametricNullness K key, @ParametricNullness V value) {
+    int slot = slotOf(key);
+    if (slot >= 0) {
+      V oldValue = value(slot);
+      values[slot] = value;
+      return oldValue;
+    }
+    int hash = smearedHash(key);
+    slot = findInsertSlot(control, hash);
+    if (controlByte(control, slot) == EMPTY) {
+      if (growthLeft == 0) {
+        rehash();
+        slot = findInsertSlot(control, hash);
+      }
+      growthLeft--;
+    }
+    setControlByte(control, slot, (byte) tag(hash));
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    modCount++;
+    return null;
+  }
+
+  /**
+   * Rebuilds the table to make room for one more element: at twice the capacity, or at the same
+   * capacity if removals have left enough deleted slots that purging them frees a quarter of it.
+   */
+  private void rehash() {
+    int groups = control.length;
+    if (size >= SwissHashing.maxLoad(groups) - (groups << (GROUP_SHIFT - 2))) {
+      if (groups == SwissHashing.MAX_GROUPS) {
+        throw new IllegalStateException("SwissHashMap cannot hold more than 2^30 slots");
+      }
+      groups *= 2;
+    }
+    long[] oldControl = control;
+    @Nullable Object[] oldKeys = keys;
+    @Nullable Object[] oldValues = values;
+    allocArrays(groups);
+    for (int group = 0; group < oldControl.length; group++) {
+      for (long match = matchFull(oldControl[group]); match != 0; match &= match - 1) {
+        int oldSlot = (group << GROUP_SHIFT) | lowestSlot(match);
+        int hash = smearedHash(oldKeys[oldSlot]);
+        int slot = findInsertSlot(control, hash);
+        setControlByte(control, slot, (byte) tag(hash));
+        keys[slot] = oldKeys[oldSlot];
+        values[slot] = oldValues[oldSlot];
+      }
+    }
+    growthLeft -= size;
+    modCount++;
+  }
+
+  @Override
+  public boolean containsKey(@CheckForNull Object key) {
+    return slotOf(key) >= 0;
+  }
+
+  @Override
+  @CheckForNull
+  public V get(@CheckForNull Object key) {
+    int slot = slotOf(key);
+    return (slot < 0) ? null : value(slot);
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  @CheckForNull
+  public V remove(@CheckForNull Object key) {
+    int slot = slotOf(key);
+    if (slot < 0) {
+      return null;
+    }
+    V oldValue = value(slot);
+    removeSlot(slot);
+    return oldValue;
+  }
+
+  private void removeSlot(int slot) {
+    // A probe never passes a group with an empty slot, so no probe needs this slot kept occupied.
+    if (matchEmpty(control[slot >>> GROUP_SHIFT]) != 0) {
+      setControlByte(control, slot, EMPTY);
+      growthLeft++;
+    } else {
+      setControlByte(control, slot, DELETED);
+    }
+    keys[slot] = null;
+    values[slot] = null;
+    size--;
+    modCount++;
+  }
+
+  /** Returns the first full slot at or after {@code slot}, or -1. */
+  private int nextFullSlot(int slot) {
+    long[] control = this.control;
+    int group = slot >>> GROUP_SHIFT;
+    if (group >= control.length) {
+      return -1;
+    }
+    // Discard the bytes of the first group that come before the slot.
+    long match = matchFull(control[group]) & (-1L << ((slot & (GROUP_SIZE - 1)) << 3));
+    while (match == 0) {
+      if (++group == control.length) {
+        return -1;
+      }
+      match = matchFull(control[group]);
+    }
+    return (group << GROUP_SHIFT) | lowestSlot(match);
+  }
+
+  private abstract class Itr<T extends @Nullable Object> implements Iterator<T> {
+    int expectedModCount = modCount;
+    int nextSlot = nextFullSlot(0);
+    int slotToRemove = -1;
+
+    @Override
+    public boolean hasNext() {
+      return nextSlot >= 0;
+    }
+
+    @ParametricNullness
+    abstract T getOutput(int slot);
+
+    @Override
+    @ParametricNullness
+    public T next() {
+      checkForConcurrentModification();
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      slotToRemove = nextSlot;
+      T result = getOutput(nextSlot);
+      nextSlot = nextFullSlot(nextSlot + 1);
+      return result;
+    }
+
+    @Override
+    public void remove() {
+      checkForConcurrentModification();
+      checkRemove(slotToRemove >= 0);
+      removeSlot(slotToRemove);
+      expectedModCount = modCount;
+      slotToRemove = -1;
+    }
+
+    private void checkForConcurrentModification() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+    }
+  }
+
+  @Override
+  public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+    checkNotNull(function);
+    for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+      values[slot] = function.apply(key(slot), value(slot));
+    }
+  }
+
+  @Override
+  public void forEach(BiConsumer<? super K, ? super V> action) {
+    checkNotNull(action);
+    for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+      action.accept(key(slot), value(slot));
+    }
+  }
+
+  @LazyInit @CheckForNull private transient Set<K> keySetView;
+
+  @Override
+  public Set<K> keySet() {
+    return (keySetView == null) ? keySetView = new KeySetView() : keySetView;
+  }
+
+  class KeySetView extends Maps.KeySet<K, V> {
+    KeySetView() {
+      super(SwissHashMap.this);
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object o) {
+      int slot = slotOf(o);
+      if (slot < 0) {
+        return false;
+      }
+      removeSlot(slot);
+      return true;
+    }
+
+    @Override
+    public Iterator<K> iterator() {
+      return new Itr<K>() {
+        @Override
+        @ParametricNullness
+        K getOutput(int slot) {
+          return key(slot);
+        }
+      };
+    }
+
+    @Override
+    public void forEach(Consumer<? super K> action) {
+      checkNotNull(action);
+      for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+        action.accept(key(slot));
+      }
+    }
+  }
+
+  @LazyInit @CheckForNull private transient Set<Entry<K, V>> entrySetView;
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return (entrySetView == null) ? entrySetView = new EntrySetView() : entrySetView;
+  }
+
+  class EntrySetView extends Maps.EntrySet<K, V> {
+    @Override
+    Map<K, V> map() {
+      return SwissHashMap.this;
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+      return new Itr<Entry<K, V>>() {
+        @Override
+        Entry<K, V> getOutput(int slot) {
+          return new MapEntry(slot);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(@CheckForNull Object o) {
+      if (o instanceof Entry) {
+        Entry<?, ?> entry = (Entry<?, ?>) o;
+        int slot = slotOf(entry.getKey());
+        return slot >= 0 && Objects.equal(value(slot), entry.getValue());
+      }
+      return false;
+    }
+
+    @Override
+    public boolean remove(@CheckForNull Object o) {
+      if (o instanceof Entry) {
+        Entry<?, ?> entry = (Entry<?, ?>) o;
+        int slot = slotOf(entry.getKey());
+        if (slot >= 0 && Objects.equal(value(slot), entry.getValue())) {
+          removeSlot(slot);
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  final class MapEntry extends AbstractMapEntry<K, V> {
+    @ParametricNullness private final K key;
+
+    private int lastKnownSlot;
+
+    MapEntry(int slot) {
+      this.key = key(slot);
+      this.lastKnownSlot = slot;
+    }
+
+    @Override
+    @ParametricNullness
+    public K getKey() {
+      return key;
+    }
+
+    private void updateLastKnownSlot() {
+      if (lastKnownSlot == -1
+          || lastKnownSlot >= keys.length
+          || controlByte(control, lastKnownSlot) < 0
+          || !Objects.equal(key, key(lastKnownSlot))) {
+        lastKnownSlot = slotOf(key);
+      }
+    }
+
+    @Override
+    @ParametricNullness
+    public V getValue() {
+      updateLastKnownSlot();
+      // As in CompactHashMap, an entry removed from the map through another API reads as null.
+      return (lastKnownSlot == -1) ? unsafeNull() : value(lastKnownSlot);
+    }
+
+    @Override
+    @ParametricNullness
+    public V setValue(@ParametricNullness V value) {
+      updateLastKnownSlot();
+      if (lastKnownSlot == -1) {
+        put(key, value);
+        return unsafeNull(); // See discussion in getValue().
+      } else {
+        V old = value(lastKnownSlot);
+        values[lastKnownSlot] = value;
+        return old;
+      }
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public boolean containsValue(@CheckForNull Object value) {
+    for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+      if (Objects.equal(value, values[slot])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @LazyInit @CheckForNull private transient Collection<V> valuesView;
+
+  @Override
+  public Collection<V> values() {
+    return (valuesView == null) ? valuesView = new ValuesView() : valuesView;
+  }
+
+  class ValuesView extends Maps.Values<K, V> {
+    ValuesView() {
+      super(SwissHashMap.this);
+    }
+
+    @Override
+    public Iterator<V> iterator() {
+      return new Itr<V>() {
+        @Override
+        @ParametricNullness
+        V getOutput(int slot) {
+          return value(slot);
+        }
+      };
+    }
+
+    @Override
+    public void forEach(Consumer<? super V> action) {
+      checkNotNull(action);
+      for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+        action.accept(value(slot));
+      }
+    }
+  }
+
+  @Override
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    modCount++;
+    Arrays.fill(control, SwissHashing.EMPTY_GROUP);
+    Arrays.fill(keys, null);
+    Arrays.fill(values, null);
+    growthLeft = SwissHashing.maxLoad(control.length);
+    size = 0;
+  }
+
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeInt(size);
+    for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+      stream.writeObject(keys[slot]);
+      stream.writeObject(values[slot]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int elementCount = stream.readInt();
+    if (elementCount < 0 || elementCount > SwissHashing.MAX_SIZE) {
+      throw new InvalidObjectException("Invalid size: " + elementCount);
+    }
+    allocArrays(SwissHashing.groupsFor(elementCount));
+    for (int i = 0; i < elementCount; i++) {
+      K key = (K) stream.readObject();
+      V value = (V) stream.readObject();
+      put(key, value);
+    }
+  }
+
+  /*
+   * The following methods are safe to call on full slots: we put only K/V elements into each array.
+   */
+
+  @SuppressWarnings("unchecked")
+  private K key(int slot) {
+    return (K) keys[slot];
+  }
+
+  @SuppressWarnings("unchecked")
+  private V value(int slot) {
+    return (V) values[slot];
+  }
+}
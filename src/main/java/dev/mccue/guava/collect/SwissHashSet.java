@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.base.Preconditions.checkNotNull;
+import static dev.mccue.guava.collect.CollectPreconditions.checkRemove;
+import static dev.mccue.guava.collect.Hashing.smearedHash;
+import static dev.mccue.guava.collect.SwissHashing.DELETED;
+import static dev.mccue.guava.collect.SwissHashing.EMPTY;
+import static dev.mccue.guava.collect.SwissHashing.GROUP_SHIFT;
+import static dev.mccue.guava.collect.SwissHashing.GROUP_SIZE;
+import static dev.mccue.guava.collect.SwissHashing.controlByte;
+import static dev.mccue.guava.collect.SwissHashing.findInsertSlot;
+import static dev.mccue.guava.collect.SwissHashing.firstGroup;
+import static dev.mccue.guava.collect.SwissHashing.lowestSlot;
+import static dev.mccue.guava.collect.SwissHashing.matchEmpty;
+import static dev.mccue.guava.collect.SwissHashing.matchFull;
+import static dev.mccue.guava.collect.SwissHashing.matchTag;
+import static dev.mccue.guava.collect.SwissHashing.setControlByte;
+import static dev.mccue.guava.collect.SwissHashing.tag;
+
+import dev.mccue.guava.base.Objects;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import dev.mccue.jsr305.CheckForNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * SwissHashSet is an implementation of a Set based on a Swiss table, the set counterpart of {@code
+ * SwissHashMap}. All optional operations (adding and removing) are supported. The elements can be
+ * any objects.
+ *
+ * <p>{@code contains(x)}, {@code add(x)} and {@code remove(x)} are all (expected and amortized)
+ * constant time operations. The set consists of one array of elements and one {@code long} of
+ * control bytes per eight of them, and {@code add(x)} creates no objects. Iteration is
+ * proportional to the capacity of the table, and its order is unspecified.
+ *
+ * <p>This class should not be assumed to be universally superior to {@code java.util.HashSet} or
+ * {@code CompactHashSet}. It pays off for lookup-heavy workloads with many misses, or with elements
+ * whose {@code equals} is expensive.
+ */
+@ElementTypesAreNonnullByDefault
+class SwissHashSet<E extends @Nullable Object> extends AbstractSet<E> implements Serializable {
+
+  /** Creates an empty {@code SwissHashSet} instance. */
+  public static <E extends @Nullable Object> SwissHashSet<E> create() {
+    return new SwissHashSet<>(0);
+  }
+
+  /**
+   * Creates a <i>mutable</i> {@code SwissHashSet} instance containing the elements of the given
+   * collection in unspecified order.
+   *
+   * @param collection the elements that the set should contain
+   * @return a new {@code SwissHashSet} containing those elements (minus duplicates)
+   */
+  public static <E extends @Nullable Object> SwissHashSet<E> create(
+      Collection<? extends E> collection) {
+    SwissHashSet<E> set = createWithExpectedSize(collection.size());
+    set.addAll(collection);
+    return set;
+  }
+
+  /**
+   * Creates a <i>mutable</i> {@code SwissHashSet} instance containing the given elements in
+   * unspecified order.
+   *
+   * @param elements the elements that the set should contain
+   * @return a new {@code SwissHashSet} containing those elements (minus duplicates)
+   */
+  @SafeVarargs
+  public static <E extends @Nullable Object> SwissHashSet<E> create(E... elements) {
+    SwissHashSet<E> set = createWithExpectedSize(elements.length);
+    Collections.addAll(set, elements);
+    return set;
+  }
+
+  /**
+   * Creates a {@code SwissHashSet} instance, with a high enough "initial capacity" that it
+   * <i>should</i> hold {@code expectedSize} elements without growth.
+   *
+   * @param expectedSize the number of elements you expect to add to the returned set
+   * @return a new, empty {@code SwissHashSet} with enough capacity to hold {@code expectedSize}
+   *     elements without resizing
+   * @throws IllegalArgumentException if {@code expectedSize} is negative
+   */
+  public static <E extends @Nullable Object> SwissHashSet<E> createWithExpectedSize(
+      int expectedSize) {
+    return new SwissHashSet<>(expectedSize);
+  }
+
+  /** One control byte per slot, packed eight to a {@code long}. */
+  private transient long[] control;
+
+  private transient @Nullable Object[] elements;
+
+  private transient int size;
+
+  /** The number of empty slots that may still be filled before the table must be rebuilt. */
+  private transient int growthLeft;
+
+  private transient int modCount;
+
+  SwissHashSet(int expectedSize) {
+    allocArrays(SwissHashing.groupsFor(expectedSize));
+  }
+
+  private void allocArrays(int groups) {
+    control = SwissHashing.newControl(groups);
+    elements = new Object[groups << GROUP_SHIFT];
+    growthLeft = SwissHashing.maxLoad(groups);
+  }
+
+  /** Returns the slot holding {@code object}, or -1. */
+  private int slotOf(@CheckForNull Object object) {
+    int hash = smearedHash(object);
+    int tag = tag(hash);
+    long[] control = this.control;
+    int groupMask = control.length - 1;
+    int group = firstGroup(hash, groupMask);
+    for (int step = 1; ; step++) {
+      long word = control[group];
+      for (long match = matchTag(word, tag); match != 0; match &= match - 1) {
+        int slot = (group << GROUP_SHIFT) | lowestSlot(match);
+        if (Objects.equal(object, elements[slot])) {
+          return slot;
+        }
+      }
+      if (matchEmpty(word) != 0) {
+        return -1;
+      }
+      group = (group + step) & groupMask;
+    }
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean add(@ParametricNullness E object) {
+    if (slotOf(object) >= 0) {
+      return false;
+    }
+    int hash = smearedHash(object);
+    int slot = findInsertSlot(control, hash);
+    if (controlByte(control, slot) == EMPTY) {
+      if (growthLeft == 0) {
+        rehash();
+        slot = findInsertSlot(control, hash);
+      }
+      growthLeft--;
+    }
+    setControlByte(control, slot, (byte) tag(hash));
+    elements[slot] = object;
+    size++;
+    modCount++;
+    return true;
+  }
+
+  /**
+   * Rebuilds the table to make room for one more element: at twice the capacity, or at the same
+   * capacity if removals have left enough deleted slots that purging them frees a quarter of it.
+   */
+  private void rehash() {
+    int groups = control.length;
+    if (size >= SwissHashing.maxLoad(groups) - (groups << (GROUP_SHIFT - 2))) {
+      if (groups == SwissHashing.MAX_GROUPS) {
+        throw new IllegalStateException("SwissHashSet cannot hold more than 2^30 slots");
+      }
+      groups *= 2;
+    }
+    long[] oldControl = control;
+    @Nullable Object[] oldElements = elements;
+    allocArrays(groups);
+    for (int group = 0; group < oldControl.length; group++) {
+      for (long match = matchFull(oldControl[group]); match != 0; match &= match - 1) {
+        Object element = oldElements[(group << GROUP_SHIFT) | lowestSlot(match)];
+        int hash = smearedHash(element);
+        int slot = findInsertSlot(control, hash);
+        setControlByte(control, slot, (byte) tag(hash));
+        elements[slot] = element;
+      }
+    }
+    growthLeft -= size;
+    modCount++;
+  }
+
+  @Override
+  public boolean contains(@CheckForNull Object object) {
+    return slotOf(object) >= 0;
+  }
+
+  @CanIgnoreReturnValue
+  @Override
+  public boolean remove(@CheckForNull Object object) {
+    int slot = slotOf(object);
+    if (slot < 0) {
+      return false;
+    }
+    removeSlot(slot);
+    return true;
+  }
+
+  private void removeSlot(int slot) {
+    // A probe never passes a group with an empty slot, so no probe needs this slot kept occupied.
+    if (matchEmpty(control[slot >>> GROUP_SHIFT]) != 0) {
+      setControlByte(control, slot, EMPTY);
+      growthLeft++;
+    } else {
+      setControlByte(control, slot, DELETED);
+    }
+    elements[slot] = null;
+    size--;
+    modCount++;
+  }
+
+  /** Returns the first full slot at or after {@code slot}, or -1. */
+  private int nextFullSlot(int slot) {
+    long[] control = this.control;
+    int group = slot >>> GROUP_SHIFT;
+    if (group >= control.length) {
+      return -1;
+    }
+    // Discard the bytes of the first group that come before the slot.
+    long match = matchFull(control[group]) & (-1L << ((slot & (GROUP_SIZE - 1)) << 3));
+    while (match == 0) {
+      if (++group == control.length) {
+        return -1;
+      }
+      match = matchFull(control[group]);
+    }
+    return (group << GROUP_SHIFT) | lowestSlot(match);
+  }
+
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      int expectedModCount = modCount;
+      int nextSlot = nextFullSlot(0);
+      int slotToRemove = -1;
+
+      @Override
+      public boolean hasNext() {
+        return nextSlot >= 0;
+      }
+
+      @Override
+      @ParametricNullness
+      public E next() {
+        checkForConcurrentModification();
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        slotToRemove = nextSlot;
+        E result = element(nextSlot);
+        nextSlot = nextFullSlot(nextSlot + 1);
+        return result;
+      }
+
+      @Override
+      public void remove() {
+        checkForConcurrentModification();
+        checkRemove(slotToRemove >= 0);
+        removeSlot(slotToRemove);
+        expectedModCount = modCount;
+        slotToRemove = -1;
+      }
+
+      private void checkForConcurrentModification() {
+        if (modCount != expectedModCount) {
+          throw new ConcurrentModificationException();
+        }
+      }
+    };
+  }
+
+  @Override
+  public void forEach(Consumer<? super E> action) {
+    checkNotNull(action);
+    for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+      action.accept(element(slot));
+    }
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public void clear() {
+    if (size == 0) {
+      return;
+    }
+    modCount++;
+    Arrays.fill(control, SwissHashing.EMPTY_GROUP);
+    Arrays.fill(elements, null);
+    growthLeft = SwissHashing.maxLoad(control.length);
+    size = 0;
+  }
+
+  private void writeObject(ObjectOutputStream stream) throws IOException {
+    stream.defaultWriteObject();
+    stream.writeInt(size);
+    for (int slot = nextFullSlot(0); slot >= 0; slot = nextFullSlot(slot + 1)) {
+      stream.writeObject(elements[slot]);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(ObjectInputStream stream) throws IOException, ClassNotFoundException {
+    stream.defaultReadObject();
+    int elementCount = stream.readInt();
+    if (elementCount < 0 || elementCount > SwissHashing.MAX_SIZE) {
+      throw new InvalidObjectException("Invalid size: " + elementCount);
+    }
+    allocArrays(SwissHashing.groupsFor(elementCount));
+    for (int i = 0; i < elementCount; i++) {
+      E element = (E) stream.readObject();
+      add(element);
+    }
+  }
+
+  // Safe on full slots: we put only E elements into the array.
+  @SuppressWarnings("unchecked")
+  private E element(int slot) {
+    return (E) elements[slot];
+  }
+}
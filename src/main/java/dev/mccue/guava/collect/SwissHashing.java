@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2026 The Guava Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dev.mccue.guava.collect;
+
+import static dev.mccue.guava.collect.CollectPreconditions.checkNonnegative;
+import static java.lang.Math.max;
+
+import dev.mccue.guava.math.IntMath;
+import java.util.Arrays;
+
+/**
+ * Helper methods for the Swiss-table collections {@code SwissHashMap} and {@code SwissHashSet}.
+ *
+ * <p>Their slots are divided into groups of eight, and each slot has a control byte saying whether
+ * it is empty, deleted, or full; a full slot's control byte holds seven bits of its element's hash.
+ * The control bytes of a group are packed into one {@code long}, so a lookup compares all eight
+ * tags of a group, or finds all of its empty slots, with a handful of arithmetic operations on that
+ * word instead of one comparison per slot. Only slots whose tag matches have their keys compared.
+ *
+ * <p>A lookup starts at the group selected by the remaining hash bits and probes groups
+ * triangularly, which visits every group of a power-of-two table. It stops at the first group that
+ * has an empty slot, so removing an element leaves a deleted marker behind unless its group already
+ * has an empty slot. At most seven eighths of the slots are ever non-empty, which guarantees that
+ * every probe ends.
+ */
+@ElementTypesAreNonnullByDefault
+final class SwissHashing {
+  private SwissHashing() {}
+
+  /** The number of slots per group, and per {@code long} of control bytes. */
+  static final int GROUP_SIZE = 8;
+
+  static final int GROUP_SHIFT = 3;
+
+  static final byte EMPTY = (byte) 0x80;
+  static final byte DELETED = (byte) 0xFE;
+
+  /** A group whose slots are all empty. */
+  static final long EMPTY_GROUP = 0x8080808080808080L;
+
+  private static final long LOW_BITS = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  /** The most groups a table may have, so that its slot count is at most 2^30. */
+  static final int MAX_GROUPS = 1 << (30 - GROUP_SHIFT);
+
+  /** The most elements a table may hold. */
+  static final int MAX_SIZE = maxLoad(MAX_GROUPS);
+
+  /** Returns the seven-bit tag of {@code hash} stored in the control byte of a full slot. */
+  static int tag(int hash) {
+    return hash & 0x7F;
+  }
+
+  /** Returns the first group probed for {@code hash}, which does not depend on its tag. */
+  static int firstGroup(int hash, int groupMask) {
+    return (hash >>> 7) & groupMask;
+  }
+
+  /**
+   * Returns a word with the high bit set in each byte of {@code group} that may equal {@code tag}.
+   * There are no false negatives. A false positive can only appear in a full byte above a true
+   * match, which the caller rules out by comparing keys anyway.
+   */
+  static long matchTag(long group, int tag) {
+    long x = group ^ (LOW_BITS * tag);
+    return (x - LOW_BITS) & ~x & HIGH_BITS;
+  }
+
+  /** Returns a word with the high bit set in each empty byte of {@code group}. */
+  static long matchEmpty(long group) {
+    // EMPTY is the only control byte with its high bit set and bit 1 clear.
+    return group & (~group << 6) & HIGH_BITS;
+  }
+
+  /** Returns a word with the high bit set in each empty or deleted byte of {@code group}. */
+  static long matchEmptyOrDeleted(long group) {
+    return group & HIGH_BITS;
+  }
+
+  /** Returns a word with the high bit set in each full byte of {@code group}. */
+  static long matchFull(long group) {
+    return ~group & HIGH_BITS;
+  }
+
+  /** Returns the position within its group of the lowest slot set in a nonzero match word. */
+  static int lowestSlot(long match) {
+    return Long.numberOfTrailingZeros(match) >>> 3;
+  }
+
+  static byte controlByte(long[] control, int slot) {
+    return (byte) (control[slot >>> GROUP_SHIFT] >>> ((slot & (GROUP_SIZE - 1)) << 3));
+  }
+
+  static void setControlByte(long[] control, int slot, byte value) {
+    int shift = (slot & (GROUP_SIZE - 1)) << 3;
+    int group = slot >>> GROUP_SHIFT;
+    control[group] = (control[group] & ~(0xFFL << shift)) | ((value & 0xFFL) << shift);
+  }
+
+  /**
+   * Returns the first slot on the probe sequence of {@code hash} that is empty or deleted, where an
+   * element with that hash, known to be absent, can be inserted.
+   */
+  static int findInsertSlot(long[] control, int hash) {
+    int groupMask = control.length - 1;
+    int group = firstGroup(hash, groupMask);
+    for (int step = 1; ; step++) {
+      long match = matchEmptyOrDeleted(control[group]);
+      if (match != 0) {
+        return (group << GROUP_SHIFT) | lowestSlot(match);
+      }
+      group = (group + step) & groupMask;
+    }
+  }
+
+  /** Returns a control array of {@code groups} groups of empty slots. */
+  static long[] newControl(int groups) {
+    long[] control = new long[groups];
+    Arrays.fill(control, EMPTY_GROUP);
+    return control;
+  }
+
+  /** Returns the number of elements a table of {@code groups} groups holds before it grows. */
+  static int maxLoad(int groups) {
+    int slots = groups << GROUP_SHIFT;
+    return slots - (slots >>> 3);
+  }
+
+  /**
+   * Returns the power-of-two number of groups needed to hold {@code expectedSize} elements without
+   * growing.
+   */
+  static int groupsFor(int expectedSize) {
+    checkNonnegative(expectedSize, "expectedSize");
+    // ceil(expectedSize * 8 / 7) slots
+    long slots = ((long) expectedSize * GROUP_SIZE + GROUP_SIZE - 2) / (GROUP_SIZE - 1);
+    long groups = (slots + GROUP_SIZE - 1) >>> GROUP_SHIFT;
+    if (groups > MAX_GROUPS) {
+      throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+    }
+    return IntMath.ceilingPowerOfTwo(max(1, (int) groups));
+  }
+}
@@ -741,6 +741,34 @@ public final class Tables {
     return Synchronized.table(table, null);
   }
 
+  /**
+   * Returns a thread-safe table backed by the specified table, guarded by a read-write lock so that
+   * readers do not block each other. In order to guarantee safe access, it is critical that
+   * <b>all</b> access to the backing table is accomplished through the returned table.
+   *
+   * <p>Writes take the write lock, and queries take the read lock, which readers share, so unlike
+   * one returned by {@code #synchronizedTable}, a table that is mostly read does not serialize its
+   * readers. Rows, columns and the other views share the same lock.
+   *
+   * <p>The iterators and spliterators of the returned table's collection views run over a snapshot
+   * copied under the read lock, so they need no manual locking and do not reflect later changes.
+   *
+   * <p>Unlike {@code #synchronizedTable}, the returned table is not fully reentrant. Calls made by
+   * a thread while it holds the write lock, such as from the function passed to {@code compute} on
+   * a row, run directly, and so may call back into the table. But the {@code equals}, {@code
+   * hashCode} and {@code toString} methods of keys and values, which may run under the read lock,
+   * must not call back into the table, or they may deadlock.
+   *
+   * <p>The returned table will be serializable if the specified table is serializable.
+   *
+   * @param table the table to be wrapped in a read-write locked view
+   * @return a read-write locked view of the specified table
+   */
+  public static <R extends @Nullable Object, C extends @Nullable Object, V extends @Nullable Object>
+      Table<R, C, V> readWriteLockedTable(Table<R, C, V> table) {
+    return ReadWriteLocked.table(table, null);
+  }
+
   static boolean equalsImpl(Table<?, ?, ?> table, @CheckForNull Object obj) {
     if (obj == table) {
       return true;